@@ -45,6 +45,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import okhttp3.OkHttpClient;
@@ -58,8 +59,9 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
     private static final String TAG = AWSApiPlugin.class.getSimpleName();
 
     private final Map<String, ClientDetails> apiDetails;
-    private final GraphQLResponse.Factory gqlResponseFactory;
+    private final GsonGraphQLResponseFactory gqlResponseFactory;
     private final ApiAuthProviders authProvider;
+    private final HttpClientConfiguration httpClientConfiguration;
 
     private final Set<String> restApis;
     private final Set<String> gqlApis;
@@ -82,9 +84,25 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
      * @param apiAuthProvider configured instance of {@link ApiAuthProviders}
      */
     public AWSApiPlugin(ApiAuthProviders apiAuthProvider) {
+        this(apiAuthProvider, HttpClientConfiguration.defaults());
+    }
+
+    /**
+     * Constructs an instance of AWSApiPlugin with configured
+     * auth providers, and a tuning of its HTTP client.
+     * The clients of all APIs are derived from one process-wide
+     * client, which is tuned by the given configuration.
+     *
+     * @param apiAuthProvider configured instance of {@link ApiAuthProviders}
+     * @param httpClientConfiguration tuning of the shared HTTP client
+     */
+    public AWSApiPlugin(
+            @NonNull ApiAuthProviders apiAuthProvider,
+            @NonNull HttpClientConfiguration httpClientConfiguration) {
         this.apiDetails = new HashMap<>();
         this.gqlResponseFactory = new GsonGraphQLResponseFactory();
         this.authProvider = apiAuthProvider;
+        this.httpClientConfiguration = Objects.requireNonNull(httpClientConfiguration);
         this.restApis = new HashSet<>();
         this.gqlApis = new HashSet<>();
     }
@@ -102,18 +120,19 @@ public final class AWSApiPlugin extends ApiPlugin<Map<String, OkHttpClient>> {
 
         final InterceptorFactory interceptorFactory =
                 new AppSyncSigV4SignerInterceptorFactory(authProvider);
+        final OkHttpClient sharedClient = SharedHttpClient.forConfiguration(httpClientConfiguration);
 
         for (Map.Entry<String, ApiConfiguration> entry : pluginConfig.getApis().entrySet()) {
             final String apiName = entry.getKey();
             final ApiConfiguration apiConfiguration = entry.getValue();
             final EndpointType endpointType = apiConfiguration.getEndpointType();
-            final OkHttpClient.Builder builder = new OkHttpClient.Builder();
+            final OkHttpClient.Builder builder = sharedClient.newBuilder();
             if (apiConfiguration.getAuthorizationType() != AuthorizationType.NONE) {
                 builder.addInterceptor(interceptorFactory.create(apiConfiguration));
             }
             final OkHttpClient okHttpClient = builder.build();
             final SubscriptionEndpoint subscriptionEndpoint =
-                    new SubscriptionEndpoint(apiConfiguration, gqlResponseFactory);
+                    new SubscriptionEndpoint(apiConfiguration, gqlResponseFactory, sharedClient);
             if (EndpointType.REST.equals(endpointType)) {
                 restApis.add(apiName);
             }
@@ -18,6 +18,7 @@ package com.amplifyframework.api.aws;
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.ApiException;
 import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.PaginatedResult;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -27,7 +28,10 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -70,7 +74,7 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
         try {
             final JsonObject toJson = JsonParser.parseString(responseJson).getAsJsonObject();
             if (toJson.has("data")) {
-                jsonData = skipQueryLevel(toJson.get("data"));
+                jsonData = skipQueryLevel(toJson.get("data"), classToCast);
             }
             if (toJson.has("errors")) {
                 jsonErrors = toJson.get("errors");
@@ -98,6 +102,93 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
         }
     }
 
+    /**
+     * Builds a response containing a single data object, reading it straight from a stream
+     * of JSON, which is positioned at the start of the response object. Unless the data is
+     * wanted as a String or a JsonElement, it is deserialized without building a tree of it.
+     * The reader is left positioned after the end of the response object.
+     * @param responseReader Reader of a GraphQL response object
+     * @param classToCast The type of the data field in the response object
+     * @param <T> The type of the data field in the response object
+     * @return A response which models the data and errors that were read
+     * @throws ApiException If the JSON is malformed, or the data does not fit the class
+     */
+    <T> GraphQLResponse<T> buildSingleItemResponse(
+            JsonReader responseReader,
+            Class<T> classToCast
+    ) throws ApiException {
+        T data = null;
+        List<GraphQLResponse.Error> errors = Collections.emptyList();
+
+        try {
+            responseReader.beginObject();
+            while (responseReader.hasNext()) {
+                final String name = responseReader.nextName();
+                if ("data".equals(name)) {
+                    data = readData(responseReader, classToCast);
+                } else if ("errors".equals(name)) {
+                    errors = readErrors(responseReader);
+                } else {
+                    responseReader.skipValue();
+                }
+            }
+            responseReader.endObject();
+        } catch (IOException | IllegalStateException | JsonParseException exception) {
+            throw new ApiException(
+                "Amplify encountered an error while serializing/deserializing an object.",
+                exception,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+
+        return new GraphQLResponse<>(data, errors);
+    }
+
+    /**
+     * Builds a response containing a list of data objects, reading them straight from a stream
+     * of JSON, which is positioned at the start of the response object. The items are
+     * deserialized one at a time, into the list of the response, so that no tree of the
+     * whole response is built along the way. The reader is left positioned after the end
+     * of the response object.
+     * @param responseReader Reader of a GraphQL response object
+     * @param classToCast The type of the items in the data field list
+     * @param <T> The type of the items in the data field list
+     * @return A response which models the items and errors that were read. If the data is
+     *         a list object, the response data is a {@link PaginatedResult}, which keeps
+     *         the list's next token.
+     * @throws ApiException If the JSON is malformed, or the data does not fit the class
+     */
+    <T> GraphQLResponse<Iterable<T>> buildSingleArrayResponse(
+            JsonReader responseReader,
+            Class<T> classToCast
+    ) throws ApiException {
+        Iterable<T> data = null;
+        List<GraphQLResponse.Error> errors = Collections.emptyList();
+
+        try {
+            responseReader.beginObject();
+            while (responseReader.hasNext()) {
+                final String name = responseReader.nextName();
+                if ("data".equals(name)) {
+                    data = readDataAsList(responseReader, classToCast);
+                } else if ("errors".equals(name)) {
+                    errors = readErrors(responseReader);
+                } else {
+                    responseReader.skipValue();
+                }
+            }
+            responseReader.endObject();
+        } catch (IOException | IllegalStateException | JsonParseException exception) {
+            throw new ApiException(
+                    "Amplify encountered an error while serializing/deserializing an object.",
+                    exception,
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+
+        return new GraphQLResponse<>(data, errors);
+    }
+
     public <T> GraphQLResponse<Iterable<T>> buildSingleArrayResponse(
             String responseJson,
             Class<T> classToCast
@@ -108,7 +199,7 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
         try {
             final JsonObject toJson = JsonParser.parseString(responseJson).getAsJsonObject();
             if (toJson.has("data")) {
-                jsonData = skipQueryLevel(toJson.get("data"));
+                jsonData = skipQueryLevel(toJson.get("data"), classToCast);
             }
             if (toJson.has("errors")) {
                 jsonErrors = toJson.get("errors");
@@ -129,8 +220,12 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
                 jsonData.isJsonObject() &&
                 jsonData.getAsJsonObject().has("items")
         ) {
-            Iterable<T> data = parseDataAsList(jsonData.getAsJsonObject().get("items"), classToCast);
-            return new GraphQLResponse<>(data, errors);
+            final JsonObject page = jsonData.getAsJsonObject();
+            Iterable<T> items = parseDataAsList(page.get("items"), classToCast);
+            return new GraphQLResponse<>(
+                new PaginatedResult<>(items, stringOrNull(page.get("nextToken")), longOrNull(page.get("startedAt"))),
+                errors
+            );
         } else if (jsonData.isJsonObject() || jsonData.isJsonPrimitive() || classToCast.equals(JsonElement.class)) {
             T data = parseData(jsonData, classToCast);
             return new GraphQLResponse<>(Collections.singletonList(data), errors);
@@ -142,8 +237,164 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
         }
     }
 
-    // Skips a JSON level to get content of query, not query itself
-    private JsonElement skipQueryLevel(JsonElement jsonData) throws ApiException {
+    // Reads the data of a response, from within the single top-level field of the query.
+    private <T> T readData(JsonReader reader, Class<T> classToCast) throws ApiException, IOException {
+        if (JsonToken.NULL.equals(reader.peek())) {
+            reader.nextNull();
+            return null;
+        }
+
+        // The raw data is wanted, and may span several aliased fields, so it is read whole.
+        if (String.class.isAssignableFrom(classToCast) || JsonElement.class.equals(classToCast)) {
+            final JsonElement jsonData = skipQueryLevel(JsonParser.parseReader(reader), classToCast);
+            if (jsonData == null || jsonData.isJsonNull()) {
+                return null;
+            }
+            return parseData(jsonData, classToCast);
+        }
+
+        reader.beginObject();
+        if (!reader.hasNext()) {
+            throw new ApiException(
+                    "Amplify encountered an error while serializing/deserializing an object.",
+                    "Please add a single top level field in your query."
+            );
+        }
+        reader.nextName();
+        final T data;
+        if (JsonToken.NULL.equals(reader.peek())) {
+            reader.nextNull();
+            data = null;
+        } else if (JsonToken.BEGIN_ARRAY.equals(reader.peek())) {
+            throw new ApiException(
+                "Tried to build a single item GraphQL response object but the JSON data was in the wrong format",
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        } else {
+            data = gson.fromJson(reader, classToCast);
+        }
+        if (reader.hasNext()) {
+            throw new ApiException(
+                    "Amplify encountered an error while serializing/deserializing an object.",
+                    "Please reduce your query to a single top level field."
+            );
+        }
+        reader.endObject();
+        return data;
+    }
+
+    // Reads the items of a list response, from within the single top-level field of the query.
+    private <T> Iterable<T> readDataAsList(JsonReader reader, Class<T> classToCast)
+            throws ApiException, IOException {
+        if (JsonToken.NULL.equals(reader.peek())) {
+            reader.nextNull();
+            return null;
+        }
+
+        reader.beginObject();
+        if (!reader.hasNext()) {
+            throw new ApiException(
+                    "Amplify encountered an error while serializing/deserializing an object.",
+                    "Please add a single top level field in your query."
+            );
+        }
+        reader.nextName();
+        final Iterable<T> items;
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                items = null;
+                break;
+            case BEGIN_OBJECT:
+                items = readPage(reader, classToCast);
+                break;
+            case BEGIN_ARRAY:
+                if (!JsonElement.class.equals(classToCast)) {
+                    throw new ApiException(
+                        "Tried to build a multi item GraphQL response object but the JSON data was in the wrong format",
+                        AmplifyException.TODO_RECOVERY_SUGGESTION
+                    );
+                }
+                items = Collections.singletonList(readItem(reader, classToCast));
+                break;
+            default:
+                items = Collections.singletonList(readItem(reader, classToCast));
+                break;
+        }
+        if (reader.hasNext()) {
+            throw new ApiException(
+                    "Amplify encountered an error while serializing/deserializing an object.",
+                    "Please reduce your query to a single top level field."
+            );
+        }
+        reader.endObject();
+        return items;
+    }
+
+    // Reads a page of a list: the elements of its "items" array, and its next token. The other
+    // fields of the list are kept aside, in case there turns out to be no items array, in which
+    // case the object is itself the only item.
+    private <T> Iterable<T> readPage(JsonReader reader, Class<T> classToCast) throws ApiException, IOException {
+        final JsonObject otherFields = new JsonObject();
+        List<T> items = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if ("items".equals(name) && JsonToken.BEGIN_ARRAY.equals(reader.peek())) {
+                items = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    items.add(readItem(reader, classToCast));
+                }
+                reader.endArray();
+            } else {
+                otherFields.add(name, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+
+        if (items != null) {
+            return new PaginatedResult<>(
+                items, stringOrNull(otherFields.get("nextToken")), longOrNull(otherFields.get("startedAt"))
+            );
+        }
+        return Collections.singletonList(parseData(otherFields, classToCast));
+    }
+
+    private static String stringOrNull(JsonElement value) {
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static Long longOrNull(JsonElement value) {
+        return value == null || value.isJsonNull() ? null : value.getAsLong();
+    }
+
+    @SuppressWarnings("unchecked") // (T) is checked via isAssignableFrom() and equals().
+    private <T> T readItem(JsonReader reader, Class<T> classToCast) {
+        if (String.class.isAssignableFrom(classToCast)) {
+            return (T) JsonParser.parseReader(reader).toString();
+        } else if (JsonElement.class.equals(classToCast)) {
+            return (T) JsonParser.parseReader(reader);
+        }
+        return gson.fromJson(reader, classToCast);
+    }
+
+    private List<GraphQLResponse.Error> readErrors(JsonReader reader) throws IOException {
+        if (JsonToken.NULL.equals(reader.peek())) {
+            reader.nextNull();
+            return Collections.emptyList();
+        }
+
+        @SuppressWarnings("WhitespaceAround")
+        final Type listType = new TypeToken<ArrayList<GraphQLResponse.Error>>() {}.getType();
+        return gson.fromJson(reader, listType);
+    }
+
+    // Skips a JSON level to get content of query, not query itself. A document may select
+    // several aliased fields at its top level, in which case a caller that reads the raw
+    // data (as a String or JsonElement) gets all of them, keyed by alias.
+    private JsonElement skipQueryLevel(JsonElement jsonData, Class<?> classToCast) throws ApiException {
         if (jsonData == null || jsonData.isJsonNull()) {
             return null;
         }
@@ -155,6 +406,9 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
                     "Please add a single top level field in your query."
             );
         } else if (data.size() > 1) {
+            if (String.class.isAssignableFrom(classToCast) || JsonElement.class.equals(classToCast)) {
+                return data;
+            }
             throw new ApiException(
                     "Amplify encountered an error while serializing/deserializing an object.",
                     "Please reduce your query to a single top level field."
@@ -228,4 +482,3 @@ final class GsonGraphQLResponseFactory implements GraphQLResponse.Factory {
         }
     }
 }
-
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.ObjectsCompat;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes the HTTP client which is shared by the REST, GraphQL and WebSocket
+ * connections of the AWS API plugin. Every API derives its client from a single
+ * process-wide client, so that they share one pool of dispatcher threads, one
+ * pool of connections, and one cache of TLS sessions.
+ */
+public final class HttpClientConfiguration {
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final int maxIdleConnections;
+    private final long keepAliveDurationMs;
+    private final boolean http2Preferred;
+
+    private HttpClientConfiguration(Builder builder) {
+        this.maxRequests = builder.getMaxRequests();
+        this.maxRequestsPerHost = builder.getMaxRequestsPerHost();
+        this.maxIdleConnections = builder.getMaxIdleConnections();
+        this.keepAliveDurationMs = builder.getKeepAliveDurationMs();
+        this.http2Preferred = builder.isHttp2Preferred();
+    }
+
+    /**
+     * Gets the maximum number of requests which are executed at once.
+     * Requests beyond this limit wait in a queue.
+     * @return Maximum number of requests in flight
+     */
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * Gets the maximum number of requests which are executed at once against
+     * a single host. An AppSync API is a single host, so this is the limit
+     * which applies to most GraphQL traffic.
+     * @return Maximum number of requests in flight to one host
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * Gets the maximum number of idle connections which are kept open for reuse.
+     * @return Maximum number of idle connections
+     */
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    /**
+     * Gets the time for which an idle connection is kept open for reuse.
+     * @return Keep-alive duration of an idle connection, in milliseconds
+     */
+    public long getKeepAliveDurationMs() {
+        return keepAliveDurationMs;
+    }
+
+    /**
+     * Checks if HTTP/2 is preferred over HTTP/1.1, when the host supports it.
+     * Over HTTP/2, concurrent requests to a host share a single connection.
+     * @return true if HTTP/2 is preferred
+     */
+    public boolean isHttp2Preferred() {
+        return http2Preferred;
+    }
+
+    @Override
+    public boolean equals(Object thatObject) {
+        if (this == thatObject) {
+            return true;
+        }
+        if (thatObject == null || getClass() != thatObject.getClass()) {
+            return false;
+        }
+
+        HttpClientConfiguration that = (HttpClientConfiguration) thatObject;
+
+        return maxRequests == that.maxRequests &&
+            maxRequestsPerHost == that.maxRequestsPerHost &&
+            maxIdleConnections == that.maxIdleConnections &&
+            keepAliveDurationMs == that.keepAliveDurationMs &&
+            http2Preferred == that.http2Preferred;
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(
+            maxRequests, maxRequestsPerHost, maxIdleConnections, keepAliveDurationMs, http2Preferred
+        );
+    }
+
+    /**
+     * Gets a builder of an {@link HttpClientConfiguration}, which is staged
+     * with the default values.
+     * @return A configuration builder
+     */
+    @NonNull
+    public static HttpClientConfiguration.Builder builder() {
+        return new HttpClientConfiguration.Builder();
+    }
+
+    /**
+     * Gets the configuration which is used when none is provided.
+     * @return Default HTTP client configuration
+     */
+    @NonNull
+    public static HttpClientConfiguration defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Builds an immutable {@link HttpClientConfiguration}.
+     */
+    public static final class Builder {
+        // OkHttp's own default.
+        private static final int DEFAULT_MAX_REQUESTS = 64;
+        // OkHttp defaults to 5, which holds back the concurrent mutations of the DataStore.
+        private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 16;
+        // OkHttp's own default.
+        private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+        // OkHttp's own default of five minutes.
+        private static final long DEFAULT_KEEP_ALIVE_DURATION_MS = TimeUnit.MINUTES.toMillis(5);
+
+        private int maxRequests;
+        private int maxRequestsPerHost;
+        private int maxIdleConnections;
+        private long keepAliveDurationMs;
+        private boolean http2Preferred;
+
+        Builder() {
+            this.maxRequests = DEFAULT_MAX_REQUESTS;
+            this.maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+            this.maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+            this.keepAliveDurationMs = DEFAULT_KEEP_ALIVE_DURATION_MS;
+            this.http2Preferred = true;
+        }
+
+        /**
+         * Sets the maximum number of requests which are executed at once.
+         * @param maxRequests Maximum number of requests in flight, at least 1
+         * @return Current builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests which are executed at once against a single host.
+         * @param maxRequestsPerHost Maximum number of requests in flight to one host, at least 1
+         * @return Current builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle connections which are kept open for reuse.
+         * @param maxIdleConnections Maximum number of idle connections
+         * @return Current builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Sets the time for which an idle connection is kept open for reuse.
+         * @param keepAliveDuration Keep-alive duration of an idle connection, greater than 0
+         * @param timeUnit Unit of the duration
+         * @return Current builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder keepAliveDuration(long keepAliveDuration, @NonNull TimeUnit timeUnit) {
+            this.keepAliveDurationMs = timeUnit.toMillis(keepAliveDuration);
+            return this;
+        }
+
+        /**
+         * Sets whether HTTP/2 is preferred over HTTP/1.1, when the host supports it.
+         * @param http2Preferred true to prefer HTTP/2, false to use only HTTP/1.1
+         * @return Current builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder http2Preferred(boolean http2Preferred) {
+            this.http2Preferred = http2Preferred;
+            return this;
+        }
+
+        /**
+         * Builds an immutable {@link HttpClientConfiguration} from the staged values.
+         * @return An HTTP client configuration
+         */
+        @NonNull
+        public HttpClientConfiguration build() {
+            return new HttpClientConfiguration(this);
+        }
+
+        int getMaxRequests() {
+            return maxRequests;
+        }
+
+        int getMaxRequestsPerHost() {
+            return maxRequestsPerHost;
+        }
+
+        int getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        long getKeepAliveDurationMs() {
+            return keepAliveDurationMs;
+        }
+
+        boolean isHttp2Preferred() {
+            return http2Preferred;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Holds the process-wide {@link OkHttpClient}s, from which the REST, GraphQL and
+ * WebSocket clients of every API are derived by {@link OkHttpClient#newBuilder()}.
+ *
+ * A derived client shares the dispatcher threads, the connection pool, and the
+ * TLS socket factory of the client it was derived from. So, connections to a host
+ * are reused across APIs, and a TLS session which was negotiated by one API is
+ * resumed by the others.
+ */
+final class SharedHttpClient {
+    private static final Map<HttpClientConfiguration, OkHttpClient> CLIENTS = new HashMap<>();
+
+    @SuppressWarnings("checkstyle:all") private SharedHttpClient() {}
+
+    /**
+     * Gets the shared client for a configuration. Plugins which are configured
+     * alike share the same client.
+     * @param configuration Tuning of the client
+     * @return The process-wide client for the configuration
+     */
+    @NonNull
+    static synchronized OkHttpClient forConfiguration(@NonNull HttpClientConfiguration configuration) {
+        Objects.requireNonNull(configuration);
+        OkHttpClient client = CLIENTS.get(configuration);
+        if (client == null) {
+            client = create(configuration);
+            CLIENTS.put(configuration, client);
+        }
+        return client;
+    }
+
+    private static OkHttpClient create(HttpClientConfiguration configuration) {
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(configuration.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(configuration.getMaxRequestsPerHost());
+        final ConnectionPool connectionPool = new ConnectionPool(
+            configuration.getMaxIdleConnections(),
+            configuration.getKeepAliveDurationMs(),
+            TimeUnit.MILLISECONDS
+        );
+        return new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(connectionPool)
+            .protocols(configuration.isHttp2Preferred() ?
+                Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) :
+                Collections.singletonList(Protocol.HTTP_1_1))
+            .retryOnConnectionFailure(true)
+            .build();
+    }
+}
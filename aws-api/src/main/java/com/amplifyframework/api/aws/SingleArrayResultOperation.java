@@ -26,6 +26,8 @@ import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.logging.Logger;
 
+import com.google.gson.stream.JsonReader;
+
 import java.io.IOException;
 
 import okhttp3.Call;
@@ -49,6 +51,7 @@ public final class SingleArrayResultOperation<T> extends GraphQLOperation<T> {
 
     private final String endpoint;
     private final OkHttpClient client;
+    private final GsonGraphQLResponseFactory responseFactory;
     private final ResultListener<GraphQLResponse<Iterable<T>>> responseListener;
 
     private Call ongoingCall;
@@ -66,11 +69,12 @@ public final class SingleArrayResultOperation<T> extends GraphQLOperation<T> {
             @NonNull String endpoint,
             @NonNull OkHttpClient client,
             @NonNull GraphQLRequest<T> request,
-            @NonNull GraphQLResponse.Factory responseFactory,
+            @NonNull GsonGraphQLResponseFactory responseFactory,
             @NonNull ResultListener<GraphQLResponse<Iterable<T>>> responseListener) {
         super(request, responseFactory);
         this.endpoint = endpoint;
         this.client = client;
+        this.responseFactory = responseFactory;
         this.responseListener = responseListener;
     }
 
@@ -121,28 +125,29 @@ public final class SingleArrayResultOperation<T> extends GraphQLOperation<T> {
         public void onResponse(@NonNull Call call,
                                @NonNull Response response) {
             final ResponseBody responseBody = response.body();
-            String jsonResponse = null;
-            if (responseBody != null) {
-                try {
-                    jsonResponse = responseBody.string();
-                } catch (IOException exception) {
-                    responseListener.onError(new ApiException(
-                            "Could not retrieve the response body from the returned JSON",
-                            exception,
-                            AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
-                }
+            if (responseBody == null) {
+                responseListener.onError(new ApiException(
+                        "Could not retrieve the response body from the returned JSON",
+                        AmplifyException.TODO_RECOVERY_SUGGESTION
+                ));
+                return;
             }
 
+            // The body is deserialized as it is read, rather than being buffered whole.
+            final GraphQLResponse<Iterable<T>> wrappedResponse;
             try {
-                GraphQLResponse<Iterable<T>> wrappedResponse = wrapMultiResultResponse(jsonResponse);
-
-                responseListener.onResult(wrappedResponse);
-
-                //TODO: Dispatch to hub
+                wrappedResponse = responseFactory.buildSingleArrayResponse(
+                    new JsonReader(responseBody.charStream()), getClassToCast());
             } catch (ApiException exception) {
                 responseListener.onError(exception);
+                return;
+            } finally {
+                responseBody.close();
             }
+
+            responseListener.onResult(wrappedResponse);
+
+            //TODO: Dispatch to hub
         }
 
         @Override
@@ -160,7 +165,7 @@ public final class SingleArrayResultOperation<T> extends GraphQLOperation<T> {
         private String endpoint;
         private OkHttpClient client;
         private GraphQLRequest<T> request;
-        private GraphQLResponse.Factory responseFactory;
+        private GsonGraphQLResponseFactory responseFactory;
         private ResultListener<GraphQLResponse<Iterable<T>>> responseListener;
 
         Builder<T> endpoint(final String endpoint) {
@@ -178,7 +183,7 @@ public final class SingleArrayResultOperation<T> extends GraphQLOperation<T> {
             return this;
         }
 
-        Builder<T> responseFactory(final GraphQLResponse.Factory responseFactory) {
+        Builder<T> responseFactory(final GsonGraphQLResponseFactory responseFactory) {
             this.responseFactory = responseFactory;
             return this;
         }
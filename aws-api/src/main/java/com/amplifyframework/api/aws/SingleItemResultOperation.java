@@ -27,6 +27,8 @@ import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.logging.Logger;
 
+import com.google.gson.stream.JsonReader;
+
 import java.io.IOException;
 import java.util.Objects;
 
@@ -51,6 +53,7 @@ public final class SingleItemResultOperation<T> extends GraphQLOperation<T> {
 
     private final String endpoint;
     private final OkHttpClient client;
+    private final GsonGraphQLResponseFactory responseFactory;
     private final ResultListener<GraphQLResponse<T>> responseListener;
 
     private Call ongoingCall;
@@ -68,11 +71,12 @@ public final class SingleItemResultOperation<T> extends GraphQLOperation<T> {
             @NonNull String endpoint,
             @NonNull OkHttpClient client,
             @NonNull GraphQLRequest<T> request,
-            @NonNull GraphQLResponse.Factory responseFactory,
+            @NonNull GsonGraphQLResponseFactory responseFactory,
             @NonNull ResultListener<GraphQLResponse<T>> responseListener) {
         super(request, responseFactory);
         this.endpoint = endpoint;
         this.client = client;
+        this.responseFactory = responseFactory;
         this.responseListener = responseListener;
     }
 
@@ -127,28 +131,29 @@ public final class SingleItemResultOperation<T> extends GraphQLOperation<T> {
         public void onResponse(@NonNull Call call,
                                @NonNull Response response) {
             final ResponseBody responseBody = response.body();
-            String jsonResponse = null;
-            if (responseBody != null) {
-                try {
-                    jsonResponse = responseBody.string();
-                } catch (IOException exception) {
-                    responseListener.onError(new ApiException(
-                            "Could not retrieve the response body from the returned JSON",
-                            exception,
-                            AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
-                }
+            if (responseBody == null) {
+                responseListener.onError(new ApiException(
+                        "Could not retrieve the response body from the returned JSON",
+                        AmplifyException.TODO_RECOVERY_SUGGESTION
+                ));
+                return;
             }
 
+            // The body is deserialized as it is read, rather than being buffered whole.
+            final GraphQLResponse<T> wrappedResponse;
             try {
-                GraphQLResponse<T> wrappedResponse = wrapSingleResultResponse(jsonResponse);
-
-                responseListener.onResult(wrappedResponse);
-
-                //TODO: Dispatch to hub
+                wrappedResponse = responseFactory.buildSingleItemResponse(
+                    new JsonReader(responseBody.charStream()), getClassToCast());
             } catch (ApiException exception) {
                 responseListener.onError(exception);
+                return;
+            } finally {
+                responseBody.close();
             }
+
+            responseListener.onResult(wrappedResponse);
+
+            //TODO: Dispatch to hub
         }
 
         @SuppressLint("SyntheticAccessor")
@@ -167,7 +172,7 @@ public final class SingleItemResultOperation<T> extends GraphQLOperation<T> {
         private String endpoint;
         private OkHttpClient client;
         private GraphQLRequest<T> request;
-        private GraphQLResponse.Factory responseFactory;
+        private GsonGraphQLResponseFactory responseFactory;
         private ResultListener<GraphQLResponse<T>> responseListener;
 
         Builder<T> endpoint(final String endpoint) {
@@ -185,7 +190,7 @@ public final class SingleItemResultOperation<T> extends GraphQLOperation<T> {
             return this;
         }
 
-        Builder<T> responseFactory(final GraphQLResponse.Factory responseFactory) {
+        Builder<T> responseFactory(final GsonGraphQLResponseFactory responseFactory) {
             this.responseFactory = responseFactory;
             return this;
         }
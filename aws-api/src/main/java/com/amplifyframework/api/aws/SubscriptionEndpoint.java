@@ -16,6 +16,8 @@
 package com.amplifyframework.api.aws;
 
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Base64;
 import androidx.annotation.NonNull;
 import androidx.core.util.ObjectsCompat;
@@ -24,18 +26,27 @@ import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.ApiException;
 import com.amplifyframework.api.graphql.GraphQLRequest;
 import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SubscriptionListener;
+import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.StreamListener;
+import com.amplifyframework.logging.Logger;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
@@ -47,79 +58,158 @@ import okhttp3.WebSocketListener;
 /**
  * Manages the lifecycle of a single WebSocket connection,
  * and multiple GraphQL subscriptions that work on top of it.
+ *
+ * Nothing in here blocks for the network. A subscription which is requested before
+ * the connection is acknowledged is started as soon as it is, along with any others
+ * that are waiting. The start messages of several subscriptions are multiplexed on
+ * the socket without waiting for each other's acknowledgement, so that any number
+ * of subscriptions come up in about one round trip. A listener which is a
+ * {@link SubscriptionListener} is told when its subscription has been acknowledged.
+ * Acknowledgements which do not arrive in time are reported as errors to the affected
+ * subscriptions, which are then stopped; any frame that arrives for one of them later
+ * on is ignored.
+ *
+ * When the connection is lost, the subscriptions are kept. The endpoint reconnects
+ * after a jittered, exponential backoff, and starts every one of them again, under
+ * the same IDs, so that their listeners carry on. Events which happened while the
+ * connection was down are not replayed by the service, though: a listener which is
+ * a {@link SubscriptionListener} is told when its subscription has resumed, so that
+ * it can query for what it missed. Only once several attempts in a row have failed
+ * are the subscriptions failed.
  */
 final class SubscriptionEndpoint {
-    private static final int CONNECTION_ACKNOWLEDGEMENT_TIMEOUT = 30 /* seconds */;
+    // Delay before the first attempt to reconnect, which doubles with each failed attempt
+    static final long BASE_RECONNECT_DELAY_MS = TimeUnit.SECONDS.toMillis(1);
+    // Upper bound of the delay between attempts to reconnect
+    static final long MAX_RECONNECT_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+    // Number of failed attempts in a row, after which the subscriptions are failed
+    static final int MAX_RECONNECT_ATTEMPTS = 8;
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-api");
+    private static final long CONNECTION_ACKNOWLEDGEMENT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long SUBSCRIPTION_ACKNOWLEDGEMENT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
     private static final int NORMAL_CLOSURE_STATUS = 1000;
 
     private final ApiConfiguration apiConfiguration;
     private final Map<String, Subscription<?>> subscriptions;
-    private final GraphQLResponse.Factory responseFactory;
+    private final GsonGraphQLResponseFactory responseFactory;
     private final TimeoutWatchdog timeoutWatchdog;
-    private final CountDownLatch connectionAcknowledgement;
+    private final OkHttpClient okHttpClient;
+    private final Handler timeoutHandler;
+    private final Runnable connectionTimeout;
+    private final Runnable reconnection;
+    private final Random random;
+
+    private volatile WebSocket webSocket;
+    private ConnectionState connectionState;
+    // Failed attempts to reconnect, since the connection was last acknowledged
+    private int reconnectAttempts;
+    // Metrics of the connection, over the life of the endpoint
+    private int connectionLossCount;
+    private int reconnectionCount;
 
-    private WebSocket webSocket;
+    SubscriptionEndpoint(
+            ApiConfiguration apiConfiguration,
+            GsonGraphQLResponseFactory responseFactory,
+            OkHttpClient okHttpClient) {
+        this(apiConfiguration, responseFactory, okHttpClient, new Random());
+    }
 
     SubscriptionEndpoint(
             ApiConfiguration apiConfiguration,
-            GraphQLResponse.Factory responseFactory) {
+            GsonGraphQLResponseFactory responseFactory,
+            OkHttpClient okHttpClient,
+            Random random) {
         this.apiConfiguration = apiConfiguration;
         this.subscriptions = new ConcurrentHashMap<>();
         this.responseFactory = responseFactory;
         this.timeoutWatchdog = new TimeoutWatchdog();
-        this.connectionAcknowledgement = new CountDownLatch(1);
+        this.okHttpClient = okHttpClient;
+        // TODO: this should be a HandlerThread, don't use MainLooper.
+        this.timeoutHandler = new Handler(Looper.getMainLooper());
+        this.connectionTimeout = this::notifyConnectionTimedOut;
+        this.reconnection = this::reconnect;
+        this.random = random;
+        this.connectionState = ConnectionState.DISCONNECTED;
     }
 
-    synchronized <T> String requestSubscription(
+    /**
+     * Requests a subscription. This returns right away: the subscription is started
+     * on the WebSocket once it is connected, and its listener is told of any failure.
+     * @param request A GraphQL subscription request
+     * @param responseListener Listener to the responses of the subscription
+     * @param <T> Type of object in the responses
+     * @return An ID by which the subscription can be released
+     */
+    <T> String requestSubscription(
             @NonNull GraphQLRequest<T> request,
             @NonNull StreamListener<GraphQLResponse<T>> responseListener) {
-
-        if (webSocket == null) {
-            try {
-                webSocket = createWebSocket();
-            } catch (ApiException exception) {
-                responseListener.onError(new ApiException(
-                        "Failed to create websocket for subscription",
-                        exception,
-                        AmplifyException.TODO_RECOVERY_SUGGESTION
-                ));
+        final String subscriptionId = UUID.randomUUID().toString();
+        final Subscription<T> subscription = new Subscription<>(
+            subscriptionId, responseListener, responseFactory, request.getModelClass(), request.getContent(),
+            () -> notifySubscriptionTimedOut(subscriptionId)
+        );
+        synchronized (this) {
+            subscriptions.put(subscriptionId, subscription);
+            switch (connectionState) {
+                case CONNECTED:
+                    start(subscription);
+                    break;
+                case CONNECTING:
+                case RECONNECTING:
+                    // Started once the connection is acknowledged.
+                    break;
+                case DISCONNECTED:
+                default:
+                    connect();
+                    break;
             }
+        }
+        return subscriptionId;
+    }
 
-            try {
-                connectionAcknowledgement.await(CONNECTION_ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS);
-            } catch (InterruptedException interruptedException) {
-                responseListener.onError(new ApiException(
-                        "Subscription timed out waiting for acknowledgement",
-                        interruptedException,
-                        AmplifyException.TODO_RECOVERY_SUGGESTION
-                ));
-            }
+    // Opens the WebSocket. The subscriptions which are waiting for it are
+    // started once the connection is acknowledged.
+    private synchronized void connect() {
+        try {
+            webSocket = createWebSocket();
+        } catch (ApiException exception) {
+            failAllSubscriptions(new ApiException(
+                    "Failed to create websocket for subscription",
+                    exception,
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            ));
+            return;
         }
+        connectionState = ConnectionState.CONNECTING;
+        timeoutHandler.postDelayed(connectionTimeout, CONNECTION_ACKNOWLEDGEMENT_TIMEOUT_MS);
+    }
 
-        final String subscriptionId = UUID.randomUUID().toString();
+    // The start message is built anew each time that a subscription is started,
+    // so that a subscription which is resumed is sent with a fresh authorization.
+    private synchronized void start(Subscription<?> subscription) {
+        final String startMessage;
         try {
-            webSocket.send(new JSONObject()
-                .put("id", subscriptionId)
+            startMessage = new JSONObject()
+                .put("id", subscription.id())
                 .put("type", "start")
                 .put("payload", new JSONObject()
-                .put("data", request.getContent())
+                .put("data", subscription.requestContent())
                 .put("extensions", new JSONObject()
                 .put("authorization", SubscriptionAuthorizationHeader.from(apiConfiguration))))
-                .toString()
-            );
+                .toString();
         } catch (JSONException | ApiException exception) {
-            responseListener.onError(new ApiException(
+            subscriptions.remove(subscription.id());
+            subscription.dispatchError(new ApiException(
                     "Failed to construct subscription registration message.",
                     exception,
                     AmplifyException.TODO_RECOVERY_SUGGESTION
             ));
+            closeIfIdle();
+            return;
         }
-
-        Subscription<T> subscription = new Subscription<>(responseListener, responseFactory, request.getModelClass());
-        subscriptions.put(subscriptionId, subscription);
-        subscription.awaitSubscriptionReady();
-
-        return subscriptionId;
+        subscription.markStarted(true);
+        timeoutHandler.postDelayed(subscription.timeout(), SUBSCRIPTION_ACKNOWLEDGEMENT_TIMEOUT_MS);
+        webSocket.send(startMessage);
     }
 
     private WebSocket createWebSocket() throws ApiException {
@@ -128,33 +218,40 @@ final class SubscriptionEndpoint {
             .addHeader("Sec-WebSocket-Protocol", "graphql-ws")
             .build();
 
-        webSocket = new OkHttpClient.Builder()
-            .retryOnConnectionFailure(true)
-            .build()
-            .newWebSocket(request, new WebSocketListener() {
-                @Override
-                public void onOpen(@NonNull final WebSocket webSocket, @NonNull final Response response) {
+        return okHttpClient.newWebSocket(request, new WebSocketListener() {
+            @Override
+            public void onOpen(@NonNull final WebSocket webSocket, @NonNull final Response response) {
+                if (isCurrent(webSocket)) {
                     sendConnectionInit(webSocket);
                 }
+            }
 
-                @Override
-                public void onMessage(@NonNull final WebSocket webSocket, @NonNull final String message) {
+            @Override
+            public void onMessage(@NonNull final WebSocket webSocket, @NonNull final String message) {
+                if (isCurrent(webSocket)) {
                     processMessage(webSocket, message);
                 }
+            }
 
-                @Override
-                public void onClosing(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
-                    webSocket.close(NORMAL_CLOSURE_STATUS, null);
-                    notifyAllSubscriptionsCompleted();
-                }
+            @Override
+            public void onClosing(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
+                webSocket.close(NORMAL_CLOSURE_STATUS, null);
+                notifyConnectionLost(webSocket, new ApiException(
+                        "WebSocket was closed by the service: " + reason,
+                        AmplifyException.TODO_RECOVERY_SUGGESTION
+                ));
+            }
 
-                @Override
-                public void onFailure(@NonNull WebSocket webSocket, @NonNull Throwable failure, Response response) {
-                    notifyError(failure);
-                }
-            });
+            @Override
+            public void onFailure(@NonNull WebSocket webSocket, @NonNull Throwable failure, Response response) {
+                notifyConnectionLost(webSocket, failure);
+            }
+        });
+    }
 
-        return webSocket;
+    // Events from a socket which has since been closed by this endpoint are ignored.
+    private boolean isCurrent(WebSocket socket) {
+        return socket == webSocket;
     }
 
     private void sendConnectionInit(WebSocket webSocket) {
@@ -175,36 +272,76 @@ final class SubscriptionEndpoint {
         }
     }
 
+    // Reads a frame in a single pass. The payload of a data frame is handed to its subscription
+    // as the frame is read, so that the response is deserialized without first being copied out.
     private void processJsonMessage(WebSocket webSocket, String message) throws ApiException {
+        SubscriptionMessageType subscriptionMessageType = null;
+        String subscriptionId = null;
+        JsonElement payload = null;
+        boolean payloadDispatched = false;
+
+        final JsonReader reader = new JsonReader(new StringReader(message));
         try {
-            final JSONObject jsonMessage = new JSONObject(message);
-            final SubscriptionMessageType subscriptionMessageType =
-                    SubscriptionMessageType.from(jsonMessage.getString("type"));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "type":
+                        subscriptionMessageType = SubscriptionMessageType.from(reader.nextString());
+                        break;
+                    case "id":
+                        subscriptionId = reader.nextString();
+                        break;
+                    case "payload":
+                        if (subscriptionId != null && carriesResponse(subscriptionMessageType)) {
+                            if (!notifySubscriptionData(subscriptionId, reader)) {
+                                // The reader was left part way through the payload, so the rest of
+                                // the frame can not be read. Its subscription has been failed.
+                                return;
+                            }
+                            payloadDispatched = true;
+                        } else {
+                            payload = JsonParser.parseReader(reader);
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            if (subscriptionMessageType == null) {
+                throw new ApiException(
+                    "Got a message without a type.",
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+                );
+            }
 
             switch (subscriptionMessageType) {
                 case CONNECTION_ACK:
-                    timeoutWatchdog.start(() -> webSocket.close(
-                            NORMAL_CLOSURE_STATUS,
-                            "WebSocket closed due to timeout."
-                        ),
-                        Integer.parseInt(
-                            jsonMessage.getJSONObject("payload").getString("connectionTimeoutMs")
-                        )
+                    timeoutWatchdog.start(() -> notifyConnectionLost(webSocket, new ApiException(
+                            "WebSocket timed out waiting for keep-alive.",
+                            AmplifyException.TODO_RECOVERY_SUGGESTION
+                        )),
+                        payload.getAsJsonObject().get("connectionTimeoutMs").getAsInt()
                     );
-                    connectionAcknowledgement.countDown();
+                    notifyConnectionAcknowledged();
                     break;
                 case SUBSCRIPTION_ACK:
-                    notifySubscriptionAcknowledged(jsonMessage.getString("id"));
+                    notifySubscriptionAcknowledged(subscriptionId);
                     break;
                 case SUBSCRIPTION_COMPLETE:
-                    notifySubscriptionCompleted(jsonMessage.getString("id"));
+                    notifySubscriptionCompleted(subscriptionId);
                     break;
                 case CONNECTION_KEEP_ALIVE:
                     timeoutWatchdog.reset();
                     break;
                 case SUBSCRIPTION_ERROR:
                 case SUBSCRIPTION_DATA:
-                    notifySubscriptionData(jsonMessage.getString("id"), jsonMessage.getString("payload"));
+                    if (!payloadDispatched) {
+                        // The payload came before the ID, so was buffered. This is not what AppSync sends.
+                        final JsonReader payloadReader = new JsonReader(new StringReader(payload.toString()));
+                        notifySubscriptionData(subscriptionId, payloadReader);
+                    }
                     break;
                 default:
                     notifyError(new ApiException(
@@ -212,7 +349,7 @@ final class SubscriptionEndpoint {
                             AmplifyException.TODO_RECOVERY_SUGGESTION
                     ));
             }
-        } catch (JSONException | ApiException exception) {
+        } catch (IOException | RuntimeException | ApiException exception) {
             throw new ApiException(
                     "Error processing Json message in subscription endpoint",
                     exception,
@@ -221,37 +358,148 @@ final class SubscriptionEndpoint {
         }
     }
 
-    private void notifySubscriptionAcknowledged(final String subscriptionId) throws ApiException {
-        Subscription<?> subscription = subscriptions.get(subscriptionId);
-        if (subscription != null) {
-            subscription.acknowledgeSubscriptionReady();
-        } else {
-            throw new ApiException(
-                "Acknowledgement for unknown subscription: " + subscriptionId,
+    private static boolean carriesResponse(SubscriptionMessageType subscriptionMessageType) {
+        return SubscriptionMessageType.SUBSCRIPTION_DATA.equals(subscriptionMessageType) ||
+            SubscriptionMessageType.SUBSCRIPTION_ERROR.equals(subscriptionMessageType);
+    }
+
+    // Starts all of the subscriptions which were waiting for the connection, at once.
+    private synchronized void notifyConnectionAcknowledged() {
+        timeoutHandler.removeCallbacks(connectionTimeout);
+        if (reconnectAttempts > 0) {
+            reconnectionCount++;
+            LOG.info("Reconnected after " + reconnectAttempts + " attempt(s), resuming " +
+                subscriptions.size() + " subscription(s).");
+        }
+        reconnectAttempts = 0;
+        connectionState = ConnectionState.CONNECTED;
+        for (Subscription<?> subscription : new HashSet<>(subscriptions.values())) {
+            if (!subscription.isStarted()) {
+                start(subscription);
+            }
+        }
+    }
+
+    private synchronized void notifyConnectionTimedOut() {
+        if (!ConnectionState.CONNECTING.equals(connectionState)) {
+            return;
+        }
+        notifyConnectionLost(webSocket, new ApiException(
+                "Subscription timed out waiting for acknowledgement",
                 AmplifyException.TODO_RECOVERY_SUGGESTION
-            );
+        ));
+    }
+
+    // Lets go of a lost connection, and schedules an attempt to reconnect, if there are
+    // subscriptions to resume. The subscriptions which were being released are completed,
+    // since the service has stopped them along with the connection.
+    private synchronized void notifyConnectionLost(WebSocket lostSocket, Throwable cause) {
+        if (lostSocket == null || !isCurrent(lostSocket)) {
+            return;
+        }
+        connectionLossCount++;
+        lostSocket.cancel();
+        webSocket = null;
+        timeoutWatchdog.stop();
+        timeoutHandler.removeCallbacks(connectionTimeout);
+        for (Subscription<?> subscription : new HashSet<>(subscriptions.values())) {
+            timeoutHandler.removeCallbacks(subscription.timeout());
+            subscription.markStarted(false);
+            if (subscription.isReleased()) {
+                subscriptions.remove(subscription.id());
+                subscription.dispatchCompleted();
+            }
+        }
+        if (subscriptions.isEmpty()) {
+            disconnect();
+            return;
+        }
+        if (reconnectAttempts >= MAX_RECONNECT_ATTEMPTS) {
+            LOG.warn("Giving up on the connection, after " + reconnectAttempts + " attempts to reconnect.");
+            failAllSubscriptions(new ApiException(
+                    "Subscription failed.",
+                    cause,
+                    "Check that the device is online, and then subscribe again."
+            ));
+            return;
         }
+        reconnectAttempts++;
+        final long delayMs = reconnectDelayMs(reconnectAttempts);
+        LOG.info("Connection lost, reconnecting in " + delayMs + "ms (attempt " + reconnectAttempts + "): " + cause);
+        connectionState = ConnectionState.RECONNECTING;
+        timeoutHandler.postDelayed(reconnection, delayMs);
     }
 
-    private void notifyAllSubscriptionsCompleted() {
-        // TODO: if the connection closes, but our subscription didn't ask for that,
-        //  is that a failure, from its standpoint? Or not?
-        for (Subscription<?> dispatcher : new HashSet<>(subscriptions.values())) {
-            dispatcher.dispatchCompleted();
+    private synchronized void reconnect() {
+        if (!ConnectionState.RECONNECTING.equals(connectionState)) {
+            return;
         }
+        if (subscriptions.isEmpty()) {
+            disconnect();
+            return;
+        }
+        connect();
     }
 
-    private void notifySubscriptionCompleted(String subscriptionId) throws ApiException {
-        final Subscription<?> dispatcher = subscriptions.get(subscriptionId);
-        if (dispatcher == null) {
-            throw new ApiException(
-                "Got subscription completion for unknown subscription:" + subscriptionId,
+    /**
+     * Gets the delay before an attempt to reconnect. The delay doubles with each attempt,
+     * up to a maximum, and is jittered over the upper half of that, so that many clients
+     * which lost their connections at the same time do not all come back at once.
+     * @param attempt Number of the attempt, starting at 1
+     * @return Delay before the attempt, in milliseconds
+     */
+    long reconnectDelayMs(int attempt) {
+        final int exponent = Math.min(Math.max(attempt - 1, 0), MAX_RECONNECT_ATTEMPTS);
+        final long ceiling = Math.min(MAX_RECONNECT_DELAY_MS, BASE_RECONNECT_DELAY_MS << exponent);
+        final long half = ceiling / 2;
+        return half + (long) (random.nextDouble() * (ceiling - half));
+    }
+
+    private synchronized void notifySubscriptionAcknowledged(final String subscriptionId) {
+        final Subscription<?> subscription = subscriptions.get(subscriptionId);
+        if (subscription == null) {
+            // It may already have timed out, and been stopped.
+            LOG.warn("Got acknowledgement for unknown subscription: " + subscriptionId);
+            return;
+        }
+        timeoutHandler.removeCallbacks(subscription.timeout());
+        if (!subscription.isReleased()) {
+            subscription.dispatchStarted();
+        }
+    }
+
+    // A subscription which was not acknowledged in time has failed, and is stopped, in case
+    // the service has started it after all. One that was not acknowledged as stopped in time
+    // is completed all the same.
+    private synchronized void notifySubscriptionTimedOut(String subscriptionId) {
+        final Subscription<?> subscription = subscriptions.remove(subscriptionId);
+        if (subscription == null) {
+            return;
+        }
+        if (subscription.isReleased()) {
+            LOG.warn("Completion of subscription " + subscriptionId + " was not acknowledged.");
+            subscription.dispatchCompleted();
+        } else {
+            stopQuietly(subscription);
+            subscription.dispatchError(new ApiException(
+                "Subscription not acknowledged.",
                 AmplifyException.TODO_RECOVERY_SUGGESTION
-            );
+            ));
+        }
+        closeIfIdle();
+    }
+
+    private synchronized void notifySubscriptionCompleted(String subscriptionId) {
+        final Subscription<?> dispatcher = subscriptions.remove(subscriptionId);
+        if (dispatcher == null) {
+            // Its completion may already have been assumed, after a timeout.
+            LOG.warn("Got subscription completion for unknown subscription:" + subscriptionId);
+            return;
         }
 
+        timeoutHandler.removeCallbacks(dispatcher.timeout());
         dispatcher.dispatchCompleted();
-        dispatcher.acknowledgeSubscriptionCompleted();
+        closeIfIdle();
     }
 
     private void notifyError(Throwable error) {
@@ -264,17 +512,68 @@ final class SubscriptionEndpoint {
         }
     }
 
-    private void notifySubscriptionData(String subscriptionId, String data) throws ApiException {
+    // Ends every subscription with an error, and lets go of the connection,
+    // so that the next subscription opens a new one.
+    private synchronized void failAllSubscriptions(ApiException error) {
+        final Set<Subscription<?>> failed = new HashSet<>(subscriptions.values());
+        disconnect();
+        for (Subscription<?> dispatcher : failed) {
+            dispatcher.dispatchError(error);
+        }
+    }
+
+    // The payload is skipped for a subscription which is no longer known, such as one which
+    // has timed out, so that the rest of the frame can still be read. A payload which can not
+    // be read fails its own subscription, and no other. Returns false in that case, since the
+    // reader is then left part way through the payload.
+    private boolean notifySubscriptionData(String subscriptionId, JsonReader data) throws IOException {
         final Subscription<?> dispatcher = subscriptions.get(subscriptionId);
         if (dispatcher == null) {
-            throw new ApiException(
-                "Got subscription data for unknown subscription ID: " + subscriptionId,
-                AmplifyException.TODO_RECOVERY_SUGGESTION
-            );
+            LOG.warn("Got subscription data for unknown subscription ID: " + subscriptionId);
+            data.skipValue();
+            return true;
+        }
+        try {
+            dispatcher.dispatchNextMessage(data);
+            return true;
+        } catch (ApiException exception) {
+            notifySubscriptionFailed(dispatcher, exception);
+            return false;
+        }
+    }
+
+    // Ends a subscription which can not carry on, and stops it on the service.
+    private synchronized void notifySubscriptionFailed(Subscription<?> subscription, ApiException error) {
+        if (subscriptions.remove(subscription.id()) == null) {
+            return;
+        }
+        timeoutHandler.removeCallbacks(subscription.timeout());
+        if (!subscription.isReleased()) {
+            stopQuietly(subscription);
+        }
+        subscription.dispatchError(error);
+        closeIfIdle();
+    }
+
+    // Asks the service to stop a subscription which has been given up on,
+    // without waiting for it to acknowledge that.
+    private synchronized void stopQuietly(Subscription<?> subscription) {
+        if (!subscription.isStarted() || webSocket == null) {
+            return;
+        }
+        try {
+            webSocket.send(stopMessage(subscription.id()));
+        } catch (JSONException jsonException) {
+            LOG.warn("Failed to stop subscription " + subscription.id() + ".", jsonException);
         }
-        dispatcher.dispatchNextMessage(data);
     }
 
+    /**
+     * Releases a subscription. This returns right away: the subscription is
+     * completed when the service acknowledges that it has stopped.
+     * @param subscriptionId ID of the subscription, as returned when it was requested
+     * @throws ApiException If there is no such subscription, or if it can not be stopped
+     */
     synchronized void releaseSubscription(String subscriptionId) throws ApiException {
         final Subscription<?> subscription = subscriptions.get(subscriptionId);
         if (subscription == null) {
@@ -284,11 +583,17 @@ final class SubscriptionEndpoint {
             );
         }
 
+        // A subscription which is still waiting for the connection was never started.
+        if (!subscription.isStarted()) {
+            subscriptions.remove(subscriptionId);
+            subscription.dispatchCompleted();
+            closeIfIdle();
+            return;
+        }
+
+        final String stopMessage;
         try {
-            webSocket.send(new JSONObject()
-                .put("type", "stop")
-                .put("id", subscriptionId)
-                .toString());
+            stopMessage = stopMessage(subscriptionId);
         } catch (JSONException jsonException) {
             throw new ApiException(
                 "Failed to construct subscription release message.",
@@ -297,14 +602,64 @@ final class SubscriptionEndpoint {
             );
         }
 
-        subscription.awaitSubscriptionCompleted();
-        subscriptions.remove(subscriptionId);
+        subscription.markReleased();
+        timeoutHandler.removeCallbacks(subscription.timeout());
+        timeoutHandler.postDelayed(subscription.timeout(), SUBSCRIPTION_ACKNOWLEDGEMENT_TIMEOUT_MS);
+        webSocket.send(stopMessage);
+    }
+
+    private static String stopMessage(String subscriptionId) throws JSONException {
+        return new JSONObject()
+            .put("type", "stop")
+            .put("id", subscriptionId)
+            .toString();
+    }
+
+    // If we have zero subscriptions, close the WebSocket
+    private synchronized void closeIfIdle() {
+        if (subscriptions.isEmpty() && webSocket != null) {
+            final WebSocket idleSocket = webSocket;
+            disconnect();
+            idleSocket.close(NORMAL_CLOSURE_STATUS, "No active subscriptions");
+        }
+    }
 
-        // If we have zero subscriptions, close the WebSocket
-        if (subscriptions.size() == 0) {
-            timeoutWatchdog.stop();
-            webSocket.close(NORMAL_CLOSURE_STATUS, "No active subscriptions");
+    // Forgets the current connection, and all of its subscriptions.
+    private synchronized void disconnect() {
+        for (Subscription<?> subscription : subscriptions.values()) {
+            timeoutHandler.removeCallbacks(subscription.timeout());
         }
+        subscriptions.clear();
+        timeoutHandler.removeCallbacks(connectionTimeout);
+        timeoutHandler.removeCallbacks(reconnection);
+        timeoutWatchdog.stop();
+        webSocket = null;
+        reconnectAttempts = 0;
+        connectionState = ConnectionState.DISCONNECTED;
+    }
+
+    /**
+     * Gets the current state of the connection.
+     * @return Connection state
+     */
+    synchronized ConnectionState getConnectionState() {
+        return connectionState;
+    }
+
+    /**
+     * Gets the number of times that a connection was lost, while there were subscriptions on it.
+     * @return Count of lost connections
+     */
+    synchronized int getConnectionLossCount() {
+        return connectionLossCount;
+    }
+
+    /**
+     * Gets the number of times that a lost connection was re-established, and its subscriptions resumed.
+     * @return Count of reconnections
+     */
+    synchronized int getReconnectionCount() {
+        return reconnectionCount;
     }
 
     /*
@@ -339,77 +694,101 @@ final class SubscriptionEndpoint {
             .toString();
     }
 
-    static final class Subscription<T> {
-        private static final int ACKNOWLEDGEMENT_TIMEOUT = 10 /* seconds */;
+    /**
+     * States of the connection which the subscriptions share.
+     */
+    enum ConnectionState {
+        DISCONNECTED,
+        CONNECTING,
+        CONNECTED,
+        // Waiting to reconnect, after the connection was lost
+        RECONNECTING
+    }
 
+    static final class Subscription<T> {
+        private final String id;
         private final StreamListener<GraphQLResponse<T>> responseListener;
-        private final GraphQLResponse.Factory responseFactory;
+        private final GsonGraphQLResponseFactory responseFactory;
         private final Class<T> classToCast;
-        private final CountDownLatch subscriptionReadyAcknowledgment;
-        private final CountDownLatch subscriptionCompletionAcknowledgement;
+        private final String requestContent;
+        private final Runnable timeout;
+
+        private boolean started;
+        // Whether the latest start is waiting to be acknowledged
+        private boolean awaitingAcknowledgement;
+        // Whether any start has been acknowledged, so that the next one is a resumption
+        private boolean acknowledged;
+        private boolean released;
 
         Subscription(
+                String subscriptionId,
                 StreamListener<GraphQLResponse<T>> responseListener,
-                GraphQLResponse.Factory responseFactory,
-                Class<T> classToCast) {
+                GsonGraphQLResponseFactory responseFactory,
+                Class<T> classToCast,
+                String requestContent,
+                Runnable timeout) {
+            this.id = subscriptionId;
             this.responseListener = responseListener;
             this.responseFactory = responseFactory;
             this.classToCast = classToCast;
-            this.subscriptionReadyAcknowledgment = new CountDownLatch(1);
-            this.subscriptionCompletionAcknowledgement = new CountDownLatch(1);
+            this.requestContent = requestContent;
+            this.timeout = timeout;
         }
 
-        void acknowledgeSubscriptionReady() {
-            subscriptionReadyAcknowledgment.countDown();
+        String id() {
+            return id;
         }
 
-        void awaitSubscriptionReady() {
-            try {
-                if (!subscriptionReadyAcknowledgment.await(ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS)) {
-                    dispatchError(new ApiException(
-                        "Subscription not acknowledged.",
-                        AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
-                }
-            } catch (InterruptedException interruptedException) {
-                dispatchError(new ApiException(
-                    "Failure awaiting subscription acknowledgement.",
-                    interruptedException,
-                    AmplifyException.TODO_RECOVERY_SUGGESTION
-                ));
-            }
+        String requestContent() {
+            return requestContent;
         }
 
-        void acknowledgeSubscriptionCompleted() {
-            subscriptionCompletionAcknowledgement.countDown();
+        // Run if an acknowledgement does not arrive in time
+        Runnable timeout() {
+            return timeout;
         }
 
-        void awaitSubscriptionCompleted() {
-            try {
-                if (!subscriptionCompletionAcknowledgement.await(ACKNOWLEDGEMENT_TIMEOUT, TimeUnit.SECONDS)) {
-                    dispatchError(new ApiException(
-                        "Subscription completion not acknowledged.",
-                        AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
-                }
-            } catch (InterruptedException interruptedException) {
-                dispatchError(new ApiException(
-                    "Failure awaiting acknowledgement of subscription completion.",
-                    interruptedException,
-                    AmplifyException.TODO_RECOVERY_SUGGESTION
-                ));
-            }
+        void markStarted(boolean started) {
+            this.started = started;
+            this.awaitingAcknowledgement = started;
+        }
+
+        boolean isStarted() {
+            return started;
+        }
+
+        void markReleased() {
+            released = true;
+        }
+
+        boolean isReleased() {
+            return released;
         }
 
-        void dispatchNextMessage(String message) {
-            try {
-                GraphQLResponse<T> response = responseFactory.buildSingleItemResponse(message, classToCast);
-                responseListener.onNext(response);
-            } catch (ApiException exception) {
-                dispatchError(exception);
+        // The listener is told of the first acknowledgement of each start, the first
+        // start as started, and any later one, after the connection was lost, as resumed.
+        void dispatchStarted() {
+            if (!awaitingAcknowledgement) {
+                return;
+            }
+            awaitingAcknowledgement = false;
+            final boolean resumed = acknowledged;
+            acknowledged = true;
+            if (!(responseListener instanceof SubscriptionListener)) {
+                return;
+            }
+            if (resumed) {
+                ((SubscriptionListener<?>) responseListener).onResumed();
+            } else {
+                ((SubscriptionListener<?>) responseListener).onStarted();
             }
         }
 
+        void dispatchNextMessage(JsonReader message) throws ApiException {
+            GraphQLResponse<T> response = responseFactory.buildSingleItemResponse(message, classToCast);
+            responseListener.onNext(response);
+        }
+
         void dispatchError(Throwable error) {
             responseListener.onError(error);
         }
@@ -439,13 +818,7 @@ final class SubscriptionEndpoint {
             if (!ObjectsCompat.equals(classToCast, that.classToCast)) {
                 return false;
             }
-            if (!ObjectsCompat.equals(subscriptionReadyAcknowledgment, that.subscriptionReadyAcknowledgment)) {
-                return false;
-            }
-            return ObjectsCompat.equals(
-                    subscriptionCompletionAcknowledgement,
-                    that.subscriptionCompletionAcknowledgement
-            );
+            return ObjectsCompat.equals(id, that.id);
         }
 
         @SuppressWarnings("checkstyle:MagicNumber")
@@ -454,8 +827,7 @@ final class SubscriptionEndpoint {
             int result = responseListener != null ? responseListener.hashCode() : 0;
             result = 31 * result + (responseFactory != null ? responseFactory.hashCode() : 0);
             result = 31 * result + (classToCast != null ? classToCast.hashCode() : 0);
-            result = 31 * result + subscriptionReadyAcknowledgment.hashCode();
-            result = 31 * result + subscriptionCompletionAcknowledgement.hashCode();
+            result = 31 * result + (id != null ? id.hashCode() : 0);
             return result;
         }
     }
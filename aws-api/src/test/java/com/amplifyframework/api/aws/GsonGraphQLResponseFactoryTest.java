@@ -17,8 +17,10 @@ package com.amplifyframework.api.aws;
 
 import com.amplifyframework.api.ApiException;
 import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.PaginatedResult;
 import com.amplifyframework.testutils.Resources;
 
+import com.google.gson.stream.JsonReader;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Before;
@@ -26,13 +28,16 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit test for implementation of ResponseFactory.
@@ -155,6 +160,109 @@ public final class GsonGraphQLResponseFactoryTest {
         );
     }
 
+    /**
+     * The response to a document which selects several aliased fields can be rendered
+     * as a string, in which case the data contains each of the fields, keyed by alias.
+     * @throws JSONException Shouldn't, but might while arranging test input
+     * @throws ApiException From API configuration
+     */
+    @Test
+    public void aliasedFieldsCanBeRenderedAsStringType() throws JSONException, ApiException {
+        final JSONObject aliasedResponseJson = Resources.readAsJson("aliased-mutations-response.json");
+
+        final GraphQLResponse<String> response =
+                responseFactory.buildSingleItemResponse(aliasedResponseJson.toString(), String.class);
+
+        final JSONObject data = new JSONObject(response.getData());
+        assertEquals("Jameson Williams", data.getJSONObject("m1").getString("name"));
+        assertTrue(data.isNull("m2"));
+        assertEquals(Collections.singletonList(new GraphQLResponse.Error("failed")), response.getErrors());
+    }
+
+    /**
+     * A response which is read straight from a stream of JSON is the same as one
+     * which is read from a string, whether its data is modeled or raw.
+     * @throws ApiException From API configuration
+     */
+    @Test
+    public void responseReadFromStreamMatchesResponseReadFromString() throws ApiException {
+        final GsonGraphQLResponseFactory gsonResponseFactory = new GsonGraphQLResponseFactory();
+        for (String resource : Arrays.asList("partial-gql-response.json", "null-gql-response.json")) {
+            final String responseJson = Resources.readAsString(resource);
+            assertEquals(
+                gsonResponseFactory.buildSingleItemResponse(responseJson, ListTodosResult.class),
+                gsonResponseFactory.buildSingleItemResponse(readerOf(responseJson), ListTodosResult.class)
+            );
+        }
+        for (String resource : Arrays.asList("partial-gql-response.json", "aliased-mutations-response.json")) {
+            final String responseJson = Resources.readAsString(resource);
+            assertEquals(
+                gsonResponseFactory.buildSingleItemResponse(responseJson, String.class),
+                gsonResponseFactory.buildSingleItemResponse(readerOf(responseJson), String.class)
+            );
+        }
+    }
+
+    /**
+     * A list response which is read straight from a stream of JSON is the same as
+     * one which is read from a string, whether its items are modeled or raw.
+     * @throws ApiException From API configuration
+     */
+    @Test
+    public void listResponseReadFromStreamMatchesResponseReadFromString() throws ApiException {
+        final GsonGraphQLResponseFactory gsonResponseFactory = new GsonGraphQLResponseFactory();
+        final String partialResponseJson = Resources.readAsString("partial-gql-response.json");
+        assertEquals(
+            gsonResponseFactory.buildSingleArrayResponse(partialResponseJson, ListTodosResult.Todo.class),
+            gsonResponseFactory.buildSingleArrayResponse(readerOf(partialResponseJson), ListTodosResult.Todo.class)
+        );
+
+        final String syncResponseJson = Resources.readAsString("base-sync-posts-response.json");
+        assertEquals(
+            gsonResponseFactory.buildSingleArrayResponse(syncResponseJson, String.class),
+            gsonResponseFactory.buildSingleArrayResponse(readerOf(syncResponseJson), String.class)
+        );
+
+        final String nullResponseJson = Resources.readAsString("null-gql-response.json");
+        assertEquals(
+            gsonResponseFactory.buildSingleArrayResponse(nullResponseJson, ListTodosResult.Todo.class),
+            gsonResponseFactory.buildSingleArrayResponse(readerOf(nullResponseJson), ListTodosResult.Todo.class)
+        );
+    }
+
+    /**
+     * The data of a list response is a page of its items, which keeps the next token of the
+     * list, and the time that a sync started, whether it is read from a stream or a string.
+     * @throws ApiException From API configuration
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Count of items, and the startedAt time in the response
+    @Test
+    public void listResponseKeepsNextTokenOfPage() throws ApiException {
+        final String responseJson = Resources.readAsString("base-sync-posts-response.json")
+            .replace("\"nextToken\": null", "\"nextToken\": \"token-of-page-2\"");
+
+        final GsonGraphQLResponseFactory gsonResponseFactory = new GsonGraphQLResponseFactory();
+        for (Iterable<String> items : Arrays.asList(
+                gsonResponseFactory.buildSingleArrayResponse(readerOf(responseJson), String.class).getData(),
+                gsonResponseFactory.buildSingleArrayResponse(responseJson, String.class).getData())) {
+            assertTrue(items instanceof PaginatedResult);
+            final PaginatedResult<String> page = (PaginatedResult<String>) items;
+            assertEquals(2, page.getItems().size());
+            assertEquals("token-of-page-2", page.getNextToken());
+            assertEquals(Long.valueOf(1575157616210L), page.getStartedAt());
+        }
+    }
+
+    /**
+     * Modeled data can only be read from a single top-level field.
+     * @throws ApiException Expected, since the data has several top-level fields
+     */
+    @Test(expected = ApiException.class)
+    public void aliasedFieldsCanNotBeStreamedIntoModel() throws ApiException {
+        final String responseJson = Resources.readAsString("aliased-mutations-response.json");
+        new GsonGraphQLResponseFactory().buildSingleItemResponse(readerOf(responseJson), ListTodosResult.class);
+    }
+
     /**
      * The response to a base sync query must be resolvable by the response factory.
      * @throws ApiException From API configuration
@@ -178,4 +286,8 @@ public final class GsonGraphQLResponseFactoryTest {
             resultJsons
         );
     }
+
+    private static JsonReader readerOf(String json) {
+        return new JsonReader(new StringReader(json));
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the {@link SharedHttpClient}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public final class SharedHttpClientTest {
+    /**
+     * The shared client is tuned by its configuration, and is the same
+     * client for all configurations which are alike.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary limits
+    @Test
+    public void clientIsTunedAndSharedByConfiguration() {
+        final HttpClientConfiguration configuration = HttpClientConfiguration.builder()
+            .maxRequests(32)
+            .maxRequestsPerHost(8)
+            .maxIdleConnections(3)
+            .keepAliveDuration(1, TimeUnit.MINUTES)
+            .http2Preferred(false)
+            .build();
+        final OkHttpClient client = SharedHttpClient.forConfiguration(configuration);
+
+        assertEquals(32, client.dispatcher().getMaxRequests());
+        assertEquals(8, client.dispatcher().getMaxRequestsPerHost());
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), client.protocols());
+        assertSame(client, SharedHttpClient.forConfiguration(HttpClientConfiguration.builder()
+            .maxRequests(32)
+            .maxRequestsPerHost(8)
+            .maxIdleConnections(3)
+            .keepAliveDuration(60, TimeUnit.SECONDS)
+            .http2Preferred(false)
+            .build()));
+        assertNotSame(client, SharedHttpClient.forConfiguration(HttpClientConfiguration.defaults()));
+    }
+
+    /**
+     * The default configuration prefers HTTP/2, and allows more concurrent
+     * requests to a host than OkHttp does by default.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Default limits
+    @Test
+    public void defaultClientPrefersHttp2() {
+        final OkHttpClient client = SharedHttpClient.forConfiguration(HttpClientConfiguration.defaults());
+
+        assertEquals(64, client.dispatcher().getMaxRequests());
+        assertEquals(16, client.dispatcher().getMaxRequestsPerHost());
+        assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), client.protocols());
+    }
+
+    /**
+     * Clients which are derived from the shared client share its threads,
+     * its connections, and its TLS socket factory.
+     */
+    @Test
+    public void derivedClientsShareThreadsConnectionsAndTlsSessions() {
+        final OkHttpClient shared = SharedHttpClient.forConfiguration(HttpClientConfiguration.defaults());
+        final OkHttpClient graphQlClient = shared.newBuilder()
+            .addInterceptor(chain -> chain.proceed(chain.request()))
+            .build();
+        final OkHttpClient webSocketClient = shared.newBuilder().build();
+
+        assertSame(graphQlClient.dispatcher(), webSocketClient.dispatcher());
+        assertSame(graphQlClient.connectionPool(), webSocketClient.connectionPool());
+        assertSame(graphQlClient.sslSocketFactory(), webSocketClient.sslSocketFactory());
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.aws;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.graphql.GraphQLRequest;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SubscriptionListener;
+import com.amplifyframework.core.StreamListener;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link SubscriptionEndpoint}, over a WebSocket whose
+ * messages are sent and received by the test.
+ */
+@RunWith(RobolectricTestRunner.class)
+public final class SubscriptionEndpointTest {
+    private static final long ACKNOWLEDGEMENT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private OkHttpClient okHttpClient;
+    private WebSocket webSocket;
+    private List<JSONObject> sentMessages;
+    private WebSocketListener socketListener;
+    private SubscriptionEndpoint subscriptionEndpoint;
+
+    /**
+     * Sets up an endpoint whose WebSockets record the messages which are sent on them.
+     */
+    @Before
+    public void setup() {
+        sentMessages = new ArrayList<>();
+        okHttpClient = mock(OkHttpClient.class);
+        when(okHttpClient.newWebSocket(any(Request.class), any(WebSocketListener.class))).thenAnswer(invocation -> {
+            socketListener = invocation.getArgument(1);
+            webSocket = mock(WebSocket.class);
+            when(webSocket.send(anyString())).thenAnswer(send -> {
+                sentMessages.add(new JSONObject(send.<String>getArgument(0)));
+                return true;
+            });
+            return webSocket;
+        });
+        final ApiConfiguration apiConfiguration = ApiConfiguration.builder()
+            .endpointType(EndpointType.GRAPHQL)
+            .endpoint("https://xxxxxxxxxxxx.appsync-api.us-east-1.amazonaws.com/graphql")
+            .region("us-east-1")
+            .authorizationType(AuthorizationType.API_KEY)
+            .apiKey("FAKE-API-KEY")
+            .build();
+        subscriptionEndpoint =
+            new SubscriptionEndpoint(apiConfiguration, new GsonGraphQLResponseFactory(), okHttpClient);
+    }
+
+    /**
+     * Subscriptions are requested without waiting for the network. Those requested while
+     * the connection is being made share it, and are all started as soon as it is acknowledged,
+     * without waiting for each other's acknowledgement.
+     * @throws JSONException On failure to read a sent message
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Count of subscriptions
+    @Test
+    public void waitingSubscriptionsAreStartedTogetherOnceConnected() throws JSONException {
+        final String first = subscriptionEndpoint.requestSubscription(request(), listener());
+        final String second = subscriptionEndpoint.requestSubscription(request(), listener());
+        final String third = subscriptionEndpoint.requestSubscription(request(), listener());
+        verify(okHttpClient, times(1)).newWebSocket(any(Request.class), any(WebSocketListener.class));
+        assertTrue(sentMessages.isEmpty());
+
+        socketListener.onOpen(webSocket, null);
+        assertEquals("connection_init", sentMessages.get(0).getString("type"));
+        receive(connectionAck());
+
+        final List<String> startedIds = new ArrayList<>();
+        for (JSONObject message : sentMessages.subList(1, sentMessages.size())) {
+            assertEquals("start", message.getString("type"));
+            startedIds.add(message.getString("id"));
+        }
+        assertEquals(3, startedIds.size());
+        assertTrue(startedIds.containsAll(Arrays.asList(first, second, third)));
+
+        // Once connected, a subscription is started right away.
+        final String fourth = subscriptionEndpoint.requestSubscription(request(), listener());
+        assertEquals(fourth, sentMessages.get(sentMessages.size() - 1).getString("id"));
+    }
+
+    /**
+     * A subscription which is not acknowledged in time fails, while one that
+     * was acknowledged carries on.
+     * @throws JSONException On failure to arrange a received message
+     */
+    @Test
+    public void subscriptionWhichIsNotAcknowledgedFails() throws JSONException {
+        final StreamListener<GraphQLResponse<String>> acknowledgedListener = listener();
+        final StreamListener<GraphQLResponse<String>> unacknowledgedListener = listener();
+        final String acknowledged = subscriptionEndpoint.requestSubscription(request(), acknowledgedListener);
+        subscriptionEndpoint.requestSubscription(request(), unacknowledgedListener);
+        socketListener.onOpen(webSocket, null);
+        receive(connectionAck());
+        receive(new JSONObject().put("type", "start_ack").put("id", acknowledged));
+
+        ShadowLooper.idleMainLooper(ACKNOWLEDGEMENT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        verify(unacknowledgedListener).onError(any(ApiException.class));
+        verify(acknowledgedListener, never()).onError(any(Throwable.class));
+    }
+
+    /**
+     * A subscription which timed out is stopped. If the service acknowledges it after all,
+     * that acknowledgement, and any frame which follows it, is ignored, and the other
+     * subscriptions on the connection carry on.
+     * @throws JSONException On failure to arrange a received message
+     */
+    @Test
+    public void lateAcknowledgementOfTimedOutSubscriptionIsIgnored() throws JSONException {
+        final StreamListener<GraphQLResponse<String>> acknowledgedListener = listener();
+        final StreamListener<GraphQLResponse<String>> lateListener = listener();
+        final String acknowledged = subscriptionEndpoint.requestSubscription(request(), acknowledgedListener);
+        final String late = subscriptionEndpoint.requestSubscription(request(), lateListener);
+        connect();
+        receive(new JSONObject().put("type", "start_ack").put("id", acknowledged));
+
+        ShadowLooper.idleMainLooper(ACKNOWLEDGEMENT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        final JSONObject stopMessage = sentMessages.get(sentMessages.size() - 1);
+        assertEquals("stop", stopMessage.getString("type"));
+        assertEquals(late, stopMessage.getString("id"));
+
+        receive(new JSONObject().put("type", "start_ack").put("id", late));
+        socketListener.onMessage(webSocket, "{\"type\":\"data\",\"id\":\"" + late + "\"," +
+            "\"payload\":{\"data\":{\"onCreatePost\":{\"id\":\"1\",\"title\":\"Late\"}}}}");
+        receive(new JSONObject().put("type", "complete").put("id", late));
+
+        verify(lateListener, times(1)).onError(any(ApiException.class));
+        verify(lateListener, never()).onNext(any());
+        verify(lateListener, never()).onComplete();
+        verify(acknowledgedListener, never()).onError(any(Throwable.class));
+        verify(webSocket, never()).close(anyInt(), anyString());
+    }
+
+    /**
+     * A listener which is a {@link SubscriptionListener} is told when its
+     * subscription has been acknowledged by the service, and not before.
+     * @throws JSONException On failure to arrange a received message
+     */
+    @Test
+    public void subscriptionListenerIsToldWhenStarted() throws JSONException {
+        @SuppressWarnings("unchecked") // Mock of generic type
+        final SubscriptionListener<GraphQLResponse<String>> listener = mock(SubscriptionListener.class);
+        final String subscriptionId = subscriptionEndpoint.requestSubscription(request(), listener);
+        connect();
+        verify(listener, never()).onStarted();
+
+        receive(new JSONObject().put("type", "start_ack").put("id", subscriptionId));
+        verify(listener, times(1)).onStarted();
+        verify(listener, never()).onError(any(Throwable.class));
+    }
+
+    /**
+     * Once a subscription has been started again, after the connection was lost, a
+     * {@link SubscriptionListener} is told that it has resumed, so that it can query
+     * for the events which happened while the connection was down.
+     * @throws JSONException On failure to arrange a received message
+     */
+    @Test
+    public void subscriptionListenerIsToldWhenResumed() throws JSONException {
+        @SuppressWarnings("unchecked") // Mock of generic type
+        final SubscriptionListener<GraphQLResponse<String>> listener = mock(SubscriptionListener.class);
+        final String subscriptionId = subscriptionEndpoint.requestSubscription(request(), listener);
+        connect();
+        receive(new JSONObject().put("type", "start_ack").put("id", subscriptionId));
+
+        socketListener.onFailure(webSocket, new IOException("Network is down."), null);
+        ShadowLooper.idleMainLooper(SubscriptionEndpoint.BASE_RECONNECT_DELAY_MS, TimeUnit.MILLISECONDS);
+        connect();
+        verify(listener, never()).onResumed();
+
+        receive(new JSONObject().put("type", "start_ack").put("id", subscriptionId));
+        receive(new JSONObject().put("type", "start_ack").put("id", subscriptionId));
+        verify(listener, times(1)).onStarted();
+        verify(listener, times(1)).onResumed();
+        verify(listener, never()).onError(any(Throwable.class));
+    }
+
+    /**
+     * Releasing a subscription does not wait for the service. The subscription is completed
+     * once the service says that it has stopped, and then the idle connection is closed.
+     * @throws JSONException On failure to arrange a received message
+     * @throws ApiException Not expected, since the subscription exists
+     */
+    @Test
+    public void releasedSubscriptionIsCompletedOnceStopped() throws JSONException, ApiException {
+        final StreamListener<GraphQLResponse<String>> listener = listener();
+        final String subscriptionId = subscriptionEndpoint.requestSubscription(request(), listener);
+        socketListener.onOpen(webSocket, null);
+        receive(connectionAck());
+        receive(new JSONObject().put("type", "start_ack").put("id", subscriptionId));
+
+        subscriptionEndpoint.releaseSubscription(subscriptionId);
+        final JSONObject stopMessage = sentMessages.get(sentMessages.size() - 1);
+        assertEquals("stop", stopMessage.getString("type"));
+        assertEquals(subscriptionId, stopMessage.getString("id"));
+        verify(listener, never()).onComplete();
+
+        receive(new JSONObject().put("type", "complete").put("id", subscriptionId));
+        verify(listener).onComplete();
+        verify(webSocket).close(anyInt(), anyString());
+    }
+
+    /**
+     * When the connection is lost, the endpoint reconnects after a backoff, and starts
+     * the same subscriptions again, without their listeners being failed or completed.
+     * @throws JSONException On failure to read a sent message
+     */
+    @Test
+    public void subscriptionsAreResumedAfterConnectionIsLost() throws JSONException {
+        final StreamListener<GraphQLResponse<String>> firstListener = listener();
+        final StreamListener<GraphQLResponse<String>> secondListener = listener();
+        final String first = subscriptionEndpoint.requestSubscription(request(), firstListener);
+        final String second = subscriptionEndpoint.requestSubscription(request(), secondListener);
+        connect();
+        receive(new JSONObject().put("type", "start_ack").put("id", first));
+        receive(new JSONObject().put("type", "start_ack").put("id", second));
+
+        final WebSocket lostSocket = webSocket;
+        sentMessages.clear();
+        socketListener.onFailure(lostSocket, new IOException("Network is down."), null);
+        assertEquals(SubscriptionEndpoint.ConnectionState.RECONNECTING, subscriptionEndpoint.getConnectionState());
+        assertEquals(1, subscriptionEndpoint.getConnectionLossCount());
+
+        // Nothing happens until the backoff has passed.
+        ShadowLooper.idleMainLooper(SubscriptionEndpoint.BASE_RECONNECT_DELAY_MS / 2 - 1, TimeUnit.MILLISECONDS);
+        verify(okHttpClient, times(1)).newWebSocket(any(Request.class), any(WebSocketListener.class));
+        ShadowLooper.idleMainLooper(SubscriptionEndpoint.BASE_RECONNECT_DELAY_MS / 2 + 1, TimeUnit.MILLISECONDS);
+        verify(okHttpClient, times(2)).newWebSocket(any(Request.class), any(WebSocketListener.class));
+
+        // Events of the lost socket are ignored.
+        socketListener.onOpen(lostSocket, null);
+        assertTrue(sentMessages.isEmpty());
+
+        connect();
+        final List<String> resumedIds = new ArrayList<>();
+        for (JSONObject message : sentMessages.subList(1, sentMessages.size())) {
+            assertEquals("start", message.getString("type"));
+            resumedIds.add(message.getString("id"));
+        }
+        assertEquals(2, resumedIds.size());
+        assertTrue(resumedIds.containsAll(Arrays.asList(first, second)));
+        assertEquals(SubscriptionEndpoint.ConnectionState.CONNECTED, subscriptionEndpoint.getConnectionState());
+        assertEquals(1, subscriptionEndpoint.getReconnectionCount());
+        verify(firstListener, never()).onError(any(Throwable.class));
+        verify(secondListener, never()).onComplete();
+    }
+
+    /**
+     * If the endpoint can not reconnect after several attempts, the subscriptions fail.
+     */
+    @Test
+    public void subscriptionsFailWhenReconnectAttemptsRunOut() {
+        final StreamListener<GraphQLResponse<String>> listener = listener();
+        subscriptionEndpoint.requestSubscription(request(), listener);
+        for (int attempt = 0; attempt < SubscriptionEndpoint.MAX_RECONNECT_ATTEMPTS; attempt++) {
+            socketListener.onFailure(webSocket, new IOException("Network is down."), null);
+            ShadowLooper.idleMainLooper(SubscriptionEndpoint.MAX_RECONNECT_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        verify(listener, never()).onError(any(Throwable.class));
+
+        socketListener.onFailure(webSocket, new IOException("Network is down."), null);
+        verify(listener).onError(any(ApiException.class));
+        assertEquals(SubscriptionEndpoint.ConnectionState.DISCONNECTED, subscriptionEndpoint.getConnectionState());
+    }
+
+    /**
+     * The delay before an attempt to reconnect grows with each attempt, up to a maximum,
+     * and is jittered over the upper half of its range.
+     */
+    @Test
+    public void reconnectDelayIsJitteredExponentialBackoff() {
+        for (int attempt = 1; attempt <= SubscriptionEndpoint.MAX_RECONNECT_ATTEMPTS; attempt++) {
+            final long ceiling = Math.min(SubscriptionEndpoint.MAX_RECONNECT_DELAY_MS,
+                SubscriptionEndpoint.BASE_RECONNECT_DELAY_MS << (attempt - 1));
+            final long delay = subscriptionEndpoint.reconnectDelayMs(attempt);
+            assertTrue(delay >= ceiling / 2);
+            assertTrue(delay <= ceiling);
+        }
+    }
+
+    /**
+     * The payload of a data frame is delivered to the subscription which it names,
+     * whether the payload comes before or after the ID in the frame.
+     * @throws JSONException On failure to arrange a received message
+     */
+    @Test
+    public void dataIsDispatchedToItsSubscription() throws JSONException {
+        final StreamListener<GraphQLResponse<String>> listener = listener();
+        final String subscriptionId = subscriptionEndpoint.requestSubscription(request(), listener);
+        connect();
+        receive(new JSONObject().put("type", "start_ack").put("id", subscriptionId));
+
+        final String post = "{\"id\":\"1\",\"title\":\"Streamed\"}";
+        final String payload = "{\"data\":{\"onCreatePost\":" + post + "}}";
+        socketListener.onMessage(webSocket,
+            "{\"type\":\"data\",\"id\":\"" + subscriptionId + "\",\"payload\":" + payload + "}");
+        socketListener.onMessage(webSocket,
+            "{\"payload\":" + payload + ",\"id\":\"" + subscriptionId + "\",\"type\":\"data\"}");
+
+        final GraphQLResponse<String> expected = new GraphQLResponse<>(post, Collections.emptyList());
+        verify(listener, times(2)).onNext(expected);
+        verify(listener, never()).onError(any(Throwable.class));
+    }
+
+    /**
+     * A payload which can not be read fails the subscription that it is for, which is then
+     * stopped. The other subscriptions on the connection carry on.
+     * @throws JSONException On failure to arrange a received message
+     */
+    @Test
+    public void unreadablePayloadFailsOnlyItsSubscription() throws JSONException {
+        final StreamListener<GraphQLResponse<String>> failingListener = listener();
+        final StreamListener<GraphQLResponse<String>> otherListener = listener();
+        final String failing = subscriptionEndpoint.requestSubscription(request(), failingListener);
+        final String other = subscriptionEndpoint.requestSubscription(request(), otherListener);
+        connect();
+        receive(new JSONObject().put("type", "start_ack").put("id", failing));
+        receive(new JSONObject().put("type", "start_ack").put("id", other));
+
+        // The errors are an object, rather than a list, so reading stops part way through the payload.
+        socketListener.onMessage(webSocket, "{\"type\":\"data\",\"id\":\"" + failing + "\"," +
+            "\"payload\":{\"errors\":{\"message\":\"Not a list\"},\"data\":null}}");
+        verify(failingListener).onError(any(ApiException.class));
+        final JSONObject stopMessage = sentMessages.get(sentMessages.size() - 1);
+        assertEquals("stop", stopMessage.getString("type"));
+        assertEquals(failing, stopMessage.getString("id"));
+
+        final String post = "{\"id\":\"1\",\"title\":\"Streamed\"}";
+        socketListener.onMessage(webSocket, "{\"type\":\"data\",\"id\":\"" + other + "\"," +
+            "\"payload\":{\"data\":{\"onCreatePost\":" + post + "}}}");
+        verify(otherListener).onNext(new GraphQLResponse<>(post, Collections.emptyList()));
+        verify(otherListener, never()).onError(any(Throwable.class));
+        verify(failingListener, never()).onNext(any());
+    }
+
+    // Opens the current socket, and acknowledges its connection.
+    private void connect() throws JSONException {
+        socketListener.onOpen(webSocket, null);
+        receive(connectionAck());
+    }
+
+    private void receive(JSONObject message) {
+        socketListener.onMessage(webSocket, message.toString());
+    }
+
+    private static JSONObject connectionAck() throws JSONException {
+        return new JSONObject()
+            .put("type", "connection_ack")
+            .put("payload", new JSONObject().put("connectionTimeoutMs", "300000"));
+    }
+
+    private static GraphQLRequest<String> request() {
+        return new GraphQLRequest<>(
+            "subscription OnCreatePost { onCreatePost { id title } }",
+            String.class,
+            new GsonVariablesSerializer()
+        );
+    }
+
+    @SuppressWarnings("unchecked") // Mock of generic type
+    private static StreamListener<GraphQLResponse<String>> listener() {
+        return mock(StreamListener.class);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.core.model.query.predicate.QueryField;
+import com.amplifyframework.testmodels.commentsblog.AmplifyModelProvider;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testutils.LatchedResultListener;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the streaming query of the {@link AWSDataStorePlugin}, against local storage only.
+ */
+public final class AWSDataStorePluginStreamInstrumentedTest {
+    private static final String DATABASE_NAME = "AmplifyDatastore.db";
+    private static final long DATA_STORE_OP_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(2);
+    private static final long WRITE_BEHIND_WINDOW_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private Context context;
+    private AWSDataStorePlugin awsDataStorePlugin;
+
+    /**
+     * Configures a plugin which does not sync, and which buffers saves for longer
+     * than any test runs, so that only a query can cause them to be written.
+     * @throws JSONException On failure to build the plugin configuration
+     * @throws DataStoreException On failure to configure the plugin
+     */
+    @Before
+    public void setUp() throws JSONException, DataStoreException {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+
+        awsDataStorePlugin = AWSDataStorePlugin.forModels(AmplifyModelProvider.getInstance());
+        awsDataStorePlugin.configure(
+            new JSONObject().put("writeBehindWindowMs", WRITE_BEHIND_WINDOW_MS),
+            context
+        );
+    }
+
+    /**
+     * Terminate the plugin and delete its database.
+     * @throws DataStoreException from terminate if anything goes wrong
+     */
+    @After
+    public void tearDown() throws DataStoreException {
+        awsDataStorePlugin.terminate();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    /**
+     * A stream emits the items which match the query, in the requested order,
+     * including those whose saves are still buffered when it is subscribed.
+     */
+    @Test
+    public void streamEmitsMatchingItemsIncludingBufferedSaves() {
+        final BlogOwner jameson = saveLocal(BlogOwner.builder()
+            .name("Jameson Williams")
+            .build());
+        final BlogOwner charley = saveLocal(BlogOwner.builder()
+            .name("Charley Crockett")
+            .build());
+        saveLocal(BlogOwner.builder()
+            .name("Zed Zimmerman")
+            .build());
+
+        final TestSubscriber<BlogOwner> subscriber = awsDataStorePlugin.stream(
+            BlogOwner.class,
+            QueryField.field("name").lt("Z"),
+            QueryOptions.builder()
+                .sortBy(QueryField.field("name").ascending())
+                .build()
+        ).test();
+
+        assertTrue(subscriber.awaitTerminalEvent(DATA_STORE_OP_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        subscriber.assertNoErrors();
+        final List<BlogOwner> expected = Arrays.asList(charley, jameson);
+        assertEquals(expected, subscriber.values());
+    }
+
+    /**
+     * A stream reads only as many items as are requested, and stops reading
+     * when its subscription is cancelled.
+     */
+    @Test
+    public void streamReadsOnlyRequestedItems() {
+        final BlogOwner jameson = saveLocal(BlogOwner.builder()
+            .name("Jameson Williams")
+            .build());
+        saveLocal(BlogOwner.builder()
+            .name("Zed Zimmerman")
+            .build());
+
+        final TestSubscriber<BlogOwner> subscriber = awsDataStorePlugin.stream(
+            BlogOwner.class,
+            null,
+            QueryOptions.builder()
+                .sortBy(QueryField.field("name").ascending())
+                .build()
+        ).test(1);
+
+        subscriber.awaitCount(1);
+        subscriber.assertValuesOnly(jameson);
+        subscriber.cancel();
+        subscriber.assertNotComplete();
+    }
+
+    // Saves an item through the plugin. It is buffered, so the save is not waited for.
+    private BlogOwner saveLocal(BlogOwner item) {
+        awsDataStorePlugin.save(item, LatchedResultListener.waitFor(DATA_STORE_OP_TIMEOUT_MS));
+        return item;
+    }
+}
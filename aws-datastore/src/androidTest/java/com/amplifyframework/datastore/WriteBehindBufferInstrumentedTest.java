@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
+import com.amplifyframework.datastore.storage.LocalStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.datastore.storage.sqlite.SQLiteStorageAdapter;
+import com.amplifyframework.testmodels.commentsblog.AmplifyModelProvider;
+import com.amplifyframework.testmodels.commentsblog.Blog;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testutils.LatchedResultListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link WriteBehindBuffer} against the {@link SQLiteStorageAdapter}.
+ */
+public final class WriteBehindBufferInstrumentedTest {
+    private static final long OPERATION_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(1);
+    private static final long WINDOW_MS = TimeUnit.SECONDS.toMillis(1);
+    private static final String DATABASE_NAME = "AmplifyDatastore.db";
+
+    private Context context;
+    private LocalStorageAdapter localStorageAdapter;
+    private WriteBehindBuffer writeBehindBuffer;
+    private GsonStorageItemChangeConverter storageItemChangeConverter;
+
+    /**
+     * Prepare a SQLite storage adapter, and a buffer which writes to it.
+     */
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+
+        localStorageAdapter = SQLiteStorageAdapter.forModels(AmplifyModelProvider.getInstance());
+        LatchedResultListener<List<ModelSchema>> setupListener =
+            LatchedResultListener.waitFor(OPERATION_TIMEOUT_MS);
+        localStorageAdapter.initialize(context, setupListener);
+        setupListener.awaitResult();
+
+        writeBehindBuffer = new WriteBehindBuffer(localStorageAdapter, WINDOW_MS, new TestScheduler());
+        storageItemChangeConverter = new GsonStorageItemChangeConverter();
+    }
+
+    /**
+     * Terminate the storage adapter and delete its database.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @After
+    public void tearDown() throws DataStoreException {
+        localStorageAdapter.terminate();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    /**
+     * When a window fails to be written as a whole, the changes of the saves which
+     * are written on their own are still observed, as are those of later windows.
+     * @throws DataStoreException On failure to convert a change record
+     */
+    @Test
+    public void observeContinuesAfterFailedBatch() throws DataStoreException {
+        final TestObserver<StorageItemChange.Record> changeObserver = localStorageAdapter.observe().test();
+
+        // The owner of this blog is never saved, so the blog violates a foreign key.
+        final Blog blogWithUnsavedOwner = Blog.builder()
+            .name("Susan's Blog")
+            .owner(BlogOwner.builder()
+                .name("Susan Swanson")
+                .build())
+            .build();
+        final BlogOwner raphael = BlogOwner.builder()
+            .name("Raphael Kim")
+            .build();
+        final LatchedResultListener<StorageItemChange.Record> blogListener =
+            LatchedResultListener.waitFor(OPERATION_TIMEOUT_MS);
+        final LatchedResultListener<StorageItemChange.Record> raphaelListener =
+            LatchedResultListener.waitFor(OPERATION_TIMEOUT_MS);
+        writeBehindBuffer.save(blogWithUnsavedOwner, blogListener);
+        writeBehindBuffer.save(raphael, raphaelListener);
+        assertTrue(writeBehindBuffer.flush().blockingAwait(OPERATION_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertNotNull(blogListener.awaitError());
+        assertEquals(raphael, itemOf(raphaelListener.awaitResult()));
+
+        final BlogOwner tony = BlogOwner.builder()
+            .name("Tony Daniels")
+            .build();
+        final LatchedResultListener<StorageItemChange.Record> tonyListener =
+            LatchedResultListener.waitFor(OPERATION_TIMEOUT_MS);
+        writeBehindBuffer.save(tony, tonyListener);
+        assertTrue(writeBehindBuffer.flush().blockingAwait(OPERATION_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(tony, itemOf(tonyListener.awaitResult()));
+
+        changeObserver.assertNoErrors();
+        changeObserver.assertValueCount(2);
+        assertEquals(raphael, itemOf(changeObserver.values().get(0)));
+        assertEquals(tony, itemOf(changeObserver.values().get(1)));
+    }
+
+    private <T extends Model> T itemOf(StorageItemChange.Record record) throws DataStoreException {
+        return record.<T>toStorageItemChange(storageItemChangeConverter).item();
+    }
+}
@@ -16,11 +16,20 @@
 package com.amplifyframework.datastore.storage.sqlite;
 
 import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
 import android.os.StrictMode;
 import androidx.test.core.app.ApplicationProvider;
 
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.ModelSchemaRegistry;
 import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.network.DeadLetterMutation;
+import com.amplifyframework.datastore.network.LastSyncMetadata;
+import com.amplifyframework.datastore.network.ModelMetadata;
+import com.amplifyframework.datastore.network.OutboundMutationAttempt;
+import com.amplifyframework.datastore.storage.StorageItemChange;
 import com.amplifyframework.testmodels.personcar.AmplifyCliGeneratedModelProvider;
 import com.amplifyframework.testmodels.personcar.RandomVersionModelProvider;
 import com.amplifyframework.testutils.LatchedResultListener;
@@ -30,12 +39,17 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test the functionality of {@link SQLiteStorageAdapter} with model update operations.
@@ -135,4 +149,55 @@ public final class ModelUpgradeSQLiteInstrumentedTest {
         actualVersion = persistentModelVersion.getVersion();
         assertEquals(expectedVersion, actualVersion);
     }
+
+    /**
+     * A database which was created by version 1 of the storage adapter, before the system
+     * tables that sync uses were added, is upgraded by creating those tables. The rows that
+     * it already has, such as local changes which have not been published, are kept.
+     * @throws AmplifyException On failure to load the schemas of the first version
+     */
+    @Test
+    public void databaseOfFirstVersionIsUpgradedWithoutLosingChanges() throws AmplifyException {
+        // Create the database as version 1 did, with a journaled change in it.
+        final Set<Class<? extends Model>> firstVersionModels = new HashSet<>(Arrays.asList(
+            StorageItemChange.Record.class, PersistentModelVersion.class));
+        firstVersionModels.addAll(modelProvider.models());
+        final ModelSchemaRegistry modelSchemaRegistry = ModelSchemaRegistry.singleton();
+        modelSchemaRegistry.clear();
+        modelSchemaRegistry.load(firstVersionModels);
+        final SQLCommandFactory sqlCommandFactory = new SQLiteCommandFactory();
+        final Set<SqlCommand> createTableCommands = new HashSet<>();
+        final Set<SqlCommand> createIndexCommands = new HashSet<>();
+        for (Class<? extends Model> model : firstVersionModels) {
+            final ModelSchema modelSchema = modelSchemaRegistry.getModelSchemaForModelClass(model.getSimpleName());
+            createTableCommands.add(sqlCommandFactory.createTableFor(modelSchema));
+            createIndexCommands.addAll(sqlCommandFactory.createIndexesFor(modelSchema));
+        }
+        final SQLiteStorageHelper firstVersionHelper = SQLiteStorageHelper.getInstance(
+            context, DATABASE_NAME, 1, new CreateSqlCommands(createTableCommands, createIndexCommands));
+        final SQLiteDatabase firstVersionDatabase = firstVersionHelper.getWritableDatabase();
+        final String changeId = UUID.randomUUID().toString();
+        firstVersionDatabase.execSQL("INSERT INTO Record (id, entry, itemClass) VALUES (?, ?, ?)",
+            new Object[] {changeId, "{}", "Person"});
+        firstVersionDatabase.execSQL("INSERT INTO PersistentModelVersion (id, version) VALUES (?, ?)",
+            new Object[] {"version-in-local-storage", modelProvider.version()});
+        firstVersionHelper.close();
+
+        // Open it with the current version of the storage adapter.
+        LatchedResultListener<List<ModelSchema>> setupListener =
+                LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+        sqliteStorageAdapter = SQLiteStorageAdapter.forModels(modelProvider);
+        sqliteStorageAdapter.initialize(context, setupListener);
+        assertFalse(setupListener.awaitTerminalEvent().awaitResult().isEmpty());
+
+        // The journaled change is still there, and the new system tables can be used.
+        final List<StorageItemChange.Record> records =
+            sqliteStorageAdapter.stream(StorageItemChange.Record.class, null, null).toList().blockingGet();
+        assertEquals(1, records.size());
+        assertEquals(changeId, records.get(0).getId());
+        for (Class<? extends Model> systemModel : Arrays.asList(LastSyncMetadata.class, ModelMetadata.class,
+                OutboundMutationAttempt.class, DeadLetterMutation.class)) {
+            assertTrue(sqliteStorageAdapter.stream(systemModel, null, null).toList().blockingGet().isEmpty());
+        }
+    }
 }
@@ -26,9 +26,14 @@ import androidx.test.core.app.ApplicationProvider;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelProvider;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryField;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.network.DeadLetterMutation;
+import com.amplifyframework.datastore.network.LastSyncMetadata;
+import com.amplifyframework.datastore.network.ModelMetadata;
+import com.amplifyframework.datastore.network.OutboundMutationAttempt;
 import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
 import com.amplifyframework.datastore.storage.StorageItemChange;
 import com.amplifyframework.testmodels.commentsblog.AmplifyModelProvider;
@@ -53,6 +58,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.observers.TestObserver;
+
 import static com.amplifyframework.core.model.query.predicate.QueryPredicateOperation.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -104,6 +111,10 @@ public final class SQLiteStorageAdapterInstrumentedTest {
         List<Class<? extends Model>> expectedModels = new ArrayList<>(modelProvider.models());
         expectedModels.add(StorageItemChange.Record.class); // Internal
         expectedModels.add(PersistentModelVersion.class); // Internal
+        expectedModels.add(LastSyncMetadata.class); // Internal
+        expectedModels.add(ModelMetadata.class); // Internal
+        expectedModels.add(OutboundMutationAttempt.class); // Internal
+        expectedModels.add(DeadLetterMutation.class); // Internal
         assertEquals(expectedModels.size(), setupResults.size());
     }
 
@@ -147,6 +158,33 @@ public final class SQLiteStorageAdapterInstrumentedTest {
         assertEquals(realRaph, possiblyRaph);
     }
 
+    /**
+     * Assert that updating an item does not delete the items that reference it.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void saveModelUpdateKeepsReferencingData() throws DataStoreException {
+        final BlogOwner raphael = BlogOwner.builder()
+            .name("Raphael Kim")
+            .build();
+        saveModel(raphael);
+        final Blog raphaelsBlog = Blog.builder()
+            .name("Raphael's Blog")
+            .owner(raphael)
+            .build();
+        saveModel(raphaelsBlog);
+
+        // Triggers an update of the owner, which is referenced by the blog
+        saveModel(raphael.copyOfBuilder()
+            .name("Raph Kim")
+            .build());
+
+        Iterator<Blog> blogIterator = queryModel(Blog.class);
+        assertTrue(blogIterator.hasNext());
+        assertEquals(raphaelsBlog.getId(), blogIterator.next().getId());
+        assertFalse(blogIterator.hasNext());
+    }
+
     /**
      * Assert that save stores data in the SQLite database correctly.
      * @throws DataStoreException from possible underlying DataStore exceptions
@@ -352,6 +390,50 @@ public final class SQLiteStorageAdapterInstrumentedTest {
         assertEquals(blogOwner.getBlog(), queriedBlogOwner.getBlog());
     }
 
+    /**
+     * Test that a lazily fetched association is read as a reference, which
+     * only has the ID of the associated model, and that the associated models
+     * of a page of results are then loaded together.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Number of saved blogs
+    @Test
+    public void querySavedDataWithLazyForeignKeyThenLoadAssociation() throws DataStoreException {
+        final BlogOwner alan = BlogOwner.builder()
+            .name("Alan Turing")
+            .build();
+        final BlogOwner grace = BlogOwner.builder()
+            .name("Grace Hopper")
+            .build();
+        saveModel(alan);
+        saveModel(grace);
+        saveModel(Blog.builder().name("Alan's Software Blog").owner(alan).build());
+        saveModel(Blog.builder().name("Alan's Other Blog").owner(alan).build());
+        saveModel(Blog.builder().name("Grace's Compiler Blog").owner(grace).build());
+
+        final QueryOptions options = QueryOptions.builder()
+            .fetch(Blog.OWNER.lazy())
+            .build();
+        final List<Blog> blogs = new ArrayList<>();
+        final Iterator<Blog> result = queryModel(Blog.class, null, options);
+        while (result.hasNext()) {
+            final Blog blog = result.next();
+            assertNotNull(blog.getOwner());
+            assertNull(blog.getOwner().getName());
+            blogs.add(blog);
+        }
+        assertEquals(3, blogs.size());
+
+        final LatchedResultListener<List<Blog>> loadListener =
+            LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+        sqliteStorageAdapter.loadAssociation(Blog.class, blogs, "owner", loadListener);
+        for (Blog blog : loadListener.awaitResult()) {
+            final BlogOwner expectedOwner = blog.getName().startsWith("Alan") ? alan : grace;
+            assertEquals(expectedOwner.getId(), blog.getOwner().getId());
+            assertEquals(expectedOwner.getName(), blog.getOwner().getName());
+        }
+    }
+
     /**
      * Test querying the saved item in the SQLite database with
      * predicate conditions.
@@ -479,6 +561,191 @@ public final class SQLiteStorageAdapterInstrumentedTest {
         assertEquals(jane, resultAfterMaliciousQuery.next());
     }
 
+    /**
+     * Test streaming the saved items in the SQLite database, with and without a predicate.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void streamSavedData() throws DataStoreException {
+        final Set<BlogOwner> savedModels = new HashSet<>();
+        final int numModels = 10;
+        for (int counter = 0; counter < numModels; counter++) {
+            final BlogOwner blogOwner = BlogOwner.builder()
+                .name("namePrefix:" + counter)
+                .build();
+            saveModel(blogOwner);
+            savedModels.add(blogOwner);
+        }
+
+        final List<BlogOwner> streamed = sqliteStorageAdapter.stream(BlogOwner.class, null, null)
+            .toList()
+            .blockingGet();
+        assertEquals(numModels, streamed.size());
+        assertEquals(savedModels, new HashSet<>(streamed));
+
+        final List<BlogOwner> filtered = sqliteStorageAdapter
+            .stream(BlogOwner.class, BlogOwner.NAME.eq("namePrefix:3"), null)
+            .toList()
+            .blockingGet();
+        assertEquals(1, filtered.size());
+        assertEquals("namePrefix:3", filtered.get(0).getName());
+    }
+
+    /**
+     * Test that a stream of query results may be cancelled before all
+     * of the items have been read, and that storage is still usable afterwards.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void streamSavedDataCanBeCancelled() throws DataStoreException {
+        final int numModels = 10;
+        for (int counter = 0; counter < numModels; counter++) {
+            saveModel(BlogOwner.builder()
+                .name("namePrefix:" + counter)
+                .build());
+        }
+
+        final List<BlogOwner> firstTwo = sqliteStorageAdapter.stream(BlogOwner.class, null, null)
+            .take(2)
+            .toList()
+            .blockingGet();
+        assertEquals(2, firstTwo.size());
+
+        saveModel(BlogOwner.builder()
+            .name("After the stream")
+            .build());
+        assertEquals(numModels + 1, (long) sqliteStorageAdapter.stream(BlogOwner.class, null, null)
+            .count()
+            .blockingGet());
+    }
+
+    /**
+     * Test that query results are sorted by the requested field, after the
+     * predicate is applied, and that no more than a page of them is returned.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary ratings and page size
+    @Test
+    public void querySavedDataWithSortAndPageSize() throws DataStoreException {
+        final int numModels = 10;
+        for (int counter = 0; counter < numModels; counter++) {
+            saveModel(Post.builder()
+                .title("titlePrefix:" + counter)
+                .status(PostStatus.ACTIVE)
+                .rating(counter)
+                .build());
+        }
+
+        final QueryOptions options = QueryOptions.builder()
+            .sortBy(Post.RATING.descending())
+            .pageSize(3)
+            .build();
+        final Iterator<Post> result = queryModel(Post.class, Post.RATING.lt(8), options);
+
+        final List<Integer> ratings = new ArrayList<>();
+        while (result.hasNext()) {
+            ratings.add(result.next().getRating());
+        }
+        assertEquals(Arrays.asList(7, 6, 5), ratings);
+    }
+
+    /**
+     * Test reading all of the saved items one page at a time, by starting each
+     * page after the last item of the previous page. Items which have the same
+     * value for the sort field are ordered by ID, so no item is skipped or repeated.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary ratings and page size
+    @Test
+    public void querySavedDataPageByPage() throws DataStoreException {
+        final Set<Post> savedModels = new HashSet<>();
+        final int numModels = 10;
+        for (int counter = 0; counter < numModels; counter++) {
+            final Post post = Post.builder()
+                .title("titlePrefix:" + counter)
+                .status(PostStatus.ACTIVE)
+                .rating(counter % 3)
+                .build();
+            saveModel(post);
+            savedModels.add(post);
+        }
+
+        final int pageSize = 4;
+        final List<Post> paged = new ArrayList<>();
+        int numPages = 0;
+        Post lastPost = null;
+        do {
+            final QueryOptions.Builder options = QueryOptions.builder()
+                .sortBy(Post.RATING.ascending())
+                .pageSize(pageSize);
+            if (lastPost != null) {
+                options.startAfter(lastPost.getRating(), lastPost.getId());
+            }
+            final Iterator<Post> page = queryModel(Post.class, null, options.build());
+            lastPost = null;
+            while (page.hasNext()) {
+                lastPost = page.next();
+                paged.add(lastPost);
+            }
+            numPages++;
+        } while (lastPost != null);
+
+        // Three full or partial pages of items, then an empty one.
+        assertEquals(4, numPages);
+        assertEquals(numModels, paged.size());
+        assertEquals(savedModels, new HashSet<>(paged));
+        for (int index = 1; index < paged.size(); index++) {
+            final Post previous = paged.get(index - 1);
+            final Post current = paged.get(index);
+            assertTrue(previous.getRating() < current.getRating() ||
+                (previous.getRating().equals(current.getRating()) &&
+                    previous.getId().compareTo(current.getId()) < 0));
+        }
+    }
+
+    /**
+     * Test that saves and queries which are issued at the same time, from the
+     * same thread, all complete, and that every save is visible afterwards.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void concurrentSavesAndQueriesAllComplete() throws DataStoreException {
+        final int numModels = 10;
+        final Set<BlogOwner> savedModels = new HashSet<>();
+        final List<LatchedResultListener<StorageItemChange.Record>> saveListeners = new ArrayList<>();
+        final List<LatchedResultListener<Iterator<BlogOwner>>> queryListeners = new ArrayList<>();
+        for (int counter = 0; counter < numModels; counter++) {
+            final BlogOwner blogOwner = BlogOwner.builder()
+                .name("namePrefix:" + counter)
+                .build();
+            savedModels.add(blogOwner);
+
+            final LatchedResultListener<StorageItemChange.Record> saveListener =
+                LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+            sqliteStorageAdapter.save(blogOwner, StorageItemChange.Initiator.DATA_STORE_API, saveListener);
+            saveListeners.add(saveListener);
+
+            final LatchedResultListener<Iterator<BlogOwner>> queryListener =
+                LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+            sqliteStorageAdapter.query(BlogOwner.class, queryListener);
+            queryListeners.add(queryListener);
+        }
+
+        for (LatchedResultListener<StorageItemChange.Record> saveListener : saveListeners) {
+            assertNotNull(saveListener.awaitResult());
+        }
+        for (LatchedResultListener<Iterator<BlogOwner>> queryListener : queryListeners) {
+            assertNotNull(queryListener.awaitResult());
+        }
+
+        final Set<BlogOwner> queriedModels = new HashSet<>();
+        final Iterator<BlogOwner> result = queryModel(BlogOwner.class);
+        while (result.hasNext()) {
+            queriedModels.add(result.next());
+        }
+        assertEquals(savedModels, queriedModels);
+    }
+
     /**
      * Assert that delete deletes item in the SQLite database correctly.
      * @throws DataStoreException from possible underlying DataStore exceptions
@@ -532,6 +799,143 @@ public final class SQLiteStorageAdapterInstrumentedTest {
         assertFalse(blogIterator.hasNext());
     }
 
+    /**
+     * Assert that saveAll inserts new items, updates existing items,
+     * and returns one record per item, in order.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void saveAllInsertsAndUpdatesData() throws DataStoreException {
+        final BlogOwner raphael = BlogOwner.builder()
+            .name("Raphael Kim")
+            .build();
+        saveModel(raphael);
+
+        final BlogOwner raphaelRenamed = raphael.copyOfBuilder()
+            .name("Raphael")
+            .build();
+        final BlogOwner jane = BlogOwner.builder()
+            .name("Jane Doe")
+            .build();
+        final List<BlogOwner> owners = Arrays.asList(raphaelRenamed, jane);
+
+        LatchedResultListener<List<StorageItemChange.Record>> saveListener =
+            LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+        sqliteStorageAdapter.saveAll(owners, StorageItemChange.Initiator.DATA_STORE_API, saveListener);
+        final List<StorageItemChange.Record> records = saveListener.awaitResult();
+        assertEquals(owners.size(), records.size());
+        for (int index = 0; index < owners.size(); index++) {
+            assertEquals(owners.get(index), records.get(index)
+                .<BlogOwner>toStorageItemChange(new GsonStorageItemChangeConverter())
+                .item());
+        }
+
+        final Set<BlogOwner> expected = new HashSet<>(owners);
+        final Set<BlogOwner> actual = new HashSet<>();
+        final Iterator<BlogOwner> result = queryModel(BlogOwner.class);
+        while (result.hasNext()) {
+            actual.add(result.next());
+        }
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Assert that saveAll does not save any of the items, if one of them fails to save.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void saveAllRollsBackOnFailure() throws DataStoreException {
+        final BlogOwner raphael = BlogOwner.builder()
+            .name("Raphael Kim")
+            .build();
+        final Blog blogWithUnsavedOwner = Blog.builder()
+            .name("Susan's Blog")
+            .owner(BlogOwner.builder()
+                .name("Susan Swanson")
+                .build())
+            .build();
+
+        LatchedResultListener<List<StorageItemChange.Record>> saveListener =
+            LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+        sqliteStorageAdapter.saveAll(
+            Arrays.asList(raphael, blogWithUnsavedOwner),
+            StorageItemChange.Initiator.DATA_STORE_API,
+            saveListener
+        );
+        assertNotNull(saveListener.awaitError());
+
+        assertFalse(queryModel(BlogOwner.class).hasNext());
+        assertFalse(queryModel(Blog.class).hasNext());
+    }
+
+    /**
+     * Assert that a failed saveAll is only reported to its listener, and that
+     * the changes of later writes are still observed.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void observeContinuesAfterFailedSaveAll() throws DataStoreException {
+        final TestObserver<StorageItemChange.Record> changeObserver = sqliteStorageAdapter.observe().test();
+        final Blog blogWithUnsavedOwner = Blog.builder()
+            .name("Susan's Blog")
+            .owner(BlogOwner.builder()
+                .name("Susan Swanson")
+                .build())
+            .build();
+        LatchedResultListener<List<StorageItemChange.Record>> saveListener =
+            LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+        sqliteStorageAdapter.saveAll(
+            Collections.singletonList(blogWithUnsavedOwner),
+            StorageItemChange.Initiator.DATA_STORE_API,
+            saveListener
+        );
+        assertNotNull(saveListener.awaitError());
+
+        final BlogOwner raphael = saveModel(BlogOwner.builder()
+            .name("Raphael Kim")
+            .build());
+        changeObserver.awaitCount(1);
+        changeObserver.assertNoErrors();
+        changeObserver.assertValueCount(1);
+        assertEquals(raphael, changeObserver.values().get(0)
+            .<BlogOwner>toStorageItemChange(new GsonStorageItemChangeConverter())
+            .item());
+    }
+
+    /**
+     * Assert that deleteAll deletes all of the items in the SQLite database.
+     * @throws DataStoreException from possible underlying DataStore exceptions
+     */
+    @Test
+    public void deleteAllDeletesData() throws DataStoreException {
+        final BlogOwner raphael = BlogOwner.builder()
+            .name("Raphael Kim")
+            .build();
+        final BlogOwner jane = BlogOwner.builder()
+            .name("Jane Doe")
+            .build();
+        final BlogOwner alan = BlogOwner.builder()
+            .name("Alan Turing")
+            .build();
+        saveModel(raphael);
+        saveModel(jane);
+        saveModel(alan);
+
+        LatchedResultListener<List<StorageItemChange.Record>> deleteListener =
+            LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
+        sqliteStorageAdapter.deleteAll(
+            Arrays.asList(raphael, jane),
+            StorageItemChange.Initiator.DATA_STORE_API,
+            deleteListener
+        );
+        assertEquals(2, deleteListener.awaitResult().size());
+
+        Iterator<BlogOwner> iterator = queryModel(BlogOwner.class);
+        assertTrue(iterator.hasNext());
+        assertEquals(alan, iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
     private <T extends Model> T saveModel(@NonNull T model) throws DataStoreException {
         LatchedResultListener<StorageItemChange.Record> saveListener =
             LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
@@ -547,9 +951,16 @@ public final class SQLiteStorageAdapterInstrumentedTest {
 
     private <T extends Model> Iterator<T> queryModel(
             @NonNull Class<T> modelClass, @Nullable QueryPredicate predicate) {
+        return queryModel(modelClass, predicate, null);
+    }
+
+    private <T extends Model> Iterator<T> queryModel(
+            @NonNull Class<T> modelClass,
+            @Nullable QueryPredicate predicate,
+            @Nullable QueryOptions options) {
         LatchedResultListener<Iterator<T>> queryResultListener =
             LatchedResultListener.waitFor(SQLITE_OPERATION_TIMEOUT_MS);
-        sqliteStorageAdapter.query(modelClass, predicate, queryResultListener);
+        sqliteStorageAdapter.query(modelClass, predicate, options, queryResultListener);
         return queryResultListener.awaitResult();
     }
 
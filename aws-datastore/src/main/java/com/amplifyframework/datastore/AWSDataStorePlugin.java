@@ -28,7 +28,9 @@ import com.amplifyframework.core.category.CategoryType;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelProvider;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.reachability.PeriodicReachabilityChecker;
 import com.amplifyframework.datastore.network.AppSyncApi;
 import com.amplifyframework.datastore.network.SyncEngine;
 import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
@@ -38,9 +40,18 @@ import com.amplifyframework.datastore.storage.sqlite.SQLiteStorageAdapter;
 
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.SingleEmitter;
@@ -51,6 +62,12 @@ import io.reactivex.schedulers.Schedulers;
  * An AWS implementation of the {@link DataStorePlugin}.
  */
 public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
+    // Longest time to wait for buffered saves to be written, when the plugin is terminated.
+    private static final long WRITE_BEHIND_FLUSH_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(5);
+
+    // Provider of the models that are usable by the plugin
+    private final ModelProvider modelProvider;
+
     // Reference to an implementation of the Local Storage Adapter that
     // manages the persistence of data on-device.
     private final SQLiteStorageAdapter sqliteStorageAdapter;
@@ -59,20 +76,49 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
     private final GsonStorageItemChangeConverter storageItemChangeConverter;
 
     // A component which synchronizes data state between the
-    // local storage adapter, and a remote API
-    private final SyncEngine syncEngine;
+    // local storage adapter, and a remote API. Null, unless
+    // sync with an API is enabled in the plugin configuration.
+    private SyncEngine syncEngine;
 
     // Configuration for the plugin.
     private AWSDataStorePluginConfiguration pluginConfiguration;
 
+    // Coalesces saves before they are written to storage. Null, unless
+    // write-behind is enabled in the plugin configuration.
+    private WriteBehindBuffer writeBehindBuffer;
+
+    // Predicates which limit the data that is synced, by model class, as provided before configuration
+    private final Map<Class<? extends Model>, QueryPredicate> syncPredicates;
+
+    // Models whose data is synced with the remote API, as configured
+    private Set<Class<? extends Model>> syncedModels;
+
     private AWSDataStorePlugin(@NonNull final ModelProvider modelProvider) {
+        this.modelProvider = modelProvider;
         this.sqliteStorageAdapter = SQLiteStorageAdapter.forModels(modelProvider);
         this.storageItemChangeConverter = new GsonStorageItemChangeConverter();
-        this.syncEngine = createSyncEngine(modelProvider, sqliteStorageAdapter);
+        this.syncPredicates = new LinkedHashMap<>();
     }
 
-    private SyncEngine createSyncEngine(ModelProvider modelProvider, LocalStorageAdapter storageAdapter) {
-        return new SyncEngine(modelProvider, storageAdapter, new AppSyncApi(Amplify.API));
+    // Without a configured API host, sync is not gated on its reachability.
+    // Subscriptions are established concurrently, unless configured to be serial.
+    // Only the configured models are synced, and only their data which matches their sync predicates.
+    private SyncEngine createSyncEngine(AWSDataStorePluginConfiguration configuration) {
+        final AppSyncApi appSyncApi = new AppSyncApi(Amplify.API, configuration.getSyncPredicates());
+        final ModelProvider syncedModelProvider = new ModelProvider() {
+            @Override
+            public Set<Class<? extends Model>> models() {
+                return syncedModels;
+            }
+
+            @Override
+            public String version() {
+                return modelProvider.version();
+            }
+        };
+        return new SyncEngine(syncedModelProvider, sqliteStorageAdapter, appSyncApi,
+            SyncEngine.DEFAULT_MAX_CONCURRENT_MUTATIONS, PeriodicReachabilityChecker.instance(),
+            configuration.getApiHost(), configuration.getSubscriptionMode());
     }
 
     /**
@@ -86,6 +132,25 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
         return new AWSDataStorePlugin(modelProvider);
     }
 
+    /**
+     * Syncs only the data of a model which matches a predicate, rather than all of its data.
+     * Sync queries for the model are filtered by the predicate, on the remote API, and changes
+     * to the model which arrive over subscriptions are dropped if they do not match it. This has
+     * to be called before the plugin is configured, and replaces any earlier predicate for the model.
+     * Which models are synced at all is configured with the "syncModels" list of model names.
+     * @param modelClass A model whose data is synced
+     * @param predicate A predicate on the fields of the model, which the synced data must match
+     * @param <T> Type of model
+     * @return This plugin instance, for chaining
+     */
+    @NonNull
+    public synchronized <T extends Model> AWSDataStorePlugin syncWhere(
+            @NonNull Class<T> modelClass,
+            @NonNull QueryPredicate predicate) {
+        syncPredicates.put(Objects.requireNonNull(modelClass), Objects.requireNonNull(predicate));
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -105,7 +170,8 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
             @NonNull Context context) throws DataStoreException {
         try {
             this.pluginConfiguration =
-                AWSDataStorePluginConfiguration.fromJson(pluginConfigurationJson);
+                AWSDataStorePluginConfiguration.fromJson(pluginConfigurationJson, syncPredicates);
+            this.syncedModels = pluginConfiguration.getSyncedModels(modelProvider);
         } catch (DataStoreException badConfigException) {
             throw new DataStoreException(
                 "There was an issue configuring the plugin from the amplifyconfiguration.json",
@@ -115,6 +181,11 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
             );
         }
 
+        if (pluginConfiguration.isWriteBehindEnabled()) {
+            this.writeBehindBuffer = new WriteBehindBuffer(sqliteStorageAdapter,
+                pluginConfiguration.getWriteBehindWindowMs(), Schedulers.computation());
+        }
+
         //noinspection ResultOfMethodCallIgnored
         initializeStorageAdapter(context)
             .doOnSuccess(modelSchemas -> startModelSynchronization(pluginConfiguration.getSyncMode()))
@@ -125,6 +196,7 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
 
     private void startModelSynchronization(AWSDataStorePluginConfiguration.SyncMode syncMode) {
         if (AWSDataStorePluginConfiguration.SyncMode.SYNC_WITH_API.equals(syncMode)) {
+            syncEngine = createSyncEngine(pluginConfiguration);
             syncEngine.start();
         }
     }
@@ -156,9 +228,24 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
 
     /**
      * Terminate use of the plugin.
+     * @throws DataStoreException If buffered saves were not written in time; the plugin
+     *         is not terminated in that case, so that the saves are not lost
      */
     synchronized void terminate() throws DataStoreException {
-        syncEngine.stop();
+        if (writeBehindBuffer != null) {
+            final boolean flushed = writeBehindBuffer.flush()
+                .blockingAwait(WRITE_BEHIND_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (!flushed) {
+                throw new DataStoreException(
+                    "Buffered saves were not written to local storage within " +
+                        WRITE_BEHIND_FLUSH_TIMEOUT_MS + "ms.",
+                    "Terminate the plugin again once the pending saves have been written."
+                );
+            }
+        }
+        if (syncEngine != null) {
+            syncEngine.stop();
+        }
         sqliteStorageAdapter.terminate();
     }
 
@@ -187,8 +274,13 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
     public <T extends Model> void save(
             @NonNull T item,
             @NonNull ResultListener<DataStoreItemChange<T>> saveItemListener) {
-        sqliteStorageAdapter.save(item, StorageItemChange.Initiator.DATA_STORE_API,
-            new ResultConversionListener<>(saveItemListener, this::toDataStoreItemChange));
+        final ResultConversionListener<T> conversionListener =
+            new ResultConversionListener<>(saveItemListener, this::toDataStoreItemChange);
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.save(item, conversionListener);
+        } else {
+            sqliteStorageAdapter.save(item, StorageItemChange.Initiator.DATA_STORE_API, conversionListener);
+        }
     }
 
     /**
@@ -198,8 +290,40 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
     public <T extends Model> void delete(
             @NonNull T item,
             @NonNull ResultListener<DataStoreItemChange<T>> deleteItemListener) {
-        sqliteStorageAdapter.delete(item, StorageItemChange.Initiator.DATA_STORE_API,
-            new ResultConversionListener<>(deleteItemListener, this::toDataStoreItemChange));
+        afterBufferedSaves(() -> sqliteStorageAdapter.delete(item, StorageItemChange.Initiator.DATA_STORE_API,
+            new ResultConversionListener<>(deleteItemListener, this::toDataStoreItemChange)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void saveAll(
+            @NonNull Collection<T> items,
+            @NonNull ResultListener<List<DataStoreItemChange<T>>> saveItemsListener) {
+        afterBufferedSaves(() -> sqliteStorageAdapter.saveAll(items, StorageItemChange.Initiator.DATA_STORE_API,
+            new ResultsConversionListener<>(saveItemsListener, this::toDataStoreItemChange)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void deleteAll(
+            @NonNull Collection<T> items,
+            @NonNull ResultListener<List<DataStoreItemChange<T>>> deleteItemsListener) {
+        afterBufferedSaves(() -> sqliteStorageAdapter.deleteAll(items, StorageItemChange.Initiator.DATA_STORE_API,
+            new ResultsConversionListener<>(deleteItemsListener, this::toDataStoreItemChange)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void query(
+            @NonNull Class<T> itemClass,
+            @NonNull ResultListener<Iterator<T>> queryResultsListener) {
+        afterBufferedSaves(() -> sqliteStorageAdapter.query(itemClass, queryResultsListener));
     }
 
     /**
@@ -208,8 +332,9 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
     @Override
     public <T extends Model> void query(
             @NonNull Class<T> itemClass,
+            @Nullable QueryPredicate predicate,
             @NonNull ResultListener<Iterator<T>> queryResultsListener) {
-        sqliteStorageAdapter.query(itemClass, queryResultsListener);
+        afterBufferedSaves(() -> sqliteStorageAdapter.query(itemClass, predicate, queryResultsListener));
     }
 
     /**
@@ -219,8 +344,55 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
     public <T extends Model> void query(
             @NonNull Class<T> itemClass,
             @Nullable QueryPredicate predicate,
+            @Nullable QueryOptions options,
             @NonNull ResultListener<Iterator<T>> queryResultsListener) {
-        sqliteStorageAdapter.query(itemClass, predicate, queryResultsListener);
+        afterBufferedSaves(() -> sqliteStorageAdapter.query(itemClass, predicate, options, queryResultsListener));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public <T extends Model> Flowable<T> stream(
+            @NonNull Class<T> itemClass,
+            @Nullable QueryPredicate predicate,
+            @Nullable QueryOptions options) {
+        final Flowable<T> items = sqliteStorageAdapter.stream(itemClass, predicate, options);
+        if (writeBehindBuffer == null) {
+            return items;
+        }
+        // As for the other queries, the buffered saves are written first; here, on subscription.
+        return Completable.defer(writeBehindBuffer::flush).andThen(items);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void loadAssociation(
+            @NonNull Class<T> itemClass,
+            @NonNull List<T> items,
+            @NonNull String associationFieldName,
+            @NonNull ResultListener<List<T>> itemsListener) {
+        afterBufferedSaves(() ->
+            sqliteStorageAdapter.loadAssociation(itemClass, items, associationFieldName, itemsListener));
+    }
+
+    /**
+     * Runs a storage operation once all of the saves that are buffered for write-behind
+     * have been written, so that the operation observes them, and is ordered after them.
+     * If write-behind is not enabled, the operation is run right away.
+     * @param operation A storage operation
+     */
+    @SuppressLint("CheckResult")
+    private void afterBufferedSaves(Runnable operation) {
+        if (writeBehindBuffer == null) {
+            operation.run();
+            return;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        writeBehindBuffer.flush().subscribe(operation::run);
     }
 
     /**
@@ -386,4 +558,52 @@ public final class AWSDataStorePlugin implements DataStorePlugin<Void> {
             <T extends Model> DataStoreItemChange<T> convert(StorageItemChange.Record record) throws DataStoreException;
         }
     }
+
+    /**
+     * A listener of the batch {@link LocalStorageAdapter} APIs, which responds by
+     * converting each of the received {@link StorageItemChange.Record}s into a
+     * {@link DataStoreItemChange}, and emitting the list of those on the provided
+     * data store item change listener, using the provided conversion strategy.
+     * @param <T> Type of data in the emitted DataStoreItemChanges
+     */
+    static final class ResultsConversionListener<T extends Model>
+            implements ResultListener<List<StorageItemChange.Record>> {
+        private final ResultListener<List<DataStoreItemChange<T>>> dataStoreListener;
+        private final ResultConversionListener.ConversionStrategy conversionStrategy;
+
+        /**
+         * Constructs a new ResultsConversionListener.
+         * @param dataStoreListener listener object of the public DataStore API
+         * @param conversionStrategy A strategy to convert between storage adapter and data store api types
+         */
+        ResultsConversionListener(
+                ResultListener<List<DataStoreItemChange<T>>> dataStoreListener,
+                ResultConversionListener.ConversionStrategy conversionStrategy) {
+            this.dataStoreListener = dataStoreListener;
+            this.conversionStrategy = conversionStrategy;
+        }
+
+        @Override
+        public void onResult(List<StorageItemChange.Record> result) {
+            final List<DataStoreItemChange<T>> converted = new ArrayList<>(result.size());
+            try {
+                for (StorageItemChange.Record record : result) {
+                    converted.add(conversionStrategy.convert(record));
+                }
+            } catch (DataStoreException exception) {
+                onError(exception);
+                return;
+            }
+            dataStoreListener.onResult(converted);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            dataStoreListener.onError(new DataStoreException(
+                    "Oof, something went wrong.",
+                    error,
+                    "Check the attached error for details."
+            ));
+        }
+    }
 }
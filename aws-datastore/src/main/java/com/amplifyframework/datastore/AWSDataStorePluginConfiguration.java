@@ -15,37 +15,137 @@
 
 package com.amplifyframework.datastore;
 
+import android.net.Uri;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelProvider;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.reachability.Host;
+import com.amplifyframework.core.reachability.SocketHost;
+import com.amplifyframework.datastore.network.SyncEngine;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Configuration options for the {@link AWSDataStorePlugin}.
  * Contains settings for remote synchronization, if enabled.
  */
 final class AWSDataStorePluginConfiguration {
 
+    // Name of the optional JSON property which enables write-behind of saves.
+    private static final String WRITE_BEHIND_WINDOW_KEY = "writeBehindWindowMs";
+    // Name of the optional JSON property which holds the URL of the API that is synced with.
+    private static final String API_ENDPOINT_KEY = "apiEndpoint";
+    // Name of the optional JSON property which says how subscriptions to remote changes are established.
+    private static final String SUBSCRIPTION_MODE_KEY = "subscriptionMode";
+    // Name of the optional JSON property which lists the names of the models whose data is synced.
+    private static final String SYNC_MODELS_KEY = "syncModels";
+    // Ports which are assumed for an API endpoint URL that does not have one.
+    private static final int HTTP_PORT = 80;
+    private static final int HTTPS_PORT = 443;
+
     private final SyncMode syncMode;
+    private final long writeBehindWindowMs;
+    private final Host apiHost;
+    private final SyncEngine.SubscriptionMode subscriptionMode;
+    // Names of the models whose data is synced, or null if the data of every model is synced
+    private final Set<String> syncedModelNames;
+    private final Map<Class<? extends Model>, QueryPredicate> syncPredicates;
 
-    private AWSDataStorePluginConfiguration(final SyncMode syncMode) {
+    private AWSDataStorePluginConfiguration(
+            final SyncMode syncMode,
+            final long writeBehindWindowMs,
+            @Nullable final Host apiHost,
+            final SyncEngine.SubscriptionMode subscriptionMode,
+            @Nullable final Set<String> syncedModelNames,
+            final Map<Class<? extends Model>, QueryPredicate> syncPredicates) {
         this.syncMode = syncMode;
+        this.writeBehindWindowMs = writeBehindWindowMs;
+        this.apiHost = apiHost;
+        this.subscriptionMode = subscriptionMode;
+        this.syncedModelNames = syncedModelNames;
+        this.syncPredicates = syncPredicates;
     }
 
     static AWSDataStorePluginConfiguration fromJson(JSONObject pluginJson) throws DataStoreException {
-        // If no sync mode is specified, we just use the default (no sync) and continue
-        if (pluginJson == null || !pluginJson.has("syncMode")) {
-            return new AWSDataStorePluginConfiguration(SyncMode.LOCAL_ONLY);
+        return fromJson(pluginJson, Collections.emptyMap());
+    }
+
+    /**
+     * Reads the configuration from the JSON of the plugin, along with predicates which limit the
+     * data that is synced, for some of the models. Those are provided in code, rather than in the JSON.
+     * @param pluginJson The JSON of the plugin, or null for the defaults
+     * @param syncPredicates Predicates which the synced data must match, by model class
+     * @return The configuration
+     * @throws DataStoreException If the JSON is not valid, or a predicate is provided
+     *                            for a model whose data is not synced
+     */
+    static AWSDataStorePluginConfiguration fromJson(
+            JSONObject pluginJson,
+            Map<Class<? extends Model>, QueryPredicate> syncPredicates) throws DataStoreException {
+        final Map<Class<? extends Model>, QueryPredicate> predicates =
+                Collections.unmodifiableMap(new HashMap<>(syncPredicates));
+        // If no configuration is specified, we just use the defaults (no sync, no write-behind)
+        if (pluginJson == null) {
+            return new AWSDataStorePluginConfiguration(
+                    SyncMode.LOCAL_ONLY, 0, null, SyncEngine.SubscriptionMode.CONCURRENT, null, predicates);
         }
 
         try {
             // If user has specified a sync mode, find out what it was.
-            final SyncMode syncMode = SyncMode.fromJsonPropertyValue(pluginJson.getString("syncMode"));
+            final SyncMode syncMode = pluginJson.has("syncMode")
+                    ? SyncMode.fromJsonPropertyValue(pluginJson.getString("syncMode"))
+                    : SyncMode.LOCAL_ONLY;
+
+            final long writeBehindWindowMs = pluginJson.has(WRITE_BEHIND_WINDOW_KEY)
+                    ? pluginJson.getLong(WRITE_BEHIND_WINDOW_KEY)
+                    : 0;
+            if (writeBehindWindowMs < 0) {
+                throw new DataStoreException(
+                        WRITE_BEHIND_WINDOW_KEY + " must not be negative, but was " + writeBehindWindowMs,
+                        "Set " + WRITE_BEHIND_WINDOW_KEY + " to 0 to disable write-behind, " +
+                                "or to the number of milliseconds over which to coalesce saves."
+                );
+            }
 
-            return new AWSDataStorePluginConfiguration(syncMode);
+            final Host apiHost = pluginJson.has(API_ENDPOINT_KEY)
+                    ? hostOf(pluginJson.getString(API_ENDPOINT_KEY))
+                    : null;
+
+            final SyncEngine.SubscriptionMode subscriptionMode = pluginJson.has(SUBSCRIPTION_MODE_KEY)
+                    ? subscriptionModeOf(pluginJson.getString(SUBSCRIPTION_MODE_KEY))
+                    : SyncEngine.SubscriptionMode.CONCURRENT;
+
+            final Set<String> syncedModelNames = pluginJson.has(SYNC_MODELS_KEY)
+                    ? namesOf(pluginJson.getJSONArray(SYNC_MODELS_KEY))
+                    : null;
+            if (syncedModelNames != null) {
+                for (Class<? extends Model> modelClass : predicates.keySet()) {
+                    if (!syncedModelNames.contains(modelClass.getSimpleName())) {
+                        throw new DataStoreException(
+                                "A sync predicate was provided for " + modelClass.getSimpleName() +
+                                        ", whose data is not synced.",
+                                "Add " + modelClass.getSimpleName() + " to " + SYNC_MODELS_KEY +
+                                        ", or remove its sync predicate."
+                        );
+                    }
+                }
+            }
+
+            return new AWSDataStorePluginConfiguration(syncMode, writeBehindWindowMs, apiHost,
+                    subscriptionMode, syncedModelNames, predicates);
         } catch (JSONException exception) {
             throw new DataStoreException(
                     "Issue encountered while parsing configuration JSON",
@@ -56,6 +156,44 @@ final class AWSDataStorePluginConfiguration {
 
     }
 
+    // Gets the host of an API endpoint URL, such as https://example.appsync-api.us-east-1.amazonaws.com/graphql.
+    private static Host hostOf(String apiEndpoint) throws DataStoreException {
+        final Uri uri = Uri.parse(apiEndpoint);
+        if (uri.getHost() == null) {
+            throw new DataStoreException(
+                    API_ENDPOINT_KEY + " must be a URL with a host, but was " + apiEndpoint,
+                    "Set " + API_ENDPOINT_KEY + " to the endpoint of the API that is synced with, " +
+                            "as it appears in the configuration of the API category."
+            );
+        }
+        if (uri.getPort() != -1) {
+            return SocketHost.from(uri.getHost(), uri.getPort());
+        }
+        return SocketHost.from(uri.getHost(), "http".equals(uri.getScheme()) ? HTTP_PORT : HTTPS_PORT);
+    }
+
+    private static Set<String> namesOf(JSONArray modelNames) throws JSONException {
+        final Set<String> names = new LinkedHashSet<>();
+        for (int index = 0; index < modelNames.length(); index++) {
+            names.add(modelNames.getString(index));
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    // Gets a subscription mode from its name, as in "serial" or "concurrent".
+    private static SyncEngine.SubscriptionMode subscriptionModeOf(String jsonPropertyValue)
+            throws DataStoreException {
+        for (final SyncEngine.SubscriptionMode possibleMatch : SyncEngine.SubscriptionMode.values()) {
+            if (possibleMatch.name().equalsIgnoreCase(jsonPropertyValue)) {
+                return possibleMatch;
+            }
+        }
+        throw new DataStoreException(
+                "No subscription mode known for " + SUBSCRIPTION_MODE_KEY + " = " + jsonPropertyValue,
+                "Set " + SUBSCRIPTION_MODE_KEY + " to \"concurrent\", the default, or to \"serial\"."
+        );
+    }
+
     /**
      * Gets the synchronization mode.
      * @return Synchronization mode
@@ -65,6 +203,91 @@ final class AWSDataStorePluginConfiguration {
         return syncMode;
     }
 
+    /**
+     * Gets the length of the window over which repeated saves of the same model are
+     * coalesced into a single write. Zero, the default, means that every save is
+     * written as soon as it is made.
+     * @return Length of the write-behind window, in milliseconds
+     */
+    long getWriteBehindWindowMs() {
+        return writeBehindWindowMs;
+    }
+
+    /**
+     * Checks whether saves are buffered, and coalesced, before they are written.
+     * @return true if write-behind is enabled
+     */
+    boolean isWriteBehindEnabled() {
+        return writeBehindWindowMs > 0;
+    }
+
+    /**
+     * Gets the host of the API that is synced with, whose reachability gates synchronization.
+     * Null if no API endpoint is configured, in which case synchronization is not gated.
+     * @return Host of the API, or null
+     */
+    @Nullable
+    Host getApiHost() {
+        return apiHost;
+    }
+
+    /**
+     * Gets the way in which the subscriptions to remote changes are established.
+     * @return Subscription mode, which is concurrent unless configured otherwise
+     */
+    @NonNull
+    SyncEngine.SubscriptionMode getSubscriptionMode() {
+        return subscriptionMode;
+    }
+
+    /**
+     * Gets the models whose data is synced with the remote API, out of the provided ones.
+     * Those are the models named in the configuration, or all of them, if none are named.
+     * @param modelProvider Provider of the models which are usable by the plugin
+     * @return The models whose data is synced
+     * @throws DataStoreException If the configuration names a model which is not provided,
+     *                            or a predicate is provided for one
+     */
+    @NonNull
+    Set<Class<? extends Model>> getSyncedModels(@NonNull ModelProvider modelProvider) throws DataStoreException {
+        final Set<Class<? extends Model>> syncedModels = new HashSet<>();
+        final Set<String> providedModelNames = new HashSet<>();
+        for (Class<? extends Model> modelClass : modelProvider.models()) {
+            providedModelNames.add(modelClass.getSimpleName());
+            if (syncedModelNames == null || syncedModelNames.contains(modelClass.getSimpleName())) {
+                syncedModels.add(modelClass);
+            }
+        }
+        if (syncedModelNames != null && !providedModelNames.containsAll(syncedModelNames)) {
+            final Set<String> unknownModelNames = new HashSet<>(syncedModelNames);
+            unknownModelNames.removeAll(providedModelNames);
+            throw new DataStoreException(
+                    SYNC_MODELS_KEY + " names models which are not provided to the plugin: " + unknownModelNames,
+                    "Check the names in " + SYNC_MODELS_KEY + " against the models of the ModelProvider."
+            );
+        }
+        for (Class<? extends Model> modelClass : syncPredicates.keySet()) {
+            if (!syncedModels.contains(modelClass)) {
+                throw new DataStoreException(
+                        "A sync predicate was provided for " + modelClass.getSimpleName() +
+                                ", which is not provided to the plugin.",
+                        "Only provide sync predicates for the models of the ModelProvider."
+                );
+            }
+        }
+        return Collections.unmodifiableSet(syncedModels);
+    }
+
+    /**
+     * Gets the predicates which limit the data that is synced, for the models whose data is
+     * synced selectively. All of the data of a synced model which has no predicate is synced.
+     * @return Predicates which the synced data must match, by model class
+     */
+    @NonNull
+    Map<Class<? extends Model>, QueryPredicate> getSyncPredicates() {
+        return syncPredicates;
+    }
+
     /**
      * The mode of remote synchronization that is used by the DataStore.
      */
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.storage.LocalStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.CompletableSubject;
+
+/**
+ * Buffers saves for a short window before they are written to the local storage
+ * adapter. If the same model is saved more than once during a window, only its
+ * last state is written. Each window is written as a single batch, so that a model
+ * which is saved many times per second costs one storage write, one journal entry
+ * and one outbound mutation per window, instead of one of each per save.
+ *
+ * Every listener of a coalesced save is notified with the change that was written,
+ * which is the last state of the model. A window is written in a single transaction.
+ * If that transaction fails, each save of the window is written again on its own,
+ * so that a save which can not be written only fails its own listeners, and not
+ * those of the unrelated saves that happened to share its window.
+ *
+ * Operations which must observe the pending saves, such as queries and deletes,
+ * should wait for {@link #flush()} before they run.
+ */
+final class WriteBehindBuffer {
+    private final LocalStorageAdapter storageAdapter;
+    private final long windowMs;
+    private final Scheduler scheduler;
+
+    // Saves which have not been written yet, by model type and ID, in the order that
+    // each model was first saved during the current window.
+    private final Map<String, PendingSave> pendingSaves;
+
+    // Writes the pending saves when the current window closes.
+    private Disposable scheduledFlush;
+
+    // Completes when the most recently started write of pending saves ends.
+    private Completable lastFlush;
+
+    /**
+     * Constructs a new WriteBehindBuffer.
+     * @param storageAdapter Local storage adapter to which saves are written
+     * @param windowMs Length of the window over which saves are coalesced, in milliseconds
+     * @param scheduler Scheduler on which the end of each window is timed
+     */
+    WriteBehindBuffer(
+            @NonNull LocalStorageAdapter storageAdapter,
+            long windowMs,
+            @NonNull Scheduler scheduler) {
+        this.storageAdapter = Objects.requireNonNull(storageAdapter);
+        this.windowMs = windowMs;
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.pendingSaves = new LinkedHashMap<>();
+        this.lastFlush = Completable.complete();
+    }
+
+    /**
+     * Buffers a save of a model. The save is written when the current window closes,
+     * or sooner, if the buffer is flushed. A window opens with the first save that is
+     * buffered after the previous window was written.
+     * @param item Model to save
+     * @param listener Listener to notify when the save has been written, or has failed
+     * @param <T> Type of model being saved
+     */
+    synchronized <T extends Model> void save(
+            @NonNull T item,
+            @NonNull ResultListener<StorageItemChange.Record> listener) {
+        Objects.requireNonNull(item);
+        Objects.requireNonNull(listener);
+        final String key = item.getClass().getName() + ":" + item.getId();
+        PendingSave pendingSave = pendingSaves.get(key);
+        if (pendingSave == null) {
+            pendingSave = new PendingSave();
+            pendingSaves.put(key, pendingSave);
+        }
+        pendingSave.item = item;
+        pendingSave.listeners.add(listener);
+
+        if (scheduledFlush == null) {
+            scheduledFlush = scheduler.scheduleDirect(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes all pending saves to the local storage adapter, without waiting for
+     * the current window to close.
+     * @return A Completable which completes once all saves which were buffered before
+     *         this call have been written, or have failed to be written. It does not
+     *         emit errors; those are delivered to the listeners of the failed saves.
+     */
+    @NonNull
+    synchronized Completable flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        if (pendingSaves.isEmpty()) {
+            return lastFlush;
+        }
+
+        final List<PendingSave> batch = new ArrayList<>(pendingSaves.values());
+        pendingSaves.clear();
+        final List<Model> items = new ArrayList<>(batch.size());
+        for (PendingSave pendingSave : batch) {
+            items.add(pendingSave.item);
+        }
+
+        // The storage adapter writes in the order that writes are submitted, so a batch
+        // always completes after every batch that was submitted before it.
+        final CompletableSubject written = CompletableSubject.create();
+        lastFlush = written;
+        storageAdapter.saveAll(items, StorageItemChange.Initiator.DATA_STORE_API,
+            new ResultListener<List<StorageItemChange.Record>>() {
+                @Override
+                public void onResult(List<StorageItemChange.Record> records) {
+                    for (int index = 0; index < batch.size(); index++) {
+                        for (ResultListener<StorageItemChange.Record> listener : batch.get(index).listeners) {
+                            listener.onResult(records.get(index));
+                        }
+                    }
+                    written.onComplete();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    saveEach(batch, written);
+                }
+            });
+        return written;
+    }
+
+    // Writes each save of a batch in a transaction of its own, after the batch
+    // failed to be written as a whole. Completes the given subject when all are done.
+    private void saveEach(List<PendingSave> batch, CompletableSubject written) {
+        final AtomicInteger remaining = new AtomicInteger(batch.size());
+        for (PendingSave pendingSave : batch) {
+            storageAdapter.save(pendingSave.item, StorageItemChange.Initiator.DATA_STORE_API,
+                new ResultListener<StorageItemChange.Record>() {
+                    @Override
+                    public void onResult(StorageItemChange.Record record) {
+                        for (ResultListener<StorageItemChange.Record> listener : pendingSave.listeners) {
+                            listener.onResult(record);
+                        }
+                        onSaved();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        for (ResultListener<StorageItemChange.Record> listener : pendingSave.listeners) {
+                            listener.onError(error);
+                        }
+                        onSaved();
+                    }
+
+                    private void onSaved() {
+                        if (remaining.decrementAndGet() == 0) {
+                            written.onComplete();
+                        }
+                    }
+                });
+        }
+    }
+
+    /**
+     * The latest state of a model that is waiting to be saved, and the
+     * listeners of every save of that model during the current window.
+     */
+    private static final class PendingSave {
+        private Model item;
+        private final List<ResultListener<StorageItemChange.Record>> listeners = new ArrayList<>();
+    }
+}
@@ -30,11 +30,15 @@ import com.amplifyframework.core.StreamListener;
 import com.amplifyframework.core.async.Cancelable;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 import com.amplifyframework.datastore.DataStoreException;
 import com.amplifyframework.logging.Logger;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -51,15 +55,32 @@ public final class AppSyncApi implements AppSyncEndpoint {
     private final GraphQlBehavior api;
     private final GraphQLRequest.VariablesSerializer variablesSerializer;
     private final ResponseDeserializer responseDeserializer;
+    // Predicates which limit the data that is synced, for the models whose data is synced selectively
+    private final Map<Class<? extends Model>, QueryPredicate> syncPredicates;
 
     /**
      * Constructs a new AppSyncApi.
      * @param api The API Category, configured with a DataStore API
      */
     public AppSyncApi(@NonNull final GraphQlBehavior api) {
+        this(api, Collections.emptyMap());
+    }
+
+    /**
+     * Constructs a new AppSyncApi, which syncs only the data that matches a predicate,
+     * for some of the models. Sync queries for such a model are filtered by its predicate,
+     * and changes that arrive over its subscriptions are dropped if they do not match it.
+     * @param api The API Category, configured with a DataStore API
+     * @param syncPredicates Predicates which the synced data must match, by model class.
+     *                       All of the data of a model that is not in the map is synced.
+     */
+    public AppSyncApi(
+            @NonNull final GraphQlBehavior api,
+            @NonNull final Map<Class<? extends Model>, QueryPredicate> syncPredicates) {
         this.api = Objects.requireNonNull(api);
         this.variablesSerializer = new GsonVariablesSerializer();
         this.responseDeserializer = new GsonResponseDeserializer();
+        this.syncPredicates = new HashMap<>(Objects.requireNonNull(syncPredicates));
     }
 
     @NonNull
@@ -70,8 +91,11 @@ public final class AppSyncApi implements AppSyncEndpoint {
             @NonNull ResultListener<GraphQLResponse<Iterable<ModelWithMetadata<T>>>> responseListener) {
 
         final String queryDoc;
+        final Map<String, Object> variables;
         try {
-            queryDoc = AppSyncRequestFactory.buildSyncDoc(modelClass, lastSync, null);
+            queryDoc = AppSyncRequestFactory.buildSyncDoc(
+                modelClass, lastSync, null, syncPredicates.containsKey(modelClass));
+            variables = syncVariables(modelClass);
         } catch (DataStoreException queryDocConstructionError) {
             responseListener.onError(queryDocConstructionError);
             return new NoOpCancelable();
@@ -80,7 +104,7 @@ public final class AppSyncApi implements AppSyncEndpoint {
         final SyncAdapter<T> syncAdapter =
             new SyncAdapter<>(responseListener, modelClass, responseDeserializer);
         final GraphQLRequest<String> request =
-            new GraphQLRequest<>(queryDoc, Collections.emptyMap(), String.class, variablesSerializer);
+            new GraphQLRequest<>(queryDoc, variables, String.class, variablesSerializer);
         Cancelable cancelable = api.query(request, syncAdapter);
 
         if (cancelable != null) {
@@ -89,6 +113,37 @@ public final class AppSyncApi implements AppSyncEndpoint {
         return new NoOpCancelable();
     }
 
+    @NonNull
+    @Override
+    public <T extends Model> Cancelable sync(
+            @NonNull Class<T> modelClass,
+            @Nullable Long lastSync,
+            @Nullable String nextToken,
+            @NonNull ResultListener<GraphQLResponse<SyncPage<T>>> responseListener) {
+
+        final String queryDoc;
+        final Map<String, Object> variables;
+        try {
+            queryDoc = AppSyncRequestFactory.buildSyncDoc(
+                modelClass, lastSync, nextToken, syncPredicates.containsKey(modelClass));
+            variables = syncVariables(modelClass);
+        } catch (DataStoreException queryDocConstructionError) {
+            responseListener.onError(queryDocConstructionError);
+            return new NoOpCancelable();
+        }
+
+        final SyncPageAdapter<T> syncPageAdapter =
+            new SyncPageAdapter<>(responseListener, modelClass, responseDeserializer);
+        final GraphQLRequest<String> request =
+            new GraphQLRequest<>(queryDoc, variables, String.class, variablesSerializer);
+        Cancelable cancelable = api.query(request, syncPageAdapter);
+
+        if (cancelable != null) {
+            return cancelable;
+        }
+        return new NoOpCancelable();
+    }
+
     @SuppressWarnings("unchecked") // (Class<T>)
     @NonNull
     @Override
@@ -121,6 +176,55 @@ public final class AppSyncApi implements AppSyncEndpoint {
         return new NoOpCancelable();
     }
 
+    @SuppressWarnings("unchecked") // (Class<T>)
+    @NonNull
+    @Override
+    public <T extends Model> Cancelable createAll(
+            @NonNull List<T> models,
+            @NonNull ResultListener<List<GraphQLResponse<ModelWithMetadata<T>>>> responseListener) {
+        if (models.isEmpty()) {
+            responseListener.onResult(Collections.emptyList());
+            return new NoOpCancelable();
+        }
+
+        try {
+            final List<Class<? extends Model>> modelClasses = new ArrayList<>();
+            final List<Class<T>> itemClasses = new ArrayList<>();
+            final Map<String, Object> variables = new LinkedHashMap<>();
+            for (int position = 0; position < models.size(); position++) {
+                final T model = models.get(position);
+                final Class<T> modelClass = (Class<T>) model.getClass();
+                modelClasses.add(modelClass);
+                itemClasses.add(modelClass);
+                variables.put(
+                    AppSyncRequestFactory.batchInputVariable(position),
+                    ModelSchema.fromModelClass(modelClass).getMapOfFieldNameAndValues(model)
+                );
+            }
+            final String doc = AppSyncRequestFactory.buildBatchCreationDoc(modelClasses);
+
+            final BatchMutationAdapter<T> batchMutationAdapter =
+                new BatchMutationAdapter<>(responseListener, itemClasses, responseDeserializer);
+            final GraphQLRequest<String> request =
+                new GraphQLRequest<>(doc, variables, String.class, variablesSerializer);
+            Cancelable cancelable = api.mutate(request, batchMutationAdapter);
+
+            if (cancelable != null) {
+                return cancelable;
+            }
+        } catch (AmplifyException amplifyException) {
+            responseListener.onError(
+                    new DataStoreException(
+                            "Error encountered while creating model schema",
+                            amplifyException,
+                            "See attached exception for more details"
+                    )
+            );
+        }
+
+        return new NoOpCancelable();
+    }
+
     @SuppressWarnings("unchecked") // (Class<T>)
     @NonNull
     @Override
@@ -223,7 +327,7 @@ public final class AppSyncApi implements AppSyncEndpoint {
         final GraphQLRequest<String> request =
             new GraphQLRequest<>(document, Collections.emptyMap(), String.class, variablesSerializer);
         final SubscriptionAdapter<T> subscriptionAdapter =
-            new SubscriptionAdapter<>(subscriptionListener, clazz, responseDeserializer);
+            new SubscriptionAdapter<>(subscriptionListener, clazz, responseDeserializer, syncPredicates.get(clazz));
         Cancelable cancelable = api.subscribe(request, subscriptionAdapter);
 
         if (cancelable != null) {
@@ -232,6 +336,15 @@ public final class AppSyncApi implements AppSyncEndpoint {
         return new NoOpCancelable();
     }
 
+    // The variables of a sync query: a filter, if the data of the model is synced selectively.
+    private Map<String, Object> syncVariables(Class<? extends Model> modelClass) throws DataStoreException {
+        final QueryPredicate syncPredicate = syncPredicates.get(modelClass);
+        if (syncPredicate == null) {
+            return Collections.emptyMap();
+        }
+        return Collections.singletonMap("filter", AppSyncRequestFactory.buildFilter(syncPredicate));
+    }
+
     private <T extends Model> Cancelable mutation(
             final String document,
             final Map<String, Object> variables,
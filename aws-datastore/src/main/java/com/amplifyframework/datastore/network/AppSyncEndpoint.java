@@ -24,6 +24,8 @@ import com.amplifyframework.core.StreamListener;
 import com.amplifyframework.core.async.Cancelable;
 import com.amplifyframework.core.model.Model;
 
+import java.util.List;
+
 /**
  * Convenience class to call API in a way that supports versioning and retrieving sync metadata.
  */
@@ -43,6 +45,23 @@ public interface AppSyncEndpoint {
             @Nullable Long lastSync,
             @NonNull ResultListener<GraphQLResponse<Iterable<ModelWithMetadata<T>>>> responseListener);
 
+    /**
+     * Uses Amplify API category to get one page of the changes which have happened since a last sync time.
+     * @param <T> The type of data in the response. Must extend Model.
+     * @param modelClass The class of the Model we are querying on
+     * @param lastSync The time you last synced - all changes since this time are retrieved.
+     *                 If null, all models are retrieved, in a base sync.
+     * @param nextToken The token from the previous page, or null to get the first page
+     * @param responseListener Invoked when the page, or errors, are available.
+     * @return A {@link Cancelable} to provide a means to cancel the asynchronous operation
+     */
+    @NonNull
+    <T extends Model> Cancelable sync(
+            @NonNull Class<T> modelClass,
+            @Nullable Long lastSync,
+            @Nullable String nextToken,
+            @NonNull ResultListener<GraphQLResponse<SyncPage<T>>> responseListener);
+
     /**
      * Uses Amplify API to make a mutation which will only apply if the version sent matches the server version.
      * @param model An instance of the Model with the values to mutate
@@ -55,6 +74,20 @@ public interface AppSyncEndpoint {
             @NonNull T model,
             @NonNull ResultListener<GraphQLResponse<ModelWithMetadata<T>>> responseListener);
 
+    /**
+     * Uses Amplify API to create several models in a single request. Each creation
+     * succeeds, or fails, independently of the others.
+     * @param models Instances of the Models to create
+     * @param responseListener Invoked with one response per model, in the same order as the models.
+     *                         A response has data if the model was created, or errors if it was not.
+     * @param <T> The type of data in the responses. Must extend Model.
+     * @return A {@link Cancelable} to provide a means to cancel the asynchronous operation
+     */
+    @NonNull
+    <T extends Model> Cancelable createAll(
+            @NonNull List<T> models,
+            @NonNull ResultListener<List<GraphQLResponse<ModelWithMetadata<T>>>> responseListener);
+
     /**
      * Uses Amplify API to make a mutation which will only apply if the version sent matches the server version.
      * @param model An instance of the Model with the values to mutate
@@ -89,7 +122,9 @@ public interface AppSyncEndpoint {
      * Get notified when a create event happens on a given class.
      * @param modelClass The class of the Model we are listening on
      * @param subscriptionListener  A listener to receive notifications when new items are
-     *                              available via the subscription stream
+     *                              available via the subscription stream. If it is a
+     *                              {@link com.amplifyframework.api.graphql.SubscriptionListener},
+     *                              it is also told when the subscription has started or resumed
      * @param <T> The type of data in the response. Must extend Model.
      * @return A {@link Cancelable} to provide a means to cancel the asynchronous operation
      */
@@ -102,7 +137,9 @@ public interface AppSyncEndpoint {
      * Get notified when an update event happens on a given class.
      * @param modelClass The class of the Model we are listening on
      * @param subscriptionListener  A listener to receive notifications when new items are
-     *                              available via the subscription stream
+     *                              available via the subscription stream. If it is a
+     *                              {@link com.amplifyframework.api.graphql.SubscriptionListener},
+     *                              it is also told when the subscription has started or resumed
      * @param <T> The type of data in the response. Must extend Model.
      * @return A {@link Cancelable} to provide a means to cancel the asynchronous operation
      */
@@ -115,7 +152,9 @@ public interface AppSyncEndpoint {
      * Get notified when a delete event happens on a given class.
      * @param modelClass The class of the Model we are listening on
      * @param subscriptionListener  A listener to receive notifications when new items are
-     *                              available via the subscription stream
+     *                              available via the subscription stream. If it is a
+     *                              {@link com.amplifyframework.api.graphql.SubscriptionListener},
+     *                              it is also told when the subscription has started or resumed
      * @param <T> The type of data in the response. Must extend Model.
      * @return A {@link Cancelable} to provide a means to cancel the asynchronous operation
      */
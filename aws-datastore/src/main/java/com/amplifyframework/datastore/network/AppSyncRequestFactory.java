@@ -23,15 +23,31 @@ import com.amplifyframework.api.graphql.MutationType;
 import com.amplifyframework.api.graphql.SubscriptionType;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.predicate.BeginsWithQueryOperator;
+import com.amplifyframework.core.model.query.predicate.BetweenQueryOperator;
+import com.amplifyframework.core.model.query.predicate.ContainsQueryOperator;
+import com.amplifyframework.core.model.query.predicate.EqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.GreaterOrEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.GreaterThanQueryOperator;
+import com.amplifyframework.core.model.query.predicate.LessOrEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.LessThanQueryOperator;
+import com.amplifyframework.core.model.query.predicate.NotEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.QueryOperator;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateOperation;
 import com.amplifyframework.datastore.DataStoreException;
 import com.amplifyframework.util.FieldFinder;
 import com.amplifyframework.util.StringUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * A factory to generate AppSync GraphQL request documents.
@@ -68,32 +84,60 @@ final class AppSyncRequestFactory {
             @NonNull final Class<T> modelClass,
             @Nullable final Long lastSync,
             @Nullable final String nextToken) throws DataStoreException {
+        return buildSyncDoc(modelClass, lastSync, nextToken, false);
+    }
+
+    /**
+     * Builds the query document for base and delta sync, which optionally takes
+     * a filter, as built by {@link #buildFilter(QueryPredicate)}, in a $filter variable.
+     * @param modelClass Class for which we want to sync.
+     * @param lastSync The last time synced. If not provided, do a base query.
+     *                 If provided, do a delta query.
+     * @param nextToken Token of the page to get, or null for the first page
+     * @param filtered Whether the query takes a $filter variable
+     * @param <T> The type of objects we are syncing
+     * @return A string which contains a GraphQL query doc for an base/delta sync
+     * @throws DataStoreException On Failure to inspect
+     */
+    @NonNull
+    static <T extends Model> String buildSyncDoc(
+            @NonNull final Class<T> modelClass,
+            @Nullable final Long lastSync,
+            @Nullable final String nextToken,
+            final boolean filtered) throws DataStoreException {
 
         final StringBuilder doc = new StringBuilder();
         final String capitalizedModelName = StringUtils.capitalizeFirst(modelClass.getSimpleName());
 
         int indent = 0;
-        // Outer container, e.g. query SyncBlogPost {
-        doc.append("query Sync").append(capitalizedModelName).append("s {\n");
+        // Outer container, e.g. query SyncBlogPost {, or query SyncBlogPost($filter: ModelBlogPostFilterInput) {
+        doc.append("query Sync").append(capitalizedModelName).append("s");
+        if (filtered) {
+            doc.append("($filter: Model").append(capitalizedModelName).append("FilterInput)");
+        }
+        doc.append(" {\n");
 
         // Inner directive, e.g. syncBlogPosts(
         doc.append(padBy(++indent))
             .append("sync").append(capitalizedModelName).append("s");
 
         // Optional param for inner directive, i.e. (lastSync: 123123)
-        // (lastSync:11123123, nextToken: "asdfasdfaS")
-        if (lastSync != null || nextToken != null) {
-            doc.append("(");
-            if (lastSync != null) {
-                doc.append("lastSync: ").append(lastSync);
-                if (nextToken != null) {
-                    doc.append(", ");
-                }
-            }
-            if (nextToken != null) {
-                doc.append("nextToken: \"").append(nextToken).append("\"");
+        // (filter: $filter, lastSync:11123123, nextToken: "asdfasdfaS")
+        final List<String> params = new ArrayList<>();
+        if (filtered) {
+            params.add("filter: $filter");
+        }
+        if (lastSync != null) {
+            params.add("lastSync: " + lastSync);
+        }
+        if (nextToken != null) {
+            params.add("nextToken: \"" + nextToken + "\"");
+        }
+        for (int position = 0; position < params.size(); position++) {
+            doc.append(position == 0 ? "(" : ", ").append(params.get(position));
+            if (position == params.size() - 1) {
+                doc.append(")");
             }
-            doc.append(")");
         }
 
         // Opening clause for selection set
@@ -122,6 +166,103 @@ final class AppSyncRequestFactory {
         return doc.toString();
     }
 
+    /**
+     * Builds the value of the $filter variable of a sync query, from a predicate.
+     * @param predicate A predicate on the fields of a model
+     * @return A filter, in the shape of the Model*FilterInput type of the model
+     * @throws DataStoreException If the predicate can not be expressed as a filter
+     */
+    @NonNull
+    static Map<String, Object> buildFilter(@NonNull QueryPredicate predicate) throws DataStoreException {
+        if (predicate instanceof QueryPredicateOperation) {
+            final QueryPredicateOperation operation = (QueryPredicateOperation) predicate;
+            final QueryOperator operator = operation.operator();
+            return Collections.singletonMap(
+                operation.field(),
+                Collections.singletonMap(filterOperatorOf(operator), filterValueOf(operator))
+            );
+        } else if (predicate instanceof QueryPredicateGroup) {
+            final QueryPredicateGroup group = (QueryPredicateGroup) predicate;
+            if (QueryPredicateGroup.Type.NOT.equals(group.type())) {
+                if (group.predicates().isEmpty()) {
+                    throw new DataStoreException(
+                        "Predicate group of type NOT must include a value to negate.",
+                        "Check if you created a NOT condition in your Predicate with no included value."
+                    );
+                }
+                return Collections.singletonMap("not", buildFilter(group.predicates().get(0)));
+            }
+            final List<Map<String, Object>> filters = new ArrayList<>();
+            for (QueryPredicate member : group.predicates()) {
+                filters.add(buildFilter(member));
+            }
+            return Collections.singletonMap(group.type().toString().toLowerCase(Locale.US), filters);
+        }
+        throw new DataStoreException(
+            "Tried to parse an unsupported QueryPredicate",
+            "Try changing to one of the supported values: QueryPredicateOperation, QueryPredicateGroup."
+        );
+    }
+
+    private static String filterOperatorOf(QueryOperator operator) throws DataStoreException {
+        switch (operator.type()) {
+            case NOT_EQUAL:
+                return "ne";
+            case EQUAL:
+                return "eq";
+            case LESS_OR_EQUAL:
+                return "le";
+            case LESS_THAN:
+                return "lt";
+            case GREATER_OR_EQUAL:
+                return "ge";
+            case GREATER_THAN:
+                return "gt";
+            case CONTAINS:
+                return "contains";
+            case BETWEEN:
+                return "between";
+            case BEGINS_WITH:
+                return "beginsWith";
+            default:
+                throw new DataStoreException(
+                    "Tried to parse an unsupported QueryOperator type = " + operator.type(),
+                    "Check if a new QueryOperator.Type enum has been created which is not supported " +
+                        "in the AppSyncRequestFactory."
+                );
+        }
+    }
+
+    private static Object filterValueOf(QueryOperator operator) throws DataStoreException {
+        switch (operator.type()) {
+            case NOT_EQUAL:
+                return ((NotEqualQueryOperator) operator).value();
+            case EQUAL:
+                return ((EqualQueryOperator) operator).value();
+            case LESS_OR_EQUAL:
+                return ((LessOrEqualQueryOperator) operator).value();
+            case LESS_THAN:
+                return ((LessThanQueryOperator) operator).value();
+            case GREATER_OR_EQUAL:
+                return ((GreaterOrEqualQueryOperator) operator).value();
+            case GREATER_THAN:
+                return ((GreaterThanQueryOperator) operator).value();
+            case CONTAINS:
+                return ((ContainsQueryOperator) operator).value();
+            case BETWEEN:
+                final BetweenQueryOperator between = (BetweenQueryOperator) operator;
+                return Arrays.asList(between.start(), between.end());
+            case BEGINS_WITH:
+                return ((BeginsWithQueryOperator) operator).value();
+            default:
+                throw new DataStoreException(
+                    "Tried to parse an unsupported QueryOperator type = " + operator.type(),
+                    "Check if a new QueryOperator.Type enum has been created which is not supported " +
+                        "in the AppSyncRequestFactory."
+                );
+        }
+    }
+
     static <T extends Model> String buildSubscriptionDoc(
             Class<T> modelClass, SubscriptionType subscriptionType) throws DataStoreException {
 
@@ -179,6 +320,70 @@ final class AppSyncRequestFactory {
         return buildMutation(modelClass, MutationType.CREATE);
     }
 
+    /**
+     * Builds a single mutation document which creates several models, so that they
+     * can be sent in one request. The creation at each position is selected under the
+     * alias from {@link #batchAlias(int)}, and takes its input from the variable
+     * named by {@link #batchInputVariable(int)}.
+     * @param modelClasses Classes of the models to create, in order
+     * @return Mutation doc
+     * @throws DataStoreException On failure to inspect a model class
+     */
+    @NonNull
+    static String buildBatchCreationDoc(@NonNull List<Class<? extends Model>> modelClasses)
+            throws DataStoreException {
+        int indent = 0;
+        StringBuilder doc = new StringBuilder();
+
+        // mutation CreateBatch($input1:CreateBlogOwnerInput!, $input2:CreatePostInput!) {
+        doc.append("mutation CreateBatch(");
+        for (int position = 0; position < modelClasses.size(); position++) {
+            if (position > 0) {
+                doc.append(", ");
+            }
+            doc.append("$").append(batchInputVariable(position)).append(":Create")
+                .append(StringUtils.capitalizeFirst(modelClasses.get(position).getSimpleName())).append("Input!");
+        }
+        doc.append(") {\n");
+
+        ++indent;
+        for (int position = 0; position < modelClasses.size(); position++) {
+            //   m1: createBlogOwner(input:$input1) {
+            doc.append(padBy(indent)).append(batchAlias(position)).append(": create")
+                .append(StringUtils.capitalizeFirst(modelClasses.get(position).getSimpleName()))
+                .append("(input:$").append(batchInputVariable(position)).append(") {\n");
+            doc.append(buildMutationSelection(modelClasses.get(position), indent + 1));
+
+            // end the the aliased createWhatever directive
+            doc.append(padBy(indent)).append("}\n");
+        }
+
+        // End the container (that started as `mutation CreateBatch(`
+        doc.append(padBy(--indent)).append("}\n");
+
+        return doc.toString();
+    }
+
+    /**
+     * Gets the alias under which the mutation at a position of a batch is selected.
+     * @param position Position of a mutation in a batch, starting from 0
+     * @return Alias of the mutation, e.g., m1 for position 0
+     */
+    @NonNull
+    static String batchAlias(int position) {
+        return "m" + (position + 1);
+    }
+
+    /**
+     * Gets the name of the variable which holds the input to the mutation at a position of a batch.
+     * @param position Position of a mutation in a batch, starting from 0
+     * @return Name of the variable, e.g., input1 for position 0
+     */
+    @NonNull
+    static String batchInputVariable(int position) {
+        return "input" + (position + 1);
+    }
+
     /**
      * Builds a mutation.
      * @param modelClass class of the model
@@ -219,12 +424,7 @@ final class AppSyncRequestFactory {
         doc.append(padBy(++indent)).append(verb.toLowerCase(Locale.US)).append(capitalizedModelName)
             .append("(input:$input) {\n");
 
-        ++indent;
-        doc.append(buildSelectionPortion(modelClass, indent, WALK_DEPTH));
-        for (final String itemSyncKey : ITEM_SYNC_KEYS) {
-            doc.append(padBy(indent)).append(itemSyncKey).append("\n");
-        }
-        --indent;
+        doc.append(buildMutationSelection(modelClass, indent + 1));
 
         // end the the inner createWhatever directive
         doc.append(padBy(indent)).append("}\n");
@@ -235,6 +435,16 @@ final class AppSyncRequestFactory {
         return doc.toString();
     }
 
+    // Selects the fields of a mutated model, along with its sync metadata.
+    private static String buildMutationSelection(Class<? extends Model> modelClass, int indent)
+            throws DataStoreException {
+        final StringBuilder selection = new StringBuilder(buildSelectionPortion(modelClass, indent, WALK_DEPTH));
+        for (final String itemSyncKey : ITEM_SYNC_KEYS) {
+            selection.append(padBy(indent)).append(itemSyncKey).append("\n");
+        }
+        return selection.toString();
+    }
+
     private static String padBy(int indent) {
         if (indent <= 0) {
             return "";
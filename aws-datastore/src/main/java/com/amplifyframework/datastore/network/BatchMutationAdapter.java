@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.DataStoreException;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the response to a batch of aliased mutations, as built by
+ * {@link AppSyncRequestFactory#buildBatchCreationDoc(List)}, into one response per mutation.
+ *
+ * The errors in a GraphQL response do not say which alias they belong to, so a mutation
+ * is considered to have failed if the data under its alias is null. A failed mutation's
+ * response carries all of the errors of the batch.
+ */
+final class BatchMutationAdapter<T extends Model> implements ResultListener<GraphQLResponse<String>> {
+    private final List<Class<T>> itemClasses;
+    private final ResponseDeserializer responseDeserializer;
+    private final ResultListener<List<GraphQLResponse<ModelWithMetadata<T>>>> responseListener;
+
+    BatchMutationAdapter(
+            ResultListener<List<GraphQLResponse<ModelWithMetadata<T>>>> responseListener,
+            List<Class<T>> itemClasses,
+            ResponseDeserializer responseDeserializer) {
+        this.responseListener = responseListener;
+        this.itemClasses = itemClasses;
+        this.responseDeserializer = responseDeserializer;
+    }
+
+    @Override
+    public void onResult(GraphQLResponse<String> result) {
+        final JsonElement data;
+        try {
+            data = result.hasData() ? JsonParser.parseString(result.getData()) : null;
+        } catch (JsonParseException jsonParseException) {
+            responseListener.onError(new DataStoreException(
+                "Unable to read the response to a batch of mutations.",
+                jsonParseException,
+                "Check the attached exception for more details."
+            ));
+            return;
+        }
+
+        final List<GraphQLResponse<ModelWithMetadata<T>>> responses = new ArrayList<>();
+        for (int position = 0; position < itemClasses.size(); position++) {
+            final JsonElement item = itemAt(data, position);
+            if (item == null || item.isJsonNull()) {
+                responses.add(new GraphQLResponse<>(null, result.getErrors()));
+            } else {
+                responses.add(responseDeserializer.deserialize(item.toString(), itemClasses.get(position)));
+            }
+        }
+        responseListener.onResult(responses);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        responseListener.onError(error);
+    }
+
+    private JsonElement itemAt(JsonElement data, int position) {
+        // A batch of one has a single top-level field, which the API unwraps from its alias.
+        if (data == null || itemClasses.size() == 1) {
+            return data;
+        }
+        if (!data.isJsonObject()) {
+            return null;
+        }
+        final JsonObject dataObject = data.getAsJsonObject();
+        return dataObject.get(AppSyncRequestFactory.batchAlias(position));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.annotations.ModelConfig;
+import com.amplifyframework.core.model.annotations.ModelField;
+
+import java.util.Objects;
+
+/**
+ * System model which keeps a change that could not be published, after every
+ * attempt to publish it failed. The change is removed from the
+ * {@link StorageItemChangeJournal}, so that it does not hold back the changes behind it,
+ * but it is kept here, as it was journaled, so that it can be inspected or published again.
+ */
+@ModelConfig
+public final class DeadLetterMutation implements Model {
+    private final @ModelField(targetType = "ID", isRequired = true) String id;
+    private final @ModelField(targetType = "String", isRequired = true) String itemClass;
+    private final @ModelField(targetType = "String", isRequired = true) String entry;
+    private final @ModelField(targetType = "Int", isRequired = true) Integer attempts;
+    private final @ModelField(targetType = "AWSTimestamp", isRequired = true) Long failedAt;
+
+    /**
+     * Constructs a new DeadLetterMutation.
+     * @param changeId ID of the change which could not be published, which is also the ID
+     * @param itemClass Class of the item which was changed
+     * @param entry The change, serialized as it was in the journal
+     * @param attempts Number of attempts which were made to publish the change
+     * @param failedAt Time at which the last attempt failed, in milliseconds
+     */
+    public DeadLetterMutation(
+            @NonNull String changeId,
+            @NonNull String itemClass,
+            @NonNull String entry,
+            int attempts,
+            long failedAt) {
+        this.id = Objects.requireNonNull(changeId);
+        this.itemClass = Objects.requireNonNull(itemClass);
+        this.entry = Objects.requireNonNull(entry);
+        this.attempts = attempts;
+        this.failedAt = failedAt;
+    }
+
+    /**
+     * Gets the ID, which is the ID of the change which could not be published.
+     * @return ID of the change
+     */
+    @NonNull
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the class of the item which was changed.
+     * @return Class name of the item
+     */
+    @NonNull
+    public String getItemClass() {
+        return itemClass;
+    }
+
+    /**
+     * Gets the change, serialized as it was in the journal.
+     * @return The serialized change
+     */
+    @NonNull
+    public String getEntry() {
+        return entry;
+    }
+
+    /**
+     * Gets the number of attempts which were made to publish the change.
+     * @return Number of attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Gets the time at which the last attempt to publish the change failed.
+     * @return Time of failure, in milliseconds
+     */
+    public long getFailedAt() {
+        return failedAt;
+    }
+
+    @Override
+    public boolean equals(Object thatObject) {
+        if (this == thatObject) {
+            return true;
+        }
+        if (thatObject == null || getClass() != thatObject.getClass()) {
+            return false;
+        }
+
+        DeadLetterMutation that = (DeadLetterMutation) thatObject;
+
+        if (!id.equals(that.id)) {
+            return false;
+        }
+        if (!itemClass.equals(that.itemClass)) {
+            return false;
+        }
+        if (!entry.equals(that.entry)) {
+            return false;
+        }
+        if (!attempts.equals(that.attempts)) {
+            return false;
+        }
+        return failedAt.equals(that.failedAt);
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + itemClass.hashCode();
+        result = 31 * result + entry.hashCode();
+        result = 31 * result + attempts.hashCode();
+        result = 31 * result + failedAt.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetterMutation{" +
+            "id='" + id + '\'' +
+            ", itemClass='" + itemClass + '\'' +
+            ", attempts=" + attempts +
+            ", failedAt=" + failedAt +
+            '}';
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.annotations.ModelConfig;
+import com.amplifyframework.core.model.annotations.ModelField;
+
+import java.util.Objects;
+
+/**
+ * System model which records when a model was last synced from the remote API.
+ * There is one of these per model class. It is kept in local storage, so that a
+ * sync after a restart only needs to request the changes since that time.
+ */
+@ModelConfig
+public final class LastSyncMetadata implements Model {
+    private final @ModelField(targetType = "ID", isRequired = true) String id;
+    private final @ModelField(targetType = "AWSTimestamp") Long lastSyncTime;
+
+    /**
+     * Constructs a new LastSyncMetadata.
+     * @param modelClassName Name of the model class which was synced, which is also the ID
+     * @param lastSyncTime The server time at which the last successful sync of the model started
+     */
+    public LastSyncMetadata(@NonNull String modelClassName, @Nullable Long lastSyncTime) {
+        this.id = Objects.requireNonNull(modelClassName);
+        this.lastSyncTime = lastSyncTime;
+    }
+
+    /**
+     * Gets the ID, which is the name of the model class which was synced.
+     * @return Name of the model class
+     */
+    @NonNull
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the server time at which the last successful sync of the model started.
+     * @return The last sync time, in milliseconds, or null if the model was never synced
+     */
+    @Nullable
+    public Long getLastSyncTime() {
+        return lastSyncTime;
+    }
+
+    @Override
+    public boolean equals(Object thatObject) {
+        if (this == thatObject) {
+            return true;
+        }
+        if (thatObject == null || getClass() != thatObject.getClass()) {
+            return false;
+        }
+
+        LastSyncMetadata that = (LastSyncMetadata) thatObject;
+
+        if (!ObjectsCompat.equals(id, that.id)) {
+            return false;
+        }
+        return ObjectsCompat.equals(lastSyncTime, that.lastSyncTime);
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + (lastSyncTime != null ? lastSyncTime.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LastSyncMetadata{" +
+            "id='" + id + '\'' +
+            ", lastSyncTime=" + lastSyncTime +
+            '}';
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.model.query.predicate.QueryField;
+import com.amplifyframework.datastore.storage.LocalStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+
+/**
+ * Keeps the {@link ModelMetadata} of each model which has been synced with the remote API,
+ * in the local storage, next to the model itself. The version in the metadata is the version
+ * of the model which the remote API has last acknowledged: it is the version that an update or
+ * delete of the model must be based on, and the version that remote changes are compared to.
+ */
+final class ModelMetadataStore {
+    private final LocalStorageAdapter storageAdapter;
+
+    /**
+     * Constructs a new ModelMetadataStore.
+     * @param storageAdapter Local storage, in which the metadata is kept
+     */
+    ModelMetadataStore(@NonNull LocalStorageAdapter storageAdapter) {
+        this.storageAdapter = Objects.requireNonNull(storageAdapter);
+    }
+
+    /**
+     * Finds the metadata of a model.
+     * @param modelId ID of a model
+     * @return A Maybe which emits the metadata of the model, or completes
+     *         without a value if the model has never been synced
+     */
+    @NonNull
+    Maybe<ModelMetadata> find(@NonNull String modelId) {
+        Objects.requireNonNull(modelId);
+        return Maybe.create(emitter -> {
+            storageAdapter.query(ModelMetadata.class,
+                QueryField.field(ModelMetadata.class.getSimpleName() + ".id").eq(modelId),
+                new ResultListener<Iterator<ModelMetadata>>() {
+                    @Override
+                    public void onResult(Iterator<ModelMetadata> result) {
+                        while (result.hasNext()) {
+                            final ModelMetadata metadata = result.next();
+                            if (modelId.equals(metadata.getId())) {
+                                emitter.onSuccess(metadata);
+                                return;
+                            }
+                        }
+                        emitter.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Saves the metadata of a model, replacing any that was saved before.
+     * @param metadata Metadata of a model, as reported by the remote API
+     * @return A Completable which completes once the metadata is saved
+     */
+    @NonNull
+    Completable save(@NonNull ModelMetadata metadata) {
+        Objects.requireNonNull(metadata);
+        return Completable.create(emitter -> {
+            storageAdapter.save(metadata, StorageItemChange.Initiator.SYNC_ENGINE,
+                new ResultListener<StorageItemChange.Record>() {
+                    @Override
+                    public void onResult(StorageItemChange.Record result) {
+                        emitter.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Checks whether a remote change is newer than the version of the model that is
+     * known locally, and so should be applied to the local storage.
+     * @param incoming Metadata of a remote change
+     * @return A Maybe which emits the incoming metadata if the change is newer, or completes
+     *         without a value if the local storage already has that version or a later one
+     */
+    @NonNull
+    Maybe<ModelMetadata> newerThanLocal(@NonNull ModelMetadata incoming) {
+        Objects.requireNonNull(incoming);
+        return find(incoming.getId())
+            .map(local -> isNewer(incoming, local))
+            .defaultIfEmpty(true)
+            .filter(newer -> newer)
+            .map(newer -> incoming);
+    }
+
+    private static boolean isNewer(ModelMetadata incoming, ModelMetadata local) {
+        if (incoming.getVersion() == null || local.getVersion() == null) {
+            return true;
+        }
+        return incoming.getVersion() > local.getVersion();
+    }
+}
@@ -16,6 +16,7 @@
 package com.amplifyframework.datastore.network;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.amplifyframework.core.model.Model;
 
@@ -25,11 +26,13 @@ final class Mutation<T extends Model> {
     private final T model;
     private final Class<T> modelClass;
     private final Type type;
+    private final ModelMetadata syncMetadata;
 
-    private Mutation(T model, Class<T> modelClass, Type type) {
+    private Mutation(T model, Class<T> modelClass, Type type, ModelMetadata syncMetadata) {
         this.model = model;
         this.modelClass = modelClass;
         this.type = type;
+        this.syncMetadata = syncMetadata;
     }
 
     @NonNull
@@ -47,6 +50,11 @@ final class Mutation<T extends Model> {
         return type;
     }
 
+    @Nullable
+    ModelMetadata syncMetadata() {
+        return syncMetadata;
+    }
+
     @NonNull
     static <T extends Model> Builder<T> builder() {
         return new Builder<>();
@@ -56,6 +64,7 @@ final class Mutation<T extends Model> {
         private T model;
         private Class<T> modelClass;
         private Type type;
+        private ModelMetadata syncMetadata;
 
         @NonNull
         Builder<T> model(@NonNull T model) {
@@ -75,9 +84,15 @@ final class Mutation<T extends Model> {
             return this;
         }
 
+        @NonNull
+        Builder<T> syncMetadata(@Nullable ModelMetadata syncMetadata) {
+            this.syncMetadata = syncMetadata;
+            return this;
+        }
+
         @NonNull
         Mutation<T> build() {
-            return new Mutation<>(model, modelClass, type);
+            return new Mutation<>(model, modelClass, type, syncMetadata);
         }
     }
 
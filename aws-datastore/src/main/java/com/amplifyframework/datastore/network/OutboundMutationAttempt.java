@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.annotations.ModelConfig;
+import com.amplifyframework.core.model.annotations.ModelField;
+
+import java.util.Objects;
+
+/**
+ * System model which records the attempts to publish a change from the
+ * {@link StorageItemChangeJournal}. It is written before each attempt starts, so that
+ * an attempt which was cut short by a crash still counts, and so that the backoff
+ * before the next attempt is still respected after a restart.
+ */
+@ModelConfig
+public final class OutboundMutationAttempt implements Model {
+    private final @ModelField(targetType = "ID", isRequired = true) String id;
+    private final @ModelField(targetType = "Int", isRequired = true) Integer attempts;
+    private final @ModelField(targetType = "AWSTimestamp", isRequired = true) Long nextAttemptAt;
+
+    /**
+     * Constructs a new OutboundMutationAttempt.
+     * @param changeId ID of the change which is being published, which is also the ID
+     * @param attempts Number of attempts to publish the change which have started
+     * @param nextAttemptAt Time before which the change is not attempted again, in milliseconds
+     */
+    public OutboundMutationAttempt(@NonNull String changeId, int attempts, long nextAttemptAt) {
+        this.id = Objects.requireNonNull(changeId);
+        this.attempts = attempts;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * Gets the ID, which is the ID of the change which is being published.
+     * @return ID of the change
+     */
+    @NonNull
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the number of attempts to publish the change which have started.
+     * @return Number of attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Gets the time before which the change is not attempted again.
+     * @return Time of the next attempt, in milliseconds
+     */
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    @Override
+    public boolean equals(Object thatObject) {
+        if (this == thatObject) {
+            return true;
+        }
+        if (thatObject == null || getClass() != thatObject.getClass()) {
+            return false;
+        }
+
+        OutboundMutationAttempt that = (OutboundMutationAttempt) thatObject;
+
+        if (!id.equals(that.id)) {
+            return false;
+        }
+        if (!attempts.equals(that.attempts)) {
+            return false;
+        }
+        return nextAttemptAt.equals(that.nextAttemptAt);
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + attempts.hashCode();
+        result = 31 * result + nextAttemptAt.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboundMutationAttempt{" +
+            "id='" + id + '\'' +
+            ", attempts=" + attempts +
+            ", nextAttemptAt=" + nextAttemptAt +
+            '}';
+    }
+}
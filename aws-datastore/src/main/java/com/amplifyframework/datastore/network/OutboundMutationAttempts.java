@@ -0,0 +1,299 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
+import com.amplifyframework.datastore.storage.LocalStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.logging.Logger;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+/**
+ * Keeps track of the attempts to publish each change in the {@link StorageItemChangeJournal},
+ * in an {@link OutboundMutationAttempt} per change.
+ *
+ * An attempt is counted in memory when it starts. After a failed attempt, the change waits
+ * for an exponentially increasing, jittered, delay before it is attempted again. A change which
+ * has failed the maximum number of times is moved out of the journal, into a
+ * {@link DeadLetterMutation}, so that it does not hold back the changes behind it forever.
+ *
+ * Attempts are read from the local storage once, by {@link #load()}, and are then served from
+ * memory. Only failures are written through to the local storage, so that a change which is
+ * published on its first attempt, as most are, costs no writes here at all. An attempt which
+ * is cut short by a restart is therefore not counted against its change, which is attempted
+ * again right away after the restart, with the failures that it had before.
+ */
+final class OutboundMutationAttempts {
+    // Number of attempts after which a change is dead-lettered
+    static final int MAX_ATTEMPTS = 10;
+    // Delay after the first failed attempt, which doubles after each failed attempt after that
+    static final long BASE_BACKOFF_MS = TimeUnit.SECONDS.toMillis(1);
+    // Longest delay between two attempts
+    static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
+    // Number of doublings of the base delay past which the maximum delay applies anyway
+    private static final int MAX_BACKOFF_EXPONENT = 20;
+
+    private final LocalStorageAdapter storageAdapter;
+    private final StorageItemChangeJournal storageItemChangeJournal;
+    private final GsonStorageItemChangeConverter storageItemChangeConverter;
+    private final Scheduler clock;
+    private final Random random;
+    // Attempts for the changes that have been attempted at least once, by change ID
+    private final Map<String, OutboundMutationAttempt> attemptsByChangeId;
+    // IDs of the changes whose attempts are in local storage, i.e., which have failed before
+    private final Set<String> storedChangeIds;
+    // Whether the attempts have been read from local storage, after which memory is authoritative
+    private volatile boolean loaded;
+
+    /**
+     * Constructs a new OutboundMutationAttempts.
+     * @param storageAdapter Local storage, in which attempts and dead letters are kept
+     * @param storageItemChangeJournal The journal, from which dead-lettered changes are removed
+     * @param clock Scheduler whose notion of the current time is used to time attempts
+     * @param random Source of the jitter which is added to the delays between attempts
+     */
+    OutboundMutationAttempts(
+            @NonNull LocalStorageAdapter storageAdapter,
+            @NonNull StorageItemChangeJournal storageItemChangeJournal,
+            @NonNull Scheduler clock,
+            @NonNull Random random) {
+        this.storageAdapter = Objects.requireNonNull(storageAdapter);
+        this.storageItemChangeJournal = Objects.requireNonNull(storageItemChangeJournal);
+        this.storageItemChangeConverter = new GsonStorageItemChangeConverter();
+        this.clock = Objects.requireNonNull(clock);
+        this.random = Objects.requireNonNull(random);
+        this.attemptsByChangeId = new ConcurrentHashMap<>();
+        this.storedChangeIds = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    /**
+     * Reads the attempts which were made before the last restart from local storage.
+     * Once they have been read, this completes right away.
+     * @return A Completable which completes once the attempts have been read
+     */
+    @NonNull
+    Completable load() {
+        return Completable.create(emitter -> {
+            if (loaded) {
+                emitter.onComplete();
+                return;
+            }
+            storageAdapter.query(OutboundMutationAttempt.class,
+                new ResultListener<Iterator<OutboundMutationAttempt>>() {
+                    @Override
+                    public void onResult(Iterator<OutboundMutationAttempt> result) {
+                        while (result.hasNext()) {
+                            final OutboundMutationAttempt attempt = result.next();
+                            attemptsByChangeId.put(attempt.getId(), attempt);
+                            storedChangeIds.add(attempt.getId());
+                        }
+                        loaded = true;
+                        LOG.debug("Loaded attempts for " + attemptsByChangeId.size() + " outbound changes.");
+                        emitter.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Counts an attempt to publish each of a batch of changes, which is about to start.
+     * The attempts are only counted in memory; they are written to local storage if they fail.
+     * @param batch Changes which are about to be published
+     */
+    void begin(@NonNull List<StorageItemChange<? extends Model>> batch) {
+        final long now = clock.now(TimeUnit.MILLISECONDS);
+        for (StorageItemChange<? extends Model> change : batch) {
+            final String changeId = change.changeId().toString();
+            attemptsByChangeId.put(changeId, new OutboundMutationAttempt(changeId, attemptsOf(change) + 1, now));
+        }
+    }
+
+    /**
+     * Records that an attempt to publish a change has failed. The next attempt is
+     * due after a backoff delay, counted from now. The delay applies right away, even
+     * before the returned Completable is subscribed.
+     * @param change A change which failed to publish
+     * @return A Completable which completes once the attempt is in local storage
+     */
+    @NonNull
+    Completable failed(@NonNull StorageItemChange<? extends Model> change) {
+        final OutboundMutationAttempt attempt = stamp(change, Math.max(attemptsOf(change), 1));
+        // Counted as stored before the save is, so that a change which is forgotten meanwhile
+        // has its attempts deleted after they are saved.
+        storedChangeIds.add(attempt.getId());
+        return save(attempt);
+    }
+
+    /**
+     * Makes every change due right away, e.g., once the remote API can be reached again,
+     * after the failures which happened while it could not. The number of attempts of each
+     * change is kept. Only the attempts in memory are changed; the next attempt after a
+     * restart is due as it was before.
+     */
+    void resetBackoff() {
+        final long now = clock.now(TimeUnit.MILLISECONDS);
+        for (OutboundMutationAttempt attempt : attemptsByChangeId.values()) {
+            attemptsByChangeId.put(attempt.getId(),
+                new OutboundMutationAttempt(attempt.getId(), attempt.getAttempts(), now));
+        }
+    }
+
+    /**
+     * Gets the number of attempts to publish a change which have started.
+     * @param change A change
+     * @return Number of attempts to publish the change
+     */
+    int attemptsOf(@NonNull StorageItemChange<? extends Model> change) {
+        final OutboundMutationAttempt attempt = attemptsByChangeId.get(change.changeId().toString());
+        return attempt == null ? 0 : attempt.getAttempts();
+    }
+
+    /**
+     * Checks whether a change has used up all of its attempts.
+     * @param change A change
+     * @return true if the change should not be attempted again
+     */
+    boolean isExhausted(@NonNull StorageItemChange<? extends Model> change) {
+        return attemptsOf(change) >= MAX_ATTEMPTS;
+    }
+
+    /**
+     * Gets the time which is left before a change may be attempted again.
+     * @param change A change
+     * @return Delay before the next attempt, in milliseconds, or 0 if it may be attempted now
+     */
+    long delayBeforeNextAttempt(@NonNull StorageItemChange<? extends Model> change) {
+        final OutboundMutationAttempt attempt = attemptsByChangeId.get(change.changeId().toString());
+        if (attempt == null) {
+            return 0;
+        }
+        return Math.max(0, attempt.getNextAttemptAt() - clock.now(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Moves a change which has used up its attempts out of the journal, and into a
+     * {@link DeadLetterMutation}.
+     * @param change A change which could not be published
+     * @return A Completable which completes once the change has been moved
+     */
+    @NonNull
+    Completable deadLetter(@NonNull StorageItemChange<? extends Model> change) {
+        return Completable.defer(() -> {
+            final StorageItemChange.Record record = change.toRecord(storageItemChangeConverter);
+            final DeadLetterMutation deadLetter = new DeadLetterMutation(record.getId(),
+                record.getItemClass(), record.getEntry(), attemptsOf(change), clock.now(TimeUnit.MILLISECONDS));
+            LOG.warn("Giving up on change after " + deadLetter.getAttempts() + " attempts: " + change);
+            return save(deadLetter)
+                .andThen(storageItemChangeJournal.remove(change).ignoreElement())
+                .andThen(forget(change).ignoreElement());
+        });
+    }
+
+    /**
+     * Forgets the attempts to publish a change, once it has left the journal. The attempts
+     * are only deleted from local storage if the change had failed, and so had been written.
+     * @param change A change which has been removed from the journal
+     * @param <T> Type of the change
+     * @return A Single which emits the change once its attempts have been forgotten
+     */
+    @NonNull
+    <T extends StorageItemChange<? extends Model>> Single<T> forget(@NonNull T change) {
+        return Single.defer(() -> {
+            final OutboundMutationAttempt attempt = attemptsByChangeId.remove(change.changeId().toString());
+            if (attempt == null || !storedChangeIds.remove(attempt.getId())) {
+                return Single.just(change);
+            }
+            return Single.create(emitter -> {
+                storageAdapter.delete(attempt, StorageItemChange.Initiator.SYNC_ENGINE,
+                    new ResultListener<StorageItemChange.Record>() {
+                        @Override
+                        public void onResult(StorageItemChange.Record result) {
+                            emitter.onSuccess(change);
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            emitter.onError(error);
+                        }
+                    });
+            });
+        });
+    }
+
+    /**
+     * Computes the delay which follows a number of failed attempts. The delay doubles with each
+     * attempt, up to a maximum, and is jittered over its upper half, so that the changes which
+     * failed together, e.g., when the network went down, are not all attempted again together.
+     * @param attempts Number of failed attempts
+     * @return Delay before the next attempt, in milliseconds
+     */
+    long backoff(int attempts) {
+        final int exponent = Math.min(Math.max(attempts - 1, 0), MAX_BACKOFF_EXPONENT);
+        final long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << exponent);
+        final long half = ceiling / 2;
+        return half + (long) (random.nextDouble() * (ceiling - half));
+    }
+
+    // Updates the attempts of a change in memory, and returns the updated attempt, to be saved.
+    private OutboundMutationAttempt stamp(StorageItemChange<? extends Model> change, int attempts) {
+        final long nextAttemptAt = clock.now(TimeUnit.MILLISECONDS) + backoff(attempts);
+        final OutboundMutationAttempt attempt =
+            new OutboundMutationAttempt(change.changeId().toString(), attempts, nextAttemptAt);
+        attemptsByChangeId.put(attempt.getId(), attempt);
+        return attempt;
+    }
+
+    private Completable save(Model model) {
+        return Completable.create(emitter -> {
+            storageAdapter.save(model, StorageItemChange.Initiator.SYNC_ENGINE,
+                new ResultListener<StorageItemChange.Record>() {
+                    @Override
+                    public void onResult(StorageItemChange.Record result) {
+                        emitter.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.core.model.Model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the local changes which are being published to the remote API, so that
+ * their echoes can be recognized, when they come back through the subscriptions to remote
+ * changes. An echo carries nothing that the local storage does not already have, so applying
+ * it would only write the same model again, and emit it again to the observers of the storage.
+ *
+ * Once the publication of a change is acknowledged, and its metadata saved, the version in the
+ * {@link ModelMetadataStore} is enough to skip a late echo. Before that, an echo is recognized
+ * either by the version that the API acknowledged, or, if it arrives ahead of the
+ * acknowledgement, by the model being the same as the one being published.
+ */
+final class OutboundMutationEchoes {
+    // Models which are being published, by their IDs
+    private final Map<String, List<Model>> inFlightModels;
+    // Latest version acknowledged for each model which is being published
+    private final Map<String, Integer> acknowledgedVersions;
+
+    OutboundMutationEchoes() {
+        this.inFlightModels = new HashMap<>();
+        this.acknowledgedVersions = new HashMap<>();
+    }
+
+    /**
+     * Records that a model is being published.
+     * @param model A model which is being published
+     */
+    synchronized void publishing(@NonNull Model model) {
+        List<Model> models = inFlightModels.get(model.getId());
+        if (models == null) {
+            models = new ArrayList<>();
+            inFlightModels.put(model.getId(), models);
+        }
+        models.add(model);
+    }
+
+    /**
+     * Records the version of a model which the remote API acknowledged.
+     * @param syncMetadata Metadata of a published model, as returned by the remote API
+     */
+    synchronized void acknowledged(@NonNull ModelMetadata syncMetadata) {
+        final Integer version = syncMetadata.getVersion();
+        if (version == null || !inFlightModels.containsKey(syncMetadata.getId())) {
+            return;
+        }
+        final Integer knownVersion = acknowledgedVersions.get(syncMetadata.getId());
+        if (knownVersion == null || knownVersion < version) {
+            acknowledgedVersions.put(syncMetadata.getId(), version);
+        }
+    }
+
+    /**
+     * Records that the publication of a model has ended, either after its metadata
+     * was saved, or in failure.
+     * @param model A model which was being published
+     */
+    synchronized void settled(@NonNull Model model) {
+        final List<Model> models = inFlightModels.get(model.getId());
+        if (models == null) {
+            return;
+        }
+        models.remove(model);
+        if (models.isEmpty()) {
+            inFlightModels.remove(model.getId());
+            acknowledgedVersions.remove(model.getId());
+        }
+    }
+
+    /**
+     * Checks whether a remote change is the echo of a change that is being published.
+     * @param mutation A remote change
+     * @return true if the remote change is for a version that was acknowledged
+     *         to this client, or for a model that is being published as it is
+     */
+    synchronized boolean isEcho(@NonNull Mutation<? extends Model> mutation) {
+        final Model model = mutation.model();
+        final List<Model> models = inFlightModels.get(model.getId());
+        if (models == null) {
+            return false;
+        }
+        final ModelMetadata syncMetadata = mutation.syncMetadata();
+        final Integer acknowledgedVersion = acknowledgedVersions.get(model.getId());
+        if (syncMetadata != null && syncMetadata.getVersion() != null && acknowledgedVersion != null) {
+            return syncMetadata.getVersion() <= acknowledgedVersion;
+        }
+        return models.contains(model);
+    }
+}
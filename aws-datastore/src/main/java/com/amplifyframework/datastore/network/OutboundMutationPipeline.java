@@ -0,0 +1,427 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import android.annotation.SuppressLint;
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.functions.Function;
+import io.reactivex.observers.DisposableCompletableObserver;
+import io.reactivex.observers.DisposableObserver;
+
+/**
+ * Publishes locally-initiated changes to the network, a limited number at a time.
+ *
+ * Changes are partitioned by the model that they change. Changes to the same model are
+ * published strictly one after another, in the order in which they were received, so that
+ * the remote copy of a model never sees a later change before an earlier one. Changes to
+ * different models are published in parallel, for up to a maximum number of models at a time.
+ * Models that have changes waiting are served in turn.
+ *
+ * Normally, each change is published in a request of its own. Once a backlog of changes has
+ * built up, e.g., after a period offline, changes to several different models are published
+ * together in one request, so that draining the backlog does not cost one round trip per change.
+ * The maximum concurrency then limits the number of requests in flight.
+ *
+ * If a change fails to publish, it goes back to the front of its model's queue, and the model
+ * is not served again until the change's next attempt is due, as decided by the
+ * {@link OutboundMutationAttempts}. Meanwhile, the later changes to the same model wait behind
+ * it, so that they are not published out of order, while other models are served as usual.
+ * A change which has used up its attempts is dead-lettered, which releases the changes behind it.
+ *
+ * A change which the {@link StorageItemChangeJournal} has folded into a later change to the
+ * same model, while it was waiting here, is dropped when it comes up, instead of being published.
+ */
+final class OutboundMutationPipeline {
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
+
+    private final int maxConcurrency;
+    private final int batchThreshold;
+    private final int maxBatchSize;
+    private final OutboundMutationAttempts attempts;
+    private final StorageItemChangeJournal journal;
+    private final Scheduler scheduler;
+    private final Function<List<StorageItemChange<? extends Model>>,
+        Observable<? extends StorageItemChange<? extends Model>>> publisher;
+
+    // Changes that are waiting to be published, by model. Iteration order is the order of service.
+    private final Map<String, Deque<StorageItemChange<? extends Model>>> pendingChangesByModel;
+    // Models which have a change that is being published right now
+    private final Set<String> modelsInFlight;
+    // Models whose next change is waiting for its next attempt to be due
+    private final Set<String> backingOffModels;
+    // Total number of changes in pendingChangesByModel
+    private int queueDepth;
+    // Number of requests to the publisher which have not yet completed
+    private int requestsInFlight;
+
+    /**
+     * Constructs a new OutboundMutationPipeline.
+     * @param maxConcurrency Maximum number of requests to the publisher that are in flight at the same time
+     * @param batchThreshold Number of changes waiting to be published, above which changes are batched
+     * @param maxBatchSize Maximum number of changes that are published in a single request
+     * @param attempts Keeps track of the attempts to publish each change
+     * @param journal Journal of the changes, which knows which of them have been superseded
+     * @param scheduler Scheduler on which changes are attempted again, once they are due
+     * @param publisher Publishes a list of changes, each to a different model, to the network in a
+     *                  single request. Emits each change that was published, and then completes.
+     *                  Changes that are not emitted by the time it terminates are considered failed.
+     */
+    OutboundMutationPipeline(
+            int maxConcurrency,
+            int batchThreshold,
+            int maxBatchSize,
+            @NonNull OutboundMutationAttempts attempts,
+            @NonNull StorageItemChangeJournal journal,
+            @NonNull Scheduler scheduler,
+            @NonNull Function<List<StorageItemChange<? extends Model>>,
+                Observable<? extends StorageItemChange<? extends Model>>> publisher) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive, but was " + maxConcurrency);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive, but was " + maxBatchSize);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.batchThreshold = batchThreshold;
+        this.maxBatchSize = maxBatchSize;
+        this.attempts = Objects.requireNonNull(attempts);
+        this.journal = Objects.requireNonNull(journal);
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.publisher = Objects.requireNonNull(publisher);
+        this.pendingChangesByModel = new LinkedHashMap<>();
+        this.modelsInFlight = new HashSet<>();
+        this.backingOffModels = new HashSet<>();
+        this.queueDepth = 0;
+        this.requestsInFlight = 0;
+    }
+
+    /**
+     * Publishes changes as they are emitted by a source of changes. A pipeline
+     * serves a single source at a time.
+     * @param changes A source of changes to publish
+     * @return An observable stream of the changes that were published successfully.
+     *         Changes to the same model are emitted in the order in which they were received.
+     *         The stream completes once the source has completed and every change has been
+     *         handled. Disposing the stream cancels the publications that are in flight.
+     */
+    @NonNull
+    Observable<StorageItemChange<? extends Model>> publish(
+            @NonNull Observable<StorageItemChange<? extends Model>> changes) {
+        Objects.requireNonNull(changes);
+        return Observable.create(emitter -> {
+            final ObservableEmitter<StorageItemChange<? extends Model>> serialEmitter = emitter.serialize();
+            final CompositeDisposable disposable = new CompositeDisposable();
+            final Upstream upstream = new Upstream();
+            serialEmitter.setDisposable(disposable);
+            disposable.add(Disposables.fromAction(this::reset));
+            disposable.add(changes.subscribe(
+                change -> {
+                    enqueue(change);
+                    dispatch(serialEmitter, disposable, upstream);
+                },
+                serialEmitter::onError,
+                () -> {
+                    upstream.completed = true;
+                    dispatch(serialEmitter, disposable, upstream);
+                }
+            ));
+        });
+    }
+
+    /**
+     * Gets the number of changes that are being published right now. This
+     * is also the number of models that are being published right now.
+     * @return Number of changes in flight
+     */
+    synchronized int inFlightCount() {
+        return modelsInFlight.size();
+    }
+
+    /**
+     * Gets the number of changes that have been received, but which are waiting for an earlier
+     * change to the same model, for their next attempt, or for a free slot, before they are published.
+     * @return Number of changes waiting to be published
+     */
+    synchronized int queueDepth() {
+        return queueDepth;
+    }
+
+    private synchronized void enqueue(StorageItemChange<? extends Model> change) {
+        pendingChangesOf(StorageItemChangeJournal.modelKey(change)).addLast(change);
+        queueDepth++;
+    }
+
+    // Puts a change which failed to publish back in front of the later changes to its model.
+    private synchronized void requeue(StorageItemChange<? extends Model> change) {
+        pendingChangesOf(StorageItemChangeJournal.modelKey(change)).addFirst(change);
+        queueDepth++;
+    }
+
+    private Deque<StorageItemChange<? extends Model>> pendingChangesOf(String modelKey) {
+        Deque<StorageItemChange<? extends Model>> pendingChanges = pendingChangesByModel.get(modelKey);
+        if (pendingChanges == null) {
+            pendingChanges = new ArrayDeque<>();
+            pendingChangesByModel.put(modelKey, pendingChanges);
+        }
+        return pendingChanges;
+    }
+
+    // Starts publishing as many changes as there are free slots, and completes the
+    // stream if the source has completed, and nothing is left to publish. A model whose
+    // next change is not due yet is skipped, and served again once the change is due.
+    private void dispatch(
+            ObservableEmitter<StorageItemChange<? extends Model>> emitter,
+            CompositeDisposable disposable,
+            Upstream upstream) {
+        final List<List<StorageItemChange<? extends Model>>> batchesToStart = new ArrayList<>();
+        final Map<String, Long> delaysByModel = new LinkedHashMap<>();
+        final List<StorageItemChange<? extends Model>> supersededChanges = new ArrayList<>();
+        synchronized (this) {
+            final int batchSize = queueDepth > batchThreshold ? maxBatchSize : 1;
+            final Map<String, Deque<StorageItemChange<? extends Model>>> modelsToServeAgain = new LinkedHashMap<>();
+            final Iterator<Map.Entry<String, Deque<StorageItemChange<? extends Model>>>> iterator =
+                pendingChangesByModel.entrySet().iterator();
+            List<StorageItemChange<? extends Model>> batch = new ArrayList<>();
+            while (requestsInFlight < maxConcurrency && iterator.hasNext()) {
+                final Map.Entry<String, Deque<StorageItemChange<? extends Model>>> entry = iterator.next();
+                if (modelsInFlight.contains(entry.getKey()) || backingOffModels.contains(entry.getKey())) {
+                    continue;
+                }
+                dropSupersededChanges(entry.getValue(), supersededChanges);
+                if (entry.getValue().isEmpty()) {
+                    iterator.remove();
+                    continue;
+                }
+                final long delay = attempts.delayBeforeNextAttempt(entry.getValue().peek());
+                if (delay > 0) {
+                    backingOffModels.add(entry.getKey());
+                    delaysByModel.put(entry.getKey(), delay);
+                    continue;
+                }
+                iterator.remove();
+                batch.add(entry.getValue().remove());
+                queueDepth--;
+                modelsInFlight.add(entry.getKey());
+                // A model with more changes waiting goes to the back of the line.
+                if (!entry.getValue().isEmpty()) {
+                    modelsToServeAgain.put(entry.getKey(), entry.getValue());
+                }
+                if (batch.size() == batchSize) {
+                    batchesToStart.add(batch);
+                    requestsInFlight++;
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchesToStart.add(batch);
+                requestsInFlight++;
+            }
+            pendingChangesByModel.putAll(modelsToServeAgain);
+
+            if (upstream.completed && requestsInFlight == 0 && pendingChangesByModel.isEmpty()) {
+                emitter.onComplete();
+                return;
+            }
+        }
+        for (StorageItemChange<? extends Model> supersededChange : supersededChanges) {
+            forgetAttempts(supersededChange);
+        }
+        for (Map.Entry<String, Long> delay : delaysByModel.entrySet()) {
+            wakeUp(delay.getKey(), delay.getValue(), emitter, disposable, upstream);
+        }
+        for (List<StorageItemChange<? extends Model>> batch : batchesToStart) {
+            start(batch, emitter, disposable, upstream);
+        }
+    }
+
+    // Removes the changes at the front of a model's queue which have been superseded since they were
+    // queued. The journal has already removed them; they only need to be left out of publication.
+    private void dropSupersededChanges(
+            Deque<StorageItemChange<? extends Model>> pendingChanges,
+            List<StorageItemChange<? extends Model>> supersededChanges) {
+        while (!pendingChanges.isEmpty() && journal.isSuperseded(pendingChanges.peek())) {
+            final StorageItemChange<? extends Model> supersededChange = pendingChanges.remove();
+            queueDepth--;
+            supersededChanges.add(supersededChange);
+            LOG.verbose("Dropped change that was superseded before it was published: " + supersededChange);
+        }
+    }
+
+    // Serves a model again, once the delay before the next attempt of its next change has passed.
+    private void wakeUp(
+            String modelKey,
+            long delay,
+            ObservableEmitter<StorageItemChange<? extends Model>> emitter,
+            CompositeDisposable disposable,
+            Upstream upstream) {
+        LOG.debug("Next change to " + modelKey + " is attempted again in " + delay + "ms.");
+        final DisposableCompletableObserver observer = new DisposableCompletableObserver() {
+            @Override
+            public void onComplete() {
+                disposable.delete(this);
+                backedOff(modelKey);
+                dispatch(emitter, disposable, upstream);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                disposable.delete(this);
+                emitter.onError(error);
+            }
+        };
+        disposable.add(observer);
+        Completable.timer(delay, TimeUnit.MILLISECONDS, scheduler).subscribe(observer);
+    }
+
+    private synchronized void backedOff(String modelKey) {
+        backingOffModels.remove(modelKey);
+    }
+
+    private void start(
+            List<StorageItemChange<? extends Model>> batch,
+            ObservableEmitter<StorageItemChange<? extends Model>> emitter,
+            CompositeDisposable disposable,
+            Upstream upstream) {
+        // The attempt is counted before it starts, and a publisher which can not be
+        // applied fails the attempt, like a publication which errors would.
+        attempts.begin(batch);
+        final Observable<? extends StorageItemChange<? extends Model>> publication =
+            Observable.defer(() -> publisher.apply(batch));
+        // Only touched by the observer, whose callbacks are serial.
+        final Set<UUID> publishedChangeIds = new HashSet<>();
+        final DisposableObserver<StorageItemChange<? extends Model>> observer =
+            new DisposableObserver<StorageItemChange<? extends Model>>() {
+                @Override
+                public void onNext(StorageItemChange<? extends Model> publishedChange) {
+                    publishedChangeIds.add(publishedChange.changeId());
+                    published(publishedChange);
+                    emitter.onNext(publishedChange);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    disposable.delete(this);
+                    finish(batch, publishedChangeIds, error);
+                    dispatch(emitter, disposable, upstream);
+                }
+
+                @Override
+                public void onComplete() {
+                    disposable.delete(this);
+                    finish(batch, publishedChangeIds, null);
+                    dispatch(emitter, disposable, upstream);
+                }
+            };
+        disposable.add(observer);
+        publication.subscribe(observer);
+    }
+
+    private synchronized void published(StorageItemChange<? extends Model> change) {
+        modelsInFlight.remove(StorageItemChangeJournal.modelKey(change));
+    }
+
+    // Frees the request's slot. Changes which were not published are either queued to be attempted
+    // again, in front of the later changes to their models, or dead-lettered if they are out of attempts.
+    private synchronized void finish(
+            List<StorageItemChange<? extends Model>> batch,
+            Set<UUID> publishedChangeIds,
+            Throwable error) {
+        requestsInFlight--;
+        for (StorageItemChange<? extends Model> change : batch) {
+            if (publishedChangeIds.contains(change.changeId())) {
+                continue;
+            }
+            modelsInFlight.remove(StorageItemChangeJournal.modelKey(change));
+            if (attempts.isExhausted(change)) {
+                deadLetter(change);
+                continue;
+            }
+            LOG.warn("Failed to publish change, attempting it again after a delay: " + change, error);
+            requeue(change);
+            recordFailure(change);
+        }
+    }
+
+    // If the dead letter can not be written, the change stays in the journal, and is
+    // attempted again after a restart, at which point it is dead-lettered again.
+    @SuppressLint("CheckResult")
+    private void deadLetter(StorageItemChange<? extends Model> change) {
+        //noinspection ResultOfMethodCallIgnored
+        attempts.deadLetter(change).subscribe(
+            () -> LOG.info("Dead-lettered change: " + change),
+            error -> LOG.warn("Unable to dead-letter change: " + change, error)
+        );
+    }
+
+    // Forgets the attempts of a change that was dropped, in case it had failed before.
+    @SuppressLint("CheckResult")
+    private void forgetAttempts(StorageItemChange<? extends Model> change) {
+        //noinspection ResultOfMethodCallIgnored
+        attempts.forget(change).subscribe(
+            forgotten -> { },
+            error -> LOG.warn("Unable to forget attempts of superseded change: " + change, error)
+        );
+    }
+
+    // The failure is in effect in memory right away. If it can not be written, the change
+    // is attempted right away after a restart, with the failures that were written before.
+    @SuppressLint("CheckResult")
+    private void recordFailure(StorageItemChange<? extends Model> change) {
+        //noinspection ResultOfMethodCallIgnored
+        attempts.failed(change).subscribe(
+            () -> LOG.verbose("Recorded failed attempt of change: " + change),
+            error -> LOG.warn("Unable to record failed attempt of change: " + change, error)
+        );
+    }
+
+    private synchronized void reset() {
+        pendingChangesByModel.clear();
+        modelsInFlight.clear();
+        backingOffModels.clear();
+        queueDepth = 0;
+        requestsInFlight = 0;
+    }
+
+    // State of the source of changes that is served by a call to publish(...).
+    private static final class Upstream {
+        private volatile boolean completed;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelAssociation;
+import com.amplifyframework.core.model.ModelField;
+import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.predicate.BeginsWithQueryOperator;
+import com.amplifyframework.core.model.query.predicate.BetweenQueryOperator;
+import com.amplifyframework.core.model.query.predicate.ContainsQueryOperator;
+import com.amplifyframework.core.model.query.predicate.EqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.GreaterOrEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.GreaterThanQueryOperator;
+import com.amplifyframework.core.model.query.predicate.LessOrEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.LessThanQueryOperator;
+import com.amplifyframework.core.model.query.predicate.NotEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.QueryOperator;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateOperation;
+import com.amplifyframework.datastore.DataStoreException;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Evaluates a {@link QueryPredicate} against a model, on the device. This is how a remote change,
+ * which arrives over a subscription, is checked against the predicate that limits what is synced
+ * for its model: AppSync subscriptions can not be filtered by the predicate, as sync queries are.
+ *
+ * A field of a predicate is matched by the name of a model field, as in "title", or by the target
+ * name of a model which the model belongs to, as in "postBlogId", whose value is the ID of that model.
+ */
+final class QueryPredicateEvaluator {
+    @SuppressWarnings("checkstyle:all") private QueryPredicateEvaluator() {}
+
+    /**
+     * Checks whether a model matches a predicate.
+     * @param model A model
+     * @param predicate A predicate on the fields of the model
+     * @return true if the model matches the predicate
+     * @throws DataStoreException If the fields of the model can not be read,
+     *                            or can not be compared to the values in the predicate
+     */
+    static boolean matches(@NonNull Model model, @NonNull QueryPredicate predicate) throws DataStoreException {
+        return evaluate(valuesOf(model), predicate);
+    }
+
+    private static boolean evaluate(Map<String, Object> values, QueryPredicate predicate)
+            throws DataStoreException {
+        if (predicate instanceof QueryPredicateOperation) {
+            final QueryPredicateOperation operation = (QueryPredicateOperation) predicate;
+            return evaluate(values.get(operation.field()), operation.operator());
+        } else if (predicate instanceof QueryPredicateGroup) {
+            final QueryPredicateGroup group = (QueryPredicateGroup) predicate;
+            switch (group.type()) {
+                case AND:
+                    for (QueryPredicate member : group.predicates()) {
+                        if (!evaluate(values, member)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case OR:
+                    for (QueryPredicate member : group.predicates()) {
+                        if (evaluate(values, member)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                case NOT:
+                    if (group.predicates().isEmpty()) {
+                        throw new DataStoreException(
+                            "Predicate group of type NOT must include a value to negate.",
+                            "Check if you created a NOT condition in your Predicate with no included value."
+                        );
+                    }
+                    return !evaluate(values, group.predicates().get(0));
+                default:
+                    throw new DataStoreException(
+                        "Unknown predicate group type = " + group.type(),
+                        "Was a new predicate group type created?"
+                    );
+            }
+        }
+        throw new DataStoreException(
+            "Tried to evaluate an unsupported QueryPredicate",
+            "Try changing to one of the supported values: QueryPredicateOperation, QueryPredicateGroup."
+        );
+    }
+
+    private static boolean evaluate(@Nullable Object value, QueryOperator operator) throws DataStoreException {
+        switch (operator.type()) {
+            case EQUAL:
+                return isEqual(value, ((EqualQueryOperator) operator).value());
+            case NOT_EQUAL:
+                return !isEqual(value, ((NotEqualQueryOperator) operator).value());
+            case LESS_THAN:
+                return value != null && compare(value, ((LessThanQueryOperator) operator).value()) < 0;
+            case LESS_OR_EQUAL:
+                return value != null && compare(value, ((LessOrEqualQueryOperator) operator).value()) <= 0;
+            case GREATER_THAN:
+                return value != null && compare(value, ((GreaterThanQueryOperator) operator).value()) > 0;
+            case GREATER_OR_EQUAL:
+                return value != null && compare(value, ((GreaterOrEqualQueryOperator) operator).value()) >= 0;
+            case BETWEEN:
+                final BetweenQueryOperator between = (BetweenQueryOperator) operator;
+                return value != null && compare(value, between.start()) >= 0 && compare(value, between.end()) <= 0;
+            case CONTAINS:
+                final Object element = ((ContainsQueryOperator) operator).value();
+                if (value instanceof Collection) {
+                    for (Object member : (Collection<?>) value) {
+                        if (isEqual(member, element)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                return value != null && element != null && value.toString().contains(element.toString());
+            case BEGINS_WITH:
+                final Object prefix = ((BeginsWithQueryOperator) operator).value();
+                return value != null && prefix != null && value.toString().startsWith(prefix.toString());
+            default:
+                throw new DataStoreException(
+                    "Tried to evaluate an unsupported QueryOperator type = " + operator.type(),
+                    "Check if a new QueryOperator.Type enum has been created which is not supported " +
+                        "by the QueryPredicateEvaluator."
+                );
+        }
+    }
+
+    private static boolean isEqual(@Nullable Object value, @Nullable Object operand) {
+        if (value == null || operand == null) {
+            return value == operand;
+        }
+        if (value instanceof Number && operand instanceof Number) {
+            return toBigDecimal((Number) value).compareTo(toBigDecimal((Number) operand)) == 0;
+        }
+        if (value instanceof Enum && !(operand instanceof Enum)) {
+            return ((Enum<?>) value).name().equals(operand.toString());
+        }
+        return value.equals(operand);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Comparables of the same class
+    private static int compare(Object value, @Nullable Object operand) throws DataStoreException {
+        if (value instanceof Number && operand instanceof Number) {
+            return toBigDecimal((Number) value).compareTo(toBigDecimal((Number) operand));
+        }
+        if (value instanceof Enum && operand instanceof String) {
+            return ((Enum<?>) value).name().compareTo((String) operand);
+        }
+        if (value instanceof Comparable && operand != null && value.getClass().equals(operand.getClass())) {
+            return ((Comparable) value).compareTo(operand);
+        }
+        throw new DataStoreException(
+            "Unable to compare " + value + " to " + operand + ".",
+            "Check that the values in the predicate are of the same types as the fields they are compared to."
+        );
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        return new BigDecimal(number.toString());
+    }
+
+    // Reads the values of a model's fields, by field name, and the IDs of the models
+    // that it belongs to, by target name.
+    private static Map<String, Object> valuesOf(Model model) throws DataStoreException {
+        final Map<String, Object> values = new HashMap<>();
+        try {
+            final ModelSchema modelSchema = ModelSchema.fromModelClass(model.getClass());
+            for (ModelField modelField : modelSchema.getFields().values()) {
+                final Field field = model.getClass().getDeclaredField(modelField.getName());
+                field.setAccessible(true);
+                final Object value = field.get(model);
+                final ModelAssociation association = modelSchema.getAssociations().get(modelField.getName());
+                if (association == null) {
+                    values.put(modelField.getName(), value);
+                } else if (association.isOwner()) {
+                    values.put(association.getTargetName(), value == null ? null : ((Model) value).getId());
+                }
+            }
+        } catch (AmplifyException | NoSuchFieldException | IllegalAccessException exception) {
+            throw new DataStoreException(
+                "Unable to read the fields of " + model.getClass().getSimpleName() + ".",
+                exception,
+                "Check that the model class was generated by the Amplify CLI."
+            );
+        }
+        return values;
+    }
+}
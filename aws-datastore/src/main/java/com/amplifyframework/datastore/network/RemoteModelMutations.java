@@ -16,72 +16,132 @@
 package com.amplifyframework.datastore.network;
 
 import android.annotation.SuppressLint;
-import androidx.annotation.WorkerThread;
 
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SubscriptionListener;
 import com.amplifyframework.api.graphql.SubscriptionType;
 import com.amplifyframework.core.Amplify;
-import com.amplifyframework.core.StreamListener;
 import com.amplifyframework.core.async.Cancelable;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelProvider;
 import com.amplifyframework.datastore.DataStoreException;
 import com.amplifyframework.logging.Logger;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import io.reactivex.Completable;
 import io.reactivex.Emitter;
 import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.functions.Action;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.CompletableSubject;
 
 final class RemoteModelMutations {
     private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
+    // Maximum number of subscriptions which are being established at the same time, in concurrent mode
+    private static final int MAX_CONCURRENT_SUBSCRIPTION_REQUESTS = 16;
 
     private final AppSyncEndpoint appSyncEndpoint;
     private final ModelProvider modelProvider;
+    private final SyncEngine.SubscriptionMode subscriptionMode;
     private final Set<Subscription> subscriptions;
 
     RemoteModelMutations(
             AppSyncEndpoint appSyncEndpoint,
-            ModelProvider modelProvider) {
+            ModelProvider modelProvider,
+            SyncEngine.SubscriptionMode subscriptionMode) {
         this.modelProvider = modelProvider;
         this.appSyncEndpoint = appSyncEndpoint;
+        this.subscriptionMode = subscriptionMode;
         this.subscriptions = new HashSet<>();
     }
 
-    @WorkerThread
-    Observable<Mutation<? extends Model>> observe() {
+    /**
+     * Observes the remote changes to all of the models, over subscriptions to the creations,
+     * updates and deletions of each. The subscriptions are established off of the subscribing
+     * thread, either one after another, or several at a time, depending on the subscription mode.
+     * A subscription is established once the service has acknowledged it, so no remote change
+     * which happens after that can be missed, until the connection is lost. A subscription is
+     * resumed once the connection has been re-established, but the changes which happened in
+     * between are not observed; the caller has to sync them.
+     * @param onEstablished Invoked once all of the subscriptions have been established
+     * @param onResumed Invoked each time that a subscription has resumed, after the connection
+     *                  was lost, and so may have missed changes
+     * @return An observable stream of remote changes, which ends the subscriptions when disposed
+     */
+    Observable<Mutation<? extends Model>> observe(Action onEstablished, Runnable onResumed) {
         return Observable.defer(() -> Observable.create(emitter -> {
-            emitter.setCancellable(() -> {
-                synchronized (subscriptions) {
-                    for (final Subscription subscription : subscriptions) {
-                        subscription.end();
-                    }
-                    subscriptions.clear();
-                }
-            });
-
-            synchronized (subscriptions) {
-                for (Class<? extends Model> modelClass : modelProvider.models()) {
-                    for (SubscriptionType subscriptionType : SubscriptionType.values()) {
-                        subscriptions.add(Subscription.request()
-                            .appSyncEndpoint(appSyncEndpoint)
-                            .modelClass(modelClass)
-                            .subscriptionType(subscriptionType)
-                            .commonEmitter(emitter)
-                            .begin());
-                    }
+            final CompositeDisposable disposable = new CompositeDisposable();
+            disposable.add(Disposables.fromAction(this::endSubscriptions));
+            emitter.setDisposable(disposable);
+
+            final List<Subscription.Request<? extends Model>> requests = new ArrayList<>();
+            for (Class<? extends Model> modelClass : modelProvider.models()) {
+                for (SubscriptionType subscriptionType : SubscriptionType.values()) {
+                    requests.add(Subscription.request()
+                        .appSyncEndpoint(appSyncEndpoint)
+                        .modelClass(modelClass)
+                        .subscriptionType(subscriptionType)
+                        .commonEmitter(emitter)
+                        .onResumed(onResumed));
                 }
             }
+            final int maxConcurrency = SyncEngine.SubscriptionMode.CONCURRENT.equals(subscriptionMode)
+                ? MAX_CONCURRENT_SUBSCRIPTION_REQUESTS
+                : 1;
+            disposable.add(Observable.fromIterable(requests)
+                .flatMap(request -> Completable.defer(() -> {
+                    final Subscription subscription = request.begin();
+                    keep(subscription, emitter);
+                    return subscription.started();
+                })
+                    .subscribeOn(Schedulers.io())
+                    .toObservable(), maxConcurrency)
+                .ignoreElements()
+                .subscribe(onEstablished, emitter::tryOnError));
         }));
     }
 
+    // Keeps a subscription which has been established, so that it is ended along with the others,
+    // or ends it right away, if the observation was disposed while it was being established.
+    private void keep(Subscription subscription, ObservableEmitter<?> emitter) {
+        synchronized (subscriptions) {
+            if (emitter.isDisposed()) {
+                subscription.end();
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+    }
+
+    private void endSubscriptions() {
+        synchronized (subscriptions) {
+            for (final Subscription subscription : subscriptions) {
+                subscription.end();
+            }
+            subscriptions.clear();
+        }
+    }
+
     static final class Subscription {
         private final Cancelable cancelable;
+        private final Completable started;
 
-        Subscription(final Cancelable cancelable) {
+        Subscription(final Cancelable cancelable, final Completable started) {
             this.cancelable = cancelable;
+            this.started = started;
+        }
+
+        // Completes once the service has acknowledged the subscription
+        Completable started() {
+            return started;
         }
 
         synchronized void end() {
@@ -101,6 +161,7 @@ final class RemoteModelMutations {
             private Class<T> modelClass;
             private SubscriptionType subscriptionType;
             private Emitter<Mutation<? extends Model>> commonEmitter;
+            private Runnable onResumed;
 
             Request<T> appSyncEndpoint(AppSyncEndpoint appSyncEndpoint) {
                 this.appSyncEndpoint = appSyncEndpoint;
@@ -123,9 +184,14 @@ final class RemoteModelMutations {
                 return this;
             }
 
+            Request<T> onResumed(Runnable onResumed) {
+                this.onResumed = onResumed;
+                return this;
+            }
+
             Subscription begin() throws DataStoreException {
                 SubscriptionFunnel<T> listener =
-                    new SubscriptionFunnel<>(commonEmitter, modelClass, subscriptionType);
+                    new SubscriptionFunnel<>(commonEmitter, modelClass, subscriptionType, onResumed);
 
                 final Cancelable cancelable;
                 switch (subscriptionType) {
@@ -144,7 +210,7 @@ final class RemoteModelMutations {
                             "Was a new subscription type created?"
                         );
                 }
-                return new Subscription(cancelable);
+                return new Subscription(cancelable, listener.started());
             }
         }
 
@@ -158,19 +224,45 @@ final class RemoteModelMutations {
          * @param <T> Type type of data being received
          */
         static final class SubscriptionFunnel<T extends Model>
-                implements StreamListener<GraphQLResponse<ModelWithMetadata<T>>> {
+                implements SubscriptionListener<GraphQLResponse<ModelWithMetadata<T>>> {
 
             private final Emitter<Mutation<? extends Model>> commonEmitter;
             private final Class<T> modelClazz;
             private final SubscriptionType subscriptionType;
+            private final Runnable onResumed;
+            private final CompletableSubject started;
 
             SubscriptionFunnel(
                     Emitter<Mutation<? extends Model>> commonEmitter,
                     Class<T> modelClazz,
-                    SubscriptionType subscriptionType) {
+                    SubscriptionType subscriptionType,
+                    Runnable onResumed) {
                 this.commonEmitter = commonEmitter;
                 this.modelClazz = modelClazz;
                 this.subscriptionType = subscriptionType;
+                this.onResumed = onResumed;
+                this.started = CompletableSubject.create();
+            }
+
+            // Completes once the subscription has started. A subscription which fails first
+            // fails the common emitter instead, which stops the wait for the others.
+            Completable started() {
+                return started;
+            }
+
+            @Override
+            public void onStarted() {
+                started.onComplete();
+            }
+
+            @SuppressLint("SyntheticAccessor")
+            @Override
+            public void onResumed() {
+                LOG.info(String.format(
+                    "Subscription to %s:%s has resumed, and may have missed changes.",
+                    modelClazz.getSimpleName(), subscriptionType
+                ));
+                onResumed.run();
             }
 
             @Override
@@ -192,10 +284,17 @@ final class RemoteModelMutations {
                             AmplifyException.TODO_RECOVERY_SUGGESTION
                     ));
                 } else {
+                    // A model whose metadata marks it as deleted is deleted locally, whichever
+                    // subscription it came from, e.g., if it has left the data that is synced.
+                    final ModelMetadata syncMetadata = response.getData().getSyncMetadata();
+                    final Mutation.Type type = Boolean.TRUE.equals(syncMetadata.isDeleted())
+                        ? Mutation.Type.DELETE
+                        : fromSubscriptionType(subscriptionType);
                     commonEmitter.onNext(Mutation.<T>builder()
                         .model(response.getData().getModel())
                         .modelClass(modelClazz)
-                        .type(fromSubscriptionType(subscriptionType))
+                        .type(type)
+                        .syncMetadata(syncMetadata)
                         .build());
                 }
             }
@@ -207,6 +306,8 @@ final class RemoteModelMutations {
                     "Subscription to %s:%s is completed.",
                     modelClazz.getSimpleName(), subscriptionType
                 ));
+                // Also stops the wait of one which is completed before it has started.
+                started.onComplete();
             }
 
             @Override
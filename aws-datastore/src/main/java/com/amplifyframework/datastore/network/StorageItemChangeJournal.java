@@ -15,23 +15,37 @@
 
 package com.amplifyframework.datastore.network;
 
+import android.annotation.SuppressLint;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.WorkerThread;
 
+import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.datastore.DataStoreException;
 import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
 import com.amplifyframework.datastore.storage.LocalStorageAdapter;
 import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.logging.Logger;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.UnicastSubject;
 
 /*
  * An {@link StorageItemChangeJournal} is a persistently-backed in-order staging ground
@@ -45,19 +59,45 @@ import io.reactivex.subjects.PublishSubject;
  * Items in the change journal are observed, and written out over the network.
  * When a write completes successfully, it is safe to remove the corresponding item
  * from the journal.
+ *
+ * The journal is compacted as changes are enqueued. When a change is enqueued for a model
+ * which already has a pending change in the journal, the two are folded together:
+ * a save followed by a save becomes the later save, since it carries the latest state of
+ * the model, and a save followed by a delete becomes just the delete. A delete followed by
+ * a save is kept as is, since the save re-creates the model. A change which is folded into
+ * a later one is removed from the journal, and is not published, unless its publication
+ * had already begun. That holds for a change which has already been handed to the
+ * {@link OutboundMutationPipeline} as well, which checks {@link #isSuperseded(StorageItemChange)}
+ * before it publishes a change. So, the number of mutations that are sent scales with the number of
+ * distinct models that were changed, not with the number of times they were changed.
+ *
+ * A model which has a change in the journal, whether it is waiting or being published, is
+ * reported by {@link #hasChanges(Class, String)}, so that remote changes do not overwrite it
+ * in the local storage before the local change has been published.
  */
 // In this class, some lambdas look more readable w/ blocks
 // The generics get crazy, so we break convention and use labels MODEL and SIC, not just M, S.
 @SuppressWarnings({"CodeBlock2Expr", "checkstyle:MethodTypeParameterName"})
 final class StorageItemChangeJournal {
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
+
     private final LocalStorageAdapter localStorageAdapter;
     private final PublishSubject<StorageItemChange<? extends Model>> pendingStorageItemChanges;
     private final GsonStorageItemChangeConverter storageItemChangeConverter;
 
+    // The most recent change in the journal for each model, by model class and ID.
+    // An enqueued change is folded together with the change that is found here.
+    private final Map<String, StorageItemChange<? extends Model>> latestChangeByModel;
+
+    // IDs of changes which were folded into later changes, and must not be published.
+    private final Set<UUID> supersededChangeIds;
+
     StorageItemChangeJournal(@NonNull final LocalStorageAdapter localStorageAdapter) {
         this.localStorageAdapter = Objects.requireNonNull(localStorageAdapter);
         this.pendingStorageItemChanges = PublishSubject.create();
         this.storageItemChangeConverter = new GsonStorageItemChangeConverter();
+        this.latestChangeByModel = new HashMap<>();
+        this.supersededChangeIds = Collections.synchronizedSet(new HashSet<>());
     }
 
     /**
@@ -67,7 +107,10 @@ final class StorageItemChangeJournal {
      *      (we use the storage adapter, again, for this). To make our lives easier,
      *      we first convert the {@link StorageItemChange} to a {@link StorageItemChange.Record},
      *      which is something the storage adapter can handle.
-     *   2. Notifying the journal observers that there is a new
+     *   2. Folding the change together with the pending change for the same model,
+     *      if there is one, and removing the pending change from the journal, if the
+     *      new change supersedes it.
+     *   3. Notifying the journal observers that there is a new
      *      {@link StorageItemChange} that needs to be processed.
      * @param storageItemChange Storage item change to be placed into the journal
      * @param <MODEL> Any Java type that extends {@link Model}
@@ -96,6 +139,10 @@ final class StorageItemChangeJournal {
                         // So, we would have to "unwrap" it, to get the item we saved, out.
                         // Forget that. We know the save succeeded, so just emit the
                         // original thing enqueue() got as a param.
+                        final StorageItemChange<? extends Model> superseded = fold(storageItemChange);
+                        if (superseded != null) {
+                            discard(superseded);
+                        }
                         pendingStorageItemChanges.onNext(storageItemChange);
                         subscriber.onSuccess(storageItemChange);
                     }
@@ -120,12 +167,30 @@ final class StorageItemChangeJournal {
     @WorkerThread
     @NonNull
     Observable<StorageItemChange<? extends Model>> observe() {
-        return pendingStorageItemChanges
+        return Observable.defer(() -> {
+            // Changes which are enqueued while the journal is being read from storage are held
+            // until the read completes, so that none of them is missed. A change which was
+            // both read from storage and held is emitted once.
+            final UnicastSubject<StorageItemChange<? extends Model>> heldChanges = UnicastSubject.create();
+            final Disposable heldChangesSubscription = pendingStorageItemChanges.subscribe(
+                heldChanges::onNext, heldChanges::onError, heldChanges::onComplete
+            );
+            final Set<UUID> replayedChangeIds = new HashSet<>();
+            return previouslyUnprocessedChanges()
+                .doOnNext(storageItemChange -> replayedChangeIds.add(storageItemChange.changeId()))
+                .concatWith(heldChanges.filter(storageItemChange -> {
+                    return !replayedChangeIds.contains(storageItemChange.changeId());
+                }))
+                .doFinally(heldChangesSubscription::dispose);
+        })
             .observeOn(Schedulers.io())
             .subscribeOn(Schedulers.io())
-            .startWith(previouslyUnprocessedChanges())
             .filter(storageItemChange -> {
                 return !StorageItemChange.Initiator.SYNC_ENGINE.equals(storageItemChange.initiator());
+            })
+            .filter(storageItemChange -> {
+                // Skip a change that was folded into a later one before it could be published.
+                return !supersededChangeIds.remove(storageItemChange.changeId());
             });
     }
 
@@ -156,6 +221,7 @@ final class StorageItemChangeJournal {
                         // The response is a record that we deleted a record.
                         // We would have to unpack the contained item (the record we deleted)
                         // So, forget that. Just return the copy we received via remove() method call.
+                        forget(storageItemChange);
                         subscriber.onSuccess(storageItemChange);
                     }
 
@@ -183,15 +249,30 @@ final class StorageItemChangeJournal {
                 new ResultListener<Iterator<StorageItemChange.Record>>() {
                     @Override
                     public void onResult(final Iterator<StorageItemChange.Record> queryResultsIterator) {
+                        // Compact the changes that were left over, before any of them is published.
+                        final Map<UUID, StorageItemChange<? extends Model>> unprocessedChanges =
+                            new LinkedHashMap<>();
+                        final Map<String, StorageItemChange<? extends Model>> latestUnprocessedChanges =
+                            new HashMap<>();
                         while (queryResultsIterator.hasNext()) {
                             try {
                                 final StorageItemChange<? extends Model> storageItemChange =
                                         queryResultsIterator.next().toStorageItemChange(storageItemChangeConverter);
-                                emitter.onNext(storageItemChange);
+                                unprocessedChanges.put(storageItemChange.changeId(), storageItemChange);
+                                final StorageItemChange<? extends Model> previous =
+                                    latestUnprocessedChanges.put(modelKey(storageItemChange), storageItemChange);
+                                if (supersedes(storageItemChange, previous)) {
+                                    unprocessedChanges.remove(previous.changeId());
+                                    discard(previous);
+                                }
                             } catch (DataStoreException exception) {
                                 onError(exception);
                             }
                         }
+                        remember(latestUnprocessedChanges.values());
+                        for (StorageItemChange<? extends Model> storageItemChange : unprocessedChanges.values()) {
+                            emitter.onNext(storageItemChange);
+                        }
                         emitter.onComplete();
                     }
 
@@ -202,4 +283,118 @@ final class StorageItemChangeJournal {
                 });
         }));
     }
+
+    /**
+     * Records a change as the most recent change to its model, and folds it together
+     * with the change that was the most recent before it, if any.
+     * @param storageItemChange A change that has been written into the journal
+     * @return The change which is superseded by the new change, and should be removed
+     *         from the journal, or null if no change is superseded
+     */
+    @Nullable
+    private synchronized StorageItemChange<? extends Model> fold(
+            @NonNull StorageItemChange<? extends Model> storageItemChange) {
+        final StorageItemChange<? extends Model> previous =
+            latestChangeByModel.put(modelKey(storageItemChange), storageItemChange);
+        if (!supersedes(storageItemChange, previous)) {
+            return null;
+        }
+        supersededChangeIds.add(previous.changeId());
+        return previous;
+    }
+
+    /**
+     * Checks whether a change has been folded into a later change to the same model,
+     * so that it no longer needs to be published.
+     * @param storageItemChange A change which was emitted by the journal
+     * @return true if a later change to the same model supersedes it
+     */
+    synchronized boolean isSuperseded(@NonNull StorageItemChange<? extends Model> storageItemChange) {
+        final StorageItemChange<? extends Model> latest = latestChangeByModel.get(modelKey(storageItemChange));
+        return latest != null && supersedes(latest, storageItemChange);
+    }
+
+    /**
+     * Checks whether a model has changes in the journal, which are either waiting to be
+     * published, or being published.
+     * @param itemClass Class of the model
+     * @param modelId ID of the model
+     * @return true if a change to the model has not left the journal yet
+     */
+    synchronized boolean hasChanges(@NonNull Class<? extends Model> itemClass, @NonNull String modelId) {
+        return latestChangeByModel.containsKey(modelKey(itemClass, modelId));
+    }
+
+    /**
+     * Records changes which were replayed from storage as the most recent changes to their
+     * models, unless a change to the same model has been enqueued since, which is more recent.
+     * @param storageItemChanges Changes which were replayed from storage
+     */
+    private synchronized void remember(
+            @NonNull Collection<StorageItemChange<? extends Model>> storageItemChanges) {
+        for (StorageItemChange<? extends Model> storageItemChange : storageItemChanges) {
+            final String modelKey = modelKey(storageItemChange);
+            if (!latestChangeByModel.containsKey(modelKey)) {
+                latestChangeByModel.put(modelKey, storageItemChange);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a change to a model supersedes the change to the same model
+     * that was made before it, so that only the later change needs to be published.
+     * @param storageItemChange A change
+     * @param previous The change to the same model that was made before it, possibly null
+     * @return true if the previous change is superseded
+     */
+    private static boolean supersedes(
+            @NonNull StorageItemChange<? extends Model> storageItemChange,
+            @Nullable StorageItemChange<? extends Model> previous) {
+        // A change may be seen twice, e.g., once when it is enqueued, and again when
+        // it is replayed from storage.
+        if (previous == null || previous.changeId().equals(storageItemChange.changeId())) {
+            return false;
+        }
+        // A save after a delete re-creates the model, so both of them are needed.
+        return !(StorageItemChange.Type.DELETE.equals(previous.type()) &&
+                StorageItemChange.Type.SAVE.equals(storageItemChange.type()));
+    }
+
+    /**
+     * Forgets a change that has left the journal, so that later changes
+     * to its model are not folded together with it.
+     * @param storageItemChange A change that has been removed from the journal
+     */
+    private synchronized void forget(@NonNull StorageItemChange<? extends Model> storageItemChange) {
+        final String modelKey = modelKey(storageItemChange);
+        if (storageItemChange.equals(latestChangeByModel.get(modelKey))) {
+            latestChangeByModel.remove(modelKey);
+        }
+        supersededChangeIds.remove(storageItemChange.changeId());
+    }
+
+    // Removes a superseded change from the persistent journal. If that fails, the change is
+    // published again after a restart, which is redundant, but not incorrect.
+    @SuppressLint("CheckResult")
+    private void discard(@NonNull StorageItemChange<? extends Model> superseded) {
+        //noinspection ResultOfMethodCallIgnored
+        remove(superseded).subscribe(
+            removed -> LOG.verbose("Compacted change out of journal: " + removed),
+            error -> LOG.warn("Unable to remove a superseded change from the journal.", error)
+        );
+    }
+
+    /**
+     * Gets a key which identifies the model that is changed by a change.
+     * @param storageItemChange A change
+     * @return The name of the model's class, and the model's ID
+     */
+    @NonNull
+    static String modelKey(@NonNull StorageItemChange<? extends Model> storageItemChange) {
+        return modelKey(storageItemChange.itemClass(), storageItemChange.item().getId());
+    }
+
+    private static String modelKey(Class<? extends Model> itemClass, String modelId) {
+        return itemClass.getName() + ":" + modelId;
+    }
 }
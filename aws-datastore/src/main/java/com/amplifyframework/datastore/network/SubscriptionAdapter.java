@@ -15,12 +15,20 @@
 
 package com.amplifyframework.datastore.network;
 
+import androidx.annotation.Nullable;
+
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.ApiCategoryBehavior;
 import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SubscriptionListener;
+import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.StreamListener;
 import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.logging.Logger;
+
+import java.util.Collections;
 
 /**
  * Listens to subscription data from an {@link ApiCategoryBehavior}, with type String.class.
@@ -28,21 +36,47 @@ import com.amplifyframework.datastore.DataStoreException;
  * Converts responses from the {@link ApiCategoryBehavior} into the StreamListener type
  * needed for the {@link AppSyncEndpoint} contract.
  * Adapts between the two types of {@link StreamListener} by means of using a
- * {@link ResponseDeserializer}.
+ * {@link ResponseDeserializer}. If the adapted listener is a {@link SubscriptionListener},
+ * it is told when the subscription has started, and when it has resumed.
+ *
+ * If the data of the model is synced selectively, the subscription itself can not be filtered by
+ * the sync predicate of the model. An item which does not match the predicate is passed on as a
+ * deletion instead, i.e., with its metadata marked as deleted, just as a sync query reports an
+ * item which was deleted. That way, an update which takes an item out of the synced data evicts
+ * the item from the local storage, rather than leaving it there as it was last synced.
  * @param <T> Type of object being de-serialized from API subscription data
  */
-final class SubscriptionAdapter<T extends Model> implements StreamListener<GraphQLResponse<String>> {
+final class SubscriptionAdapter<T extends Model> implements SubscriptionListener<GraphQLResponse<String>> {
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
+
     private final StreamListener<GraphQLResponse<ModelWithMetadata<T>>> listener;
     private final Class<T> modelClass;
     private final ResponseDeserializer responseDeserializer;
+    private final QueryPredicate syncPredicate;
 
     SubscriptionAdapter(
             StreamListener<GraphQLResponse<ModelWithMetadata<T>>> listener,
             Class<T> modelClass,
-            ResponseDeserializer responseDeserializer) {
+            ResponseDeserializer responseDeserializer,
+            @Nullable QueryPredicate syncPredicate) {
         this.listener = listener;
         this.modelClass = modelClass;
         this.responseDeserializer = responseDeserializer;
+        this.syncPredicate = syncPredicate;
+    }
+
+    @Override
+    public void onStarted() {
+        if (listener instanceof SubscriptionListener) {
+            ((SubscriptionListener<?>) listener).onStarted();
+        }
+    }
+
+    @Override
+    public void onResumed() {
+        if (listener instanceof SubscriptionListener) {
+            ((SubscriptionListener<?>) listener).onResumed();
+        }
     }
 
     @Override
@@ -54,7 +88,36 @@ final class SubscriptionAdapter<T extends Model> implements StreamListener<Graph
             ));
             return;
         }
-        listener.onNext(responseDeserializer.deserialize(item.getData(), modelClass));
+        final GraphQLResponse<ModelWithMetadata<T>> response =
+            responseDeserializer.deserialize(item.getData(), modelClass);
+        if (isOutsideOfSyncedData(response)) {
+            LOG.debug("Evicting a " + modelClass.getSimpleName() + " which no longer matches the sync predicate.");
+            listener.onNext(evictionOf(response.getData()));
+            return;
+        }
+        listener.onNext(response);
+    }
+
+    // The same model, with metadata which marks it as deleted.
+    private GraphQLResponse<ModelWithMetadata<T>> evictionOf(ModelWithMetadata<T> modelWithMetadata) {
+        final ModelMetadata syncMetadata = modelWithMetadata.getSyncMetadata();
+        final ModelMetadata deletedMetadata = new ModelMetadata(
+            syncMetadata.getId(), true, syncMetadata.getVersion(), syncMetadata.getLastChangedAt());
+        return new GraphQLResponse<>(
+            new ModelWithMetadata<>(modelWithMetadata.getModel(), deletedMetadata), Collections.emptyList());
+    }
+
+    private boolean isOutsideOfSyncedData(GraphQLResponse<ModelWithMetadata<T>> response) {
+        if (syncPredicate == null || !response.hasData() || response.getData().getModel() == null) {
+            return false;
+        }
+        try {
+            return !QueryPredicateEvaluator.matches(response.getData().getModel(), syncPredicate);
+        } catch (DataStoreException evaluationFailure) {
+            // A change which can not be checked is kept, rather than lost.
+            LOG.warn("Unable to check a change against the sync predicate.", evaluationFailure);
+            return false;
+        }
     }
 
     @Override
@@ -15,7 +15,10 @@
 
 package com.amplifyframework.datastore.network;
 
+import android.annotation.SuppressLint;
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.ApiCategoryBehavior;
@@ -25,21 +28,37 @@ import com.amplifyframework.api.graphql.MutationType;
 import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.core.StreamListener;
+import com.amplifyframework.core.async.Cancelable;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelProvider;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.reachability.Host;
+import com.amplifyframework.core.reachability.PeriodicReachabilityChecker;
+import com.amplifyframework.core.reachability.Reachability;
 import com.amplifyframework.datastore.DataStoreException;
 import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
 import com.amplifyframework.datastore.storage.LocalStorageAdapter;
 import com.amplifyframework.datastore.storage.StorageItemChange;
 import com.amplifyframework.logging.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
 
 import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.CompletableSubject;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import io.reactivex.subjects.UnicastSubject;
 
 /**
  * Synchronizes changed data between the {@link LocalStorageAdapter}
@@ -57,19 +76,58 @@ import io.reactivex.schedulers.Schedulers;
  * Meanwhile, the SyncEngine also subscribes to remote changes via the
  * {@link ApiCategoryBehavior#subscribe(String, GraphQLRequest, StreamListener)} operations.
  * Remote changes are written into the local storage without going into the journal.
+ * Changes which happen while the connection of the subscriptions is down are not received
+ * over them, so once the subscriptions have resumed, the local storage is synced again.
+ *
+ * Both of these only happen while the host of the API is reachable. While it is not, local
+ * changes keep being recorded into the journal, but nothing is sent over the network. Once the
+ * host can be reached again, the local storage is hydrated, the subscriptions are set up again,
+ * and the journal is drained right away.
  */
 // The generics get intense, so we use MODEL and SIC instead of just M and S.
 @SuppressWarnings("checkstyle:MethodTypeParameterName")
 public final class SyncEngine {
+    /**
+     * Number of models whose changes are published to the network at the same time, by default.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_MUTATIONS = 4;
     private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
+    // Number of changes waiting to be published, above which they are published in batches
+    private static final int MUTATION_BATCH_THRESHOLD = 20;
+    // Maximum number of changes that are published in one request
+    private static final int MAX_MUTATION_BATCH_SIZE = 10;
+    // Stands in for the host of an API whose reachability is not known, and is always assumed reachable
+    private static final Host UNKNOWN_HOST = () -> true;
 
     private final LocalStorageAdapter storageAdapter;
     private final AppSyncEndpoint appSyncEndpoint;
+    // Models whose data is synced; local changes to other models are not published
+    private final Set<Class<? extends Model>> syncedModels;
 
     private final RemoteModelMutations remoteModelMutations;
     private final StorageItemChangeJournal storageItemChangeJournal;
     private final GsonStorageItemChangeConverter storageItemChangeConverter;
+    private final OutboundMutationAttempts outboundMutationAttempts;
+    private final OutboundMutationPipeline outboundMutationPipeline;
+    private final SyncProcessor syncProcessor;
+    private final ModelMetadataStore modelMetadataStore;
+    private final OutboundMutationEchoes outboundMutationEchoes;
+    private final Reachability reachability;
+    private final Host apiHost;
+    // Observations of local storage, which continue while the API host is unreachable
     private final CompositeDisposable observationsToDispose;
+    // Subscriptions to, and publications to, the API, which are paused while its host is unreachable
+    private final CompositeDisposable networkOperationsToDispose;
+    // Whether the engine has been started, and not stopped since
+    private boolean started;
+    // Whether the network operations are running, as opposed to waiting for the API host to be reachable
+    private boolean syncing;
+    // Resumes the network operations once the API host is reachable, while they are paused
+    private Cancelable pendingResumption;
+    // When start() was last called, as milliseconds of SystemClock.elapsedRealtime()
+    private long startedAtMs;
+    // Time that it took to become live after start() was last called, or -1 until then
+    private volatile long startupLatencyMs;
 
     /**
      * Constructs a new SyncEngine. This sync engine will
@@ -85,45 +143,275 @@ public final class SyncEngine {
             @NonNull final ModelProvider modelProvider,
             @NonNull final LocalStorageAdapter storageAdapter,
             @NonNull final AppSyncEndpoint appSyncEndpoint) {
+        this(modelProvider, storageAdapter, appSyncEndpoint, DEFAULT_MAX_CONCURRENT_MUTATIONS);
+    }
+
+    /**
+     * Constructs a new SyncEngine, which makes a limited number of requests
+     * to publish changes to the network at the same time. Changes to the
+     * same model are always published one after another, in order. When
+     * a backlog of changes builds up, several changes are published per request.
+     * @param modelProvider A provider of the models to be synchronized
+     * @param storageAdapter Interface to local storage, used to
+     *                       durably store offline changes until
+     *                       then can be written to the network
+     * @param appSyncEndpoint An AppSync Endpoint
+     * @param maxConcurrentMutations Maximum number of requests that publish
+     *                               changes at the same time
+     */
+    public SyncEngine(
+            @NonNull final ModelProvider modelProvider,
+            @NonNull final LocalStorageAdapter storageAdapter,
+            @NonNull final AppSyncEndpoint appSyncEndpoint,
+            final int maxConcurrentMutations) {
+        this(modelProvider, storageAdapter, appSyncEndpoint, maxConcurrentMutations,
+            PeriodicReachabilityChecker.instance(), null, SubscriptionMode.CONCURRENT);
+    }
+
+    /**
+     * Constructs a new SyncEngine, which only synchronizes data while the host
+     * of the API can be reached, as determined by the provided reachability client.
+     * @param modelProvider A provider of the models to be synchronized
+     * @param storageAdapter Interface to local storage, used to
+     *                       durably store offline changes until
+     *                       then can be written to the network
+     * @param appSyncEndpoint An AppSync Endpoint
+     * @param maxConcurrentMutations Maximum number of requests that publish
+     *                               changes at the same time
+     * @param reachability Determines whether the host of the API is reachable
+     * @param apiHost The host of the API which is behind the AppSync Endpoint
+     */
+    public SyncEngine(
+            @NonNull final ModelProvider modelProvider,
+            @NonNull final LocalStorageAdapter storageAdapter,
+            @NonNull final AppSyncEndpoint appSyncEndpoint,
+            final int maxConcurrentMutations,
+            @NonNull final Reachability reachability,
+            @NonNull final Host apiHost) {
+        this(modelProvider, storageAdapter, appSyncEndpoint, maxConcurrentMutations,
+            reachability, Objects.requireNonNull(apiHost), SubscriptionMode.CONCURRENT);
+    }
+
+    /**
+     * Constructs a new SyncEngine, which establishes its subscriptions to remote
+     * changes according to the provided mode.
+     * @param modelProvider A provider of the models to be synchronized
+     * @param storageAdapter Interface to local storage, used to
+     *                       durably store offline changes until
+     *                       then can be written to the network
+     * @param appSyncEndpoint An AppSync Endpoint
+     * @param maxConcurrentMutations Maximum number of requests that publish
+     *                               changes at the same time
+     * @param reachability Determines whether the host of the API is reachable
+     * @param apiHost The host of the API which is behind the AppSync Endpoint, or null if
+     *                it is not known, in which case the API is assumed to be reachable
+     * @param subscriptionMode How the subscriptions to remote changes are established
+     */
+    public SyncEngine(
+            @NonNull final ModelProvider modelProvider,
+            @NonNull final LocalStorageAdapter storageAdapter,
+            @NonNull final AppSyncEndpoint appSyncEndpoint,
+            final int maxConcurrentMutations,
+            @NonNull final Reachability reachability,
+            @Nullable final Host apiHost,
+            @NonNull final SubscriptionMode subscriptionMode) {
         this.appSyncEndpoint = appSyncEndpoint;
-        this.remoteModelMutations = new RemoteModelMutations(appSyncEndpoint, modelProvider);
+        this.syncedModels = Collections.unmodifiableSet(new HashSet<>(modelProvider.models()));
+        this.remoteModelMutations =
+            new RemoteModelMutations(appSyncEndpoint, modelProvider, Objects.requireNonNull(subscriptionMode));
         this.storageAdapter = Objects.requireNonNull(storageAdapter);
         this.storageItemChangeJournal = new StorageItemChangeJournal(storageAdapter);
         this.storageItemChangeConverter = new GsonStorageItemChangeConverter();
+        this.outboundMutationAttempts = new OutboundMutationAttempts(
+            storageAdapter, storageItemChangeJournal, Schedulers.computation(), new Random());
+        this.outboundMutationPipeline =
+            new OutboundMutationPipeline(maxConcurrentMutations, MUTATION_BATCH_THRESHOLD, MAX_MUTATION_BATCH_SIZE,
+                outboundMutationAttempts, storageItemChangeJournal, Schedulers.computation(),
+                batch -> publishToNetwork(batch)
+                    .doOnError(error -> pauseIfUnreachable()));
+        this.syncProcessor =
+            new SyncProcessor(modelProvider, storageAdapter, appSyncEndpoint, storageItemChangeJournal);
+        this.modelMetadataStore = new ModelMetadataStore(storageAdapter);
+        this.outboundMutationEchoes = new OutboundMutationEchoes();
+        this.reachability = Objects.requireNonNull(reachability);
+        this.apiHost = apiHost != null ? apiHost : UNKNOWN_HOST;
         this.observationsToDispose = new CompositeDisposable();
+        this.networkOperationsToDispose = new CompositeDisposable();
+        this.startupLatencyMs = -1;
     }
 
     /**
      * Start performing sync operations between the local storage adapter
-     * and the remote GraphQL endpoint.
+     * and the remote GraphQL endpoint. Local changes are recorded into the journal
+     * right away. Once the host of the API is reachable, remote changes are subscribed to
+     * first, and then the local storage is hydrated from the remote API. Local changes are
+     * published once hydration has finished, even if it failed, so that they are not held up
+     * by a remote API which can not be synced. At that point, the engine is live, and the
+     * time that it took to get there is available from {@link #getStartupLatencyMs()}.
      */
-    public void start() {
-        startModelSubscriptions();
-        startDrainingChangeJournal();
+    public synchronized void start() {
+        started = true;
+        startedAtMs = SystemClock.elapsedRealtime();
+        startupLatencyMs = -1;
         startObservingStorageChanges();
+        startSyncingWhenReachable();
     }
 
-    private Completable pullVersionsFromBackend() {
-        return Completable.defer(() -> Completable.create(emitter -> {
+    // Checks whether the API host is reachable, off of the calling thread, and starts
+    // the network operations if it is, or as soon as it becomes reachable, if it is not.
+    private void startSyncingWhenReachable() {
+        observationsToDispose.add(isApiHostReachable().subscribe(
+            reachable -> {
+                if (reachable) {
+                    startSyncing();
+                } else {
+                    pause();
+                }
+            },
+            error -> LOG.warn("Unable to check whether the API host is reachable.", error)
+        ));
+    }
 
-        }));
+    private synchronized void startSyncing() {
+        pendingResumption = null;
+        if (!started || syncing) {
+            return;
+        }
+        syncing = true;
+        // Failures while the host was unreachable say nothing about the changes themselves.
+        outboundMutationAttempts.resetBackoff();
+        // Hydration waits for the subscriptions, so that no remote change falls between the two.
+        final CompletableSubject subscriptionsEstablished = CompletableSubject.create();
+        // A resumed subscription has missed the remote changes of its outage, which a delta sync fetches.
+        final Subject<Boolean> subscriptionsResumed = PublishSubject.<Boolean>create().toSerialized();
+        startResyncingOnResumption(subscriptionsResumed);
+        startModelSubscriptions(subscriptionsEstablished, () -> subscriptionsResumed.onNext(true));
+        startDrainingChangeJournal(subscriptionsEstablished.andThen(hydrateFromBackend())
+            .doOnComplete(this::becameLive));
     }
 
-    private void startModelSubscriptions() {
-        observationsToDispose.add(
-            remoteModelMutations.observe()
+    // Records how long it took to become live, the first time that happens after start().
+    private synchronized void becameLive() {
+        if (started && startupLatencyMs < 0) {
+            startupLatencyMs = SystemClock.elapsedRealtime() - startedAtMs;
+            LOG.info("Sync is live, " + startupLatencyMs + " ms after it was started.");
+        }
+    }
+
+    // Pauses the network operations if a failure was caused by the API host becoming unreachable.
+    // The check is not disposed by stop(), but a check which completes after stop() has no effect.
+    @SuppressLint("CheckResult")
+    private void pauseIfUnreachable() {
+        //noinspection ResultOfMethodCallIgnored
+        isApiHostReachable().subscribe(
+            reachable -> {
+                if (!reachable) {
+                    pause();
+                }
+            },
+            error -> LOG.warn("Unable to check whether the API host is reachable.", error)
+        );
+    }
+
+    private synchronized void pause() {
+        if (!started || pendingResumption != null) {
+            return;
+        }
+        LOG.info("API host is unreachable. Sync is paused until it can be reached.");
+        syncing = false;
+        networkOperationsToDispose.clear();
+        pendingResumption = reachability.whenReachable(apiHost, host -> {
+            LOG.info("API host is reachable again. Resuming sync.");
+            startSyncing();
+        });
+    }
+
+    private Single<Boolean> isApiHostReachable() {
+        return Single.fromCallable(() -> reachability.isReachable(apiHost))
+            .subscribeOn(Schedulers.io());
+    }
+
+    private Completable hydrateFromBackend() {
+        return syncProcessor.hydrate()
+            .subscribeOn(Schedulers.io())
+            .doOnComplete(() -> LOG.info("Local storage was hydrated from the remote API."))
+            .onErrorComplete(error -> {
+                LOG.warn("Failed to hydrate local storage from the remote API.", error);
+                return true;
+            });
+    }
+
+    // Syncs the local storage again each time that subscriptions resume after an outage. All of the
+    // subscriptions resume at about the same time, so a sync is started over by each resumption,
+    // until it gets to run after the last one. A sync which is started over keeps what it has written.
+    private void startResyncingOnResumption(Observable<Boolean> subscriptionsResumed) {
+        networkOperationsToDispose.add(
+            subscriptionsResumed
+                .switchMapCompletable(resumed -> hydrateFromBackend())
+                .subscribe()
+        );
+    }
+
+    // Subscribes to remote changes. The provided subject is completed once the subscriptions
+    // are established, or if they fail, so that whatever waits on it is not held up forever.
+    private void startModelSubscriptions(CompletableSubject subscriptionsEstablished, Runnable onResumed) {
+        networkOperationsToDispose.add(
+            remoteModelMutations.observe(subscriptionsEstablished::onComplete, onResumed)
                 .subscribeOn(Schedulers.io())
                 .observeOn(Schedulers.io())
-                .flatMapSingle(this::applyMutationToLocalStorage)
+                // One at a time, so that a change is compared to the version that the one before it wrote.
+                .concatMapSingle(this::applyMutationToLocalStorage)
                 .subscribe(
                     savedMutation -> LOG.info("Successfully applied remote mutation, locally:"),
-                    error -> LOG.warn("Error applying mutation to local storage.", error),
+                    error -> {
+                        LOG.warn("Error applying mutation to local storage.", error);
+                        subscriptionsEstablished.onComplete();
+                        pauseIfUnreachable();
+                    },
                     () -> LOG.warn("Subscription to remote model mutations is completed.")
                 )
         );
     }
 
+    /**
+     * Applies a remote change to the local storage, along with its sync metadata, unless the local
+     * storage already has the version of the model that the change is for, or a later one. That is
+     * the case, e.g., for the remote echo of a local change, once its publication has been acknowledged.
+     * The echo of a change which is still being published is skipped without reading the local storage.
+     *
+     * A model which has local changes in the journal keeps them: only the remote version is kept,
+     * so that the local changes are published on top of it. The response to that publication is
+     * then written to the local storage, which brings the model in line with the remote API.
+     * @param mutation A remote change
+     * @return A Single which emits the change once it has been applied, or skipped
+     */
     private Single<Mutation<? extends Model>> applyMutationToLocalStorage(Mutation<? extends Model> mutation) {
+        if (outboundMutationEchoes.isEcho(mutation)) {
+            LOG.debug("Skipped remote echo of a local change to " + mutation.model().getId() + ".");
+            return Single.just(mutation);
+        }
+        final ModelMetadata syncMetadata = mutation.syncMetadata();
+        if (syncMetadata == null) {
+            return writeUnlessChangedLocally(mutation);
+        }
+        return modelMetadataStore.newerThanLocal(syncMetadata)
+            .<Mutation<? extends Model>>flatMapSingleElement(newerMetadata -> writeUnlessChangedLocally(mutation)
+                .flatMap(written -> modelMetadataStore.save(newerMetadata).toSingleDefault(written)))
+            .doOnComplete(() -> LOG.debug("Skipped remote change to " + mutation.model().getId() +
+                " at version " + syncMetadata.getVersion() + ", which is not newer than the local version."))
+            .toSingle(mutation);
+    }
+
+    private Single<Mutation<? extends Model>> writeUnlessChangedLocally(Mutation<? extends Model> mutation) {
+        if (storageItemChangeJournal.hasChanges(mutation.modelClass(), mutation.model().getId())) {
+            LOG.debug("Kept local changes to " + mutation.model().getId() + " over a remote change, " +
+                "until they have been published.");
+            return Single.just(mutation);
+        }
+        return writeMutationToLocalStorage(mutation);
+    }
+
+    private Single<Mutation<? extends Model>> writeMutationToLocalStorage(Mutation<? extends Model> mutation) {
         final StorageItemChange.Initiator initiator = StorageItemChange.Initiator.SYNC_ENGINE;
         return Single.defer(() -> Single.create(emitter -> {
             final ResultListener<StorageItemChange.Record> storageResultListener =
@@ -157,15 +445,26 @@ public final class SyncEngine {
     }
 
     /**
-     * Start observing the change journal for locally-initiated changes.
+     * Start observing the change journal for locally-initiated changes. Changes are
+     * observed right away, so that none are missed, but are only published once the
+     * provided hydration has completed, and the attempts that were made to publish them
+     * before the last restart have been loaded.
+     * @param hydration Hydration of the local storage, which is started by this method
      */
-    private void startDrainingChangeJournal() {
-        observationsToDispose.add(
+    private void startDrainingChangeJournal(Completable hydration) {
+        // Holds the changes which are observed during hydration, until the pipeline is ready for them.
+        final UnicastSubject<StorageItemChange<? extends Model>> pendingChanges = UnicastSubject.create();
+        networkOperationsToDispose.add(
             storageItemChangeJournal.observe()
                 .subscribeOn(Schedulers.io())
                 .observeOn(Schedulers.io())
-                .flatMapSingle(this::publishToNetwork)
+                .subscribe(pendingChanges::onNext, pendingChanges::onError, pendingChanges::onComplete)
+        );
+        networkOperationsToDispose.add(
+            hydration.andThen(outboundMutationAttempts.load())
+                .andThen(outboundMutationPipeline.publish(pendingChanges))
                 .flatMapSingle(storageItemChangeJournal::remove)
+                .flatMapSingle(outboundMutationAttempts::forget)
                 .subscribe(
                     processedChange -> LOG.info("Change processed successfully! " + processedChange),
                     error -> LOG.warn("Error ended journal subscription: ", error),
@@ -177,6 +476,7 @@ public final class SyncEngine {
     /**
      * When a change is observed on the storage adapter, and that change wasn't caused
      * by the sync engine, then place that change into the persistently-backed change journal.
+     * Changes to models which are not synced are left out.
      */
     private void startObservingStorageChanges() {
         observationsToDispose.add(
@@ -186,7 +486,9 @@ public final class SyncEngine {
                     // Don't continue if the storage change was caused by the sync engine itself
                     return !StorageItemChange.Initiator.SYNC_ENGINE.equals(possiblyCyclicChange.initiator());
                 })
-                .subscribeOn(Schedulers.io())
+                .filter(change -> syncedModels.contains(change.itemClass()))
+                // Subscribed right away, rather than on the io scheduler, so that
+                // a change made as soon as start() returns is not missed.
                 .observeOn(Schedulers.io())
                 .flatMapSingle(storageItemChangeJournal::enqueue)
                 .subscribe(
@@ -197,44 +499,242 @@ public final class SyncEngine {
         );
     }
 
+    /**
+     * Publishes a list of changes, each to a different model, to the remote GraphQL API.
+     * A single change is published on its own. Of several changes, those which create
+     * a model are published together, in a single request, and the others one by one.
+     * @param storageItemChanges Storage item changes to be published to remote API
+     * @return An observable which emits each change that was published successfully,
+     *         and then completes, or errors if the request fails as a whole
+     */
+    private Observable<? extends StorageItemChange<? extends Model>> publishToNetwork(
+            final List<StorageItemChange<? extends Model>> storageItemChanges) {
+        if (storageItemChanges.size() == 1) {
+            return publishToNetwork(storageItemChanges.get(0)).toObservable();
+        }
+        final List<StorageItemChange<? extends Model>> creations = new ArrayList<>();
+        final List<StorageItemChange<? extends Model>> otherChanges = new ArrayList<>();
+        return Observable.fromIterable(storageItemChanges)
+            .concatMapCompletable(storageItemChange -> isCreation(storageItemChange)
+                .doOnSuccess(creation -> (creation ? creations : otherChanges).add(storageItemChange))
+                .ignoreElement())
+            .andThen(Observable.defer(() -> Observable.merge(
+                createAllOnNetwork(creations),
+                Observable.fromIterable(otherChanges).flatMapMaybe(storageItemChange ->
+                    publishToNetwork(storageItemChange)
+                        .toMaybe()
+                        .onErrorComplete(error -> {
+                            LOG.warn("Failed to publish change: " + storageItemChange, error);
+                            return true;
+                        }))
+            )));
+    }
+
+    // Creates models on the network in a single request, and keeps the metadata of those that were created.
+    private Observable<StorageItemChange<? extends Model>> createAllOnNetwork(
+            final List<StorageItemChange<? extends Model>> creations) {
+        if (creations.isEmpty()) {
+            return Observable.empty();
+        }
+        final List<Model> models = new ArrayList<>();
+        for (StorageItemChange<? extends Model> storageItemChange : creations) {
+            models.add(storageItemChange.item());
+        }
+        return Single.<List<GraphQLResponse<ModelWithMetadata<Model>>>>create(subscriber -> {
+            for (Model model : models) {
+                outboundMutationEchoes.publishing(model);
+            }
+            appSyncEndpoint.createAll(
+                models,
+                new ResultListener<List<GraphQLResponse<ModelWithMetadata<Model>>>>() {
+                    @Override
+                    public void onResult(final List<GraphQLResponse<ModelWithMetadata<Model>>> results) {
+                        subscriber.onSuccess(results);
+                    }
+
+                    @Override
+                    public void onError(final Throwable error) {
+                        subscriber.onError(error);
+                    }
+                }
+            );
+        }).flatMapObservable(results -> Observable.range(0, results.size())
+            .filter(position -> !results.get(position).hasErrors() && results.get(position).hasData())
+            .<StorageItemChange<? extends Model>>concatMapSingle(position ->
+                acknowledge(creations.get(position), results.get(position).getData())
+                    .toSingleDefault(creations.get(position))))
+            .doFinally(() -> {
+                for (Model model : models) {
+                    outboundMutationEchoes.settled(model);
+                }
+            });
+    }
+
+    // Keeps the metadata of a published model, once the remote API has acknowledged it. The model
+    // that the API responded with is written to the local storage, if it differs from the one that
+    // was published, e.g., if the API resolved a conflict with a remote change. It is not written if
+    // a later local change to the model has been made since, which is published on top of it.
+    private Completable acknowledge(
+            StorageItemChange<? extends Model> storageItemChange, ModelWithMetadata<? extends Model> published) {
+        return Completable.defer(() -> {
+            outboundMutationEchoes.acknowledged(published.getSyncMetadata());
+            final Completable saveMetadata = modelMetadataStore.save(published.getSyncMetadata());
+            final boolean isDeletion = StorageItemChange.Type.DELETE.equals(storageItemChange.type());
+            if (isDeletion || published.getModel().equals(storageItemChange.item()) ||
+                    storageItemChangeJournal.isSuperseded(storageItemChange)) {
+                return saveMetadata;
+            }
+            return writePublishedModel(published.getModel()).andThen(saveMetadata);
+        });
+    }
+
+    private Completable writePublishedModel(Model model) {
+        return Completable.create(emitter -> {
+            storageAdapter.save(model, StorageItemChange.Initiator.SYNC_ENGINE,
+                new ResultListener<StorageItemChange.Record>() {
+                    @Override
+                    public void onResult(StorageItemChange.Record result) {
+                        emitter.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+
+    // A change creates a model on the network if it saves a model which has never been synced.
+    private Single<Boolean> isCreation(StorageItemChange<? extends Model> storageItemChange) {
+        if (!StorageItemChange.Type.SAVE.equals(storageItemChange.type())) {
+            return Single.just(false);
+        }
+        return modelMetadataStore.find(storageItemChange.item().getId()).isEmpty();
+    }
+
     /**
      * To process a StorageItemChange, we try to publish it to the remote GraphQL
      * API. If that succeeds, then we can remove it from the journal. Otherwise,
      * we have to keep the journal in the journal, so that we can try to publish
      * it again later, when network conditions become favorable again.
+     *
+     * A save of a model which has been synced before is published as an update, and a
+     * deletion as a delete, either of them based on the version of the model that was last
+     * synced. Other saves are published as creations. A deletion of a model which was never
+     * synced has nothing to publish. The metadata of the published model is kept, so that the
+     * next change to it is based on the new version, and the model that the API responded with
+     * is kept as well. Until then, the model is tracked as in flight, so that its echo from the
+     * subscriptions is not written to the local storage again.
      * @param storageItemChange A storage item change to be published to remote API
      * @return A single which completes with the successfully published item, or errors
      *         if the publication fails
      */
     private <MODEL extends Model, SIC extends StorageItemChange<MODEL>> Single<SIC> publishToNetwork(
             final SIC storageItemChange) {
-        //noinspection CodeBlock2Expr More readable as a block statement
-        return Single.defer(() -> Single.create(subscriber -> {
-            appSyncEndpoint.create(
-                storageItemChange.item(),
+        final MODEL item = storageItemChange.item();
+        final boolean isDeletion = StorageItemChange.Type.DELETE.equals(storageItemChange.type());
+        return modelMetadataStore.find(item.getId())
+            .doOnSubscribe(disposable -> outboundMutationEchoes.publishing(item))
+            .flatMapSingleElement(syncMetadata -> mutateOnNetwork(storageItemChange, syncMetadata))
+            .switchIfEmpty(Maybe.defer(() -> isDeletion
+                ? Maybe.<ModelWithMetadata<MODEL>>empty()
+                : mutateOnNetwork(storageItemChange, null).toMaybe()))
+            .flatMapCompletable(published -> acknowledge(storageItemChange, published))
+            .doFinally(() -> outboundMutationEchoes.settled(item))
+            .toSingleDefault(storageItemChange);
+    }
+
+    private <MODEL extends Model> Single<ModelWithMetadata<MODEL>> mutateOnNetwork(
+            final StorageItemChange<MODEL> storageItemChange, @Nullable final ModelMetadata syncMetadata) {
+        return Single.create(subscriber -> {
+            final ResultListener<GraphQLResponse<ModelWithMetadata<MODEL>>> responseListener =
                 new ResultListener<GraphQLResponse<ModelWithMetadata<MODEL>>>() {
                     @Override
                     public void onResult(final GraphQLResponse<ModelWithMetadata<MODEL>> result) {
                         if (result.hasErrors() || !result.hasData()) {
-                            subscriber.onError(new RuntimeException("Failed to publish item to network."));
+                            subscriber.onError(new DataStoreException(
+                                "Failed to publish item to network: " + result.getErrors(),
+                                "Check the errors for a conflict with a newer version of the item."
+                            ));
+                            return;
                         }
-                        subscriber.onSuccess(storageItemChange);
+                        subscriber.onSuccess(result.getData());
                     }
 
                     @Override
                     public void onError(final Throwable error) {
                         subscriber.onError(error);
                     }
-                }
-            );
-        }));
+                };
+            final MODEL item = storageItemChange.item();
+            if (syncMetadata == null) {
+                appSyncEndpoint.create(item, responseListener);
+            } else if (StorageItemChange.Type.DELETE.equals(storageItemChange.type())) {
+                appSyncEndpoint.delete(storageItemChange.itemClass(), item.getId(),
+                    syncMetadata.getVersion(), responseListener);
+            } else {
+                appSyncEndpoint.update(item, syncMetadata.getVersion(), responseListener);
+            }
+        });
+    }
+
+    /**
+     * Gets the number of local changes that are being published to the network right now.
+     * @return Number of changes in flight
+     */
+    public int getInFlightMutationCount() {
+        return outboundMutationPipeline.inFlightCount();
+    }
+
+    /**
+     * Gets the number of local changes that are waiting to be published to the network,
+     * behind an earlier change to the same model, or for a free slot.
+     * @return Number of changes waiting to be published
+     */
+    public int getPendingMutationCount() {
+        return outboundMutationPipeline.queueDepth();
+    }
+
+    /**
+     * Gets the time that it took for the engine to become live after it was last started:
+     * that is, to establish its subscriptions to remote changes, and to hydrate the local
+     * storage, including any time spent waiting for the host of the API to become reachable.
+     * @return Startup latency in milliseconds, or -1 if the engine has not become live yet
+     */
+    public long getStartupLatencyMs() {
+        return startupLatencyMs;
     }
 
     /**
      * Stop synchronizing state between the local storage adapter
      * and a remote GraphQL endpoint.
      */
-    public void stop() {
+    public synchronized void stop() {
+        started = false;
+        syncing = false;
+        if (pendingResumption != null) {
+            pendingResumption.cancel();
+            pendingResumption = null;
+        }
+        networkOperationsToDispose.clear();
         observationsToDispose.clear();
     }
+
+    /**
+     * How the subscriptions to remote changes are established, when the engine starts.
+     * There are three subscriptions per model: to its creations, updates, and deletions.
+     */
+    public enum SubscriptionMode {
+        /**
+         * Subscriptions are established one after another.
+         */
+        SERIAL,
+
+        /**
+         * Several subscriptions are established at the same time, so that the time it takes
+         * to start does not grow with the number of models as much as it does serially.
+         */
+        CONCURRENT
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+import com.amplifyframework.core.model.Model;
+
+import java.util.Objects;
+
+/**
+ * One page of the results of a base or delta sync query.
+ * @param <M> The model that is being synced
+ */
+public final class SyncPage<M extends Model> {
+    private final Iterable<ModelWithMetadata<M>> items;
+    private final String nextToken;
+    private final Long startedAt;
+
+    /**
+     * Constructs a new SyncPage.
+     * @param items The models on this page, along with their sync metadata
+     * @param nextToken A token with which to request the next page, or null if this is the last page
+     * @param startedAt The time on the server when the sync query started, in milliseconds
+     */
+    public SyncPage(
+            @NonNull Iterable<ModelWithMetadata<M>> items,
+            @Nullable String nextToken,
+            @Nullable Long startedAt) {
+        this.items = Objects.requireNonNull(items);
+        this.nextToken = nextToken;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Gets the models on this page, along with their sync metadata.
+     * @return Models on this page
+     */
+    @NonNull
+    public Iterable<ModelWithMetadata<M>> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the token with which to request the next page.
+     * @return The token for the next page, or null if this is the last page
+     */
+    @Nullable
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Checks whether there is another page after this one.
+     * @return true if there is a next page
+     */
+    public boolean hasNextPage() {
+        return nextToken != null;
+    }
+
+    /**
+     * Gets the time on the server when the sync query started. A later
+     * delta sync should request the changes which were made since this time.
+     * @return The time the sync query started, in milliseconds, possibly null
+     */
+    @Nullable
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    @Override
+    public boolean equals(Object thatObject) {
+        if (this == thatObject) {
+            return true;
+        }
+        if (thatObject == null || getClass() != thatObject.getClass()) {
+            return false;
+        }
+
+        SyncPage<?> syncPage = (SyncPage<?>) thatObject;
+
+        if (!ObjectsCompat.equals(items, syncPage.items)) {
+            return false;
+        }
+        if (!ObjectsCompat.equals(nextToken, syncPage.nextToken)) {
+            return false;
+        }
+        return ObjectsCompat.equals(startedAt, syncPage.startedAt);
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    @Override
+    public int hashCode() {
+        int result = items.hashCode();
+        result = 31 * result + (nextToken != null ? nextToken.hashCode() : 0);
+        result = 31 * result + (startedAt != null ? startedAt.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncPage{" +
+            "items=" + items +
+            ", nextToken='" + nextToken + '\'' +
+            ", startedAt=" + startedAt +
+            '}';
+    }
+}
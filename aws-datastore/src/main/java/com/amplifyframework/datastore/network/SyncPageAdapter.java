@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.PaginatedResult;
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.DataStoreException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An adapter from the response to a sync query, to a {@link SyncPage}. Unlike the
+ * {@link SyncAdapter}, it reads the {@link PaginatedResult} that the API category returns
+ * for the sync field of the response, so that the nextToken and startedAt values are
+ * kept along with the items of the page.
+ * @param <T> Type of model being sync'd
+ */
+final class SyncPageAdapter<T extends Model> implements ResultListener<GraphQLResponse<Iterable<String>>> {
+    private final ResultListener<GraphQLResponse<SyncPage<T>>> responseListener;
+    private final Class<T> itemClass;
+    private final ResponseDeserializer responseDeserializer;
+
+    SyncPageAdapter(
+            ResultListener<GraphQLResponse<SyncPage<T>>> responseListener,
+            Class<T> itemClass,
+            ResponseDeserializer responseDeserializer) {
+        this.responseListener = responseListener;
+        this.itemClass = itemClass;
+        this.responseDeserializer = responseDeserializer;
+    }
+
+    @Override
+    public void onResult(GraphQLResponse<Iterable<String>> resultFromApiQuery) {
+        if (resultFromApiQuery.hasErrors()) {
+            responseListener.onError(new DataStoreException(
+                "Failure performing sync query to AppSync: " + resultFromApiQuery.getErrors().toString(),
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            ));
+            return;
+        }
+        if (!resultFromApiQuery.hasData()) {
+            responseListener.onResult(new GraphQLResponse<>(null, Collections.emptyList()));
+            return;
+        }
+
+        final Iterable<String> items = resultFromApiQuery.getData();
+        final List<String> itemJsons = new ArrayList<>();
+        for (String itemJson : items) {
+            itemJsons.add(itemJson);
+        }
+        // A response which is not a page of a list has no next page, and no start time.
+        final String nextToken = items instanceof PaginatedResult
+            ? ((PaginatedResult<String>) items).getNextToken() : null;
+        final Long startedAt = items instanceof PaginatedResult
+            ? ((PaginatedResult<String>) items).getStartedAt() : null;
+        final GraphQLResponse<Iterable<ModelWithMetadata<T>>> itemsResponse =
+            responseDeserializer.deserialize(itemJsons, itemClass);
+        responseListener.onResult(new GraphQLResponse<>(
+            new SyncPage<>(itemsResponse.getData(), nextToken, startedAt),
+            itemsResponse.getErrors()
+        ));
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        responseListener.onError(new DataStoreException(
+            "Failure performing sync query to AppSync.",
+            error, AmplifyException.TODO_RECOVERY_SUGGESTION
+        ));
+    }
+}
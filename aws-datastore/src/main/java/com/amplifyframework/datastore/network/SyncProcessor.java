@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelAssociation;
+import com.amplifyframework.core.model.ModelProvider;
+import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.storage.LocalStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+
+/**
+ * Hydrates the local storage with the models that are in the remote API.
+ *
+ * The first time that a model is synced, all of its instances are fetched from the
+ * remote API, in a base sync. After that, only the instances which have changed since
+ * the last sync are fetched, in a delta sync. Either way, results are fetched one page at
+ * a time, by following the nextToken of each page, and each page is written to the local
+ * storage in a single transaction.
+ *
+ * The time at which the sync started on the server is kept in a {@link LastSyncMetadata},
+ * once every page of a model has been written. A sync which is interrupted part way
+ * is started over the next time, from the previous last sync time.
+ *
+ * A model which has local changes in the {@link StorageItemChangeJournal} is not overwritten
+ * by the version that is synced. Only the metadata of that version is kept, so that the local
+ * changes are published on top of it.
+ */
+final class SyncProcessor {
+    private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
+
+    private final ModelProvider modelProvider;
+    private final LocalStorageAdapter storageAdapter;
+    private final AppSyncEndpoint appSyncEndpoint;
+    private final StorageItemChangeJournal storageItemChangeJournal;
+
+    /**
+     * Constructs a new SyncProcessor.
+     * @param modelProvider A provider of the models to be synced
+     * @param storageAdapter Local storage, into which remote models are written
+     * @param appSyncEndpoint The remote API, from which models are fetched
+     * @param storageItemChangeJournal Journal of the local changes, which are not overwritten
+     */
+    SyncProcessor(
+            @NonNull ModelProvider modelProvider,
+            @NonNull LocalStorageAdapter storageAdapter,
+            @NonNull AppSyncEndpoint appSyncEndpoint,
+            @NonNull StorageItemChangeJournal storageItemChangeJournal) {
+        this.modelProvider = Objects.requireNonNull(modelProvider);
+        this.storageAdapter = Objects.requireNonNull(storageAdapter);
+        this.appSyncEndpoint = Objects.requireNonNull(appSyncEndpoint);
+        this.storageItemChangeJournal = Objects.requireNonNull(storageItemChangeJournal);
+    }
+
+    /**
+     * Syncs every model from the remote API into the local storage. Models are synced one
+     * after another, such that a model is synced after the models that it belongs to.
+     * @return A Completable which completes once every model has been synced, or
+     *         errors on the first failure to sync a model
+     */
+    @NonNull
+    Completable hydrate() {
+        return lastSyncTimes().flatMapCompletable(lastSyncTimes ->
+            Observable.fromIterable(inDependencyOrder(modelProvider.models()))
+                .concatMapCompletable(modelClass ->
+                    syncModel(modelClass, lastSyncTimes.get(modelClass.getSimpleName())))
+        );
+    }
+
+    private <T extends Model> Completable syncModel(Class<T> modelClass, @Nullable Long lastSyncTime) {
+        LOG.debug("Syncing " + modelClass.getSimpleName() + " since " + lastSyncTime);
+        return syncPages(modelClass, lastSyncTime, null, null)
+            .flatMapCompletable(startedAt -> saveLastSyncTime(modelClass, startedAt));
+    }
+
+    // Fetches and writes the page at nextToken, and then all of the pages after it.
+    // Emits the startedAt time of the first page.
+    private <T extends Model> Single<Long> syncPages(
+            Class<T> modelClass, @Nullable Long lastSyncTime, @Nullable String nextToken, @Nullable Long startedAt) {
+        return fetchPage(modelClass, lastSyncTime, nextToken).flatMap(page -> {
+            final Long syncStartedAt = startedAt != null ? startedAt : page.getStartedAt();
+            final Completable write = writePage(modelClass, page);
+            if (page.hasNextPage()) {
+                return write.andThen(syncPages(modelClass, lastSyncTime, page.getNextToken(), syncStartedAt));
+            }
+            if (syncStartedAt == null) {
+                return write.andThen(Single.error(new DataStoreException(
+                    "Sync of " + modelClass.getSimpleName() + " did not report when it started.",
+                    "Check that the API supports sync queries for this model."
+                )));
+            }
+            return write.toSingleDefault(syncStartedAt);
+        });
+    }
+
+    private <T extends Model> Single<SyncPage<T>> fetchPage(
+            Class<T> modelClass, @Nullable Long lastSyncTime, @Nullable String nextToken) {
+        return Single.create(emitter -> {
+            appSyncEndpoint.sync(modelClass, lastSyncTime, nextToken,
+                new ResultListener<GraphQLResponse<SyncPage<T>>>() {
+                    @Override
+                    public void onResult(GraphQLResponse<SyncPage<T>> result) {
+                        if (result.hasErrors() || !result.hasData()) {
+                            emitter.onError(new DataStoreException(
+                                "Failed to sync " + modelClass.getSimpleName() + ": " + result.getErrors(),
+                                AmplifyException.TODO_RECOVERY_SUGGESTION
+                            ));
+                            return;
+                        }
+                        emitter.onSuccess(result.getData());
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+
+    // Writes a page of results to the local storage, in a single transaction. The sync metadata of
+    // each item is kept along with it, and is kept for a deleted item as well, so that the deletion
+    // is not undone by an older remote change that arrives later. An item which has local changes
+    // that are yet to be published only has its metadata kept.
+    private <T extends Model> Completable writePage(Class<T> modelClass, SyncPage<T> page) {
+        final List<Model> itemsToSave = new ArrayList<>();
+        final List<Model> itemsToDelete = new ArrayList<>();
+        for (ModelWithMetadata<T> item : page.getItems()) {
+            if (storageItemChangeJournal.hasChanges(modelClass, item.getModel().getId())) {
+                LOG.debug("Kept local changes to " + item.getModel().getId() + " over the synced version.");
+            } else if (Boolean.TRUE.equals(item.getSyncMetadata().isDeleted())) {
+                itemsToDelete.add(item.getModel());
+            } else {
+                itemsToSave.add(item.getModel());
+            }
+            itemsToSave.add(item.getSyncMetadata());
+        }
+        if (itemsToSave.isEmpty() && itemsToDelete.isEmpty()) {
+            return Completable.complete();
+        }
+        return Completable.create(emitter -> {
+            storageAdapter.saveAndDeleteAll(itemsToSave, itemsToDelete, StorageItemChange.Initiator.SYNC_ENGINE,
+                new ResultListener<List<StorageItemChange.Record>>() {
+                    @Override
+                    public void onResult(List<StorageItemChange.Record> result) {
+                        emitter.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+
+    private Completable saveLastSyncTime(Class<? extends Model> modelClass, Long lastSyncTime) {
+        return Completable.create(emitter -> {
+            storageAdapter.save(
+                new LastSyncMetadata(modelClass.getSimpleName(), lastSyncTime),
+                StorageItemChange.Initiator.SYNC_ENGINE,
+                new ResultListener<StorageItemChange.Record>() {
+                    @Override
+                    public void onResult(StorageItemChange.Record result) {
+                        emitter.onComplete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        emitter.onError(error);
+                    }
+                });
+        });
+    }
+
+    // Reads the last sync time of every model that has been synced before, by model name.
+    private Single<Map<String, Long>> lastSyncTimes() {
+        return Single.create(emitter -> {
+            storageAdapter.query(LastSyncMetadata.class, new ResultListener<Iterator<LastSyncMetadata>>() {
+                @Override
+                public void onResult(Iterator<LastSyncMetadata> result) {
+                    final Map<String, Long> lastSyncTimes = new HashMap<>();
+                    while (result.hasNext()) {
+                        final LastSyncMetadata lastSyncMetadata = result.next();
+                        lastSyncTimes.put(lastSyncMetadata.getId(), lastSyncMetadata.getLastSyncTime());
+                    }
+                    emitter.onSuccess(lastSyncTimes);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    emitter.onError(error);
+                }
+            });
+        });
+    }
+
+    /**
+     * Orders model classes such that each model comes after the models that it belongs to,
+     * so that a model is never written to local storage before the model its foreign key
+     * refers to.
+     * @param modelClasses Model classes, in any order
+     * @return The same model classes, ordered by their dependencies
+     * @throws AmplifyException If the schema of a model cannot be read
+     */
+    static List<Class<? extends Model>> inDependencyOrder(Set<Class<? extends Model>> modelClasses)
+            throws AmplifyException {
+        final Map<String, Class<? extends Model>> modelClassesByName = new LinkedHashMap<>();
+        for (Class<? extends Model> modelClass : modelClasses) {
+            modelClassesByName.put(modelClass.getSimpleName(), modelClass);
+        }
+        final Set<Class<? extends Model>> ordered = new LinkedHashSet<>();
+        for (Class<? extends Model> modelClass : modelClassesByName.values()) {
+            visit(modelClass, modelClassesByName, ordered, new LinkedHashSet<>());
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    private static void visit(
+            Class<? extends Model> modelClass,
+            Map<String, Class<? extends Model>> modelClassesByName,
+            Set<Class<? extends Model>> ordered,
+            Set<Class<? extends Model>> visiting) throws AmplifyException {
+        // A cycle of belongsTo associations cannot be ordered, so it is broken where it is found.
+        if (ordered.contains(modelClass) || !visiting.add(modelClass)) {
+            return;
+        }
+        for (ModelAssociation association : ModelSchema.fromModelClass(modelClass).getAssociations().values()) {
+            final Class<? extends Model> parentClass = modelClassesByName.get(association.getAssociatedType());
+            if (association.isOwner() && parentClass != null) {
+                visit(parentClass, modelClassesByName, ordered, visiting);
+            }
+        }
+        ordered.add(modelClass);
+    }
+}
@@ -23,12 +23,15 @@ import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelProvider;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 import com.amplifyframework.datastore.DataStoreException;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 
 /**
@@ -75,6 +78,24 @@ public interface LocalStorageAdapter {
             @NonNull StorageItemChange.Initiator initiator,
             @NonNull ResultListener<StorageItemChange.Record> itemSaveListener);
 
+    /**
+     * Save a collection of items into local storage, as a single unit of work.
+     * Either all of the items are saved, or none of them are. A change record is
+     * emitted onto the {@link #observe()} stream for each item, but only once all
+     * of the items have been committed to storage. A failure is only reported to
+     * the listener; the {@link #observe()} stream carries on.
+     * @param items the items to save into the repository
+     * @param initiator An identification of the actor who initiated this save
+     * @param itemsSaveListener A listener that will be invoked when the save terminates.
+     *                          On success, it receives one record per item, in the
+     *                          iteration order of the provided collection
+     * @param <T> The type of the items being stored
+     */
+    <T extends Model> void saveAll(
+            @NonNull Collection<T> items,
+            @NonNull StorageItemChange.Initiator initiator,
+            @NonNull ResultListener<List<StorageItemChange.Record>> itemsSaveListener);
+
     /**
      * Query the storage for items of a given type.
      * @param itemClass Items that have this class will be solicited
@@ -97,6 +118,62 @@ public interface LocalStorageAdapter {
             @Nullable QueryPredicate predicate,
             @NonNull ResultListener<Iterator<T>> queryResultsListener);
 
+    /**
+     * Query the storage for items of a given type with specific conditions, in the
+     * order and page that are described by the query options.
+     * @param itemClass Items that have this class will be solicited
+     * @param predicate Predicate condition to apply to query
+     * @param options Sort order, page size and keyset cursor to apply to the results,
+     *                or null to return all matching items in no particular order
+     * @param queryResultsListener A listener that will be notified when the query terminates
+     * @param <T> Type type of the items that are being queried
+     */
+    <T extends Model> void query(
+            @NonNull Class<T> itemClass,
+            @Nullable QueryPredicate predicate,
+            @Nullable QueryOptions options,
+            @NonNull ResultListener<Iterator<T>> queryResultsListener);
+
+    /**
+     * Query the storage for items of a given type with specific conditions, and stream
+     * the results. Items are read from storage as they are requested by the subscriber,
+     * so that only a bounded number of them are held in memory at any time, no matter how
+     * many items match the query. The query is not run until the Flowable is subscribed.
+     * Cancelling the subscription releases the resources held by the query.
+     * @param itemClass Items that have this class will be solicited
+     * @param predicate Predicate condition to apply to query, or null to query all items
+     * @param options Sort order, page size and keyset cursor to apply to the results,
+     *                or null to stream all matching items in no particular order
+     * @param <T> Type type of the items that are being queried
+     * @return A Flowable which emits the items that match the query, and then completes
+     */
+    @NonNull
+    <T extends Model> Flowable<T> stream(
+            @NonNull Class<T> itemClass,
+            @Nullable QueryPredicate predicate,
+            @Nullable QueryOptions options);
+
+    /**
+     * Loads the models at the other end of an association, for a list of items which
+     * were queried with a lazy fetch plan for that association. Until then, the
+     * association field of each item only holds a reference to the associated model,
+     * which has its ID, and no other values. The associated models of all of the items
+     * are loaded together, and are returned in new instances of the items, which hold
+     * them in the association field. The items that are passed in are left unchanged.
+     * @param itemClass Class of the items
+     * @param items Items whose associated models are loaded, e.g., a page of query results
+     * @param associationFieldName Name of the association field, or of its foreign key
+     * @param itemsListener A listener that will be notified with new instances of the items,
+     *                      in the same order, once their associated models have been loaded,
+     *                      or of a failure to load
+     * @param <T> Type of the items
+     */
+    <T extends Model> void loadAssociation(
+            @NonNull Class<T> itemClass,
+            @NonNull List<T> items,
+            @NonNull String associationFieldName,
+            @NonNull ResultListener<List<T>> itemsListener);
+
     /**
      * Deletes an item from storage.
      * @param item Item to delete
@@ -109,8 +186,49 @@ public interface LocalStorageAdapter {
             @NonNull StorageItemChange.Initiator initiator,
             @NonNull ResultListener<StorageItemChange.Record> itemDeletionListener);
 
+    /**
+     * Deletes a collection of items from storage, as a single unit of work.
+     * Either all of the items are deleted, or none of them are. A change record is
+     * emitted onto the {@link #observe()} stream for each item, but only once all
+     * of the deletions have been committed to storage. A failure is only reported to
+     * the listener; the {@link #observe()} stream carries on.
+     * @param items Items to delete
+     * @param initiator An identification of the actor who initiated this deletion
+     * @param itemsDeletionListener Listener that will be callback-ed when deletion terminates.
+     *                              On success, it receives one record per item, in the
+     *                              iteration order of the provided collection
+     * @param <T> The type of items being deleted
+     */
+    <T extends Model> void deleteAll(
+            @NonNull Collection<T> items,
+            @NonNull StorageItemChange.Initiator initiator,
+            @NonNull ResultListener<List<StorageItemChange.Record>> itemsDeletionListener);
+
+    /**
+     * Saves some items, and deletes others, as a single unit of work.
+     * Either all of the changes are made, or none of them are. A change record is
+     * emitted onto the {@link #observe()} stream for each item, but only once all
+     * of the changes have been committed to storage. A failure is only reported to
+     * the listener; the {@link #observe()} stream carries on.
+     * @param itemsToSave Items to save
+     * @param itemsToDelete Items to delete
+     * @param initiator An identification of the actor who initiated these changes
+     * @param itemsChangeListener Listener that will be callback-ed when the changes terminate.
+     *                            On success, it receives one record per saved item, followed
+     *                            by one record per deleted item, in the iteration order of the
+     *                            provided collections
+     * @param <T> The type of items being changed
+     */
+    <T extends Model> void saveAndDeleteAll(
+            @NonNull Collection<T> itemsToSave,
+            @NonNull Collection<T> itemsToDelete,
+            @NonNull StorageItemChange.Initiator initiator,
+            @NonNull ResultListener<List<StorageItemChange.Record>> itemsChangeListener);
+
     /**
      * Observe all changes to that occur to any/all objects in the storage.
+     * A write which fails is only reported to its own listener, and does not
+     * end this stream.
      * @return An observable which emits an {@link StorageItemChange} notification every time
      *         any object managed by the storage adapter is changed in any way.
      */
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.storage.sqlite;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.ModelSchemaRegistry;
+import com.amplifyframework.datastore.DataStoreException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Loads the models at the other end of an association, for a whole page of results at once.
+ *
+ * A query which fetches an association lazily reads each associated model as a reference,
+ * which only has its ID (see {@link ModelMaterializer#reference(String)}). The loader collects
+ * the IDs of the references in a list of results, reads all of the models that they refer to
+ * with a single IN (...) query, and returns a copy of each result, which holds the whole model
+ * in place of its reference. A model which is referred to by several results is read once.
+ * The results that are passed in are never modified, since they may already be shared.
+ */
+final class AssociationLoader {
+    // SQLite allows at most 999 parameters in a statement, by default.
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private final SQLiteDatabase database;
+    private final SQLCommandFactory sqlCommandFactory;
+    private final ModelSchemaRegistry modelSchemaRegistry;
+    private final Map<String, ModelMaterializer> materializers;
+
+    /**
+     * Constructs a new AssociationLoader.
+     * @param database Database from which associated models are read
+     * @param sqlCommandFactory Factory of the queries that read associated models
+     * @param modelSchemaRegistry Registry of the schemas of all models
+     * @param materializers Materializers of all models, by model name
+     */
+    AssociationLoader(
+            @NonNull SQLiteDatabase database,
+            @NonNull SQLCommandFactory sqlCommandFactory,
+            @NonNull ModelSchemaRegistry modelSchemaRegistry,
+            @NonNull Map<String, ModelMaterializer> materializers) {
+        this.database = Objects.requireNonNull(database);
+        this.sqlCommandFactory = Objects.requireNonNull(sqlCommandFactory);
+        this.modelSchemaRegistry = Objects.requireNonNull(modelSchemaRegistry);
+        this.materializers = Objects.requireNonNull(materializers);
+    }
+
+    /**
+     * Loads the models that are associated to a list of items, by an association field,
+     * and returns copies of the items which hold them in that field.
+     * @param itemClass Class of the items
+     * @param items Items whose associated models are loaded; they are left unchanged
+     * @param associationFieldName Name of the association field, or of its foreign key
+     * @param <T> Type of the items
+     * @return A copy of each item, in the same order, which holds its associated model. An item
+     *         whose field is null, or refers to a model that is not in storage, is returned as is.
+     * @throws DataStoreException If the field is not an association of the items,
+     *         or if the associated models can not be read
+     */
+    @NonNull
+    <T extends Model> List<T> load(
+            @NonNull Class<T> itemClass,
+            @NonNull List<T> items,
+            @NonNull String associationFieldName) throws DataStoreException {
+        final ModelMaterializer itemMaterializer = materializers.get(itemClass.getSimpleName());
+        final ModelBindingPlan.ColumnBinding association =
+            associationOf(itemClass.getSimpleName(), Objects.requireNonNull(associationFieldName));
+        final String associatedModelName = association.fieldType().getSimpleName();
+        final ModelMaterializer associatedMaterializer = materializers.get(associatedModelName);
+        if (associatedMaterializer == null) {
+            throw new DataStoreException(
+                "No materializer found for the Model: " + associatedModelName,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+
+        // Collect the IDs of the associated models, in the order that they are first referred to.
+        final Set<String> associatedIds = new LinkedHashSet<>();
+        for (T item : Objects.requireNonNull(items)) {
+            final Model reference = (Model) read(association, item);
+            if (reference != null) {
+                associatedIds.add(reference.getId());
+            }
+        }
+
+        final Map<String, Model> associatedModels = new HashMap<>();
+        final ModelSchema associatedSchema = modelSchemaRegistry.getModelSchemaForModelClass(associatedModelName);
+        final List<String> ids = new ArrayList<>(associatedIds);
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+            final List<String> idsOfQuery = ids.subList(start, Math.min(ids.size(), start + MAX_IDS_PER_QUERY));
+            final SqlCommand sqlCommand = sqlCommandFactory.queryByIdsFor(associatedSchema, idsOfQuery);
+            final Cursor cursor = database.rawQuery(sqlCommand.sqlStatement(), sqlCommand.getSelectionArgsAsArray());
+            try {
+                final ModelMaterializer.Reader reader = associatedMaterializer.readerFor(cursor, materializers);
+                while (cursor.moveToNext()) {
+                    final Model associatedModel = reader.read(cursor);
+                    associatedModels.put(associatedModel.getId(), associatedModel);
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        final List<T> loadedItems = new ArrayList<>(items.size());
+        for (T item : items) {
+            final Model reference = (Model) read(association, item);
+            final Model associatedModel = reference == null ? null : associatedModels.get(reference.getId());
+            loadedItems.add(associatedModel == null
+                ? item
+                : itemMaterializer.copyOf(item, association, associatedModel));
+        }
+        return loadedItems;
+    }
+
+    // Finds the binding of an association field, by the name of the field or of its foreign key.
+    private ModelBindingPlan.ColumnBinding associationOf(String modelName, String associationFieldName)
+            throws DataStoreException {
+        final ModelMaterializer materializer = materializers.get(modelName);
+        if (materializer != null) {
+            for (ModelBindingPlan.ColumnBinding columnBinding : materializer.bindingPlan().columnBindings()) {
+                final boolean isNamed = associationFieldName.equals(columnBinding.fieldName())
+                    || associationFieldName.equals(columnBinding.column().getName());
+                if (isNamed && columnBinding.column().isForeignKey()) {
+                    return columnBinding;
+                }
+            }
+        }
+        throw new DataStoreException(
+            associationFieldName + " is not an association of " + modelName + ".",
+            "Pass the name of a field which refers to a model that " + modelName + " belongs to."
+        );
+    }
+
+    private static Object read(ModelBindingPlan.ColumnBinding association, Model item) throws DataStoreException {
+        try {
+            return association.valueOf(item);
+        } catch (IllegalAccessException exception) {
+            throw new DataStoreException(
+                "Unable to read the field " + association.fieldName(),
+                exception,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+    }
+}
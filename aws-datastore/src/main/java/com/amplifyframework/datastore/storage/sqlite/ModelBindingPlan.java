@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.storage.sqlite;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.types.JavaFieldType;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.storage.sqlite.adapter.SQLiteColumn;
+import com.amplifyframework.datastore.storage.sqlite.adapter.SQLiteTable;
+import com.amplifyframework.util.FieldFinder;
+import com.amplifyframework.util.Immutable;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable plan that describes how the fields of a {@link Model}
+ * are bound to the columns of a pre-compiled SQLite statement.
+ *
+ * The plan is computed once per {@link ModelSchema}, when the storage
+ * adapter is initialized. It holds the ordinal position of each column
+ * (in the order of {@link SQLiteTable#getSortedColumns()}), an accessible
+ * handle to the {@link Field} that backs the column, and the
+ * {@link JavaFieldType} of that field. Binding a model to a statement
+ * then requires no reflective lookups, no cursor and no schema
+ * re-derivation.
+ */
+final class ModelBindingPlan {
+    private final Class<? extends Model> modelClass;
+    private final String tableName;
+    private final List<ColumnBinding> columnBindings;
+
+    private ModelBindingPlan(
+            Class<? extends Model> modelClass,
+            String tableName,
+            List<ColumnBinding> columnBindings) {
+        this.modelClass = modelClass;
+        this.tableName = tableName;
+        this.columnBindings = columnBindings;
+    }
+
+    /**
+     * Creates a binding plan for a model class, using the provided schema.
+     * @param modelClass Class of the model
+     * @param modelSchema Schema of the model
+     * @return A binding plan for the model class
+     * @throws DataStoreException If a column in the schema has no
+     *         backing field in the model class, or if the field type
+     *         is not supported
+     */
+    @NonNull
+    static ModelBindingPlan from(
+            @NonNull Class<? extends Model> modelClass,
+            @NonNull ModelSchema modelSchema) throws DataStoreException {
+        Objects.requireNonNull(modelClass);
+        Objects.requireNonNull(modelSchema);
+
+        final SQLiteTable table = SQLiteTable.fromSchema(modelSchema);
+        final List<SQLiteColumn> sortedColumns = table.getSortedColumns();
+
+        final Map<String, Field> fieldsByName = new HashMap<>();
+        for (Field field : FieldFinder.findFieldsIn(modelClass)) {
+            fieldsByName.put(field.getName(), field);
+        }
+
+        // The columns map is keyed by field name. The index of the column in
+        // the sorted column list is the position of its bind parameter.
+        final List<ColumnBinding> columnBindings = new ArrayList<>();
+        for (Map.Entry<String, SQLiteColumn> entry : table.getColumns().entrySet()) {
+            final String fieldName = entry.getKey();
+            final SQLiteColumn column = entry.getValue();
+            final Field field = fieldsByName.get(fieldName);
+            if (field == null) {
+                throw new DataStoreException(
+                    "No field named " + fieldName + " found in " + modelClass.getSimpleName(),
+                    "Check that the model schema was generated from the model class " +
+                        modelClass.getSimpleName() + "."
+                );
+            }
+            field.setAccessible(true);
+
+            // Move the column index to 1-based index.
+            final int columnIndex = sortedColumns.indexOf(column) + 1;
+            columnBindings.add(new ColumnBinding(columnIndex, column, field, javaFieldTypeOf(field)));
+        }
+
+        return new ModelBindingPlan(modelClass, table.getName(), Immutable.of(columnBindings));
+    }
+
+    private static JavaFieldType javaFieldTypeOf(Field field) throws DataStoreException {
+        final Class<?> fieldType = field.getType();
+        if (Model.class.isAssignableFrom(fieldType)) {
+            return JavaFieldType.MODEL;
+        } else if (Enum.class.isAssignableFrom(fieldType)) {
+            return JavaFieldType.ENUM;
+        }
+        try {
+            return JavaFieldType.from(fieldType.getSimpleName());
+        } catch (IllegalArgumentException unsupportedType) {
+            throw new DataStoreException(
+                fieldType.getSimpleName() + " is not supported.",
+                unsupportedType,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+    }
+
+    /**
+     * Returns the class of the model that is bound by this plan.
+     * @return the class of the model that is bound by this plan
+     */
+    @NonNull
+    Class<? extends Model> modelClass() {
+        return modelClass;
+    }
+
+    /**
+     * Returns the name of the table to which the model is bound.
+     * @return the name of the table to which the model is bound
+     */
+    @NonNull
+    String tableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the column bindings of this plan, one per column in the table.
+     * @return the column bindings of this plan
+     */
+    @NonNull
+    List<ColumnBinding> columnBindings() {
+        return columnBindings;
+    }
+
+    /**
+     * Returns the number of columns bound by this plan.
+     * @return the number of columns bound by this plan
+     */
+    int columnCount() {
+        return columnBindings.size();
+    }
+
+    /**
+     * Describes the binding between a single field of a model and
+     * a single column of a pre-compiled SQLite statement.
+     */
+    static final class ColumnBinding {
+        private final int columnIndex;
+        private final SQLiteColumn column;
+        private final Field field;
+        private final JavaFieldType javaFieldType;
+
+        ColumnBinding(int columnIndex, SQLiteColumn column, Field field, JavaFieldType javaFieldType) {
+            this.columnIndex = columnIndex;
+            this.column = column;
+            this.field = field;
+            this.javaFieldType = javaFieldType;
+        }
+
+        /**
+         * Returns the 1-based index of the bind parameter for this column.
+         * @return the 1-based index of the bind parameter for this column
+         */
+        int columnIndex() {
+            return columnIndex;
+        }
+
+        /**
+         * Returns the column to which the field is bound.
+         * @return the column to which the field is bound
+         */
+        @NonNull
+        SQLiteColumn column() {
+            return column;
+        }
+
+        /**
+         * Returns the name of the field.
+         * @return the name of the field
+         */
+        @NonNull
+        String fieldName() {
+            return field.getName();
+        }
+
+        /**
+         * Returns the Java type of the field.
+         * @return the Java type of the field
+         */
+        @NonNull
+        JavaFieldType javaFieldType() {
+            return javaFieldType;
+        }
+
+        /**
+         * Returns the declared type of the field.
+         * @return the declared type of the field
+         */
+        @NonNull
+        Class<?> fieldType() {
+            return field.getType();
+        }
+
+        /**
+         * Reads the value of the field from a model instance.
+         * @param model A model instance
+         * @return The value of the field, possibly null
+         * @throws IllegalAccessException If the field can not be read
+         */
+        Object valueOf(@NonNull Model model) throws IllegalAccessException {
+            return field.get(model);
+        }
+
+        /**
+         * Writes a value into the field of a model instance. A null value is
+         * not written into a field of a primitive type, which keeps its default.
+         * @param model A model instance
+         * @param value The value of the field, possibly null
+         * @throws IllegalAccessException If the field can not be written
+         */
+        void assign(@NonNull Model model, @Nullable Object value) throws IllegalAccessException {
+            if (value == null && field.getType().isPrimitive()) {
+                return;
+            }
+            field.set(model, value);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.storage.sqlite;
+
+import android.database.Cursor;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.types.JavaFieldType;
+import com.amplifyframework.datastore.DataStoreException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Time;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Creates instances of a {@link Model} directly from the rows of a {@link Cursor}.
+ *
+ * A materializer is the reverse of a {@link ModelBindingPlan}: it reads each
+ * column of the model's table out of a cursor, and writes the value straight
+ * into the field that backs the column. It is built once per model, when the
+ * storage adapter is initialized. The position of each column in a particular
+ * cursor is resolved once per query, by a {@link Reader}, and not once per row.
+ *
+ * A model which is referenced by a foreign key is read from the same row, if its
+ * table was joined into the query. Otherwise, as for an association which is fetched
+ * lazily, it is read as a reference: an instance that only has its ID, and whose other
+ * fields, required or not, are all null. The reference keeps the foreign key of the
+ * association, until the {@link AssociationLoader} returns a copy of the model which
+ * holds the whole associated model instead.
+ */
+final class ModelMaterializer {
+    private final ModelBindingPlan bindingPlan;
+    private final TypeAdapter<? extends Model> modelAdapter;
+    private final Gson gson;
+    // All of the instance fields of the model, whether or not they are bound to a column
+    private final List<Field> instanceFields;
+
+    private ModelMaterializer(
+            ModelBindingPlan bindingPlan,
+            TypeAdapter<? extends Model> modelAdapter,
+            Gson gson,
+            List<Field> instanceFields) {
+        this.bindingPlan = bindingPlan;
+        this.modelAdapter = modelAdapter;
+        this.gson = gson;
+        this.instanceFields = instanceFields;
+    }
+
+    /**
+     * Creates a materializer for the model that is bound by a binding plan.
+     * @param bindingPlan Plan that binds the fields of the model to the columns of its table
+     * @param gson Gson instance, used to create model instances, and to read
+     *             enum values which were written by Gson
+     * @return A materializer for the model
+     */
+    @NonNull
+    static ModelMaterializer from(@NonNull ModelBindingPlan bindingPlan, @NonNull Gson gson) {
+        Objects.requireNonNull(bindingPlan);
+        Objects.requireNonNull(gson);
+        // Models do not have an accessible no-arg constructor. Instances are created
+        // the same way that Gson created them when it deserialized models: by reading
+        // an empty JSON object with the model's adapter.
+        final List<Field> instanceFields = new ArrayList<>();
+        for (Field field : bindingPlan.modelClass().getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                instanceFields.add(field);
+            }
+        }
+        return new ModelMaterializer(bindingPlan, gson.getAdapter(bindingPlan.modelClass()), gson,
+            Collections.unmodifiableList(instanceFields));
+    }
+
+    /**
+     * Returns the binding plan of the model that is created by this materializer.
+     * @return the binding plan of the model
+     */
+    @NonNull
+    ModelBindingPlan bindingPlan() {
+        return bindingPlan;
+    }
+
+    /**
+     * Creates a reference to an instance of this model: an instance which only has
+     * its ID. All of its other fields are null.
+     * @param modelId ID of the model instance
+     * @return A reference to the model instance
+     * @throws DataStoreException If the ID can not be set
+     */
+    @NonNull
+    Model reference(@NonNull String modelId) throws DataStoreException {
+        final Model model = newInstance();
+        for (ModelBindingPlan.ColumnBinding columnBinding : bindingPlan.columnBindings()) {
+            if (!columnBinding.column().isPrimaryKey()) {
+                continue;
+            }
+            try {
+                columnBinding.assign(model, Objects.requireNonNull(modelId));
+            } catch (IllegalAccessException exception) {
+                throw new DataStoreException(
+                    "Unable to set the ID of a reference to " + bindingPlan.tableName(),
+                    exception,
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+                );
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Creates a copy of a model instance, whose field for a column holds a different value.
+     * The instance that is copied is left unchanged, so that a model which has been handed
+     * out is never modified, even if it is shared with other readers.
+     * @param model An instance of this model
+     * @param columnBinding Binding of the field which holds a different value in the copy
+     * @param value Value of the field in the copy
+     * @param <T> Type of the model
+     * @return A new instance, which is equal to the model, except for the field
+     * @throws DataStoreException If the fields can not be copied
+     */
+    @NonNull
+    <T extends Model> T copyOf(
+            @NonNull T model,
+            @NonNull ModelBindingPlan.ColumnBinding columnBinding,
+            @Nullable Object value) throws DataStoreException {
+        @SuppressWarnings("unchecked") // The instance is created by the adapter of the model's class
+        final T copy = (T) newInstance();
+        try {
+            for (Field field : instanceFields) {
+                field.set(copy, field.get(Objects.requireNonNull(model)));
+            }
+            columnBinding.assign(copy, value);
+        } catch (IllegalAccessException exception) {
+            throw new DataStoreException(
+                "Unable to copy an instance of " + bindingPlan.tableName(),
+                exception,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        return copy;
+    }
+
+    // Creates an instance of this model, whose fields are all null.
+    private Model newInstance() throws DataStoreException {
+        try {
+            return modelAdapter.fromJsonTree(new JsonObject());
+        } catch (JsonParseException exception) {
+            throw new DataStoreException(
+                "Unable to create an instance of " + bindingPlan.tableName(),
+                exception,
+                AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+    }
+
+    /**
+     * Resolves the positions of this model's columns in a cursor, as returned
+     * by a query that was built by {@link SQLiteCommandFactory#queryFor}.
+     * Columns are looked up by their aliased name. Models which are referenced
+     * by a foreign key are read from the same cursor, if their columns are in it,
+     * and are read as references otherwise.
+     * @param cursor A cursor over rows of this model's table
+     * @param materializers Materializers of all models, by model name
+     * @return A reader that creates one model instance per row of the cursor
+     */
+    @NonNull
+    Reader readerFor(@NonNull Cursor cursor, @NonNull Map<String, ModelMaterializer> materializers) {
+        return readerFor(Objects.requireNonNull(cursor), Objects.requireNonNull(materializers), new HashSet<>());
+    }
+
+    private Reader readerFor(Cursor cursor, Map<String, ModelMaterializer> materializers, Set<String> visited) {
+        visited.add(bindingPlan.tableName());
+        final List<ModelBindingPlan.ColumnBinding> columnBindings = bindingPlan.columnBindings();
+        final int[] columnIndices = new int[columnBindings.size()];
+        final Reader[] nestedReaders = new Reader[columnBindings.size()];
+        final ModelMaterializer[] referenceMaterializers = new ModelMaterializer[columnBindings.size()];
+        final TypeAdapter<?>[] enumAdapters = new TypeAdapter<?>[columnBindings.size()];
+
+        for (int position = 0; position < columnBindings.size(); position++) {
+            final ModelBindingPlan.ColumnBinding columnBinding = columnBindings.get(position);
+            columnIndices[position] = cursor.getColumnIndex(columnBinding.column().getAliasedName());
+            switch (columnBinding.javaFieldType()) {
+                case ENUM:
+                    enumAdapters[position] = gson.getAdapter(columnBinding.fieldType());
+                    break;
+                case MODEL:
+                    // Stop at a model that is already being read higher up, since
+                    // a cyclic relationship would otherwise be read forever.
+                    final ModelMaterializer nested =
+                        materializers.get(columnBinding.fieldType().getSimpleName());
+                    if (nested == null) {
+                        break;
+                    }
+                    if (!visited.contains(nested.bindingPlan.tableName()) && nested.isJoinedInto(cursor)) {
+                        nestedReaders[position] = nested.readerFor(cursor, materializers, visited);
+                    } else {
+                        referenceMaterializers[position] = nested;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        visited.remove(bindingPlan.tableName());
+        return new Reader(this, columnIndices, nestedReaders, referenceMaterializers, enumAdapters);
+    }
+
+    // Checks whether the columns of this model's table were selected by the query.
+    private boolean isJoinedInto(Cursor cursor) {
+        for (ModelBindingPlan.ColumnBinding columnBinding : bindingPlan.columnBindings()) {
+            if (columnBinding.column().isPrimaryKey()) {
+                return cursor.getColumnIndex(columnBinding.column().getAliasedName()) >= 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads instances of a model out of a particular cursor.
+     */
+    static final class Reader {
+        private final ModelMaterializer materializer;
+        private final int[] columnIndices;
+        private final Reader[] nestedReaders;
+        private final ModelMaterializer[] referenceMaterializers;
+        private final TypeAdapter<?>[] enumAdapters;
+
+        private Reader(
+                ModelMaterializer materializer,
+                int[] columnIndices,
+                Reader[] nestedReaders,
+                ModelMaterializer[] referenceMaterializers,
+                TypeAdapter<?>[] enumAdapters) {
+            this.materializer = materializer;
+            this.columnIndices = columnIndices;
+            this.nestedReaders = nestedReaders;
+            this.referenceMaterializers = referenceMaterializers;
+            this.enumAdapters = enumAdapters;
+        }
+
+        /**
+         * Creates a model instance from the row at the current position of the cursor.
+         * Fields whose columns are not in the cursor, or are null, are left null.
+         * @param cursor The cursor for which this reader was created
+         * @return A model instance
+         * @throws DataStoreException If a column value can not be converted to its field type
+         */
+        @NonNull
+        Model read(@NonNull Cursor cursor) throws DataStoreException {
+            final Model model = materializer.newInstance();
+            final List<ModelBindingPlan.ColumnBinding> columnBindings =
+                materializer.bindingPlan.columnBindings();
+            for (int position = 0; position < columnBindings.size(); position++) {
+                final ModelBindingPlan.ColumnBinding columnBinding = columnBindings.get(position);
+                try {
+                    columnBinding.assign(model, readValue(cursor, position, columnBinding.javaFieldType()));
+                } catch (IllegalAccessException exception) {
+                    throw new DataStoreException(
+                        "Unable to set the field for column " + columnBinding.column().getName(),
+                        exception,
+                        AmplifyException.TODO_RECOVERY_SUGGESTION
+                    );
+                }
+            }
+            return model;
+        }
+
+        @Nullable
+        private Object readValue(Cursor cursor, int position, JavaFieldType javaFieldType)
+                throws DataStoreException {
+            final int columnIndex = columnIndices[position];
+            // This check is necessary, because primitive values will return 0 even when null
+            if (columnIndex < 0 || cursor.isNull(columnIndex)) {
+                return null;
+            }
+
+            switch (javaFieldType) {
+                case STRING:
+                    return cursor.getString(columnIndex);
+                case MODEL:
+                    // Eager load model if the necessary columns are present inside the cursor.
+                    // The cursor has been joined with these columns IF AND ONLY IF the model is
+                    // a foreign key to the inner model, and the association is fetched eagerly.
+                    // Otherwise, the foreign key is kept in a reference to the inner model.
+                    final Reader nestedReader = nestedReaders[position];
+                    if (nestedReader != null) {
+                        return nestedReader.read(cursor);
+                    }
+                    final ModelMaterializer referenceMaterializer = referenceMaterializers[position];
+                    return referenceMaterializer == null
+                        ? null
+                        : referenceMaterializer.reference(cursor.getString(columnIndex));
+                case ENUM:
+                    try {
+                        return enumAdapters[position].fromJson(cursor.getString(columnIndex));
+                    } catch (IOException exception) {
+                        throw new DataStoreException("Unable to read enum value.", exception,
+                            AmplifyException.TODO_RECOVERY_SUGGESTION);
+                    }
+                case INTEGER:
+                    return cursor.getInt(columnIndex);
+                case BOOLEAN:
+                    return cursor.getInt(columnIndex) != 0;
+                case FLOAT:
+                    return cursor.getFloat(columnIndex);
+                case LONG:
+                    return cursor.getLong(columnIndex);
+                case DATE:
+                    try {
+                        return SimpleDateFormat.getDateInstance().parse(cursor.getString(columnIndex));
+                    } catch (ParseException exception) {
+                        throw new DataStoreException("Unable to read date value.", exception,
+                            AmplifyException.TODO_RECOVERY_SUGGESTION);
+                    }
+                case TIME:
+                    return new Time(cursor.getLong(columnIndex));
+                default:
+                    throw new DataStoreException(javaFieldType + " is not supported.",
+                        AmplifyException.TODO_RECOVERY_SUGGESTION);
+            }
+        }
+    }
+}
@@ -18,11 +18,12 @@ package com.amplifyframework.datastore.storage.sqlite;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 import com.amplifyframework.datastore.DataStoreException;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -50,11 +51,32 @@ interface SQLCommandFactory {
      * Generates the QUERY command in a raw string representation from
      * the {@link ModelSchema}.
      *
+     * If query options are given, the results are ordered by the sort fields,
+     * and then by primary key so that the order is total. The number of results
+     * is limited to the page size, and results begin after the row that has
+     * the keyset values of the options.
+     *
      * @param modelSchema schema of the model
+     * @param predicate condition that the results must fulfill, or null for all rows
+     * @param options sort order, page size and keyset cursor, or null for unordered results
      * @return the QUERY SQL command
+     * @throws DataStoreException if the predicate or the options can not be converted to SQL
      */
     SqlCommand queryFor(@NonNull ModelSchema modelSchema,
-                        @Nullable QueryPredicate predicate) throws DataStoreException;
+                        @Nullable QueryPredicate predicate,
+                        @Nullable QueryOptions options) throws DataStoreException;
+
+    /**
+     * Generates the QUERY command in a raw string representation, which reads the
+     * models that have any of the given IDs, along with their eager associations.
+     * This is used to load the lazy associations of a page of results, in one query.
+     *
+     * @param modelSchema schema of the model
+     * @param ids IDs of the models to read, each of which is bound to a parameter
+     * @return the QUERY SQL command
+     */
+    SqlCommand queryByIdsFor(@NonNull ModelSchema modelSchema,
+                             @NonNull List<String> ids);
 
     /**
      * Generates the INSERT INTO command in a raw string representation and a compiled
@@ -65,26 +87,38 @@ interface SQLCommandFactory {
      */
     SqlCommand insertFor(@NonNull ModelSchema modelSchema);
 
+    /**
+     * Generates the INSERT INTO ... ON CONFLICT DO UPDATE (UPSERT) command in a raw string
+     * representation and a compiled prepared statement that can be bound later with inputs.
+     * The statement inserts a new row, or updates the existing row that has the same
+     * primary key in place. It is bound exactly like the statement from
+     * {@link #insertFor(ModelSchema)}.
+     *
+     * UPSERT syntax requires SQLite 3.24.0 or newer.
+     *
+     * @param modelSchema schema of the model
+     * @return the SQL command that encapsulates the UPSERT command
+     */
+    SqlCommand upsertFor(@NonNull ModelSchema modelSchema);
+
     /**
      * Generates the UPDATE command in a raw string representation and a compiled
-     * prepared statement that can be bound later with inputs.
+     * prepared statement that can be bound later with inputs. The statement
+     * updates the row whose primary key is bound, and is bound exactly like
+     * the statement from {@link #insertFor(ModelSchema)}.
      *
      * @param modelSchema schema of the model
-     * @param item the model instance
-     * @param <T> type of the model
      * @return the SQL command that encapsulates the UPDATE command
      */
-    <T extends Model> SqlCommand updateFor(@NonNull ModelSchema modelSchema,
-                                           @NonNull T item);
+    SqlCommand updateFor(@NonNull ModelSchema modelSchema);
 
     /**
-     * Generates the DELETE command in a raw string representation.
+     * Generates the DELETE command in a raw string representation and a compiled
+     * prepared statement. The statement deletes the row whose primary key is
+     * bound to its only parameter.
      *
      * @param modelSchema schema of the model
-     * @param item the model instance
-     * @param <T> type of the model
      * @return the SQL command that encapsulates the DELETE command
      */
-    <T extends Model> SqlCommand deleteFor(@NonNull ModelSchema modelSchema,
-                                           @NonNull T item);
+    SqlCommand deleteFor(@NonNull ModelSchema modelSchema);
 }
@@ -26,15 +26,23 @@ import com.amplifyframework.core.model.ModelIndex;
 import com.amplifyframework.core.model.ModelSchema;
 import com.amplifyframework.core.model.ModelSchemaRegistry;
 import com.amplifyframework.core.model.PrimaryKey;
+import com.amplifyframework.core.model.query.QueryFetchMode;
+import com.amplifyframework.core.model.query.QueryFetchPlan;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.core.model.query.QuerySortBy;
+import com.amplifyframework.core.model.query.QuerySortOrder;
+import com.amplifyframework.core.model.query.predicate.QueryField;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
 import com.amplifyframework.datastore.DataStoreException;
 import com.amplifyframework.datastore.storage.sqlite.adapter.SQLPredicate;
 import com.amplifyframework.datastore.storage.sqlite.adapter.SQLiteColumn;
 import com.amplifyframework.datastore.storage.sqlite.adapter.SQLiteTable;
 import com.amplifyframework.util.CollectionUtils;
 import com.amplifyframework.util.Immutable;
-import com.amplifyframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -136,20 +144,88 @@ final class SQLiteCommandFactory implements SQLCommandFactory {
     @WorkerThread
     @Override
     public SqlCommand queryFor(@NonNull ModelSchema modelSchema,
-                               @Nullable QueryPredicate predicate) throws DataStoreException {
+                               @Nullable QueryPredicate predicate,
+                               @Nullable QueryOptions options) throws DataStoreException {
         final SQLiteTable table = SQLiteTable.fromSchema(modelSchema);
+        StringBuilder rawQuery = new StringBuilder(selectFrom(table, options));
+        List<String> selectionArgs = null;
+
+        // Resolve the columns to order by, if the results are ordered.
+        final List<SQLiteColumn> sortColumns = new ArrayList<>();
+        final List<QuerySortOrder> sortOrders = new ArrayList<>();
+        if (options != null) {
+            parseSortBy(table, options, sortColumns, sortOrders);
+        }
+
+        // Append predicates, and the keyset cursor that skips to the requested page.
+        // WHERE condition
+        final QueryPredicate keysetPredicate = options != null && options.getStartAfter() != null
+                ? parseStartAfter(options.getStartAfter(), sortColumns, sortOrders)
+                : null;
+        final QueryPredicate wherePredicate;
+        if (predicate != null && keysetPredicate != null) {
+            wherePredicate = new QueryPredicateGroup(QueryPredicateGroup.Type.AND,
+                    Arrays.asList(predicate, keysetPredicate));
+        } else {
+            wherePredicate = predicate != null ? predicate : keysetPredicate;
+        }
+        if (wherePredicate != null) {
+            final SQLPredicate sqlPredicate = new SQLPredicate(wherePredicate);
+            selectionArgs = sqlPredicate.getSelectionArgs();
+            rawQuery.append(SqlKeyword.DELIMITER)
+                    .append(SqlKeyword.WHERE)
+                    .append(SqlKeyword.DELIMITER)
+                    .append(sqlPredicate);
+        }
+
+        // Append ordering.
+        // ORDER BY tableName.field DESC, tableName.id ASC
+        if (!sortColumns.isEmpty()) {
+            rawQuery.append(SqlKeyword.DELIMITER)
+                    .append(SqlKeyword.ORDER_BY)
+                    .append(SqlKeyword.DELIMITER);
+            for (int position = 0; position < sortColumns.size(); position++) {
+                if (position > 0) {
+                    rawQuery.append(",").append(SqlKeyword.DELIMITER);
+                }
+                rawQuery.append(sortColumns.get(position).getColumnName())
+                        .append(SqlKeyword.DELIMITER)
+                        .append(QuerySortOrder.DESCENDING.equals(sortOrders.get(position))
+                                ? SqlKeyword.DESC
+                                : SqlKeyword.ASC);
+            }
+        }
+
+        // Append page size.
+        // LIMIT pageSize
+        if (options != null && options.getPageSize() != null) {
+            rawQuery.append(SqlKeyword.DELIMITER)
+                    .append(SqlKeyword.LIMIT)
+                    .append(SqlKeyword.DELIMITER)
+                    .append(options.getPageSize().intValue());
+        }
+
+        rawQuery.append(";");
+        final String queryString = rawQuery.toString();
+        return new SqlCommand(table.getName(), queryString, selectionArgs);
+    }
+
+    // Builds the SELECT ... FROM ... part of a query, including the joins of the eager associations.
+    // SELECT columns FROM tableName INNER JOIN tableOne ON ... LEFT JOIN tableTwo ON ...
+    private static String selectFrom(SQLiteTable table, @Nullable QueryOptions options) {
         final String tableName = table.getName();
         StringBuilder rawQuery = new StringBuilder();
         StringBuilder selectColumns = new StringBuilder();
         StringBuilder joinStatement = new StringBuilder();
-        List<String> selectionArgs = null;
 
         // Track the list of columns to return
         List<SQLiteColumn> columns = new LinkedList<>(table.getSortedColumns());
 
-        // Joins the foreign keys
+        // Joins the foreign keys of the associations which are fetched eagerly.
         // LEFT JOIN if foreign key is optional, INNER JOIN otherwise.
-        final Iterator<SQLiteColumn> foreignKeyIterator = table.getForeignKeys().iterator();
+        // A lazy association is not joined. Its foreign key is still selected, with the
+        // table's own columns, and the associated model is loaded later, by ID.
+        final Iterator<SQLiteColumn> foreignKeyIterator = eagerForeignKeys(table, options).iterator();
         while (foreignKeyIterator.hasNext()) {
             final SQLiteColumn foreignKey = foreignKeyIterator.next();
             final String ownedTableName = foreignKey.getOwnedType();
@@ -212,62 +288,156 @@ final class SQLiteCommandFactory implements SQLCommandFactory {
             rawQuery.append(SqlKeyword.DELIMITER)
                     .append(joinStatement.toString());
         }
+        return rawQuery.toString();
+    }
 
-        // Append predicates.
-        // WHERE condition
-        if (predicate != null) {
-            final SQLPredicate sqlPredicate = new SQLPredicate(predicate);
-            selectionArgs = sqlPredicate.getSelectionArgs();
-            rawQuery.append(SqlKeyword.DELIMITER)
-                    .append(SqlKeyword.WHERE)
-                    .append(SqlKeyword.DELIMITER)
-                    .append(sqlPredicate);
+    // Finds the foreign keys of the associations which are to be read along with the query results.
+    private static List<SQLiteColumn> eagerForeignKeys(SQLiteTable table, @Nullable QueryOptions options) {
+        final List<SQLiteColumn> eagerForeignKeys = new ArrayList<>();
+        for (SQLiteColumn foreignKey : table.getForeignKeys()) {
+            if (!QueryFetchMode.LAZY.equals(fetchModeOf(table, foreignKey, options))) {
+                eagerForeignKeys.add(foreignKey);
+            }
         }
+        return eagerForeignKeys;
+    }
 
-        rawQuery.append(";");
-        final String queryString = rawQuery.toString();
-        return new SqlCommand(table.getName(), queryString, selectionArgs);
+    // Resolves the fetch mode of the association which has a foreign key. A fetch plan
+    // can name either the association field, or its foreign key, as the generated
+    // QueryField constants do. The last plan that names the association wins.
+    private static QueryFetchMode fetchModeOf(
+            SQLiteTable table, SQLiteColumn foreignKey, @Nullable QueryOptions options) {
+        if (options == null) {
+            return QueryFetchMode.EAGER;
+        }
+        QueryFetchMode fetchMode = options.getFetchMode();
+        for (QueryFetchPlan fetchPlan : options.getFetchPlans()) {
+            final SQLiteColumn column = table.getColumns().get(fetchPlan.getField());
+            if (foreignKey.getName().equals(fetchPlan.getField())
+                    || (column != null && foreignKey.getName().equals(column.getName()))) {
+                fetchMode = fetchPlan.getFetchMode();
+            }
+        }
+        return fetchMode;
     }
 
     /**
      * {@inheritDoc}
-     *
-     * This method should be invoked from a worker thread and not from the main thread
-     * as this method calls {@link SQLiteDatabase#compileStatement(String)}.
      */
-    @WorkerThread
     @Override
-    public SqlCommand insertFor(@NonNull ModelSchema modelSchema) {
+    public SqlCommand queryByIdsFor(@NonNull ModelSchema modelSchema,
+                                    @NonNull List<String> ids) {
         final SQLiteTable table = SQLiteTable.fromSchema(modelSchema);
-        final StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append("INSERT INTO")
+        StringBuilder rawQuery = new StringBuilder(selectFrom(table, null));
+
+        // WHERE tableName.id IN (?, ?, ?)
+        rawQuery.append(SqlKeyword.DELIMITER)
+                .append(SqlKeyword.WHERE)
                 .append(SqlKeyword.DELIMITER)
-                .append(table.getName())
+                .append(table.getPrimaryKey().getColumnName())
+                .append(SqlKeyword.DELIMITER)
+                .append(SqlKeyword.IN)
                 .append(SqlKeyword.DELIMITER)
                 .append("(");
-        final List<SQLiteColumn> columns = table.getSortedColumns();
-        final Iterator<SQLiteColumn> columnsIterator = columns.iterator();
-        while (columnsIterator.hasNext()) {
-            final String columnName = columnsIterator.next().getName();
-            stringBuilder.append(columnName);
-            if (columnsIterator.hasNext()) {
-                stringBuilder.append(",").append(SqlKeyword.DELIMITER);
+        for (int position = 0; position < ids.size(); position++) {
+            if (position > 0) {
+                rawQuery.append(",").append(SqlKeyword.DELIMITER);
             }
+            rawQuery.append("?");
         }
-        stringBuilder.append(")")
-                .append(SqlKeyword.DELIMITER)
-                .append("VALUES")
-                .append(SqlKeyword.DELIMITER)
-                .append("(");
-        for (int i = 0; i < columns.size(); i++) {
-            if (i == columns.size() - 1) {
-                stringBuilder.append("?");
-            } else {
-                stringBuilder.append("?, ");
+        rawQuery.append(");");
+        return new SqlCommand(table.getName(), rawQuery.toString(), new ArrayList<>(ids));
+    }
+
+    // Resolves the sort fields of the query options to columns of the table. The primary
+    // key is added as the last sort column, unless it is already sorted by, so that rows
+    // which have equal values for all of the sort fields are still in a stable order.
+    private static void parseSortBy(SQLiteTable table,
+                                    QueryOptions options,
+                                    List<SQLiteColumn> sortColumns,
+                                    List<QuerySortOrder> sortOrders) throws DataStoreException {
+        final SQLiteColumn primaryKey = table.getPrimaryKey();
+        boolean isSortedByPrimaryKey = false;
+        for (QuerySortBy sortBy : options.getSortBy()) {
+            SQLiteColumn sortColumn = null;
+            for (SQLiteColumn column : table.getSortedColumns()) {
+                if (column.getName().equals(sortBy.getField())) {
+                    sortColumn = column;
+                    break;
+                }
             }
+            if (sortColumn == null) {
+                throw new DataStoreException(
+                        "Unable to sort by " + sortBy.getField() + ", since it is not a field of " +
+                                table.getName(),
+                        "Sort by one of the fields of the queried model."
+                );
+            }
+            isSortedByPrimaryKey |= sortColumn.isPrimaryKey();
+            sortColumns.add(sortColumn);
+            sortOrders.add(sortBy.getSortOrder());
         }
-        stringBuilder.append(")");
-        final String preparedInsertStatement = stringBuilder.toString();
+        if (!isSortedByPrimaryKey) {
+            sortColumns.add(primaryKey);
+            sortOrders.add(QuerySortOrder.ASCENDING);
+        }
+    }
+
+    // Builds the keyset condition which selects the rows that come after the given
+    // values of the sort columns, in sort order. For sort columns (a ASC, b DESC), and
+    // values (x, y), that is: a > x OR (a = x AND b < y).
+    private static QueryPredicate parseStartAfter(List<Object> values,
+                                                  List<SQLiteColumn> sortColumns,
+                                                  List<QuerySortOrder> sortOrders) throws DataStoreException {
+        if (values.size() != sortColumns.size()) {
+            throw new DataStoreException(
+                    "Expected " + sortColumns.size() + " values to start after, but got " + values.size(),
+                    "Pass the value of each sort field, followed by the ID, of the last item of the previous page."
+            );
+        }
+        final List<QueryPredicate> alternatives = new ArrayList<>();
+        for (int position = 0; position < sortColumns.size(); position++) {
+            final List<QueryPredicate> conditions = new ArrayList<>();
+            for (int previous = 0; previous < position; previous++) {
+                conditions.add(QueryField.field(sortColumns.get(previous).getColumnName())
+                        .eq(requireKeysetValue(values, previous)));
+            }
+            final QueryField field = QueryField.field(sortColumns.get(position).getColumnName());
+            final Object value = requireKeysetValue(values, position);
+            conditions.add(QuerySortOrder.DESCENDING.equals(sortOrders.get(position))
+                    ? field.lt(value)
+                    : field.gt(value));
+            alternatives.add(conditions.size() == 1
+                    ? conditions.get(0)
+                    : new QueryPredicateGroup(QueryPredicateGroup.Type.AND, conditions));
+        }
+        return alternatives.size() == 1
+                ? alternatives.get(0)
+                : new QueryPredicateGroup(QueryPredicateGroup.Type.OR, alternatives);
+    }
+
+    private static Object requireKeysetValue(List<Object> values, int position) throws DataStoreException {
+        final Object value = values.get(position);
+        if (value == null) {
+            throw new DataStoreException(
+                    "Unable to start after a null value, at position " + position,
+                    "Only sort by fields that have a value, when reading results one page at a time."
+            );
+        }
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This method should be invoked from a worker thread and not from the main thread
+     * as this method calls {@link SQLiteDatabase#compileStatement(String)}.
+     */
+    @WorkerThread
+    @Override
+    public SqlCommand insertFor(@NonNull ModelSchema modelSchema) {
+        final SQLiteTable table = SQLiteTable.fromSchema(modelSchema);
+        final String preparedInsertStatement = parseInsert(table).toString();
         final SQLiteStatement compiledInsertStatement =
                 databaseConnectionHandle.compileStatement(preparedInsertStatement);
         return new SqlCommand(table.getName(), preparedInsertStatement, compiledInsertStatement);
@@ -281,8 +451,56 @@ final class SQLiteCommandFactory implements SQLCommandFactory {
      */
     @WorkerThread
     @Override
-    public <T extends Model> SqlCommand updateFor(@NonNull ModelSchema modelSchema,
-                                                  @NonNull T item) {
+    public SqlCommand upsertFor(@NonNull ModelSchema modelSchema) {
+        final SQLiteTable table = SQLiteTable.fromSchema(modelSchema);
+        final StringBuilder stringBuilder = parseInsert(table);
+        final String primaryKeyName = table.getPrimaryKey().getName();
+        stringBuilder.append(SqlKeyword.DELIMITER)
+                .append("ON CONFLICT")
+                .append("(" + primaryKeyName + ")")
+                .append(SqlKeyword.DELIMITER);
+
+        // The primary key is the conflict target, so it never changes.
+        // Every other column takes the value that was proposed for insertion.
+        // A table that has no other column has nothing to update.
+        final List<SQLiteColumn> columns = table.getSortedColumns();
+        if (columns.size() <= 1) {
+            stringBuilder.append("DO NOTHING");
+        } else {
+            stringBuilder.append("DO UPDATE SET").append(SqlKeyword.DELIMITER);
+        }
+        boolean first = true;
+        for (final SQLiteColumn column : columns) {
+            final String columnName = column.getName();
+            if (primaryKeyName.equals(columnName)) {
+                continue;
+            }
+            if (!first) {
+                stringBuilder.append(",").append(SqlKeyword.DELIMITER);
+            }
+            stringBuilder.append(columnName)
+                    .append(SqlKeyword.DELIMITER)
+                    .append(SqlKeyword.EQUAL)
+                    .append(SqlKeyword.DELIMITER)
+                    .append("excluded.")
+                    .append(columnName);
+            first = false;
+        }
+        final String preparedUpsertStatement = stringBuilder.toString();
+        final SQLiteStatement compiledUpsertStatement =
+                databaseConnectionHandle.compileStatement(preparedUpsertStatement);
+        return new SqlCommand(table.getName(), preparedUpsertStatement, compiledUpsertStatement);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This method should be invoked from a worker thread and not from the main thread
+     * as this method calls {@link SQLiteDatabase#compileStatement(String)}.
+     */
+    @WorkerThread
+    @Override
+    public SqlCommand updateFor(@NonNull ModelSchema modelSchema) {
         final SQLiteTable table = SQLiteTable.fromSchema(modelSchema);
         final StringBuilder stringBuilder = new StringBuilder();
         stringBuilder
@@ -303,10 +521,13 @@ final class SQLiteCommandFactory implements SQLCommandFactory {
             }
         }
 
+        // Refer back to the parameter that the primary key column is bound to,
+        // so that the statement binds exactly like the insert statement does.
+        final int primaryKeyIndex = columns.indexOf(table.getPrimaryKey()) + 1;
         stringBuilder.append(" WHERE ")
                 .append(PrimaryKey.fieldName())
-                .append(" = ")
-                .append(StringUtils.doubleQuote(item.getId()))
+                .append(" = ?")
+                .append(primaryKeyIndex)
                 .append(";");
         final String preparedUpdateStatement = stringBuilder.toString();
         final SQLiteStatement compiledUpdateStatement =
@@ -315,11 +536,14 @@ final class SQLiteCommandFactory implements SQLCommandFactory {
     }
 
     /**
-     * {@inheritDoc}.
+     * {@inheritDoc}
+     *
+     * This method should be invoked from a worker thread and not from the main thread
+     * as this method calls {@link SQLiteDatabase#compileStatement(String)}.
      */
+    @WorkerThread
     @Override
-    public <T extends Model> SqlCommand deleteFor(@NonNull ModelSchema modelSchema,
-                                                  @NonNull T item) {
+    public SqlCommand deleteFor(@NonNull ModelSchema modelSchema) {
         final SQLiteTable table = SQLiteTable.fromSchema(modelSchema);
         final StringBuilder stringBuilder = new StringBuilder();
         stringBuilder
@@ -327,10 +551,44 @@ final class SQLiteCommandFactory implements SQLCommandFactory {
                 .append(table.getName())
                 .append(" WHERE ")
                 .append(PrimaryKey.fieldName())
-                .append(" = ")
-                .append(StringUtils.doubleQuote(item.getId()))
-                .append(";");
-        return new SqlCommand(table.getName(), stringBuilder.toString());
+                .append(" = ?;");
+        final String preparedDeleteStatement = stringBuilder.toString();
+        final SQLiteStatement compiledDeleteStatement =
+                databaseConnectionHandle.compileStatement(preparedDeleteStatement);
+        return new SqlCommand(table.getName(), preparedDeleteStatement, compiledDeleteStatement);
+    }
+
+    // Utility method to build INSERT INTO table (columns) VALUES (?, ...)
+    private StringBuilder parseInsert(SQLiteTable table) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("INSERT INTO")
+                .append(SqlKeyword.DELIMITER)
+                .append(table.getName())
+                .append(SqlKeyword.DELIMITER)
+                .append("(");
+        final List<SQLiteColumn> columns = table.getSortedColumns();
+        final Iterator<SQLiteColumn> columnsIterator = columns.iterator();
+        while (columnsIterator.hasNext()) {
+            final String columnName = columnsIterator.next().getName();
+            stringBuilder.append(columnName);
+            if (columnsIterator.hasNext()) {
+                stringBuilder.append(",").append(SqlKeyword.DELIMITER);
+            }
+        }
+        stringBuilder.append(")")
+                .append(SqlKeyword.DELIMITER)
+                .append("VALUES")
+                .append(SqlKeyword.DELIMITER)
+                .append("(");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i == columns.size() - 1) {
+                stringBuilder.append("?");
+            } else {
+                stringBuilder.append("?, ");
+            }
+        }
+        stringBuilder.append(")");
+        return stringBuilder;
     }
 
     // Utility method to parse columns in CREATE TABLE
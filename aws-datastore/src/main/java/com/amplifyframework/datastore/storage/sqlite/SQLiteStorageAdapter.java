@@ -28,32 +28,29 @@ import com.amplifyframework.AmplifyException;
 import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.core.model.Model;
-import com.amplifyframework.core.model.ModelField;
 import com.amplifyframework.core.model.ModelProvider;
 import com.amplifyframework.core.model.ModelSchema;
 import com.amplifyframework.core.model.ModelSchemaRegistry;
-import com.amplifyframework.core.model.PrimaryKey;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 import com.amplifyframework.core.model.types.JavaFieldType;
-import com.amplifyframework.core.model.types.internal.TypeConverter;
 import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.network.DeadLetterMutation;
+import com.amplifyframework.datastore.network.LastSyncMetadata;
+import com.amplifyframework.datastore.network.ModelMetadata;
+import com.amplifyframework.datastore.network.OutboundMutationAttempt;
 import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
 import com.amplifyframework.datastore.storage.LocalStorageAdapter;
 import com.amplifyframework.datastore.storage.StorageItemChange;
-import com.amplifyframework.datastore.storage.sqlite.adapter.SQLiteColumn;
-import com.amplifyframework.datastore.storage.sqlite.adapter.SQLiteTable;
 import com.amplifyframework.logging.Logger;
-import com.amplifyframework.util.FieldFinder;
 import com.amplifyframework.util.Immutable;
-import com.amplifyframework.util.StringUtils;
 
 import com.google.gson.Gson;
 
-import java.io.IOException;
-import java.lang.reflect.Field;
 import java.sql.Time;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -67,8 +64,11 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import io.reactivex.Completable;
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
 
 /**
@@ -77,12 +77,22 @@ import io.reactivex.subjects.PublishSubject;
 public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     private static final Logger LOG = Amplify.Logging.forNamespace("amplify:aws-datastore");
 
-    // Database Version
-    private static final int DATABASE_VERSION = 1;
+    // Database Version. Version 2 adds the LastSyncMetadata, ModelMetadata,
+    // OutboundMutationAttempt and DeadLetterMutation system tables.
+    private static final int DATABASE_VERSION = 2;
 
     // Name of the database
     private static final String DATABASE_NAME = "AmplifyDatastore.db";
 
+    // Number of threads that run queries. In WAL mode, Android keeps up to four
+    // connections to a database by default: the primary connection, which is used
+    // by the writer, and three more that are shared by readers.
+    private static final int READER_THREAD_COUNT = 3;
+
+    // Earliest version of SQLite that supports UPSERT, 3.24.0
+    private static final int UPSERT_MIN_MAJOR_VERSION = 3;
+    private static final int UPSERT_MIN_MINOR_VERSION = 24;
+
     // Provider of the Models that will be warehouse-able by the DataStore
     private final ModelProvider modelProvider;
 
@@ -90,11 +100,18 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     // based on Model class name lookup mechanism.
     private final ModelSchemaRegistry modelSchemaRegistry;
 
-    // ThreadPool for SQLite operations.
-    private final ExecutorService threadPool;
+    // Runs every write to SQLite, one at a time. Writes never contend with each
+    // other for the database, and the compiled statements, which are not
+    // thread-safe, are only ever used by this one thread.
+    private final ExecutorService writeExecutor;
 
-    // Data is read from SQLite and de-serialized using GSON
-    // into a strongly typed Java object.
+    // Runs queries. In WAL mode, each reader thread gets a connection of its own
+    // from the database's connection pool, so queries run in parallel with each
+    // other and with a write that is in progress.
+    private final ExecutorService readExecutor;
+
+    // Enum values are serialized using GSON when they are written
+    // to SQLite, and de-serialized using GSON when they are read.
     private final Gson gson;
 
     // Used to publish events to the observables subscribed.
@@ -103,6 +120,23 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     // Map of tableName => Insert Prepared statement.
     private Map<String, SqlCommand> insertSqlPreparedStatements;
 
+    // Map of tableName => Upsert Prepared statement. Empty if the
+    // version of SQLite on the device does not support UPSERT.
+    private Map<String, SqlCommand> upsertSqlPreparedStatements;
+
+    // Map of tableName => Update Prepared statement. Only used
+    // when the version of SQLite does not support UPSERT.
+    private Map<String, SqlCommand> updateSqlPreparedStatements;
+
+    // Map of tableName => Delete Prepared statement.
+    private Map<String, SqlCommand> deleteSqlPreparedStatements;
+
+    // Map of tableName => Plan for binding model fields to columns.
+    private Map<String, ModelBindingPlan> bindingPlans;
+
+    // Map of tableName => Materializer that reads models out of query results.
+    private Map<String, ModelMaterializer> materializers;
+
     // Represents a connection to the SQLite database. This database reference
     // can be used to do all SQL operations against the underlying database
     // that this handle represents.
@@ -129,8 +163,14 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     public SQLiteStorageAdapter(@NonNull ModelProvider modelProvider) {
         this.modelProvider = Objects.requireNonNull(modelProvider);
         this.modelSchemaRegistry = ModelSchemaRegistry.singleton();
-        this.threadPool = Executors.newCachedThreadPool();
+        this.writeExecutor = Executors.newSingleThreadExecutor();
+        this.readExecutor = Executors.newFixedThreadPool(READER_THREAD_COUNT);
         this.insertSqlPreparedStatements = Collections.emptyMap();
+        this.upsertSqlPreparedStatements = Collections.emptyMap();
+        this.updateSqlPreparedStatements = Collections.emptyMap();
+        this.deleteSqlPreparedStatements = Collections.emptyMap();
+        this.bindingPlans = Collections.emptyMap();
+        this.materializers = Collections.emptyMap();
         this.gson = new Gson();
         this.itemChangeSubject = PublishSubject.create();
         this.storageItemChangeConverter = new GsonStorageItemChangeConverter();
@@ -153,7 +193,7 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     public synchronized void initialize(
             @NonNull Context context,
             @NonNull final ResultListener<List<ModelSchema>> listener) {
-        threadPool.submit(() -> {
+        writeExecutor.submit(() -> {
             try {
                 final Set<Class<? extends Model>> models = new HashSet<>();
                 // StorageItemChange.Record.class is an internal system event
@@ -162,6 +202,16 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
                 // PersistentModelVersion.class is an internal system event
                 // it is used to store the version of the ModelProvider
                 models.add(PersistentModelVersion.class);
+                // LastSyncMetadata.class is an internal system event
+                // it is used to store the time at which each model was last synced
+                models.add(LastSyncMetadata.class);
+                // ModelMetadata.class is an internal system event
+                // it is used to store the version of each model which was last synced
+                models.add(ModelMetadata.class);
+                // OutboundMutationAttempt.class and DeadLetterMutation.class are internal system events
+                // they are used to retry the publication of journaled changes, and to keep those that failed
+                models.add(OutboundMutationAttempt.class);
+                models.add(DeadLetterMutation.class);
                 models.addAll(modelProvider.models());
 
                 /*
@@ -217,6 +267,34 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
                  */
                 this.insertSqlPreparedStatements = getInsertSqlPreparedStatements();
 
+                /*
+                 * Create the statements that a {@link #save(Model, StorageItemChange.Initiator,
+                 * ResultListener)} uses to write a model without first checking whether it
+                 * exists. Where SQLite supports it, that is a single UPSERT per table. Otherwise,
+                 * it is an UPDATE by primary key, which is followed by the INSERT if no row
+                 * was updated.
+                 */
+                if (isUpsertSupported()) {
+                    this.upsertSqlPreparedStatements = getUpsertSqlPreparedStatements();
+                } else {
+                    this.updateSqlPreparedStatements = getUpdateSqlPreparedStatements();
+                }
+
+                /*
+                 * Create DELETE FROM TABLE_NAME WHERE id = ? statements for all
+                 * SQL tables, so that a delete only needs to bind the ID.
+                 */
+                this.deleteSqlPreparedStatements = getDeleteSqlPreparedStatements();
+
+                /*
+                 * Resolve, once per model, the ordinal column positions, the
+                 * accessible fields and the field types that are needed to bind
+                 * a model to a prepared statement. A save then does no reflective
+                 * lookups and no schema re-derivation of its own.
+                 */
+                this.bindingPlans = getBindingPlans(models);
+                this.materializers = getMaterializers();
+
                 /*
                  * Detect if the version of the models stored in SQLite is different
                  * from the version passed in through {@link ModelProvider#version()}.
@@ -240,60 +318,48 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
      * {@inheritDoc}
      */
     @Override
-    @SuppressWarnings("unchecked") // item.getClass() has Class<?>, but we assume Class<T>
     public <T extends Model> void save(
             @NonNull T item,
             @NonNull StorageItemChange.Initiator initiator,
             @NonNull ResultListener<StorageItemChange.Record> itemSaveListener) {
-        threadPool.submit(() -> {
+        writeExecutor.submit(() -> {
             try {
-                final ModelSchema modelSchema =
-                    modelSchemaRegistry.getModelSchemaForModelClass(item.getClass().getSimpleName());
-                final SQLiteTable sqLiteTable = SQLiteTable.fromSchema(modelSchema);
-
-                if (dataExistsInSQLiteTable(
-                        sqLiteTable.getName(),
-                        PrimaryKey.fieldName(),
-                        item.getId())) {
-                    // update model stored in SQLite
-                    final SqlCommand sqlCommand = sqlCommandFactory.updateFor(modelSchema, item);
-                    if (sqlCommand == null || !sqlCommand.hasCompiledSqlStatement()) {
-                        itemSaveListener.onError(new DataStoreException(
-                                "Error in saving the model. No update statement " +
-                                "found for the Model: " + modelSchema.getName(),
-                                AmplifyException.TODO_RECOVERY_SUGGESTION
-                        ));
-                    }
-                    saveModel(item, modelSchema, sqlCommand, ModelConflictStrategy.OVERWRITE_EXISTING);
-                } else {
-                    // insert model in SQLite
-                    final SqlCommand sqlCommand = insertSqlPreparedStatements.get(modelSchema.getName());
-                    if (sqlCommand == null || !sqlCommand.hasCompiledSqlStatement()) {
-                        itemSaveListener.onError(new DataStoreException(
-                                "No insert statement found for the Model: " + modelSchema.getName(),
-                                AmplifyException.TODO_RECOVERY_SUGGESTION
-                        ));
-                    }
-                    saveModel(item, modelSchema, sqlCommand, ModelConflictStrategy.THROW_EXCEPTION);
-                }
-
-                final StorageItemChange.Record record = StorageItemChange.<T>builder()
-                        .item(item)
-                        .itemClass((Class<T>) item.getClass())
-                        .type(StorageItemChange.Type.SAVE)
-                        .initiator(initiator)
-                        .build()
-                        .toRecord(storageItemChangeConverter);
+                final StorageItemChange.Record record =
+                    saveInTransaction(Collections.singletonList(item), initiator).get(0);
                 itemChangeSubject.onNext(record);
                 itemSaveListener.onResult(record);
             } catch (Exception exception) {
-                itemChangeSubject.onError(exception);
                 itemSaveListener.onError(new DataStoreException("Error in saving the model.", exception,
                         "See attached exception for details."));
             }
         });
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void saveAll(
+            @NonNull Collection<T> items,
+            @NonNull StorageItemChange.Initiator initiator,
+            @NonNull ResultListener<List<StorageItemChange.Record>> itemsSaveListener) {
+        Objects.requireNonNull(items);
+        writeExecutor.submit(() -> {
+            try {
+                final List<StorageItemChange.Record> records = saveInTransaction(items, initiator);
+                for (final StorageItemChange.Record record : records) {
+                    itemChangeSubject.onNext(record);
+                }
+                itemsSaveListener.onResult(records);
+            } catch (Exception exception) {
+                // Nothing was emitted for the rolled back batch, and the stream
+                // carries on for the other writes, so only the caller is told.
+                itemsSaveListener.onError(new DataStoreException("Error in saving the models.", exception,
+                        "See attached exception for details. None of the models were saved."));
+            }
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -310,33 +376,29 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     public <T extends Model> void query(@NonNull Class<T> itemClass,
                                         @Nullable QueryPredicate predicate,
                                         @NonNull ResultListener<Iterator<T>> queryResultsListener) {
-        threadPool.submit(() -> {
+        query(itemClass, predicate, null, queryResultsListener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void query(@NonNull Class<T> itemClass,
+                                        @Nullable QueryPredicate predicate,
+                                        @Nullable QueryOptions options,
+                                        @NonNull ResultListener<Iterator<T>> queryResultsListener) {
+        readExecutor.submit(() -> {
             try {
                 LOG.debug("Querying item for: " + itemClass.getSimpleName());
 
-                final Set<T> models = new HashSet<>();
-                final ModelSchema modelSchema =
-                    modelSchemaRegistry.getModelSchemaForModelClass(itemClass.getSimpleName());
-
-                final Cursor cursor = getQueryAllCursor(itemClass.getSimpleName(), predicate);
-                if (cursor == null) {
-                    queryResultsListener.onError(new DataStoreException(
-                            "Error in getting a cursor to the " +
-                                    "table for class: " + itemClass.getSimpleName(),
-                            AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
-                    return;
-                }
-
-                if (cursor.moveToFirst()) {
-                    do {
-                        final Map<String, Object> mapForModel = buildMapForModel(
-                            itemClass, modelSchema, cursor);
-                        models.add(deserializeModelFromRawMap(mapForModel, itemClass));
-                    } while (cursor.moveToNext());
-                }
-                if (!cursor.isClosed()) {
-                    cursor.close();
+                final List<T> models = new ArrayList<>();
+                final QueryCursor<T> queryCursor = openQuery(itemClass, predicate, options);
+                try {
+                    while (queryCursor.moveToNext()) {
+                        models.add(queryCursor.read());
+                    }
+                } finally {
+                    queryCursor.close();
                 }
 
                 queryResultsListener.onResult(models.iterator());
@@ -350,46 +412,70 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     /**
      * {@inheritDoc}
      */
-    @SuppressWarnings("unchecked") // item.getClass() has Class<?>, but we assume Class<T>
+    @Override
+    public <T extends Model> void loadAssociation(@NonNull Class<T> itemClass,
+                                                  @NonNull List<T> items,
+                                                  @NonNull String associationFieldName,
+                                                  @NonNull ResultListener<List<T>> itemsListener) {
+        Objects.requireNonNull(itemClass);
+        Objects.requireNonNull(items);
+        Objects.requireNonNull(associationFieldName);
+        readExecutor.submit(() -> {
+            try {
+                LOG.debug("Loading " + associationFieldName + " of " + items.size() + " " +
+                        itemClass.getSimpleName() + " items.");
+                final AssociationLoader associationLoader = new AssociationLoader(
+                        databaseConnectionHandle, sqlCommandFactory, modelSchemaRegistry, materializers);
+                itemsListener.onResult(associationLoader.load(itemClass, items, associationFieldName));
+            } catch (Exception exception) {
+                itemsListener.onError(new DataStoreException("Error in loading the associated models.", exception,
+                        "See attached exception for details."));
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public <T extends Model> Flowable<T> stream(@NonNull Class<T> itemClass,
+                                                @Nullable QueryPredicate predicate,
+                                                @Nullable QueryOptions options) {
+        Objects.requireNonNull(itemClass);
+        // The cursor is opened on subscription, read one row per requested item,
+        // and closed on completion, on error, or on cancellation.
+        return Flowable.generate(
+            () -> {
+                LOG.debug("Streaming items for: " + itemClass.getSimpleName());
+                return openQuery(itemClass, predicate, options);
+            },
+            (QueryCursor<T> queryCursor, Emitter<T> emitter) -> {
+                if (queryCursor.moveToNext()) {
+                    emitter.onNext(queryCursor.read());
+                } else {
+                    emitter.onComplete();
+                }
+            },
+            QueryCursor::close
+        ).subscribeOn(Schedulers.from(readExecutor));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
     @Override
     public <T extends Model> void delete(
             @NonNull T item,
             @NonNull StorageItemChange.Initiator initiator,
             @NonNull ResultListener<StorageItemChange.Record> itemDeleteListener) {
-        threadPool.submit(() -> {
+        writeExecutor.submit(() -> {
             try {
-                final ModelSchema modelSchema =
-                        modelSchemaRegistry.getModelSchemaForModelClass(item.getClass().getSimpleName());
-                final SQLiteTable sqLiteTable = SQLiteTable.fromSchema(modelSchema);
-
-                LOG.debug("Deleting item in table: " + sqLiteTable.getName() +
-                        " identified by ID: " + item.getId());
-
-                final SqlCommand sqlCommand = sqlCommandFactory.deleteFor(modelSchema, item);
-                if (sqlCommand == null || sqlCommand.sqlStatement() == null) {
-                    itemDeleteListener.onError(new DataStoreException(
-                            "No delete statement found for the Model: " +
-                                    modelSchema.getName(),
-                            AmplifyException.TODO_RECOVERY_SUGGESTION
-                    ));
-                }
-
-                databaseConnectionHandle.beginTransaction();
-                databaseConnectionHandle.execSQL(sqlCommand.sqlStatement());
-                databaseConnectionHandle.setTransactionSuccessful();
-                databaseConnectionHandle.endTransaction();
-
-                final StorageItemChange.Record record = StorageItemChange.<T>builder()
-                        .item(item)
-                        .itemClass((Class<T>) item.getClass())
-                        .type(StorageItemChange.Type.DELETE)
-                        .initiator(initiator)
-                        .build()
-                        .toRecord(storageItemChangeConverter);
+                final StorageItemChange.Record record =
+                    deleteInTransaction(Collections.singletonList(item), initiator).get(0);
                 itemChangeSubject.onNext(record);
                 itemDeleteListener.onResult(record);
             } catch (Exception exception) {
-                itemChangeSubject.onError(exception);
                 itemDeleteListener.onError(
                         new DataStoreException("Error in deleting the model.", exception,
                                 "See attached exception for details."));
@@ -397,6 +483,66 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void deleteAll(
+            @NonNull Collection<T> items,
+            @NonNull StorageItemChange.Initiator initiator,
+            @NonNull ResultListener<List<StorageItemChange.Record>> itemsDeleteListener) {
+        Objects.requireNonNull(items);
+        writeExecutor.submit(() -> {
+            try {
+                final List<StorageItemChange.Record> records = deleteInTransaction(items, initiator);
+                for (final StorageItemChange.Record record : records) {
+                    itemChangeSubject.onNext(record);
+                }
+                itemsDeleteListener.onResult(records);
+            } catch (Exception exception) {
+                itemsDeleteListener.onError(
+                        new DataStoreException("Error in deleting the models.", exception,
+                                "See attached exception for details. None of the models were deleted."));
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void saveAndDeleteAll(
+            @NonNull Collection<T> itemsToSave,
+            @NonNull Collection<T> itemsToDelete,
+            @NonNull StorageItemChange.Initiator initiator,
+            @NonNull ResultListener<List<StorageItemChange.Record>> itemsChangeListener) {
+        Objects.requireNonNull(itemsToSave);
+        Objects.requireNonNull(itemsToDelete);
+        writeExecutor.submit(() -> {
+            try {
+                final List<StorageItemChange.Record> records = new ArrayList<>();
+                // The transactions of saveInTransaction(...) and deleteInTransaction(...)
+                // are nested inside of this one, so that they are committed together.
+                databaseConnectionHandle.beginTransactionNonExclusive();
+                try {
+                    records.addAll(saveInTransaction(itemsToSave, initiator));
+                    records.addAll(deleteInTransaction(itemsToDelete, initiator));
+                    databaseConnectionHandle.setTransactionSuccessful();
+                } finally {
+                    databaseConnectionHandle.endTransaction();
+                }
+                for (final StorageItemChange.Record record : records) {
+                    itemChangeSubject.onNext(record);
+                }
+                itemsChangeListener.onResult(records);
+            } catch (Exception exception) {
+                itemsChangeListener.onError(
+                        new DataStoreException("Error in saving and deleting the models.", exception,
+                                "See attached exception for details. None of the models were changed."));
+            }
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -411,17 +557,26 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
     @Override
     public synchronized void terminate() throws DataStoreException {
         try {
-            insertSqlPreparedStatements = null;
-
             if (toBeDisposed != null) {
                 toBeDisposed.dispose();
             }
             if (itemChangeSubject != null) {
                 itemChangeSubject.onComplete();
             }
-            if (threadPool != null) {
-                threadPool.shutdown();
-            }
+            writeExecutor.shutdown();
+            readExecutor.shutdown();
+
+            closeSqlPreparedStatements(insertSqlPreparedStatements);
+            closeSqlPreparedStatements(upsertSqlPreparedStatements);
+            closeSqlPreparedStatements(updateSqlPreparedStatements);
+            closeSqlPreparedStatements(deleteSqlPreparedStatements);
+            insertSqlPreparedStatements = null;
+            upsertSqlPreparedStatements = null;
+            updateSqlPreparedStatements = null;
+            deleteSqlPreparedStatements = null;
+            bindingPlans = null;
+            materializers = null;
+
             if (databaseConnectionHandle != null) {
                 databaseConnectionHandle.close();
             }
@@ -434,6 +589,136 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
         }
     }
 
+    /*
+     * Writes all of the items inside of a single transaction, and returns one change
+     * record per item. If any of the writes fails, the transaction is rolled back and
+     * the exception is re-thrown, so that no partial batch is ever committed. Records
+     * are only returned after the transaction has ended, so that observers are never
+     * notified of a change that could still be rolled back.
+     *
+     * This is only called from the writer thread. The transaction is non-exclusive,
+     * so that readers on other connections keep reading the last committed state
+     * while it is open.
+     */
+    private <T extends Model> List<StorageItemChange.Record> saveInTransaction(
+            @NonNull Collection<T> items,
+            @NonNull StorageItemChange.Initiator initiator) throws IllegalAccessException, DataStoreException {
+        final List<StorageItemChange.Record> records = new ArrayList<>(items.size());
+        databaseConnectionHandle.beginTransactionNonExclusive();
+        try {
+            for (final T item : items) {
+                writeModel(item);
+                records.add(toChangeRecord(item, StorageItemChange.Type.SAVE, initiator));
+            }
+            databaseConnectionHandle.setTransactionSuccessful();
+        } finally {
+            databaseConnectionHandle.endTransaction();
+        }
+        return records;
+    }
+
+    // Deletes all of the items inside of a single transaction. See saveInTransaction(...).
+    private <T extends Model> List<StorageItemChange.Record> deleteInTransaction(
+            @NonNull Collection<T> items,
+            @NonNull StorageItemChange.Initiator initiator) throws DataStoreException {
+        final List<StorageItemChange.Record> records = new ArrayList<>(items.size());
+        databaseConnectionHandle.beginTransactionNonExclusive();
+        try {
+            for (final T item : items) {
+                removeModel(item);
+                records.add(toChangeRecord(item, StorageItemChange.Type.DELETE, initiator));
+            }
+            databaseConnectionHandle.setTransactionSuccessful();
+        } finally {
+            databaseConnectionHandle.endTransaction();
+        }
+        return records;
+    }
+
+    // Inserts the model if there is no row with its ID yet, and updates that row otherwise.
+    private <T extends Model> void writeModel(@NonNull T item) throws IllegalAccessException, DataStoreException {
+        final ModelSchema modelSchema =
+            modelSchemaRegistry.getModelSchemaForModelClass(item.getClass().getSimpleName());
+        final ModelBindingPlan bindingPlan = bindingPlans.get(modelSchema.getName());
+        if (bindingPlan == null) {
+            throw new DataStoreException(
+                    "No binding plan found for the Model: " + modelSchema.getName(),
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+
+        final SqlCommand upsertCommand = upsertSqlPreparedStatements.get(modelSchema.getName());
+        if (upsertCommand != null && upsertCommand.hasCompiledSqlStatement()) {
+            // insert or update model in SQLite, in a single statement
+            saveModel(item, bindingPlan, upsertCommand, ModelConflictStrategy.OVERWRITE_EXISTING);
+            return;
+        }
+
+        // SQLite is older than 3.24.0, and has no UPSERT. INSERT OR REPLACE is not
+        // a substitute, since it deletes the existing row, which cascades the delete
+        // to every row that references it. Instead, update the model stored in SQLite,
+        // and insert it only if there was nothing to update.
+        final SqlCommand updateCommand = updateSqlPreparedStatements.get(modelSchema.getName());
+        if (updateCommand == null || !updateCommand.hasCompiledSqlStatement()) {
+            throw new DataStoreException(
+                    "Error in saving the model. No update statement " +
+                    "found for the Model: " + modelSchema.getName(),
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        if (saveModel(item, bindingPlan, updateCommand, ModelConflictStrategy.OVERWRITE_EXISTING)) {
+            return;
+        }
+
+        final SqlCommand insertCommand = insertSqlPreparedStatements.get(modelSchema.getName());
+        if (insertCommand == null || !insertCommand.hasCompiledSqlStatement()) {
+            throw new DataStoreException(
+                    "No insert statement found for the Model: " + modelSchema.getName(),
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        saveModel(item, bindingPlan, insertCommand, ModelConflictStrategy.THROW_EXCEPTION);
+    }
+
+    private <T extends Model> void removeModel(@NonNull T item) throws DataStoreException {
+        final ModelSchema modelSchema =
+                modelSchemaRegistry.getModelSchemaForModelClass(item.getClass().getSimpleName());
+
+        LOG.debug("Deleting item in table: " + modelSchema.getName() +
+                " identified by ID: " + item.getId());
+
+        final SqlCommand sqlCommand = deleteSqlPreparedStatements.get(modelSchema.getName());
+        if (sqlCommand == null || !sqlCommand.hasCompiledSqlStatement()) {
+            throw new DataStoreException(
+                    "No delete statement found for the Model: " +
+                            modelSchema.getName(),
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+
+        // SQLiteStatement object that represents the pre-compiled/prepared SQLite statements
+        // are not thread-safe. They are only used from the writer thread.
+        final SQLiteStatement compiledSqlStatement = sqlCommand.getCompiledSqlStatement();
+        compiledSqlStatement.clearBindings();
+        compiledSqlStatement.bindString(1, item.getId());
+        compiledSqlStatement.executeUpdateDelete();
+        compiledSqlStatement.clearBindings();
+    }
+
+    @SuppressWarnings("unchecked") // item.getClass() has Class<?>, but we assume Class<T>
+    private <T extends Model> StorageItemChange.Record toChangeRecord(
+            @NonNull T item,
+            @NonNull StorageItemChange.Type type,
+            @NonNull StorageItemChange.Initiator initiator) {
+        return StorageItemChange.<T>builder()
+                .item(item)
+                .itemClass((Class<T>) item.getClass())
+                .type(type)
+                .initiator(initiator)
+                .build()
+                .toRecord(storageItemChangeConverter);
+    }
+
     private CreateSqlCommands getCreateCommands(@NonNull Set<Class<? extends Model>> models) {
         final Set<SqlCommand> createTableCommands = new HashSet<>();
         final Set<SqlCommand> createIndexCommands = new HashSet<>();
@@ -461,64 +746,98 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
         return Immutable.of(modifiableMap);
     }
 
-    private <T> void bindPreparedSQLStatementWithValues(@NonNull final T object,
-                                                        @NonNull final SqlCommand sqlCommand)
-            throws IllegalAccessException, DataStoreException {
-        final String tableName = sqlCommand.tableName();
-        final SQLiteStatement preCompiledInsertStatement = sqlCommand.getCompiledSqlStatement();
-        final Iterator<Field> fieldIterator = FieldFinder.findFieldsIn(object.getClass()).iterator();
-
-        final Cursor cursor = getQueryAllCursor(tableName, null);
-        if (cursor == null) {
-            throw new IllegalAccessException("Error in getting a cursor to table: " +
-                    tableName);
+    private Map<String, SqlCommand> getUpsertSqlPreparedStatements() {
+        final Map<String, SqlCommand> modifiableMap = new HashMap<>();
+        for (final ModelSchema modelSchema : modelSchemaRegistry.getModelSchemaMap().values()) {
+            modifiableMap.put(modelSchema.getName(), sqlCommandFactory.upsertFor(modelSchema));
         }
-        cursor.moveToFirst();
-
-        final ModelSchema modelSchema = ModelSchemaRegistry.singleton()
-                .getModelSchemaForModelClass(tableName);
-        final SQLiteTable sqliteTable = SQLiteTable.fromSchema(modelSchema);
-        final Map<String, SQLiteColumn> columns = sqliteTable.getColumns();
+        return Immutable.of(modifiableMap);
+    }
 
-        while (fieldIterator.hasNext()) {
-            final Field field = fieldIterator.next();
+    private Map<String, SqlCommand> getUpdateSqlPreparedStatements() {
+        final Map<String, SqlCommand> modifiableMap = new HashMap<>();
+        for (final ModelSchema modelSchema : modelSchemaRegistry.getModelSchemaMap().values()) {
+            modifiableMap.put(modelSchema.getName(), sqlCommandFactory.updateFor(modelSchema));
+        }
+        return Immutable.of(modifiableMap);
+    }
 
-            field.setAccessible(true);
-            final String fieldName = field.getName();
-            final Object fieldValue = field.get(object);
+    private Map<String, SqlCommand> getDeleteSqlPreparedStatements() {
+        final Map<String, SqlCommand> modifiableMap = new HashMap<>();
+        for (final ModelSchema modelSchema : modelSchemaRegistry.getModelSchemaMap().values()) {
+            modifiableMap.put(modelSchema.getName(), sqlCommandFactory.deleteFor(modelSchema));
+        }
+        return Immutable.of(modifiableMap);
+    }
 
-            // Skip if there is no equivalent column for field in object
-            final SQLiteColumn column = columns.get(fieldName);
-            if (column == null) {
-                continue;
+    // Releases the compiled statements held by a map of tableName => prepared statement.
+    private static void closeSqlPreparedStatements(@Nullable Map<String, SqlCommand> sqlPreparedStatements) {
+        if (sqlPreparedStatements == null) {
+            return;
+        }
+        for (final SqlCommand sqlCommand : sqlPreparedStatements.values()) {
+            if (sqlCommand != null && sqlCommand.hasCompiledSqlStatement()) {
+                sqlCommand.getCompiledSqlStatement().close();
             }
-            final String columnName = column.getAliasedName();
-            final JavaFieldType javaFieldType;
-            if (Model.class.isAssignableFrom(field.getType())) {
-                javaFieldType = JavaFieldType.MODEL;
-            } else if (Enum.class.isAssignableFrom(field.getType())) {
-                javaFieldType = JavaFieldType.ENUM;
-            } else {
-                javaFieldType = JavaFieldType.from(field.getType().getSimpleName());
+        }
+    }
+
+    // UPSERT (INSERT ... ON CONFLICT DO UPDATE) was added in SQLite 3.24.0.
+    private boolean isUpsertSupported() {
+        final Cursor cursor = databaseConnectionHandle.rawQuery("SELECT sqlite_version();", null);
+        try {
+            if (!cursor.moveToFirst()) {
+                return false;
             }
+            final String[] version = cursor.getString(0).split("\\.");
+            final int major = Integer.parseInt(version[0]);
+            final int minor = version.length > 1 ? Integer.parseInt(version[1]) : 0;
+            return major > UPSERT_MIN_MAJOR_VERSION ||
+                (major == UPSERT_MIN_MAJOR_VERSION && minor >= UPSERT_MIN_MINOR_VERSION);
+        } catch (NumberFormatException unparseableVersion) {
+            LOG.warn("Unable to parse SQLite version, UPSERT will not be used.", unparseableVersion);
+            return false;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private Map<String, ModelBindingPlan> getBindingPlans(@NonNull Set<Class<? extends Model>> models)
+            throws DataStoreException {
+        final Map<String, ModelBindingPlan> modifiableMap = new HashMap<>();
+        for (Class<? extends Model> model : models) {
+            final ModelSchema modelSchema =
+                modelSchemaRegistry.getModelSchemaForModelClass(model.getSimpleName());
+            modifiableMap.put(modelSchema.getName(), ModelBindingPlan.from(model, modelSchema));
+        }
+        return Immutable.of(modifiableMap);
+    }
 
-            // Move the columns index to 1-based index.
-            final int columnIndex = cursor.getColumnIndexOrThrow(columnName) + 1;
+    private Map<String, ModelMaterializer> getMaterializers() {
+        final Map<String, ModelMaterializer> modifiableMap = new HashMap<>();
+        for (final Map.Entry<String, ModelBindingPlan> entry : bindingPlans.entrySet()) {
+            modifiableMap.put(entry.getKey(), ModelMaterializer.from(entry.getValue(), gson));
+        }
+        return Immutable.of(modifiableMap);
+    }
 
+    private <T extends Model> void bindPreparedSQLStatementWithValues(
+            @NonNull final T model,
+            @NonNull final ModelBindingPlan bindingPlan,
+            @NonNull final SQLiteStatement preCompiledStatement)
+            throws IllegalAccessException, DataStoreException {
+        for (final ModelBindingPlan.ColumnBinding columnBinding : bindingPlan.columnBindings()) {
+            final Object fieldValue = columnBinding.valueOf(model);
             if (fieldValue == null) {
-                preCompiledInsertStatement.bindNull(columnIndex);
+                preCompiledStatement.bindNull(columnBinding.columnIndex());
                 continue;
             }
 
             bindPreCompiledInsertStatementWithJavaFields(
-                    preCompiledInsertStatement,
+                    preCompiledStatement,
                     fieldValue,
-                    columnIndex,
-                    javaFieldType);
-        }
-
-        if (!cursor.isClosed()) {
-            cursor.close();
+                    columnBinding.columnIndex(),
+                    columnBinding.javaFieldType());
         }
     }
 
@@ -567,155 +886,44 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
         }
     }
 
-    private <T extends Model> Map<String, Object> buildMapForModel(
-            @NonNull Class<T> modelClass,
-            @NonNull ModelSchema modelSchema,
-            @NonNull Cursor cursor) throws DataStoreException {
-        final Map<String, Object> mapForModel = new HashMap<>();
-        final SQLiteTable sqliteTable = SQLiteTable.fromSchema(modelSchema);
-        final Map<String, SQLiteColumn> columns = sqliteTable.getColumns();
-
-        for (Map.Entry<String, ModelField> entry : modelSchema.getFields().entrySet()) {
-            final String fieldName = entry.getKey();
-            try {
-                // Skip if there is no equivalent column for field in object
-                final SQLiteColumn column = columns.get(fieldName);
-                if (column == null) {
-                    continue;
-                }
-                final String columnName = column.getAliasedName();
-                final ModelField modelField = entry.getValue();
-                final String fieldGraphQlType = entry.getValue().getTargetType();
-                final JavaFieldType fieldJavaType;
-                if (modelField.isModel()) {
-                    fieldJavaType = JavaFieldType.MODEL;
-                } else if (modelField.isEnum()) {
-                    fieldJavaType = JavaFieldType.ENUM;
-                } else {
-                    fieldJavaType = TypeConverter.getJavaTypeForGraphQLType(fieldGraphQlType);
-                }
-
-                final int columnIndex = cursor.getColumnIndexOrThrow(columnName);
-                // This check is necessary, because primitive values will return 0 even when null
-                if (cursor.isNull(columnIndex)) {
-                    mapForModel.put(fieldName, null);
-                    continue;
-                }
-
-                final String stringValueFromCursor;
-                switch (fieldJavaType) {
-                    case STRING:
-                        mapForModel.put(fieldName, cursor.getString(columnIndex));
-                        break;
-                    case MODEL:
-                        // Eager load model if the necessary columns are present inside the cursor.
-                        // At the time of implementation, cursor should have been joined with these
-                        // columns IF AND ONLY IF the model is a foreign key to the inner model.
-                        Class<?> classType = modelClass.getDeclaredField(fieldName).getType();
-                        @SuppressWarnings("unchecked") // Safe type casting since foreign key is always a model
-                        Class<? extends Model> innerModelType = (Class<? extends Model>) classType;
-                        String className = innerModelType.getSimpleName();
-                        ModelSchema innerModelSchema = ModelSchemaRegistry.singleton()
-                                .getModelSchemaForModelClass(className);
-                        Map<String, Object> mapForInnerModel = buildMapForModel(
-                                innerModelType,
-                                innerModelSchema,
-                                cursor);
-                        mapForModel.put(fieldName, deserializeModelFromRawMap(mapForInnerModel, innerModelType));
-                        break;
-                    case ENUM:
-                        stringValueFromCursor = cursor.getString(columnIndex);
-                        Class<?> enumType = modelClass.getDeclaredField(fieldName).getType();
-                        Object enumValue = gson.getAdapter(enumType).fromJson(stringValueFromCursor);
-                        mapForModel.put(fieldName, enumValue);
-                        break;
-                    case INTEGER:
-                        mapForModel.put(fieldName, cursor.getInt(columnIndex));
-                        break;
-                    case BOOLEAN:
-                        mapForModel.put(fieldName, cursor.getInt(columnIndex) != 0);
-                        break;
-                    case FLOAT:
-                        mapForModel.put(fieldName, cursor.getFloat(columnIndex));
-                        break;
-                    case LONG:
-                        mapForModel.put(fieldName, cursor.getLong(columnIndex));
-                        break;
-                    case DATE:
-                        final String dateInStringFormat = cursor.getString(columnIndex);
-                        if (dateInStringFormat != null) {
-                            final Date dateInDateFormat = SimpleDateFormat
-                                    .getDateInstance()
-                                    .parse(dateInStringFormat);
-                            mapForModel.put(fieldName, dateInDateFormat);
-                        }
-                        break;
-                    case TIME:
-                        final long timeInLongFormat = cursor.getLong(columnIndex);
-                        mapForModel.put(fieldName, new Time(timeInLongFormat));
-                        break;
-                    default:
-                        throw new DataStoreException(fieldJavaType + " is not supported.",
-                                AmplifyException.TODO_RECOVERY_SUGGESTION);
-                }
-            } catch (Exception exception) {
-                mapForModel.put(fieldName, null);
-            }
-        }
-        return mapForModel;
-    }
-
     // Extract the values of the fields of a model and bind the values to the SQLiteStatement
-    // and execute the statement.
-    private <T extends Model> void saveModel(
+    // and execute the statement. Returns false if the statement did not write any row.
+    private <T extends Model> boolean saveModel(
             @NonNull T model,
-            @NonNull ModelSchema modelSchema,
+            @NonNull ModelBindingPlan bindingPlan,
             @NonNull SqlCommand sqlCommand,
             ModelConflictStrategy modelConflictStrategy) throws IllegalAccessException, DataStoreException {
         Objects.requireNonNull(model);
-        Objects.requireNonNull(modelSchema);
+        Objects.requireNonNull(bindingPlan);
         Objects.requireNonNull(sqlCommand);
         Objects.requireNonNull(sqlCommand.getCompiledSqlStatement());
 
         LOG.debug("Writing data to table for: " + model.toString());
 
         // SQLiteStatement object that represents the pre-compiled/prepared SQLite statements
-        // are not thread-safe. Adding a synchronization barrier to access it.
-        synchronized (sqlCommand.getCompiledSqlStatement()) {
-            final SQLiteStatement compiledSqlStatement = sqlCommand.getCompiledSqlStatement();
-            compiledSqlStatement.clearBindings();
-            bindPreparedSQLStatementWithValues(model, sqlCommand);
-            switch (modelConflictStrategy) {
-                case OVERWRITE_EXISTING:
-                    compiledSqlStatement.executeUpdateDelete();
-                    break;
-                case THROW_EXCEPTION:
-                    compiledSqlStatement.executeInsert();
-                    break;
-                default:
-                    throw new DataStoreException("ModelConflictStrategy " +
-                            modelConflictStrategy + " is not supported.", AmplifyException.TODO_RECOVERY_SUGGESTION);
-            }
-            compiledSqlStatement.clearBindings();
+        // are not thread-safe. They are only used from the writer thread.
+        final boolean written;
+        final SQLiteStatement compiledSqlStatement = sqlCommand.getCompiledSqlStatement();
+        compiledSqlStatement.clearBindings();
+        bindPreparedSQLStatementWithValues(model, bindingPlan, compiledSqlStatement);
+        switch (modelConflictStrategy) {
+            case OVERWRITE_EXISTING:
+                written = compiledSqlStatement.executeUpdateDelete() > 0;
+                break;
+            case THROW_EXCEPTION:
+                compiledSqlStatement.executeInsert();
+                written = true;
+                break;
+            default:
+                throw new DataStoreException("ModelConflictStrategy " +
+                        modelConflictStrategy + " is not supported.", AmplifyException.TODO_RECOVERY_SUGGESTION);
         }
+        compiledSqlStatement.clearBindings();
 
-        LOG.debug("Successfully written data to table for: " + model.toString());
-    }
-
-    private boolean dataExistsInSQLiteTable(
-            @NonNull String tableName,
-            @NonNull String columnName,
-            @NonNull String columnValue) {
-        final Cursor cursor = databaseConnectionHandle.rawQuery(
-                "SELECT * FROM " + StringUtils.singleQuote(tableName) +
-                        " WHERE " + columnName + " = " +
-                        StringUtils.singleQuote(columnValue), null);
-        if (cursor.getCount() <= 0) {
-            cursor.close();
-            return false;
+        if (written) {
+            LOG.debug("Successfully written data to table for: " + model.toString());
         }
-        cursor.close();
-        return true;
+        return written;
     }
 
     /*
@@ -749,26 +957,78 @@ public final class SQLiteStorageAdapter implements LocalStorageAdapter {
                 }).ignoreElement();
     }
 
-    private <T extends Model> T deserializeModelFromRawMap(
-            @NonNull Map<String, Object> mapForModel,
-            @NonNull Class<T> itemClass) throws IOException {
-        final String modelInJsonFormat = gson.toJson(mapForModel);
-        return gson.getAdapter(itemClass).fromJson(modelInJsonFormat);
+    private <T extends Model> QueryCursor<T> openQuery(
+            @NonNull Class<T> itemClass,
+            @Nullable QueryPredicate predicate,
+            @Nullable QueryOptions options) throws DataStoreException {
+        final ModelSchema modelSchema =
+            modelSchemaRegistry.getModelSchemaForModelClass(itemClass.getSimpleName());
+        final ModelMaterializer materializer = materializers.get(modelSchema.getName());
+        if (materializer == null) {
+            throw new DataStoreException(
+                    "No materializer found for the Model: " + modelSchema.getName(),
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+
+        final Cursor cursor = getQueryAllCursor(itemClass.getSimpleName(), predicate, options);
+        if (cursor == null) {
+            throw new DataStoreException(
+                    "Error in getting a cursor to the " +
+                            "table for class: " + itemClass.getSimpleName(),
+                    AmplifyException.TODO_RECOVERY_SUGGESTION
+            );
+        }
+        return new QueryCursor<>(itemClass, cursor, materializer.readerFor(cursor, materializers));
     }
 
     @VisibleForTesting
     Cursor getQueryAllCursor(@NonNull String tableName) throws DataStoreException {
-        return getQueryAllCursor(tableName, null);
+        return getQueryAllCursor(tableName, null, null);
     }
 
     @VisibleForTesting
     Cursor getQueryAllCursor(@NonNull String tableName,
-                             @Nullable QueryPredicate predicate) throws DataStoreException {
+                             @Nullable QueryPredicate predicate,
+                             @Nullable QueryOptions options) throws DataStoreException {
         final ModelSchema schema = ModelSchemaRegistry.singleton()
                 .getModelSchemaForModelClass(tableName);
-        final SqlCommand sqlCommand = sqlCommandFactory.queryFor(schema, predicate);
+        final SqlCommand sqlCommand = sqlCommandFactory.queryFor(schema, predicate, options);
         final String rawQuery = sqlCommand.sqlStatement();
         final String[] selectionArgs = sqlCommand.getSelectionArgsAsArray();
         return this.databaseConnectionHandle.rawQuery(rawQuery, selectionArgs);
     }
+
+    /**
+     * The results of a query, which are materialized one row at a time,
+     * as they are consumed.
+     * @param <T> Type of the items that were queried
+     */
+    private static final class QueryCursor<T extends Model> {
+        private final Class<T> itemClass;
+        private final Cursor cursor;
+        private final ModelMaterializer.Reader reader;
+
+        QueryCursor(Class<T> itemClass, Cursor cursor, ModelMaterializer.Reader reader) {
+            this.itemClass = itemClass;
+            this.cursor = cursor;
+            this.reader = reader;
+        }
+
+        // Moves the cursor to the next row, if there is one.
+        boolean moveToNext() {
+            return cursor.moveToNext();
+        }
+
+        // Materializes the row at the current position of the cursor.
+        T read() throws DataStoreException {
+            return itemClass.cast(reader.read(cursor));
+        }
+
+        void close() {
+            if (!cursor.isClosed()) {
+                cursor.close();
+            }
+        }
+    }
 }
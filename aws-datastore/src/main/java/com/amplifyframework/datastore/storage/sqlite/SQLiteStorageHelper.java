@@ -20,7 +20,6 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.os.Build;
-import android.text.TextUtils;
 import androidx.annotation.NonNull;
 import androidx.core.util.ObjectsCompat;
 
@@ -75,6 +74,10 @@ final class SQLiteStorageHelper extends SQLiteOpenHelper implements ModelUpdateS
      * Called when the database connection is being configured, to enable features
      * such as foreign key support.
      *
+     * Write-ahead logging is enabled, so that readers do not block the writer and
+     * the writer does not block readers. It also lets the database open more than one
+     * connection, so that queries from different threads run in parallel.
+     *
      * @param sqliteDatabase the connection handle to the database.
      */
     @Override
@@ -83,6 +86,9 @@ final class SQLiteStorageHelper extends SQLiteOpenHelper implements ModelUpdateS
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
             sqliteDatabase.setForeignKeyConstraintsEnabled(true);
         }
+        if (!sqliteDatabase.enableWriteAheadLogging()) {
+            LOG.warn("Unable to enable write-ahead logging. Queries will wait for writes to complete.");
+        }
     }
 
     /**
@@ -115,9 +121,10 @@ final class SQLiteStorageHelper extends SQLiteOpenHelper implements ModelUpdateS
      * same DATABASE_NAME, but the DATABASE_VERSION is different than the version of
      * the database that exists on disk.
      *
-     * When the new db version is bigger than current exist db version,
-     * this method will be invoked. It always drop all tables and then call
-     * onCreate() method to create all table again.
+     * A new version of the database only adds tables to the ones before it. The tables
+     * and indexes that are missing are created, and the existing ones are kept as they are,
+     * since they may hold local changes which have not been published yet. The create
+     * commands only create what does not exist yet, so they can be run again as they are.
      *
      * @param sqliteDatabase the connection handle to the database.
      * @param oldVersion older version number
@@ -127,24 +134,9 @@ final class SQLiteStorageHelper extends SQLiteOpenHelper implements ModelUpdateS
     public synchronized void onUpgrade(SQLiteDatabase sqliteDatabase,
                                        int oldVersion,
                                        int newVersion) {
-        if (oldVersion != newVersion) {
-            // Loop all the tables in the set and drop them if they exist
-            // and re-create all the tables.
-            sqliteDatabase.beginTransaction();
-            try {
-                for (final SqlCommand sqlCommand : createSqlCommands.getCreateTableCommands()) {
-                    if (!TextUtils.isEmpty(sqlCommand.tableName())) {
-                        sqliteDatabase.execSQL("drop table if exists " +
-                                sqlCommand.tableName());
-                    }
-                }
-                sqliteDatabase.setTransactionSuccessful();
-            } finally {
-                sqliteDatabase.endTransaction();
-            }
-
-            // After drop all exist tables, create all tables again.
-            onCreate(sqliteDatabase);
+        if (oldVersion < newVersion) {
+            LOG.info("Upgrading database from version " + oldVersion + " to " + newVersion + ".");
+            createTablesAndIndexes(sqliteDatabase);
         }
     }
 
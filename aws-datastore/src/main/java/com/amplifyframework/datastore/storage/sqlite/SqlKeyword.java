@@ -134,7 +134,27 @@ public enum SqlKeyword {
     /**
      * SQL keyword to specify column or table alias.
      */
-    AS("AS");
+    AS("AS"),
+
+    /**
+     * SQL keyword to specify the order of query results.
+     */
+    ORDER_BY("ORDER BY"),
+
+    /**
+     * SQL keyword to order results in ascending order.
+     */
+    ASC("ASC"),
+
+    /**
+     * SQL keyword to order results in descending order.
+     */
+    DESC("DESC"),
+
+    /**
+     * SQL keyword to limit the number of query results.
+     */
+    LIMIT("LIMIT");
 
     private static final Map<QueryOperator.Type, SqlKeyword> QUERY_OPERATOR_TO_SQL = new HashMap<>();
     private static final Map<QueryPredicateGroup.Type, SqlKeyword> QUERY_PREDICATE_GROUP_TO_SQL = new HashMap<>();
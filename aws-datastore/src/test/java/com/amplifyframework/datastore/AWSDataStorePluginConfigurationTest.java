@@ -17,6 +17,14 @@ package com.amplifyframework.datastore;
 
 import android.os.Build;
 
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelProvider;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.datastore.network.SyncEngine;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testmodels.commentsblog.Post;
+
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
@@ -24,7 +32,17 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests the {@link AWSDataStorePluginConfiguration}.
@@ -94,4 +112,143 @@ public final class AWSDataStorePluginConfigurationTest {
         // Assert: it worked; the sync mode and api name are well configured.
         assertEquals(AWSDataStorePluginConfiguration.SyncMode.SYNC_WITH_API, config.getSyncMode());
     }
+
+    /**
+     * Write-behind is disabled, unless a window is configured for it.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException from DataStore configuration
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary window length
+    @Test
+    public void writeBehindIsEnabledWhenWindowIsConfigured() throws JSONException, DataStoreException {
+        AWSDataStorePluginConfiguration defaultConfig = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncMode", "api"));
+        assertFalse(defaultConfig.isWriteBehindEnabled());
+
+        AWSDataStorePluginConfiguration config = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("writeBehindWindowMs", 250));
+        assertTrue(config.isWriteBehindEnabled());
+        assertEquals(250, config.getWriteBehindWindowMs());
+        assertEquals(AWSDataStorePluginConfiguration.SyncMode.LOCAL_ONLY, config.getSyncMode());
+    }
+
+    /**
+     * A negative write-behind window is rejected.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException Expected, since the window is negative
+     */
+    @Test(expected = DataStoreException.class)
+    public void negativeWriteBehindWindowIsRejected() throws JSONException, DataStoreException {
+        AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("writeBehindWindowMs", -1));
+    }
+
+    /**
+     * The host of a configured API endpoint is used to gate sync. Without an endpoint,
+     * there is no host, and sync is not gated.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException from DataStore configuration
+     */
+    @Test
+    public void apiHostIsReadFromApiEndpoint() throws JSONException, DataStoreException {
+        AWSDataStorePluginConfiguration defaultConfig = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncMode", "api"));
+        assertNull(defaultConfig.getApiHost());
+
+        AWSDataStorePluginConfiguration config = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncMode", "api")
+            .put("apiEndpoint", "https://example.appsync-api.us-east-1.amazonaws.com/graphql"));
+        assertNotNull(config.getApiHost());
+    }
+
+    /**
+     * An API endpoint which is not a URL with a host is rejected.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException Expected, since the endpoint has no host
+     */
+    @Test(expected = DataStoreException.class)
+    public void apiEndpointWithoutHostIsRejected() throws JSONException, DataStoreException {
+        AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("apiEndpoint", "graphql"));
+    }
+
+    /**
+     * Subscriptions are established concurrently by default, and serially
+     * if that is configured.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException from DataStore configuration
+     */
+    @Test
+    public void subscriptionModeIsConcurrentUnlessConfigured() throws JSONException, DataStoreException {
+        AWSDataStorePluginConfiguration defaultConfig = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncMode", "api"));
+        assertEquals(SyncEngine.SubscriptionMode.CONCURRENT, defaultConfig.getSubscriptionMode());
+
+        AWSDataStorePluginConfiguration config = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncMode", "api")
+            .put("subscriptionMode", "serial"));
+        assertEquals(SyncEngine.SubscriptionMode.SERIAL, config.getSubscriptionMode());
+    }
+
+    /**
+     * An unknown subscription mode is rejected.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException Expected, since the mode is not known
+     */
+    @Test(expected = DataStoreException.class)
+    public void unknownSubscriptionModeIsRejected() throws JSONException, DataStoreException {
+        AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("subscriptionMode", "multiplexed"));
+    }
+
+    /**
+     * The data of every provided model is synced, unless the configuration names the models
+     * to sync. Predicates are kept for the models whose data is synced selectively.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException from DataStore configuration
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary rating
+    @Test
+    public void syncedModelsAreReadFromSyncModels() throws JSONException, DataStoreException {
+        ModelProvider modelProvider = mock(ModelProvider.class);
+        when(modelProvider.models())
+            .thenReturn(new HashSet<Class<? extends Model>>(Arrays.asList(BlogOwner.class, Post.class)));
+        AWSDataStorePluginConfiguration defaultConfig = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncMode", "api"));
+        assertEquals(modelProvider.models(), defaultConfig.getSyncedModels(modelProvider));
+
+        QueryPredicate syncPredicate = Post.RATING.gt(3);
+        AWSDataStorePluginConfiguration config = AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncMode", "api")
+            .put("syncModels", new JSONArray().put("Post")),
+            Collections.singletonMap(Post.class, syncPredicate));
+        assertEquals(Collections.singleton(Post.class), config.getSyncedModels(modelProvider));
+        assertEquals(syncPredicate, config.getSyncPredicates().get(Post.class));
+    }
+
+    /**
+     * A sync predicate for a model whose data is not synced is rejected.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException Expected, since the model of the predicate is not synced
+     */
+    @Test(expected = DataStoreException.class)
+    public void syncPredicateForModelWhichIsNotSyncedIsRejected() throws JSONException, DataStoreException {
+        AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncModels", new JSONArray().put("BlogOwner")),
+            Collections.singletonMap(Post.class, Post.TITLE.beginsWith("Draft")));
+    }
+
+    /**
+     * A name in syncModels which is not the name of a provided model is rejected.
+     * @throws JSONException While arranging the {@link JSONObject} input, not expected
+     * @throws DataStoreException Expected, since the named model is not provided
+     */
+    @Test(expected = DataStoreException.class)
+    public void unknownModelInSyncModelsIsRejected() throws JSONException, DataStoreException {
+        ModelProvider modelProvider = mock(ModelProvider.class);
+        when(modelProvider.models()).thenReturn(Collections.singleton(BlogOwner.class));
+        AWSDataStorePluginConfiguration.fromJson(new JSONObject()
+            .put("syncModels", new JSONArray().put("BlogOwner").put("Blogowner")))
+            .getSyncedModels(modelProvider);
+    }
 }
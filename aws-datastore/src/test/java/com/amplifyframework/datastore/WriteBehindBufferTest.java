@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore;
+
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
+import com.amplifyframework.datastore.storage.InMemoryStorageAdapter;
+import com.amplifyframework.datastore.storage.LocalStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testutils.LatchedResultListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Tests the {@link WriteBehindBuffer}.
+ */
+public class WriteBehindBufferTest {
+    private static final long WINDOW_MS = 100;
+    private static final long LISTENER_TIMEOUT_MS = 100;
+
+    private InMemoryStorageAdapter inMemoryStorageAdapter;
+    private TestScheduler testScheduler;
+    private WriteBehindBuffer writeBehindBuffer;
+    private GsonStorageItemChangeConverter storageItemChangeConverter;
+
+    /**
+     * Set up the object under test.
+     */
+    @Before
+    public void setup() {
+        inMemoryStorageAdapter = InMemoryStorageAdapter.create();
+        testScheduler = new TestScheduler();
+        writeBehindBuffer = new WriteBehindBuffer(inMemoryStorageAdapter, WINDOW_MS, testScheduler);
+        storageItemChangeConverter = new GsonStorageItemChangeConverter();
+    }
+
+    /**
+     * Repeated saves of the same model, within one window, are written once, with
+     * the last state of the model. Every save's listener is notified of that write.
+     * Models are written in the order in which they were first saved.
+     * @throws DataStoreException On failure to convert a change record
+     */
+    @Test
+    public void savesOfSameModelWithinWindowAreCoalesced() throws DataStoreException {
+        TestObserver<StorageItemChange.Record> storageObserver = inMemoryStorageAdapter.observe().test();
+
+        final BlogOwner first = BlogOwner.builder()
+            .name("Cursor at 0")
+            .build();
+        final BlogOwner second = first.copyOfBuilder()
+            .name("Cursor at 1")
+            .build();
+        final BlogOwner other = BlogOwner.builder()
+            .name("Someone else")
+            .build();
+        final LatchedResultListener<StorageItemChange.Record> firstListener =
+            LatchedResultListener.waitFor(LISTENER_TIMEOUT_MS);
+        final LatchedResultListener<StorageItemChange.Record> otherListener =
+            LatchedResultListener.waitFor(LISTENER_TIMEOUT_MS);
+        final LatchedResultListener<StorageItemChange.Record> secondListener =
+            LatchedResultListener.waitFor(LISTENER_TIMEOUT_MS);
+        writeBehindBuffer.save(first, firstListener);
+        writeBehindBuffer.save(other, otherListener);
+        writeBehindBuffer.save(second, secondListener);
+
+        // Nothing is written before the window closes.
+        testScheduler.advanceTimeBy(WINDOW_MS - 1, TimeUnit.MILLISECONDS);
+        storageObserver.assertNoValues();
+
+        testScheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        storageObserver.assertValueCount(2);
+        assertEquals(second, itemOf(storageObserver.values().get(0)));
+        assertEquals(other, itemOf(storageObserver.values().get(1)));
+
+        assertEquals(second, itemOf(firstListener.awaitResult()));
+        assertEquals(second, itemOf(secondListener.awaitResult()));
+        assertEquals(other, itemOf(otherListener.awaitResult()));
+    }
+
+    /**
+     * A flush writes the pending saves right away, and the window
+     * that was open at the time does not write them a second time.
+     * @throws DataStoreException On failure to convert a change record
+     */
+    @Test
+    public void flushWritesPendingSavesBeforeWindowCloses() throws DataStoreException {
+        TestObserver<StorageItemChange.Record> storageObserver = inMemoryStorageAdapter.observe().test();
+
+        final BlogOwner owner = BlogOwner.builder()
+            .name("Jameson Williams")
+            .build();
+        final LatchedResultListener<StorageItemChange.Record> saveListener =
+            LatchedResultListener.waitFor(LISTENER_TIMEOUT_MS);
+        writeBehindBuffer.save(owner, saveListener);
+
+        writeBehindBuffer.flush().test().assertComplete();
+        storageObserver.assertValueCount(1);
+        assertEquals(owner, itemOf(saveListener.awaitResult()));
+
+        testScheduler.advanceTimeBy(WINDOW_MS, TimeUnit.MILLISECONDS);
+        storageObserver.assertValueCount(1);
+
+        // With nothing pending, a flush completes right away.
+        writeBehindBuffer.flush().test().assertComplete();
+        storageObserver.assertValueCount(1);
+    }
+
+    /**
+     * When a window can not be written as a whole, its saves are written one by one,
+     * so that a save which fails does not fail the unrelated saves of its window.
+     * @throws DataStoreException On failure to convert a change record
+     */
+    @Test
+    public void failedBatchFallsBackToSavesOfEachModel() throws DataStoreException {
+        final BlogOwner good = BlogOwner.builder()
+            .name("Good owner")
+            .build();
+        final BlogOwner bad = BlogOwner.builder()
+            .name("Bad owner")
+            .build();
+        final DataStoreException badRowError =
+            new DataStoreException("Constraint violated.", "Save a valid owner.");
+
+        // The batch fails because of the bad owner, and so does its own save.
+        final LocalStorageAdapter storageAdapter = spy(inMemoryStorageAdapter);
+        doAnswer(invocation -> {
+            ResultListener<?> listener = invocation.getArgument(2);
+            listener.onError(badRowError);
+            return null;
+        }).when(storageAdapter).saveAll(anyCollection(), any(), any());
+        doAnswer(invocation -> {
+            ResultListener<?> listener = invocation.getArgument(2);
+            listener.onError(badRowError);
+            return null;
+        }).when(storageAdapter).save(eq(bad), any(), any());
+        writeBehindBuffer = new WriteBehindBuffer(storageAdapter, WINDOW_MS, testScheduler);
+
+        final LatchedResultListener<StorageItemChange.Record> goodListener =
+            LatchedResultListener.waitFor(LISTENER_TIMEOUT_MS);
+        final LatchedResultListener<StorageItemChange.Record> badListener =
+            LatchedResultListener.waitFor(LISTENER_TIMEOUT_MS);
+        writeBehindBuffer.save(good, goodListener);
+        writeBehindBuffer.save(bad, badListener);
+
+        writeBehindBuffer.flush().test().assertComplete();
+        assertEquals(good, itemOf(goodListener.awaitResult()));
+        assertEquals(badRowError, badListener.awaitError());
+        assertTrue(inMemoryStorageAdapter.items().contains(good));
+    }
+
+    private BlogOwner itemOf(StorageItemChange.Record record) throws DataStoreException {
+        return record.<BlogOwner>toStorageItemChange(storageItemChangeConverter).item();
+    }
+}
@@ -19,9 +19,13 @@ import com.amplifyframework.api.ApiCategoryBehavior;
 import com.amplifyframework.api.graphql.GraphQLOperation;
 import com.amplifyframework.api.graphql.GraphQLRequest;
 import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.PaginatedResult;
 import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.StreamListener;
 import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testutils.LatchedResultListener;
 import com.amplifyframework.testutils.LatchedSingleResponseListener;
 import com.amplifyframework.testutils.Resources;
 
@@ -34,8 +38,14 @@ import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
@@ -97,6 +107,133 @@ public final class AppSyncApiTest {
         );
     }
 
+    /**
+     * A page of sync results keeps its nextToken and startedAt values,
+     * along with its items.
+     * @throws JSONException On bad response JSON arranged by the test
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary server times
+    @Test
+    public void syncPageKeepsNextTokenAndStartedAt() throws JSONException {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson Williams").build();
+        final String itemJson = new JSONObject()
+            .put("id", jameson.getId())
+            .put("name", jameson.getName())
+            .put("_version", 1)
+            .put("_deleted", false)
+            .put("_lastChangedAt", 1000L)
+            .toString();
+        final PaginatedResult<String> responseData =
+            new PaginatedResult<>(Collections.singletonList(itemJson), "page-2", 2000L);
+        doAnswer(invocation -> {
+            ResultListener<GraphQLResponse<Iterable<String>>> listener = invocation.getArgument(1);
+            listener.onResult(new GraphQLResponse<>(responseData, Collections.emptyList()));
+            return mock(GraphQLOperation.class);
+        }).when(api).query(any(GraphQLRequest.class), any(ResultListener.class));
+
+        final LatchedResultListener<GraphQLResponse<SyncPage<BlogOwner>>> listener =
+            LatchedResultListener.instance();
+        endpoint.sync(BlogOwner.class, 1000L, "page-1", listener);
+        final SyncPage<BlogOwner> page = listener.awaitResult().getData();
+
+        assertEquals(Collections.singletonList(jameson), modelsOf(page));
+        assertEquals("page-2", page.getNextToken());
+        assertTrue(page.hasNextPage());
+        assertEquals(Long.valueOf(2000L), page.getStartedAt());
+
+        // The request is a sync query, which asks for the page after page-1.
+        ArgumentCaptor<GraphQLRequest<String>> requestCaptor = ArgumentCaptor.forClass(GraphQLRequest.class);
+        verify(api).query(requestCaptor.capture(), any(ResultListener.class));
+        JSONObject request = new JSONObject(requestCaptor.getValue().getContent());
+        assertTrue(request.getString("query").contains("syncBlogOwners"));
+        assertTrue(request.getString("query").contains("page-1"));
+    }
+
+    /**
+     * Several models are created in a single mutation request, each under its own alias.
+     * The response is split into one response per model, in the order of the models.
+     * A model whose alias has no data gets the errors of the request.
+     * @throws JSONException On bad request JSON found in API category call
+     */
+    @Test
+    public void createAllSendsOneRequestAndSplitsResponse() throws JSONException {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson Williams").build();
+        final BlogOwner tony = BlogOwner.builder().name("Tony Danielsen").build();
+        final String responseData = new JSONObject()
+            .put("m1", new JSONObject()
+                .put("id", jameson.getId())
+                .put("name", jameson.getName())
+                .put("_version", 1))
+            .put("m2", JSONObject.NULL)
+            .toString();
+        final GraphQLResponse.Error error = new GraphQLResponse.Error("Conflict");
+        doAnswer(invocation -> {
+            ResultListener<GraphQLResponse<String>> listener = invocation.getArgument(1);
+            listener.onResult(new GraphQLResponse<>(responseData, Collections.singletonList(error)));
+            return mock(GraphQLOperation.class);
+        }).when(api).mutate(any(GraphQLRequest.class), any(ResultListener.class));
+
+        final LatchedResultListener<List<GraphQLResponse<ModelWithMetadata<BlogOwner>>>> listener =
+            LatchedResultListener.instance();
+        endpoint.createAll(Arrays.asList(jameson, tony), listener);
+        final List<GraphQLResponse<ModelWithMetadata<BlogOwner>>> responses = listener.awaitResult();
+
+        // One request was made, with one input variable per model.
+        ArgumentCaptor<GraphQLRequest<String>> requestCaptor = ArgumentCaptor.forClass(GraphQLRequest.class);
+        verify(api).mutate(requestCaptor.capture(), any(ResultListener.class));
+        JSONObject variables = new JSONObject(requestCaptor.getValue().getContent()).getJSONObject("variables");
+        assertEquals(jameson.getName(), variables.getJSONObject("input1").getString("name"));
+        assertEquals(tony.getName(), variables.getJSONObject("input2").getString("name"));
+
+        assertEquals(2, responses.size());
+        assertFalse(responses.get(0).hasErrors());
+        assertEquals(jameson, responses.get(0).getData().getModel());
+        assertFalse(responses.get(1).hasData());
+        assertEquals(Collections.singletonList(error), responses.get(1).getErrors());
+    }
+
+    /**
+     * An update which takes a model out of the data that is synced, by the model's sync predicate,
+     * is passed on as a deletion, so that the model is evicted from the local storage.
+     * @throws JSONException On bad response JSON arranged by the test
+     */
+    @Test
+    public void updateOutsideOfSyncPredicateIsPassedOnAsDeletion() throws JSONException {
+        final Map<Class<? extends Model>, QueryPredicate> syncPredicates = new HashMap<>();
+        syncPredicates.put(BlogOwner.class, BlogOwner.NAME.beginsWith("Jameson"));
+        final AppSyncEndpoint selectiveEndpoint = new AppSyncApi(api, syncPredicates);
+        final StreamListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>> listener = mock(StreamListener.class);
+        selectiveEndpoint.onUpdate(BlogOwner.class, listener);
+        ArgumentCaptor<StreamListener<GraphQLResponse<String>>> subscriptionCaptor =
+            ArgumentCaptor.forClass(StreamListener.class);
+        verify(api).subscribe(any(GraphQLRequest.class), subscriptionCaptor.capture());
+
+        final BlogOwner renamed = BlogOwner.builder().name("Tony Danielsen").build();
+        final String itemJson = new JSONObject()
+            .put("id", renamed.getId())
+            .put("name", renamed.getName())
+            .put("_version", 2)
+            .put("_deleted", false)
+            .toString();
+        subscriptionCaptor.getValue().onNext(new GraphQLResponse<>(itemJson, Collections.emptyList()));
+
+        ArgumentCaptor<GraphQLResponse<ModelWithMetadata<BlogOwner>>> responseCaptor =
+            ArgumentCaptor.forClass(GraphQLResponse.class);
+        verify(listener).onNext(responseCaptor.capture());
+        final ModelWithMetadata<BlogOwner> passedOn = responseCaptor.getValue().getData();
+        assertEquals(renamed, passedOn.getModel());
+        assertEquals(Boolean.TRUE, passedOn.getSyncMetadata().isDeleted());
+        assertEquals(Integer.valueOf(2), passedOn.getSyncMetadata().getVersion());
+    }
+
+    private static <T extends Model> List<T> modelsOf(SyncPage<T> page) {
+        final List<T> models = new ArrayList<>();
+        for (ModelWithMetadata<T> item : page.getItems()) {
+            models.add(item.getModel());
+        }
+        return models;
+    }
+
     /**
      * Configures the API mock to return a particular response.
      * @param arrangedApiResponse Some response you want the API to return
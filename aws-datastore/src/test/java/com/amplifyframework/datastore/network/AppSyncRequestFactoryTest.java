@@ -16,6 +16,7 @@
 package com.amplifyframework.datastore.network;
 
 import com.amplifyframework.api.graphql.SubscriptionType;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateOperation;
 import com.amplifyframework.datastore.DataStoreException;
 import com.amplifyframework.testmodels.commentsblog.Blog;
 import com.amplifyframework.testmodels.commentsblog.BlogOwner;
@@ -25,6 +26,10 @@ import com.amplifyframework.testutils.Resources;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -57,6 +62,38 @@ public final class AppSyncRequestFactoryTest {
         );
     }
 
+    /**
+     * Validates the construction of a delta-sync query document which is filtered.
+     * @throws DataStoreException On failure to interrogate fields in Post.class.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // lastSync time is an arbitrarily-chosen, stable value
+    @Test
+    public void validateRequestGenerationForFilteredDeltaSync() throws DataStoreException {
+        assertEquals(
+            Resources.readAsString("filtered-delta-sync-request-document-for-post.txt"),
+            AppSyncRequestFactory.buildSyncDoc(Post.class, 123123123L, null, true)
+        );
+    }
+
+    /**
+     * Validates that a predicate is translated into the filter of a sync query.
+     * @throws DataStoreException On failure to translate the predicate
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary rating
+    @Test
+    public void validateFilterGenerationFromPredicate() throws DataStoreException {
+        final Map<String, Object> expectedFilter = Collections.singletonMap("and", Arrays.asList(
+            Collections.singletonMap("rating", Collections.singletonMap("gt", 3)),
+            Collections.singletonMap("not",
+                Collections.singletonMap("title", Collections.singletonMap("beginsWith", "Draft")))
+        ));
+        assertEquals(
+            expectedFilter,
+            AppSyncRequestFactory.buildFilter(
+                Post.RATING.gt(3).and(QueryPredicateOperation.not(Post.TITLE.beginsWith("Draft"))))
+        );
+    }
+
     /**
      * Validates that the nextToken parameter is correctly generate for a Sync query.
      * @throws DataStoreException On failure to interrogate the BlogOwner.class.
@@ -120,4 +157,17 @@ public final class AppSyncRequestFactoryTest {
             AppSyncRequestFactory.buildCreationDoc(Comment.class)
         );
     }
+
+    /**
+     * Validates creation of a single request which creates several models,
+     * each under its own alias.
+     * @throws DataStoreException On failure to interrogate the model fields
+     */
+    @Test
+    public void validateBatchMutationGenerationOnCreateBlogOwnerAndComment() throws DataStoreException {
+        assertEquals(
+            Resources.readAsString("create-batch-request.txt"),
+            AppSyncRequestFactory.buildBatchCreationDoc(Arrays.asList(BlogOwner.class, Comment.class))
+        );
+    }
 }
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import android.os.Build;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.storage.InMemoryStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link OutboundMutationPipeline}.
+ */
+@Config(sdk = Build.VERSION_CODES.P, manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class OutboundMutationPipelineTest {
+    private static final int MAX_CONCURRENCY = 2;
+    private static final int BATCH_THRESHOLD = 3;
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private Map<UUID, PublishSubject<StorageItemChange<? extends Model>>> publications;
+    private List<StorageItemChange<? extends Model>> startedChanges;
+    private List<List<StorageItemChange<? extends Model>>> startedBatches;
+    private InMemoryStorageAdapter storageAdapter;
+    private StorageItemChangeJournal journal;
+    private TestScheduler scheduler;
+    private OutboundMutationPipeline pipeline;
+    private PublishSubject<StorageItemChange<? extends Model>> changes;
+    private TestObserver<StorageItemChange<? extends Model>> publishedChanges;
+
+    /**
+     * Sets up a pipeline whose publications are completed by the test.
+     */
+    @Before
+    public void setup() {
+        publications = new LinkedHashMap<>();
+        startedChanges = new ArrayList<>();
+        startedBatches = new ArrayList<>();
+        storageAdapter = InMemoryStorageAdapter.create();
+        scheduler = new TestScheduler();
+        journal = new StorageItemChangeJournal(storageAdapter);
+        final OutboundMutationAttempts attempts =
+            new OutboundMutationAttempts(storageAdapter, journal, scheduler, new Random());
+        pipeline = new OutboundMutationPipeline(MAX_CONCURRENCY, BATCH_THRESHOLD, MAX_BATCH_SIZE,
+            attempts, journal, scheduler, this::startPublication);
+        changes = PublishSubject.create();
+        publishedChanges = pipeline.publish(changes).test();
+    }
+
+    /**
+     * Changes to the same model are published one after another, while
+     * changes to different models are published in parallel, up to the
+     * maximum concurrency. The counters reflect what is in flight, and
+     * what is waiting.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Counts of changes
+    @Test
+    public void changesToSameModelArePublishedInOrderWithinConcurrencyLimit() {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson").build();
+        final BlogOwner tony = BlogOwner.builder().name("Tony").build();
+        final BlogOwner susan = BlogOwner.builder().name("Susan").build();
+        final StorageItemChange<BlogOwner> firstJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> secondJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> saveTony = saveOf(tony);
+        final StorageItemChange<BlogOwner> saveSusan = saveOf(susan);
+
+        changes.onNext(firstJameson);
+        changes.onNext(secondJameson);
+        changes.onNext(saveTony);
+        changes.onNext(saveSusan);
+
+        // The second change to Jameson waits for the first. Susan waits for a free slot.
+        assertEquals(Arrays.asList(firstJameson, saveTony), startedChanges);
+        assertEquals(2, pipeline.inFlightCount());
+        assertEquals(2, pipeline.queueDepth());
+
+        // Jameson has been waiting for longer than Susan, so is served first.
+        complete(firstJameson);
+        assertEquals(Arrays.asList(firstJameson, saveTony, secondJameson), startedChanges);
+        assertEquals(2, pipeline.inFlightCount());
+        assertEquals(1, pipeline.queueDepth());
+
+        complete(saveTony);
+        assertEquals(Arrays.asList(firstJameson, saveTony, secondJameson, saveSusan), startedChanges);
+        assertEquals(0, pipeline.queueDepth());
+
+        complete(secondJameson);
+        complete(saveSusan);
+        changes.onComplete();
+        publishedChanges.assertValues(firstJameson, saveTony, secondJameson, saveSusan);
+        publishedChanges.assertComplete();
+        assertEquals(0, pipeline.inFlightCount());
+    }
+
+    /**
+     * When a change fails to publish, the later changes to the same model are
+     * held back, but changes to other models are still published. Once its
+     * backoff has passed, the failed change is attempted again, and then the
+     * changes behind it are published, in order.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Counts of changes
+    @Test
+    public void failedChangeIsAttemptedAgainAfterBackoff() {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson").build();
+        final StorageItemChange<BlogOwner> firstJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> secondJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> thirdJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> saveTony = saveOf(BlogOwner.builder().name("Tony").build());
+
+        changes.onNext(firstJameson);
+        changes.onNext(secondJameson);
+        publications.get(firstJameson.changeId()).onError(new RuntimeException("Network is down."));
+        changes.onNext(thirdJameson);
+        changes.onNext(saveTony);
+        complete(saveTony);
+
+        assertEquals(Arrays.asList(firstJameson, saveTony), startedChanges);
+        assertEquals(3, pipeline.queueDepth());
+        publishedChanges.assertValues(saveTony);
+
+        // The backoff after a first failure is jittered over the upper half of the base delay.
+        scheduler.advanceTimeBy(OutboundMutationAttempts.BASE_BACKOFF_MS / 2 - 1, TimeUnit.MILLISECONDS);
+        assertEquals(Arrays.asList(firstJameson, saveTony), startedChanges);
+        scheduler.advanceTimeBy(OutboundMutationAttempts.BASE_BACKOFF_MS / 2 + 1, TimeUnit.MILLISECONDS);
+        assertEquals(Arrays.asList(firstJameson, saveTony, firstJameson), startedChanges);
+
+        complete(firstJameson);
+        complete(secondJameson);
+        complete(thirdJameson);
+        publishedChanges.assertValues(saveTony, firstJameson, secondJameson, thirdJameson);
+        publishedChanges.assertNoErrors();
+        assertEquals(0, pipeline.queueDepth());
+    }
+
+    /**
+     * An attempt is only written to local storage once it fails, so that
+     * a change which is published on its first attempt costs no writes.
+     */
+    @Test
+    public void onlyFailedAttemptsAreWrittenToStorage() {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson").build();
+        final BlogOwner tony = BlogOwner.builder().name("Tony").build();
+        final StorageItemChange<BlogOwner> saveJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> saveTony = saveOf(tony);
+
+        changes.onNext(saveJameson);
+        changes.onNext(saveTony);
+        assertEquals(Arrays.asList(saveJameson, saveTony), startedChanges);
+        assertTrue(storedAttempts().isEmpty());
+
+        complete(saveJameson);
+        assertTrue(storedAttempts().isEmpty());
+
+        publications.get(saveTony.changeId()).onError(new RuntimeException("Network unavailable."));
+        final List<OutboundMutationAttempt> storedAttempts = storedAttempts();
+        assertEquals(1, storedAttempts.size());
+        assertEquals(saveTony.changeId().toString(), storedAttempts.get(0).getId());
+        assertEquals(1, storedAttempts.get(0).getAttempts());
+    }
+
+    /**
+     * A change which fails on every attempt is dead-lettered, after which
+     * the later changes to the same model are published.
+     */
+    @Test
+    public void changeIsDeadLetteredAfterMaxAttempts() {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson").build();
+        final StorageItemChange<BlogOwner> firstJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> secondJameson = saveOf(jameson);
+
+        changes.onNext(firstJameson);
+        changes.onNext(secondJameson);
+        for (int attempt = 1; attempt <= OutboundMutationAttempts.MAX_ATTEMPTS; attempt++) {
+            assertEquals(Collections.nCopies(attempt, firstJameson), startedChanges);
+            publications.get(firstJameson.changeId()).onError(new RuntimeException("Invalid change."));
+            scheduler.advanceTimeBy(OutboundMutationAttempts.MAX_BACKOFF_MS, TimeUnit.MILLISECONDS);
+        }
+
+        complete(secondJameson);
+        publishedChanges.assertValues(secondJameson);
+        final List<DeadLetterMutation> deadLetters = new ArrayList<>();
+        storageAdapter.stream(DeadLetterMutation.class, null, null).blockingForEach(deadLetters::add);
+        assertEquals(1, deadLetters.size());
+        assertEquals(firstJameson.changeId().toString(), deadLetters.get(0).getId());
+        assertEquals(OutboundMutationAttempts.MAX_ATTEMPTS, deadLetters.get(0).getAttempts());
+    }
+
+    /**
+     * Once a backlog builds up, changes to different models are published together,
+     * in batches. A change which is not published as part of its batch holds back
+     * the later changes to its model, while the rest of the batch is published.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Counts of changes
+    @Test
+    public void backlogIsPublishedInBatches() {
+        final List<StorageItemChange<BlogOwner>> saves = new ArrayList<>();
+        for (String name : Arrays.asList("Jameson", "Tony", "Susan", "Dave", "Jane", "Sam")) {
+            saves.add(saveOf(BlogOwner.builder().name(name).build()));
+        }
+        for (StorageItemChange<BlogOwner> save : saves) {
+            changes.onNext(save);
+        }
+
+        // While the backlog was still small, changes were published one at a time.
+        assertEquals(Arrays.asList(saves.get(0)), startedBatches.get(0));
+        assertEquals(Arrays.asList(saves.get(1)), startedBatches.get(1));
+        assertEquals(4, pipeline.queueDepth());
+
+        // Now, three of the four waiting changes are published in a single request.
+        complete(saves.get(0));
+        assertEquals(Arrays.asList(saves.get(2), saves.get(3), saves.get(4)), startedBatches.get(2));
+        assertEquals(1, pipeline.queueDepth());
+
+        // The batch publishes Susan and Jane, but not Dave.
+        final PublishSubject<StorageItemChange<? extends Model>> batch = publications.get(saves.get(2).changeId());
+        batch.onNext(saves.get(2));
+        batch.onNext(saves.get(4));
+        batch.onComplete();
+        changes.onNext(saveOf(saves.get(3).item()));
+
+        // Sam is published alone, while Dave waits for its next attempt, with the later change behind it.
+        assertEquals(Arrays.asList(saves.get(5)), startedBatches.get(3));
+        assertEquals(4, startedBatches.size());
+        assertEquals(2, pipeline.queueDepth());
+        publishedChanges.assertValues(saves.get(0), saves.get(2), saves.get(4));
+    }
+
+    /**
+     * A change which is superseded by a later change to the same model, while it waits behind
+     * the change in flight, is dropped when it comes up, and only the later change is published.
+     */
+    @Test
+    public void changeSupersededWhileQueuedIsNotPublished() {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson").build();
+        final StorageItemChange<BlogOwner> firstJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> secondJameson = saveOf(jameson);
+        final StorageItemChange<BlogOwner> thirdJameson = saveOf(jameson);
+
+        changes.onNext(journal.enqueue(firstJameson).blockingGet());
+        changes.onNext(journal.enqueue(secondJameson).blockingGet());
+        assertEquals(1, pipeline.queueDepth());
+
+        // The third change is folded over the second, which has been handed to the pipeline already.
+        changes.onNext(journal.enqueue(thirdJameson).blockingGet());
+        complete(firstJameson);
+        assertEquals(Arrays.asList(firstJameson, thirdJameson), startedChanges);
+        assertEquals(0, pipeline.queueDepth());
+
+        complete(thirdJameson);
+        publishedChanges.assertValues(firstJameson, thirdJameson);
+    }
+
+    private List<OutboundMutationAttempt> storedAttempts() {
+        final List<OutboundMutationAttempt> storedAttempts = new ArrayList<>();
+        storageAdapter.stream(OutboundMutationAttempt.class, null, null).blockingForEach(storedAttempts::add);
+        return storedAttempts;
+    }
+
+    private PublishSubject<StorageItemChange<? extends Model>> startPublication(
+            List<StorageItemChange<? extends Model>> batch) {
+        final PublishSubject<StorageItemChange<? extends Model>> publication = PublishSubject.create();
+        for (StorageItemChange<? extends Model> change : batch) {
+            publications.put(change.changeId(), publication);
+        }
+        startedChanges.addAll(batch);
+        startedBatches.add(batch);
+        return publication;
+    }
+
+    private void complete(StorageItemChange<? extends Model> change) {
+        final PublishSubject<StorageItemChange<? extends Model>> publication = publications.get(change.changeId());
+        publication.onNext(change);
+        publication.onComplete();
+    }
+
+    private static StorageItemChange<BlogOwner> saveOf(BlogOwner blogOwner) {
+        return StorageItemChange.<BlogOwner>builder()
+            .type(StorageItemChange.Type.SAVE)
+            .itemClass(BlogOwner.class)
+            .item(blogOwner)
+            .initiator(StorageItemChange.Initiator.DATA_STORE_API)
+            .build();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import com.amplifyframework.core.model.query.predicate.QueryPredicateOperation;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.testmodels.commentsblog.Blog;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testmodels.commentsblog.Post;
+import com.amplifyframework.testmodels.commentsblog.PostStatus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link QueryPredicateEvaluator}.
+ */
+@SuppressWarnings("checkstyle:MagicNumber") // Arbitrary ratings
+public final class QueryPredicateEvaluatorTest {
+    private static final BlogOwner OWNER = BlogOwner.builder()
+        .name("Jameson Williams")
+        .build();
+    private static final Blog BLOG = Blog.builder()
+        .name("Jameson's Blog")
+        .owner(OWNER)
+        .build();
+    private static final Post POST = Post.builder()
+        .title("Predicates on the device")
+        .status(PostStatus.ACTIVE)
+        .rating(4)
+        .blog(BLOG)
+        .build();
+
+    /**
+     * Field values are compared to the values in the predicate, by the operator of the predicate.
+     * @throws DataStoreException Not expected, since the predicates fit the model
+     */
+    @Test
+    public void operationsCompareFieldValues() throws DataStoreException {
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.RATING.gt(3)));
+        assertFalse(QueryPredicateEvaluator.matches(POST, Post.RATING.lt(4)));
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.RATING.between(4, 5)));
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.TITLE.beginsWith("Predicates")));
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.TITLE.contains("device")));
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.STATUS.eq(PostStatus.ACTIVE)));
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.STATUS.eq("ACTIVE")));
+        assertFalse(QueryPredicateEvaluator.matches(POST, Post.STATUS.ne(PostStatus.ACTIVE)));
+    }
+
+    /**
+     * The target name of a model which a model belongs to is matched by the ID of that model.
+     * @throws DataStoreException Not expected, since the predicate fits the model
+     */
+    @Test
+    public void targetNameIsMatchedByIdOfAssociatedModel() throws DataStoreException {
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.BLOG.eq(BLOG.getId())));
+        assertFalse(QueryPredicateEvaluator.matches(POST, Post.BLOG.eq(OWNER.getId())));
+    }
+
+    /**
+     * Groups of predicates combine the results of their members.
+     * @throws DataStoreException Not expected, since the predicates fit the model
+     */
+    @Test
+    public void groupsCombineTheirMembers() throws DataStoreException {
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.RATING.gt(3).and(Post.TITLE.contains("device"))));
+        assertFalse(QueryPredicateEvaluator.matches(POST, Post.RATING.gt(4).and(Post.TITLE.contains("device"))));
+        assertTrue(QueryPredicateEvaluator.matches(POST, Post.RATING.gt(4).or(Post.TITLE.contains("device"))));
+        assertFalse(QueryPredicateEvaluator.matches(POST, QueryPredicateOperation.not(Post.RATING.gt(3))));
+    }
+
+    /**
+     * A value which can not be compared to the field is rejected.
+     * @throws DataStoreException Expected, since a number can not be compared to text
+     */
+    @Test(expected = DataStoreException.class)
+    public void incomparableValueIsRejected() throws DataStoreException {
+        QueryPredicateEvaluator.matches(POST, Post.RATING.gt("three"));
+    }
+}
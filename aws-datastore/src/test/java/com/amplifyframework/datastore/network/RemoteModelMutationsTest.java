@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import com.amplifyframework.api.graphql.SubscriptionListener;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelProvider;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testmodels.commentsblog.Post;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.disposables.Disposable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link RemoteModelMutations}.
+ */
+public final class RemoteModelMutationsTest {
+    // Three subscriptions, to creations, updates and deletions, for each of two models
+    private static final int SUBSCRIPTION_COUNT = 6;
+    private static final long OPERATIONS_TIMEOUT_MS = 5_000L;
+    // How long a subscription waits for the others to be requested, before it is established anyway
+    private static final long ESTABLISHMENT_WAIT_MS = 100L;
+
+    private AppSyncEndpoint endpoint;
+    private ModelProvider modelProvider;
+    private Cancelable cancelable;
+    // Counted down as each subscription is requested from the endpoint
+    private CountDownLatch subscriptionsRequested;
+    // Number of subscriptions being established right now, and the most there have been at once
+    private int inFlightCount;
+    private int maxInFlightCount;
+
+    /**
+     * Sets up an endpoint which keeps track of how many subscriptions are being
+     * established at the same time.
+     */
+    @Before
+    public void setup() {
+        endpoint = mock(AppSyncEndpoint.class);
+        modelProvider = mock(ModelProvider.class);
+        cancelable = mock(Cancelable.class);
+        subscriptionsRequested = new CountDownLatch(SUBSCRIPTION_COUNT);
+        when(modelProvider.models())
+            .thenReturn(new HashSet<Class<? extends Model>>(Arrays.asList(BlogOwner.class, Post.class)));
+        when(endpoint.onCreate(any(), any())).thenAnswer(invocation -> establish(invocation.getArgument(1)));
+        when(endpoint.onUpdate(any(), any())).thenAnswer(invocation -> establish(invocation.getArgument(1)));
+        when(endpoint.onDelete(any(), any())).thenAnswer(invocation -> establish(invocation.getArgument(1)));
+    }
+
+    /**
+     * In concurrent mode, a subscription is requested without waiting for the
+     * ones before it to be established. All of them are ended on disposal.
+     * @throws InterruptedException If the test is interrupted while waiting for the subscriptions
+     */
+    @Test
+    public void subscriptionsAreEstablishedConcurrently() throws InterruptedException {
+        final RemoteModelMutations remoteModelMutations =
+            new RemoteModelMutations(endpoint, modelProvider, SyncEngine.SubscriptionMode.CONCURRENT);
+        final CountDownLatch established = new CountDownLatch(1);
+        final Disposable disposable = remoteModelMutations.observe(established::countDown, () -> { }).subscribe();
+
+        assertTrue(established.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(SUBSCRIPTION_COUNT, maxInFlightCount());
+
+        disposable.dispose();
+        verify(cancelable, times(SUBSCRIPTION_COUNT)).cancel();
+    }
+
+    /**
+     * In serial mode, a subscription is only requested once the one before it is established.
+     * @throws InterruptedException If the test is interrupted while waiting for the subscriptions
+     */
+    @Test
+    public void subscriptionsAreEstablishedOneAtATimeInSerialMode() throws InterruptedException {
+        final RemoteModelMutations remoteModelMutations =
+            new RemoteModelMutations(endpoint, modelProvider, SyncEngine.SubscriptionMode.SERIAL);
+        final CountDownLatch established = new CountDownLatch(1);
+        final Disposable disposable = remoteModelMutations.observe(established::countDown, () -> { }).subscribe();
+
+        assertTrue(established.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, maxInFlightCount());
+
+        disposable.dispose();
+        verify(cancelable, times(SUBSCRIPTION_COUNT)).cancel();
+    }
+
+    /**
+     * The mutations are only said to be observed once the service has acknowledged
+     * every one of the subscriptions, not as soon as they have been requested.
+     * @throws InterruptedException If the test is interrupted while waiting for the subscriptions
+     */
+    @Test
+    public void establishmentWaitsForEverySubscriptionToStart() throws InterruptedException {
+        final List<SubscriptionListener<?>> listeners = new ArrayList<>();
+        final CountDownLatch requested = new CountDownLatch(SUBSCRIPTION_COUNT);
+        // Requested subscriptions are only acknowledged when the test says so.
+        final Answer<Cancelable> hold = invocation -> {
+            synchronized (listeners) {
+                listeners.add(invocation.getArgument(1));
+            }
+            requested.countDown();
+            return cancelable;
+        };
+        doAnswer(hold).when(endpoint).onCreate(any(), any());
+        doAnswer(hold).when(endpoint).onUpdate(any(), any());
+        doAnswer(hold).when(endpoint).onDelete(any(), any());
+        final RemoteModelMutations remoteModelMutations =
+            new RemoteModelMutations(endpoint, modelProvider, SyncEngine.SubscriptionMode.CONCURRENT);
+        final CountDownLatch established = new CountDownLatch(1);
+        final Disposable disposable = remoteModelMutations.observe(established::countDown, () -> { }).subscribe();
+
+        assertTrue(requested.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        final List<SubscriptionListener<?>> requestedListeners;
+        synchronized (listeners) {
+            requestedListeners = new ArrayList<>(listeners);
+        }
+        for (SubscriptionListener<?> listener : requestedListeners.subList(1, SUBSCRIPTION_COUNT)) {
+            listener.onStarted();
+        }
+        assertFalse(established.await(ESTABLISHMENT_WAIT_MS, TimeUnit.MILLISECONDS));
+
+        requestedListeners.get(0).onStarted();
+        assertTrue(established.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        disposable.dispose();
+    }
+
+    // Requests a subscription, which is acknowledged once all of them have been requested, or
+    // after a short wait, whichever comes first. Subscriptions which are requested concurrently
+    // end up all in flight.
+    private Cancelable establish(SubscriptionListener<?> listener) {
+        synchronized (this) {
+            inFlightCount++;
+            maxInFlightCount = Math.max(maxInFlightCount, inFlightCount);
+        }
+        subscriptionsRequested.countDown();
+        new Thread(() -> {
+            try {
+                subscriptionsRequested.await(ESTABLISHMENT_WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                inFlightCount--;
+            }
+            listener.onStarted();
+        }).start();
+        return cancelable;
+    }
+
+    private synchronized int maxInFlightCount() {
+        return maxInFlightCount;
+    }
+}
@@ -191,4 +191,90 @@ public class StorageItemChangeJournalTest {
 
         assertEquals(0, inMemoryStorageAdapter.items().size());
     }
+
+    /**
+     * A save of a model which already has a pending save in the journal supersedes
+     * the pending save. Only the later save stays in the journal, and is published.
+     */
+    @Test
+    public void enqueueFoldsSaveIntoPendingSave() {
+        final BlogOwner tony = BlogOwner.builder()
+            .name("Tony Daniels")
+            .build();
+        StorageItemChange<BlogOwner> createTony = saveOf(tony);
+        StorageItemChange<BlogOwner> renameTony = saveOf(tony.copyOfBuilder()
+            .name("Anthony Daniels")
+            .build());
+
+        storageItemChangeJournal.enqueue(createTony).test().assertValue(createTony);
+        storageItemChangeJournal.enqueue(renameTony).test().assertValue(renameTony);
+
+        assertEquals(1, inMemoryStorageAdapter.items().size());
+        assertEquals(renameTony.toRecord(storageItemChangeConverter), inMemoryStorageAdapter.items().get(0));
+
+        TestObserver<StorageItemChange<?>> testObserver = TestObserver.create();
+        storageItemChangeJournal.observe().subscribe(testObserver);
+        testObserver.awaitCount(1);
+        testObserver.assertValue(renameTony);
+    }
+
+    /**
+     * A delete of a model which has a pending save in the journal supersedes the save.
+     * A save that follows the delete does not supersede it, since it re-creates the model.
+     */
+    @Test
+    public void enqueueFoldsDeleteIntoPendingSaveButNotSaveIntoDelete() {
+        final BlogOwner betty = BlogOwner.builder()
+            .name("Betty Smith")
+            .build();
+        StorageItemChange<BlogOwner> createBetty = saveOf(betty);
+        StorageItemChange<BlogOwner> deleteBetty = StorageItemChange.<BlogOwner>builder()
+            .type(StorageItemChange.Type.DELETE)
+            .itemClass(BlogOwner.class)
+            .item(betty)
+            .initiator(StorageItemChange.Initiator.DATA_STORE_API)
+            .build();
+        StorageItemChange<BlogOwner> recreateBetty = saveOf(betty);
+
+        storageItemChangeJournal.enqueue(createBetty).test().assertValue(createBetty);
+        storageItemChangeJournal.enqueue(deleteBetty).test().assertValue(deleteBetty);
+        storageItemChangeJournal.enqueue(recreateBetty).test().assertValue(recreateBetty);
+
+        TestObserver<StorageItemChange<?>> testObserver = TestObserver.create();
+        storageItemChangeJournal.observe().subscribe(testObserver);
+        testObserver.awaitCount(2);
+        testObserver.assertValues(deleteBetty, recreateBetty);
+    }
+
+    /**
+     * Changes which were left in the journal by an earlier session are
+     * compacted before they are replayed.
+     */
+    @Test
+    public void observeCompactsUnprocessedChangesBeforeReplay() {
+        final BlogOwner sam = BlogOwner.builder()
+            .name("Sam Watson")
+            .build();
+        StorageItemChange<BlogOwner> createSam = saveOf(sam);
+        StorageItemChange<BlogOwner> renameSam = saveOf(sam.copyOfBuilder()
+            .name("Samuel Watson")
+            .build());
+        inMemoryStorageAdapter.items().add(createSam.toRecord(storageItemChangeConverter));
+        inMemoryStorageAdapter.items().add(renameSam.toRecord(storageItemChangeConverter));
+
+        TestObserver<StorageItemChange<?>> testObserver = TestObserver.create();
+        storageItemChangeJournal.observe().subscribe(testObserver);
+        testObserver.awaitCount(1);
+        testObserver.assertValue(renameSam);
+        assertEquals(1, inMemoryStorageAdapter.items().size());
+    }
+
+    private static StorageItemChange<BlogOwner> saveOf(BlogOwner blogOwner) {
+        return StorageItemChange.<BlogOwner>builder()
+            .type(StorageItemChange.Type.SAVE)
+            .itemClass(BlogOwner.class)
+            .item(blogOwner)
+            .initiator(StorageItemChange.Initiator.DATA_STORE_API)
+            .build();
+    }
 }
@@ -17,27 +17,53 @@ package com.amplifyframework.datastore.network;
 
 import android.os.Build;
 
+import com.amplifyframework.api.graphql.GraphQLResponse;
 import com.amplifyframework.api.graphql.MutationType;
+import com.amplifyframework.api.graphql.SubscriptionListener;
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.StreamListener;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelProvider;
+import com.amplifyframework.core.reachability.Host;
+import com.amplifyframework.core.reachability.Reachability;
+import com.amplifyframework.datastore.storage.GsonStorageItemChangeConverter;
 import com.amplifyframework.datastore.storage.InMemoryStorageAdapter;
 import com.amplifyframework.datastore.storage.LocalStorageAdapter;
 import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.testmodels.commentsblog.Blog;
 import com.amplifyframework.testmodels.commentsblog.BlogOwner;
 import com.amplifyframework.testutils.LatchedResultListener;
+import com.amplifyframework.testutils.Sleep;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowLog;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import io.reactivex.observers.TestObserver;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests the {@link SyncEngine}.
@@ -47,6 +73,8 @@ import static org.mockito.Mockito.mock;
 public class SyncEngineTest {
     // A "reasonable" amount of time our test(s) will wait for async operations to complete
     private static final long OPERATIONS_TIMEOUT_MS = 5_000L /* ms */;
+    // How often a test checks for a state that the engine reaches asynchronously
+    private static final long POLL_INTERVAL_MS = 50L;
 
     /**
      * When an item is placed into storage, a cascade of
@@ -58,9 +86,9 @@ public class SyncEngineTest {
     @Test
     public void itemsPlacedInStorageArePublishedToNetwork() throws InterruptedException {
         ShadowLog.stream = System.out;
-        AppSyncEndpoint endpoint = mock(AppSyncEndpoint.class);
+        AppSyncEndpoint endpoint = mockEndpoint();
         LocalStorageAdapter localStorageAdapter = InMemoryStorageAdapter.create();
-        ModelProvider modelProvider = mock(ModelProvider.class);
+        ModelProvider modelProvider = modelProviderOf(BlogOwner.class);
         SyncEngine syncEngine = new SyncEngine(modelProvider, localStorageAdapter, endpoint);
 
         // Arrange: storage engine is running
@@ -86,4 +114,385 @@ public class SyncEngineTest {
         // Wait for the mock network callback to occur on the IO scheduler ...
         assertTrue(apiInvoked.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
     }
+
+    /**
+     * While the host of the API is unreachable, local changes are not published.
+     * Once the host becomes reachable, they are published right away.
+     * @throws InterruptedException If the test is interrupted while waiting for the engine
+     */
+    @Test
+    public void changesArePublishedOnceApiHostIsReachable() throws InterruptedException {
+        AppSyncEndpoint endpoint = mockEndpoint();
+        LocalStorageAdapter localStorageAdapter = InMemoryStorageAdapter.create();
+        ModelProvider modelProvider = modelProviderOf(BlogOwner.class);
+        Host apiHost = mock(Host.class);
+        Reachability reachability = mock(Reachability.class);
+        when(reachability.isReachable(apiHost)).thenReturn(false);
+        AtomicReference<Reachability.OnHostReachableAction> resumption = new AtomicReference<>();
+        CountDownLatch paused = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            resumption.set(invocation.getArgument(1));
+            paused.countDown();
+            return mock(Cancelable.class);
+        }).when(reachability).whenReachable(any(), any());
+        CountDownLatch apiInvoked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            apiInvoked.countDown();
+            return null;
+        }).when(endpoint).create(any(), any());
+        SyncEngine syncEngine = new SyncEngine(modelProvider, localStorageAdapter, endpoint,
+            SyncEngine.DEFAULT_MAX_CONCURRENT_MUTATIONS, reachability, apiHost);
+
+        // Arrange: the engine is started while the API host is unreachable.
+        syncEngine.start();
+        assertTrue(paused.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // Act: save a BlogOwner while offline. It is journaled, but not published.
+        LatchedResultListener<StorageItemChange.Record> listener =
+            LatchedResultListener.waitFor(OPERATIONS_TIMEOUT_MS);
+        localStorageAdapter.save(BlogOwner.builder().name("Susan Quimby").build(),
+            StorageItemChange.Initiator.DATA_STORE_API, listener);
+        listener.awaitResult();
+        verify(endpoint, never()).create(any(), any());
+
+        // Act: the host becomes reachable, so the journal is drained.
+        when(reachability.isReachable(apiHost)).thenReturn(true);
+        resumption.get().onHostReachable(apiHost);
+        assertTrue(apiInvoked.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        syncEngine.stop();
+    }
+
+    /**
+     * A change to a model which has been synced before is published as an
+     * update, based on the version of the model which was last synced.
+     * @throws InterruptedException If the test is interrupted while waiting for the engine
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary version
+    @Test
+    public void changeToSyncedModelIsPublishedAsUpdateOfItsVersion() throws InterruptedException {
+        AppSyncEndpoint endpoint = mockEndpoint();
+        LocalStorageAdapter localStorageAdapter = InMemoryStorageAdapter.create();
+        SyncEngine syncEngine = new SyncEngine(modelProviderOf(BlogOwner.class), localStorageAdapter, endpoint);
+        final BlogOwner susan = BlogOwner.builder()
+            .name("Susan Quimby")
+            .build();
+        CountDownLatch updateInvoked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            updateInvoked.countDown();
+            return null;
+        }).when(endpoint).update(eq(susan), eq(3), any());
+
+        // Arrange: Susan was synced at version 3.
+        LatchedResultListener<StorageItemChange.Record> metadataListener =
+            LatchedResultListener.waitFor(OPERATIONS_TIMEOUT_MS);
+        localStorageAdapter.save(new ModelMetadata(susan.getId(), false, 3, 0L),
+            StorageItemChange.Initiator.SYNC_ENGINE, metadataListener);
+        metadataListener.awaitResult();
+        syncEngine.start();
+
+        // Act: Susan is saved locally.
+        LatchedResultListener<StorageItemChange.Record> listener =
+            LatchedResultListener.waitFor(OPERATIONS_TIMEOUT_MS);
+        localStorageAdapter.save(susan, StorageItemChange.Initiator.DATA_STORE_API, listener);
+        listener.awaitResult();
+
+        // Assert: the save is published as an update of version 3, rather than as a creation.
+        assertTrue(updateInvoked.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        verify(endpoint, never()).create(any(), any());
+        syncEngine.stop();
+    }
+
+    /**
+     * A remote change is not applied to the local storage if the local storage
+     * already has the version of the model that it is for, or a later one.
+     * @throws InterruptedException If the test is interrupted while waiting for the engine
+     */
+    @SuppressWarnings({"unchecked", "checkstyle:MagicNumber"}) // Mock listener types, arbitrary versions
+    @Test
+    public void remoteChangeOlderThanLocalVersionIsSkipped() throws InterruptedException {
+        AppSyncEndpoint endpoint = mockEndpoint();
+        LocalStorageAdapter localStorageAdapter = InMemoryStorageAdapter.create();
+        ModelProvider modelProvider = modelProviderOf(BlogOwner.class);
+        List<StreamListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>>> updateListeners = new ArrayList<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            updateListeners.add(invocation.getArgument(1));
+            subscribed.countDown();
+            return started(invocation);
+        }).when(endpoint).onUpdate(eq(BlogOwner.class), any());
+        SyncEngine syncEngine = new SyncEngine(modelProvider, localStorageAdapter, endpoint);
+        syncEngine.start();
+        assertTrue(subscribed.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        final BlogOwner susan = BlogOwner.builder().name("Susan Quimby").build();
+        final BlogOwner staleSusan = susan.copyOfBuilder().name("Susan B. Quimby").build();
+        final BlogOwner latestSusan = susan.copyOfBuilder().name("Susan C. Quimby").build();
+        TestObserver<StorageItemChange.Record> latestSaved = localStorageAdapter.observe()
+            .filter(record -> record.getEntry().contains(latestSusan.getName()))
+            .test();
+
+        // Act: version 2 arrives, then version 1, and then version 3.
+        StreamListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>> updates = updateListeners.get(0);
+        updates.onNext(updateOf(susan, 2));
+        updates.onNext(updateOf(staleSusan, 1));
+        updates.onNext(updateOf(latestSusan, 3));
+        latestSaved.awaitCount(1);
+
+        // Assert: version 1 was never written to the local storage.
+        List<String> names = new ArrayList<>();
+        localStorageAdapter.stream(BlogOwner.class, null, null)
+            .blockingForEach(owner -> names.add(owner.getName()));
+        assertEquals(2, names.size());
+        assertEquals(susan.getName(), names.get(0));
+        assertEquals(latestSusan.getName(), names.get(1));
+        syncEngine.stop();
+    }
+
+    /**
+     * The echo of a local change, which comes back through the subscriptions while the
+     * change is still being published, is not written to the local storage a second time.
+     * @throws InterruptedException If the test is interrupted while waiting for the engine
+     */
+    @SuppressWarnings("unchecked") // Mock listener types
+    @Test
+    public void echoOfChangeInFlightIsNotWrittenAgain() throws InterruptedException {
+        AppSyncEndpoint endpoint = mockEndpoint();
+        LocalStorageAdapter localStorageAdapter = InMemoryStorageAdapter.create();
+        ModelProvider modelProvider = modelProviderOf(BlogOwner.class);
+        List<StreamListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>>> createListeners = new ArrayList<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            createListeners.add(invocation.getArgument(1));
+            subscribed.countDown();
+            return started(invocation);
+        }).when(endpoint).onCreate(eq(BlogOwner.class), any());
+        List<ResultListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>>> createResponders = new ArrayList<>();
+        CountDownLatch createInvoked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            createResponders.add(invocation.getArgument(1));
+            createInvoked.countDown();
+            return null;
+        }).when(endpoint).create(any(), any());
+        SyncEngine syncEngine = new SyncEngine(modelProvider, localStorageAdapter, endpoint);
+        GsonStorageItemChangeConverter converter = new GsonStorageItemChangeConverter();
+        TestObserver<StorageItemChange<? extends Model>> remoteWrites = localStorageAdapter.observe()
+            .<StorageItemChange<? extends Model>>map(record -> record.toStorageItemChange(converter))
+            .filter(change -> StorageItemChange.Initiator.SYNC_ENGINE.equals(change.initiator()))
+            .filter(change -> BlogOwner.class.equals(change.itemClass()))
+            .test();
+        syncEngine.start();
+        assertTrue(subscribed.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // Arrange: Susan is saved locally, and is being published.
+        final BlogOwner susan = BlogOwner.builder().name("Susan Quimby").build();
+        LatchedResultListener<StorageItemChange.Record> listener =
+            LatchedResultListener.waitFor(OPERATIONS_TIMEOUT_MS);
+        localStorageAdapter.save(susan, StorageItemChange.Initiator.DATA_STORE_API, listener);
+        listener.awaitResult();
+        assertTrue(createInvoked.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // Act: the echo of Susan arrives before the response to her creation,
+        // followed by a remote creation of Tony.
+        final BlogOwner tony = BlogOwner.builder().name("Tony Daniels").build();
+        StreamListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>> creations = createListeners.get(0);
+        creations.onNext(updateOf(susan, 1));
+        creations.onNext(updateOf(tony, 1));
+        remoteWrites.awaitCount(1);
+        createResponders.get(0).onResult(updateOf(susan, 1));
+
+        // Assert: only Tony was written by the sync engine.
+        remoteWrites.assertValueCount(1);
+        assertEquals(tony, remoteWrites.values().get(0).item());
+        syncEngine.stop();
+    }
+
+    /**
+     * A remote update to a model, which arrives after a local change to it was saved but before the
+     * change has been published, does not overwrite the local change. Once the local change has been
+     * published, the model that the API responded with is written to the local storage.
+     * @throws InterruptedException If the test is interrupted while waiting for the engine
+     */
+    @SuppressWarnings({"unchecked", "checkstyle:MagicNumber"}) // Mock listener types, arbitrary versions
+    @Test
+    public void remoteUpdateDoesNotOverwriteUnpublishedChange() throws InterruptedException {
+        AppSyncEndpoint endpoint = mockEndpoint();
+        LocalStorageAdapter localStorageAdapter = InMemoryStorageAdapter.create();
+        List<StreamListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>>> updateListeners = new ArrayList<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            updateListeners.add(invocation.getArgument(1));
+            subscribed.countDown();
+            return started(invocation);
+        }).when(endpoint).onUpdate(eq(BlogOwner.class), any());
+        List<ResultListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>>> updateResponders = new ArrayList<>();
+        CountDownLatch updateInvoked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            updateResponders.add(invocation.getArgument(2));
+            updateInvoked.countDown();
+            return null;
+        }).when(endpoint).update(any(), eq(1), any());
+        SyncEngine syncEngine = new SyncEngine(modelProviderOf(BlogOwner.class), localStorageAdapter, endpoint);
+        GsonStorageItemChangeConverter converter = new GsonStorageItemChangeConverter();
+        TestObserver<StorageItemChange<? extends Model>> remoteWrites = localStorageAdapter.observe()
+            .<StorageItemChange<? extends Model>>map(record -> record.toStorageItemChange(converter))
+            .filter(change -> StorageItemChange.Initiator.SYNC_ENGINE.equals(change.initiator()))
+            .filter(change -> BlogOwner.class.equals(change.itemClass()) ||
+                ModelMetadata.class.equals(change.itemClass()))
+            .test();
+
+        // Arrange: Susan was synced at version 1, and is then renamed locally, which is being published.
+        final BlogOwner susan = BlogOwner.builder().name("Susan Quimby").build();
+        LatchedResultListener<StorageItemChange.Record> metadataListener =
+            LatchedResultListener.waitFor(OPERATIONS_TIMEOUT_MS);
+        localStorageAdapter.save(new ModelMetadata(susan.getId(), false, 1, 0L),
+            StorageItemChange.Initiator.SYNC_ENGINE, metadataListener);
+        metadataListener.awaitResult();
+        syncEngine.start();
+        assertTrue(subscribed.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        final BlogOwner localSusan = susan.copyOfBuilder().name("Susan L. Quimby").build();
+        LatchedResultListener<StorageItemChange.Record> listener =
+            LatchedResultListener.waitFor(OPERATIONS_TIMEOUT_MS);
+        localStorageAdapter.save(localSusan, StorageItemChange.Initiator.DATA_STORE_API, listener);
+        listener.awaitResult();
+        assertTrue(updateInvoked.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // Act: another client's rename arrives, and then the response to the local rename,
+        // in which the API has merged the two.
+        final BlogOwner remoteSusan = susan.copyOfBuilder().name("Susan R. Quimby").build();
+        final BlogOwner mergedSusan = susan.copyOfBuilder().name("Susan L. R. Quimby").build();
+        updateListeners.get(0).onNext(updateOf(remoteSusan, 2));
+        remoteWrites.awaitCount(2); // The metadata which is saved before the engine starts, and version 2
+        updateResponders.get(0).onResult(updateOf(mergedSusan, 3));
+        remoteWrites.awaitCount(4);
+
+        // Assert: the remote rename only had its version kept, and the merged model was written.
+        List<Model> written = new ArrayList<>();
+        for (StorageItemChange<? extends Model> change : remoteWrites.values()) {
+            written.add(change.item());
+        }
+        assertEquals(Arrays.asList(
+            new ModelMetadata(susan.getId(), false, 1, 0L),
+            new ModelMetadata(susan.getId(), false, 2, 0L),
+            mergedSusan,
+            new ModelMetadata(susan.getId(), false, 3, 0L)
+        ), written);
+        syncEngine.stop();
+    }
+
+    /**
+     * The changes which were made while the connection of the subscriptions was down are
+     * not received over them, so the local storage is synced again once they have resumed.
+     * @throws InterruptedException If the test is interrupted while waiting for the engine
+     */
+    @SuppressWarnings("unchecked") // Mock listener types
+    @Test
+    public void localStorageIsSyncedAgainOnceSubscriptionsResume() throws InterruptedException {
+        AppSyncEndpoint endpoint = mockEndpoint();
+        List<SubscriptionListener<GraphQLResponse<ModelWithMetadata<BlogOwner>>>> updateListeners =
+            new ArrayList<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            updateListeners.add(invocation.getArgument(1));
+            subscribed.countDown();
+            return started(invocation);
+        }).when(endpoint).onUpdate(eq(BlogOwner.class), any());
+        SyncEngine syncEngine =
+            new SyncEngine(modelProviderOf(BlogOwner.class), InMemoryStorageAdapter.create(), endpoint);
+        syncEngine.start();
+        assertTrue(subscribed.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        verify(endpoint, timeout(OPERATIONS_TIMEOUT_MS).times(1)).sync(eq(BlogOwner.class), any(), any(), any());
+
+        updateListeners.get(0).onResumed();
+        verify(endpoint, timeout(OPERATIONS_TIMEOUT_MS).times(2)).sync(eq(BlogOwner.class), any(), any(), any());
+        syncEngine.stop();
+    }
+
+    /**
+     * Once the engine has established its subscriptions and hydrated the local storage,
+     * it reports how long that took.
+     */
+    @Test
+    public void startupLatencyIsReportedOnceLive() {
+        SyncEngine syncEngine = new SyncEngine(
+            mock(ModelProvider.class), InMemoryStorageAdapter.create(), mock(AppSyncEndpoint.class));
+        assertEquals(-1, syncEngine.getStartupLatencyMs());
+
+        syncEngine.start();
+        long deadline = System.currentTimeMillis() + OPERATIONS_TIMEOUT_MS;
+        while (syncEngine.getStartupLatencyMs() < 0 && System.currentTimeMillis() < deadline) {
+            Sleep.milliseconds(POLL_INTERVAL_MS);
+        }
+        assertTrue(syncEngine.getStartupLatencyMs() >= 0);
+        syncEngine.stop();
+    }
+
+    /**
+     * Local changes to a model whose data is not synced are not published.
+     * @throws InterruptedException If the test is interrupted while waiting for the engine
+     */
+    @Test
+    public void changesToModelWhichIsNotSyncedAreNotPublished() throws InterruptedException {
+        AppSyncEndpoint endpoint = mockEndpoint();
+        LocalStorageAdapter localStorageAdapter = InMemoryStorageAdapter.create();
+        SyncEngine syncEngine = new SyncEngine(modelProviderOf(Blog.class), localStorageAdapter, endpoint);
+        CountDownLatch createInvoked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            createInvoked.countDown();
+            return null;
+        }).when(endpoint).create(any(), any());
+        syncEngine.start();
+
+        // Act: a BlogOwner, which is not synced, is saved, and then a Blog, which is.
+        final BlogOwner susan = BlogOwner.builder().name("Susan Quimby").build();
+        final Blog blog = Blog.builder().name("Susan's Blog").owner(susan).build();
+        for (Model model : Arrays.asList(susan, blog)) {
+            LatchedResultListener<StorageItemChange.Record> listener =
+                LatchedResultListener.waitFor(OPERATIONS_TIMEOUT_MS);
+            localStorageAdapter.save(model, StorageItemChange.Initiator.DATA_STORE_API, listener);
+            listener.awaitResult();
+        }
+
+        // Assert: only the Blog is published.
+        assertTrue(createInvoked.await(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        verify(endpoint).create(eq(blog), any());
+        verify(endpoint, never()).create(eq(susan), any());
+        syncEngine.stop();
+    }
+
+    // Provides the models whose data is synced.
+    @SafeVarargs
+    private static ModelProvider modelProviderOf(Class<? extends Model>... modelClasses) {
+        ModelProvider modelProvider = mock(ModelProvider.class);
+        when(modelProvider.models()).thenReturn(new HashSet<>(Arrays.asList(modelClasses)));
+        return modelProvider;
+    }
+
+    // An endpoint whose subscriptions start right away, and can be ended, and whose sync queries
+    // fail right away, so that local changes are published without waiting for hydration.
+    @SuppressWarnings("checkstyle:MagicNumber") // Position of the listener argument
+    private static AppSyncEndpoint mockEndpoint() {
+        AppSyncEndpoint endpoint = mock(AppSyncEndpoint.class);
+        when(endpoint.onCreate(any(), any())).thenAnswer(SyncEngineTest::started);
+        when(endpoint.onUpdate(any(), any())).thenAnswer(SyncEngineTest::started);
+        when(endpoint.onDelete(any(), any())).thenAnswer(SyncEngineTest::started);
+        doAnswer(invocation -> {
+            ResultListener<?> syncListener = invocation.getArgument(3);
+            syncListener.onError(new RuntimeException("Sync is not available."));
+            return mock(Cancelable.class);
+        }).when(endpoint).sync(any(), any(), any(), any());
+        return endpoint;
+    }
+
+    // Tells the listener of a requested subscription that it has started.
+    private static Cancelable started(InvocationOnMock invocation) {
+        invocation.<SubscriptionListener<?>>getArgument(1).onStarted();
+        return mock(Cancelable.class);
+    }
+
+    private static <T extends Model> GraphQLResponse<ModelWithMetadata<T>> updateOf(T model, int version) {
+        return new GraphQLResponse<>(
+            new ModelWithMetadata<>(model, new ModelMetadata(model.getId(), false, version, 0L)),
+            Collections.emptyList()
+        );
+    }
 }
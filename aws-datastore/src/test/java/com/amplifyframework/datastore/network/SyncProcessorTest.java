@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.network;
+
+import android.os.Build;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.core.ResultListener;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelProvider;
+import com.amplifyframework.datastore.storage.InMemoryStorageAdapter;
+import com.amplifyframework.datastore.storage.StorageItemChange;
+import com.amplifyframework.testmodels.commentsblog.Blog;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testmodels.commentsblog.Comment;
+import com.amplifyframework.testmodels.commentsblog.Post;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link SyncProcessor}.
+ */
+@SuppressWarnings("unchecked") // Mockito matchers of generic types
+@Config(sdk = Build.VERSION_CODES.P, manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class SyncProcessorTest {
+    // A "reasonable" amount of time our test(s) will wait for async operations to complete
+    private static final long OPERATIONS_TIMEOUT_MS = 5_000L /* ms */;
+    private static final long FIRST_SYNC_STARTED_AT = 1_000L;
+    private static final long SECOND_SYNC_STARTED_AT = 2_000L;
+
+    private AppSyncEndpoint endpoint;
+    private InMemoryStorageAdapter storageAdapter;
+    private StorageItemChangeJournal journal;
+    private SyncProcessor syncProcessor;
+    // Pages that the mock endpoint returns, by the token that requests them
+    private Map<String, SyncPage<BlogOwner>> pagesByToken;
+
+    /**
+     * Sets up a processor which syncs BlogOwners from a mock endpoint into memory.
+     */
+    @Before
+    public void setup() {
+        endpoint = mock(AppSyncEndpoint.class);
+        storageAdapter = InMemoryStorageAdapter.create();
+        final ModelProvider modelProvider = mock(ModelProvider.class);
+        when(modelProvider.models()).thenReturn(Collections.singleton(BlogOwner.class));
+        journal = new StorageItemChangeJournal(storageAdapter);
+        syncProcessor = new SyncProcessor(modelProvider, storageAdapter, endpoint, journal);
+        pagesByToken = new HashMap<>();
+        doAnswer(invocation -> {
+            final String nextToken = invocation.getArgument(2);
+            final ResultListener<GraphQLResponse<SyncPage<BlogOwner>>> listener = invocation.getArgument(3);
+            listener.onResult(new GraphQLResponse<>(pagesByToken.get(nextToken), Collections.emptyList()));
+            return null;
+        }).when(endpoint).sync(eq(BlogOwner.class), any(), any(), any(ResultListener.class));
+    }
+
+    /**
+     * A base sync follows the nextToken of each page, writing every page into
+     * local storage, and deleting models which were deleted remotely. The start time of
+     * the sync is kept, and the next sync only asks for the changes since that time.
+     */
+    @Test
+    public void baseSyncFollowsPagesAndNextSyncIsDelta() {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson").build();
+        final BlogOwner tony = BlogOwner.builder().name("Tony").build();
+        final BlogOwner susan = BlogOwner.builder().name("Susan").build();
+        storageAdapter.items().add(susan);
+        pagesByToken.put(null, new SyncPage<>(
+            Collections.singletonList(remote(jameson, false)), "page-2", FIRST_SYNC_STARTED_AT));
+        pagesByToken.put("page-2", new SyncPage<>(
+            Arrays.asList(remote(tony, false), remote(susan, true)), null, null));
+
+        assertTrue(syncProcessor.hydrate().blockingAwait(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        assertTrue(storageAdapter.items().contains(jameson));
+        assertTrue(storageAdapter.items().contains(tony));
+        assertFalse(storageAdapter.items().contains(susan));
+        assertTrue(storageAdapter.items().contains(
+            new LastSyncMetadata(BlogOwner.class.getSimpleName(), FIRST_SYNC_STARTED_AT)));
+        verify(endpoint).sync(eq(BlogOwner.class), isNull(), eq("page-2"), any(ResultListener.class));
+
+        // The next sync is a delta sync, since the time that the first one started.
+        pagesByToken.put(null, new SyncPage<>(Collections.emptyList(), null, SECOND_SYNC_STARTED_AT));
+        assertTrue(syncProcessor.hydrate().blockingAwait(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        verify(endpoint).sync(eq(BlogOwner.class), eq(FIRST_SYNC_STARTED_AT), isNull(), any(ResultListener.class));
+        assertTrue(storageAdapter.items().contains(
+            new LastSyncMetadata(BlogOwner.class.getSimpleName(), SECOND_SYNC_STARTED_AT)));
+    }
+
+    /**
+     * A model which has a local change that is yet to be published keeps it, rather than
+     * being overwritten by the synced version. The metadata of the synced version is kept,
+     * so that the local change is published on top of it.
+     */
+    @Test
+    public void syncedVersionDoesNotOverwriteLocalChange() {
+        final BlogOwner jameson = BlogOwner.builder().name("Jameson").build();
+        final BlogOwner remoteJameson = jameson.copyOfBuilder().name("Jameson Williams").build();
+        storageAdapter.items().add(jameson);
+        journal.enqueue(StorageItemChange.<BlogOwner>builder()
+            .type(StorageItemChange.Type.SAVE)
+            .itemClass(BlogOwner.class)
+            .item(jameson)
+            .initiator(StorageItemChange.Initiator.DATA_STORE_API)
+            .build()
+        ).blockingGet();
+        pagesByToken.put(null, new SyncPage<>(
+            Collections.singletonList(remote(remoteJameson, false)), null, FIRST_SYNC_STARTED_AT));
+
+        assertTrue(syncProcessor.hydrate().blockingAwait(OPERATIONS_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        assertTrue(storageAdapter.items().contains(jameson));
+        assertFalse(storageAdapter.items().contains(remoteJameson));
+        assertTrue(storageAdapter.items().contains(new ModelMetadata(jameson.getId(), false, 1, 0L)));
+    }
+
+    /**
+     * Models are synced after the models that they belong to.
+     * @throws AmplifyException On failure to read a model schema
+     */
+    @Test
+    public void modelsAreOrderedAfterTheModelsTheyBelongTo() throws AmplifyException {
+        final Set<Class<? extends Model>> modelClasses = new LinkedHashSet<>(
+            Arrays.asList(Comment.class, Post.class, Blog.class, BlogOwner.class));
+        assertEquals(
+            Arrays.asList(BlogOwner.class, Blog.class, Post.class, Comment.class),
+            SyncProcessor.inDependencyOrder(modelClasses)
+        );
+    }
+
+    private static ModelWithMetadata<BlogOwner> remote(BlogOwner blogOwner, boolean deleted) {
+        return new ModelWithMetadata<>(blogOwner, new ModelMetadata(blogOwner.getId(), deleted, 1, 0L));
+    }
+}
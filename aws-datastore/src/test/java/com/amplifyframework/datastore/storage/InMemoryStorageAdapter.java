@@ -22,12 +22,15 @@ import androidx.annotation.Nullable;
 import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.subjects.PublishSubject;
 
@@ -78,6 +81,29 @@ public final class InMemoryStorageAdapter implements LocalStorageAdapter {
         itemSaveListener.onResult(save);
     }
 
+    @SuppressWarnings("unchecked") // item.getClass() -> Class<?>, but type is T. So cast as Class<T> is OK.
+    @Override
+    public <T extends Model> void saveAll(
+            @NonNull final Collection<T> items,
+            @NonNull final StorageItemChange.Initiator initiator,
+            @NonNull final ResultListener<List<StorageItemChange.Record>> itemsSaveListener) {
+        List<StorageItemChange.Record> saves = new ArrayList<>();
+        for (T item : items) {
+            this.items.add(item);
+            saves.add(StorageItemChange.<T>builder()
+                .item(item)
+                .itemClass((Class<T>) item.getClass())
+                .type(StorageItemChange.Type.SAVE)
+                .initiator(initiator)
+                .build()
+                .toRecord(storageItemChangeConverter));
+        }
+        for (StorageItemChange.Record save : saves) {
+            changeRecordStream.onNext(save);
+        }
+        itemsSaveListener.onResult(saves);
+    }
+
     @Override
     public <T extends Model> void query(
             @NonNull final Class<T> itemClass,
@@ -86,11 +112,21 @@ public final class InMemoryStorageAdapter implements LocalStorageAdapter {
         query(itemClass, null, queryResultsListener);
     }
 
+    @Override
+    public <T extends Model> void query(
+            @NonNull final Class<T> itemClass,
+            @Nullable final QueryPredicate predicate,
+            @NonNull final ResultListener<Iterator<T>> queryResultsListener) {
+
+        query(itemClass, predicate, null, queryResultsListener);
+    }
+
     @SuppressWarnings("unchecked") // (T) item *is* checked, via isAssignableFrom().
     @Override
     public <T extends Model> void query(
             @NonNull final Class<T> itemClass,
             @Nullable final QueryPredicate predicate,
+            @Nullable final QueryOptions options,
             @NonNull final ResultListener<Iterator<T>> queryResultsListener) {
 
         List<T> result = new ArrayList<>();
@@ -102,28 +138,102 @@ public final class InMemoryStorageAdapter implements LocalStorageAdapter {
         queryResultsListener.onResult(result.iterator());
     }
 
+    @NonNull
+    @Override
+    public <T extends Model> Flowable<T> stream(
+            @NonNull final Class<T> itemClass,
+            @Nullable final QueryPredicate predicate,
+            @Nullable final QueryOptions options) {
+        return Flowable.fromIterable(items)
+            .filter(item -> itemClass.isAssignableFrom(item.getClass()))
+            .map(itemClass::cast);
+    }
+
     @SuppressWarnings("unchecked") // item.getClass() -> Class<?>, but type is T. So cast as Class<T> is OK.
+    @Override
+    public <T extends Model> void loadAssociation(
+            @NonNull final Class<T> itemClass,
+            @NonNull final List<T> items,
+            @NonNull final String associationFieldName,
+            @NonNull final ResultListener<List<T>> itemsListener) {
+        // Items in memory always hold their whole associated models.
+        itemsListener.onResult(items);
+    }
+
     @Override
     public <T extends Model> void delete(
             @NonNull final T item,
             @NonNull final StorageItemChange.Initiator initiator,
             @NonNull final ResultListener<StorageItemChange.Record> itemDeletionListener) {
 
-        while (items.iterator().hasNext()) {
-            Model next = items.iterator().next();
-            if (next.equals(item)) {
-                items.remove(item);
-                StorageItemChange.Record deletion = StorageItemChange.<T>builder()
-                    .item(item)
-                    .itemClass((Class<T>) item.getClass())
-                    .type(StorageItemChange.Type.DELETE)
-                    .initiator(initiator)
-                    .build()
-                    .toRecord(storageItemChangeConverter);
-                itemDeletionListener.onResult(deletion);
-                changeRecordStream.onNext(deletion);
-            }
+        // Like a SQL DELETE, deleting an item that is not in storage succeeds.
+        items.remove(item);
+        StorageItemChange.Record deletion = StorageItemChange.<T>builder()
+            .item(item)
+            .itemClass((Class<T>) item.getClass())
+            .type(StorageItemChange.Type.DELETE)
+            .initiator(initiator)
+            .build()
+            .toRecord(storageItemChangeConverter);
+        itemDeletionListener.onResult(deletion);
+        changeRecordStream.onNext(deletion);
+    }
+
+    @SuppressWarnings("unchecked") // item.getClass() -> Class<?>, but type is T. So cast as Class<T> is OK.
+    @Override
+    public <T extends Model> void deleteAll(
+            @NonNull final Collection<T> items,
+            @NonNull final StorageItemChange.Initiator initiator,
+            @NonNull final ResultListener<List<StorageItemChange.Record>> itemsDeletionListener) {
+        List<StorageItemChange.Record> deletions = new ArrayList<>();
+        for (T item : items) {
+            this.items.remove(item);
+            deletions.add(StorageItemChange.<T>builder()
+                .item(item)
+                .itemClass((Class<T>) item.getClass())
+                .type(StorageItemChange.Type.DELETE)
+                .initiator(initiator)
+                .build()
+                .toRecord(storageItemChangeConverter));
+        }
+        for (StorageItemChange.Record deletion : deletions) {
+            changeRecordStream.onNext(deletion);
+        }
+        itemsDeletionListener.onResult(deletions);
+    }
+
+    @SuppressWarnings("unchecked") // item.getClass() -> Class<?>, but type is T. So cast as Class<T> is OK.
+    @Override
+    public <T extends Model> void saveAndDeleteAll(
+            @NonNull final Collection<T> itemsToSave,
+            @NonNull final Collection<T> itemsToDelete,
+            @NonNull final StorageItemChange.Initiator initiator,
+            @NonNull final ResultListener<List<StorageItemChange.Record>> itemsChangeListener) {
+        List<StorageItemChange.Record> changes = new ArrayList<>();
+        for (T item : itemsToSave) {
+            this.items.add(item);
+            changes.add(StorageItemChange.<T>builder()
+                .item(item)
+                .itemClass((Class<T>) item.getClass())
+                .type(StorageItemChange.Type.SAVE)
+                .initiator(initiator)
+                .build()
+                .toRecord(storageItemChangeConverter));
+        }
+        for (T item : itemsToDelete) {
+            this.items.remove(item);
+            changes.add(StorageItemChange.<T>builder()
+                .item(item)
+                .itemClass((Class<T>) item.getClass())
+                .type(StorageItemChange.Type.DELETE)
+                .initiator(initiator)
+                .build()
+                .toRecord(storageItemChangeConverter));
+        }
+        for (StorageItemChange.Record change : changes) {
+            changeRecordStream.onNext(change);
         }
+        itemsChangeListener.onResult(changes);
     }
 
     @Override
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.storage.sqlite;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.core.model.types.JavaFieldType;
+import com.amplifyframework.testmodels.commentsblog.Blog;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the {@link ModelBindingPlan}.
+ */
+public class ModelBindingPlanTest {
+
+    /**
+     * A binding plan binds each column at the position it has in
+     * the sorted column list, using the Java type of its backing field.
+     * @throws AmplifyException On failure to build a schema or a plan
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Blog has three columns
+    @Test
+    public void planBindsColumnsInSortedOrder() throws AmplifyException {
+        final ModelBindingPlan plan =
+            ModelBindingPlan.from(Blog.class, ModelSchema.fromModelClass(Blog.class));
+        assertEquals("Blog", plan.tableName());
+        assertEquals(3, plan.columnCount());
+
+        final Map<String, ModelBindingPlan.ColumnBinding> bindings = new HashMap<>();
+        for (ModelBindingPlan.ColumnBinding binding : plan.columnBindings()) {
+            bindings.put(binding.column().getName(), binding);
+        }
+
+        // Primary key first, then other columns alphabetically, then foreign keys.
+        assertEquals(1, bindings.get("id").columnIndex());
+        assertEquals(JavaFieldType.STRING, bindings.get("id").javaFieldType());
+        assertEquals(2, bindings.get("name").columnIndex());
+        assertEquals(JavaFieldType.STRING, bindings.get("name").javaFieldType());
+        assertEquals(3, bindings.get("blogOwnerId").columnIndex());
+        assertEquals(JavaFieldType.MODEL, bindings.get("blogOwnerId").javaFieldType());
+    }
+
+    /**
+     * A column binding reads the value of its field from a model instance.
+     * @throws AmplifyException On failure to build a schema or a plan
+     * @throws IllegalAccessException On failure to read a field
+     */
+    @Test
+    public void columnBindingReadsFieldValue() throws AmplifyException, IllegalAccessException {
+        final BlogOwner owner = BlogOwner.builder()
+            .name("Jameson Williams")
+            .build();
+        final Blog blog = Blog.builder()
+            .name("Jameson's Blog")
+            .owner(owner)
+            .build();
+
+        final ModelBindingPlan plan =
+            ModelBindingPlan.from(Blog.class, ModelSchema.fromModelClass(Blog.class));
+        for (ModelBindingPlan.ColumnBinding binding : plan.columnBindings()) {
+            switch (binding.column().getName()) {
+                case "id":
+                    assertEquals(blog.getId(), binding.valueOf(blog));
+                    break;
+                case "name":
+                    assertEquals(blog.getName(), binding.valueOf(blog));
+                    break;
+                case "blogOwnerId":
+                    assertEquals(owner, binding.valueOf(blog));
+                    break;
+                default:
+                    throw new AssertionError("Unexpected column " + binding.column().getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.datastore.storage.sqlite;
+
+import android.database.MatrixCursor;
+import android.os.Build;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.ModelSchema;
+import com.amplifyframework.testmodels.commentsblog.Blog;
+import com.amplifyframework.testmodels.commentsblog.BlogOwner;
+import com.amplifyframework.testmodels.commentsblog.Post;
+import com.amplifyframework.testmodels.commentsblog.PostStatus;
+
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link ModelMaterializer}.
+ */
+@Config(sdk = Build.VERSION_CODES.P, manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class ModelMaterializerTest {
+    private Gson gson;
+    private Map<String, ModelMaterializer> materializers;
+
+    /**
+     * Creates materializers for the models that are used by the tests.
+     * @throws AmplifyException On failure to build a schema or a binding plan
+     */
+    @Before
+    public void createMaterializers() throws AmplifyException {
+        gson = new Gson();
+        materializers = new HashMap<>();
+        for (Class<? extends Model> modelClass : new Class[] {Blog.class, BlogOwner.class, Post.class}) {
+            final ModelSchema modelSchema = ModelSchema.fromModelClass(modelClass);
+            final ModelBindingPlan bindingPlan = ModelBindingPlan.from(modelClass, modelSchema);
+            materializers.put(modelSchema.getName(), ModelMaterializer.from(bindingPlan, gson));
+        }
+    }
+
+    /**
+     * A model that is referenced by a foreign key is read from the
+     * columns of the joined table, in the same row.
+     * @throws AmplifyException On failure to read a model
+     */
+    @Test
+    public void readsModelWithForeignKeyFromJoinedColumns() throws AmplifyException {
+        final BlogOwner owner = BlogOwner.builder()
+            .name("Jameson Williams")
+            .build();
+        final Blog blog = Blog.builder()
+            .name("Jameson's Blog")
+            .owner(owner)
+            .build();
+
+        final MatrixCursor cursor = new MatrixCursor(new String[] {
+            "Blog_id", "Blog_name", "Blog_blogOwnerId", "BlogOwner_id", "BlogOwner_name", "BlogOwner_wea"
+        });
+        cursor.addRow(new Object[] {
+            blog.getId(), blog.getName(), owner.getId(), owner.getId(), owner.getName(), null
+        });
+
+        assertTrue(cursor.moveToFirst());
+        final Model model = materializers.get("Blog").readerFor(cursor, materializers).read(cursor);
+        assertEquals(blog, model);
+        assertEquals(owner, ((Blog) model).getOwner());
+    }
+
+    /**
+     * A model that is referenced by a foreign key, but whose table was not
+     * joined, is read as a reference which only has its ID.
+     * @throws AmplifyException On failure to read a model
+     */
+    @Test
+    public void readsModelWithLazyForeignKeyAsReference() throws AmplifyException {
+        final BlogOwner owner = BlogOwner.builder()
+            .name("Jameson Williams")
+            .build();
+        final Blog blog = Blog.builder()
+            .name("Jameson's Blog")
+            .owner(owner)
+            .build();
+
+        final MatrixCursor cursor = new MatrixCursor(new String[] {"Blog_id", "Blog_name", "Blog_blogOwnerId"});
+        cursor.addRow(new Object[] {blog.getId(), blog.getName(), owner.getId()});
+
+        assertTrue(cursor.moveToFirst());
+        final Blog materialized = (Blog) materializers.get("Blog").readerFor(cursor, materializers).read(cursor);
+        assertEquals(blog.getName(), materialized.getName());
+        assertEquals(owner.getId(), materialized.getOwner().getId());
+        assertNull(materialized.getOwner().getName());
+    }
+
+    /**
+     * A copy of a model holds a different value in one field, and the
+     * same values in all of the others. The model that is copied is left unchanged.
+     * @throws AmplifyException On failure to copy a model
+     */
+    @Test
+    public void copyHoldsNewValueAndLeavesModelUnchanged() throws AmplifyException {
+        final BlogOwner owner = BlogOwner.builder()
+            .name("Jameson Williams")
+            .build();
+        final BlogOwner reference = BlogOwner.justId(owner.getId());
+        final Blog blog = Blog.builder()
+            .name("Jameson's Blog")
+            .owner(reference)
+            .build();
+
+        final ModelMaterializer materializer = materializers.get("Blog");
+        ModelBindingPlan.ColumnBinding ownerBinding = null;
+        for (ModelBindingPlan.ColumnBinding columnBinding : materializer.bindingPlan().columnBindings()) {
+            if ("owner".equals(columnBinding.fieldName())) {
+                ownerBinding = columnBinding;
+            }
+        }
+        assertNotNull(ownerBinding);
+
+        final Blog copy = materializer.copyOf(blog, ownerBinding, owner);
+        assertNotSame(blog, copy);
+        assertEquals(blog.getId(), copy.getId());
+        assertEquals(blog.getName(), copy.getName());
+        assertSame(owner, copy.getOwner());
+        assertSame(reference, blog.getOwner());
+    }
+
+    /**
+     * Enum and numeric columns are read into fields of the matching
+     * Java types, and a null foreign key leaves the model field null.
+     * @throws AmplifyException On failure to read a model
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary rating
+    @Test
+    public void readsEnumAndIntegerFieldsAndNullForeignKey() throws AmplifyException {
+        final Post post = Post.builder()
+            .title("Materializing models")
+            .status(PostStatus.ACTIVE)
+            .rating(5)
+            .build();
+
+        final MatrixCursor cursor = new MatrixCursor(new String[] {
+            "Post_id", "Post_rating", "Post_status", "Post_title", "Post_postBlogId"
+        });
+        cursor.addRow(new Object[] {
+            post.getId(), 5, gson.toJson(PostStatus.ACTIVE), post.getTitle(), null
+        });
+
+        assertTrue(cursor.moveToFirst());
+        final Post materialized =
+            (Post) materializers.get("Post").readerFor(cursor, materializers).read(cursor);
+        assertEquals(post, materialized);
+        assertEquals(PostStatus.ACTIVE, materialized.getStatus());
+        assertEquals(Integer.valueOf(5), materialized.getRating());
+        assertNull(materialized.getBlog());
+    }
+}
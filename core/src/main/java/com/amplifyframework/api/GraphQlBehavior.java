@@ -400,7 +400,9 @@ public interface GraphQlBehavior {
      * @param graphQlRequest Wrapper for request details
      * @param subscriptionListener
      *        A listener to receive notifications when new items are
-     *        available via the subscription stream
+     *        available via the subscription stream. If it is a
+     *        {@link com.amplifyframework.api.graphql.SubscriptionListener},
+     *        it is also told when the subscription has been established
      * @param <T> The type of data expected in the subscription stream
      * @return A GraphQLOperation representing this ongoing subscription
      */
@@ -183,7 +183,9 @@ public final class GraphQLResponse<T> {
          *        interpreted
          * @param <T> The type of the elements in the data field list in the response object
          * @return An instance of the casting class which models the data
-         *         provided in the response JSON string
+         *         provided in the response JSON string. If the data is a list
+         *         object, with an array of items, it is a {@link PaginatedResult}
+         *         of those items, which keeps the token of the next page.
          * @throws ApiException If the class provided mismatches the data
          */
         <T> GraphQLResponse<Iterable<T>> buildSingleArrayResponse(String apiResponseJson, Class<T> classToCast)
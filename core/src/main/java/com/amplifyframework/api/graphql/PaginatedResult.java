@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.graphql;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of the items of a list query. A list query responds with an object that holds
+ * an array of items, along with a token to pass to the same query to get the next page of
+ * items. The data of a response to a list query is a page, as an Iterable of its items.
+ *
+ * A sync query, which lists the changes to a model since a given time, also reports
+ * the time on the server when the sync started, for use as the time of the next sync.
+ * @param <T> Type of the items
+ */
+public final class PaginatedResult<T> implements Iterable<T> {
+    private final List<T> items;
+    private final String nextToken;
+    private final Long startedAt;
+
+    /**
+     * Constructs a new PaginatedResult.
+     * @param items The items of the page
+     * @param nextToken Token of the next page, or null if this page is the last one
+     * @param startedAt For a sync query, the time on the server when the sync started,
+     *                  in milliseconds; otherwise null
+     */
+    public PaginatedResult(@NonNull Iterable<T> items, @Nullable String nextToken, @Nullable Long startedAt) {
+        final List<T> itemList = new ArrayList<>();
+        for (T item : Objects.requireNonNull(items)) {
+            itemList.add(item);
+        }
+        this.items = Collections.unmodifiableList(itemList);
+        this.nextToken = nextToken;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Gets the items of the page.
+     * @return The items of the page
+     */
+    @NonNull
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the token to pass to the query to get the next page.
+     * @return Token of the next page, or null if this page is the last one
+     */
+    @Nullable
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Checks whether there is a page after this one.
+     * @return true if there is a page after this one
+     */
+    public boolean hasNextPage() {
+        return nextToken != null;
+    }
+
+    /**
+     * Gets the time on the server when the sync query that returned this page started.
+     * @return Time that the sync started, in milliseconds, or null if this is not a page of a sync
+     */
+    @Nullable
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    @NonNull
+    @Override
+    public Iterator<T> iterator() {
+        return items.iterator();
+    }
+
+    @Override
+    public boolean equals(Object thatObject) {
+        if (this == thatObject) {
+            return true;
+        }
+        if (thatObject == null || getClass() != thatObject.getClass()) {
+            return false;
+        }
+
+        PaginatedResult<?> that = (PaginatedResult<?>) thatObject;
+
+        if (!items.equals(that.items)) {
+            return false;
+        }
+        if (!ObjectsCompat.equals(nextToken, that.nextToken)) {
+            return false;
+        }
+        return ObjectsCompat.equals(startedAt, that.startedAt);
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    @Override
+    public int hashCode() {
+        int result = items.hashCode();
+        result = 31 * result + (nextToken != null ? nextToken.hashCode() : 0);
+        result = 31 * result + (startedAt != null ? startedAt.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PaginatedResult{" +
+            "items=" + items +
+            ", nextToken='" + nextToken + '\'' +
+            ", startedAt=" + startedAt +
+            '}';
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.api.graphql;
+
+import com.amplifyframework.core.StreamListener;
+
+/**
+ * A StreamListener for the responses to a GraphQL subscription, which is
+ * also told when the subscription has been established, and when it has been
+ * established again after an outage.
+ *
+ * When the listener that is passed to
+ * {@link com.amplifyframework.api.GraphQlBehavior#subscribe(GraphQLRequest, StreamListener)}
+ * is a SubscriptionListener, the API plugin calls {@link #onStarted()} once the
+ * service has acknowledged the subscription. Responses to events that happen
+ * before then are not received. Nor are responses to events that happen while
+ * the connection is down: a listener which needs them should query for them
+ * when it is told that the subscription has {@link #onResumed() resumed}.
+ * @param <T> The type of the responses to the subscription
+ */
+public interface SubscriptionListener<T> extends StreamListener<T> {
+
+    /**
+     * Called at most once, when the service has acknowledged the subscription,
+     * and before any call to {@link #onNext(Object)}. Not called if the
+     * subscription fails, or is canceled, before it is acknowledged.
+     */
+    void onStarted();
+
+    /**
+     * Called each time that the subscription has been acknowledged again, after the
+     * connection that it was on was lost and then re-established. Any event which
+     * happened in between has been missed.
+     */
+    void onResumed();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.core.model.query;
+
+/**
+ * When the model at the other end of an association is read, by a query.
+ */
+public enum QueryFetchMode {
+    /**
+     * Read the associated model along with the results of the query.
+     */
+    EAGER,
+
+    /**
+     * Read only the ID of the associated model along with the results of the query.
+     * The association field of each result holds a reference: an instance of the
+     * associated model which has its ID, and whose other fields, even required ones,
+     * are null. The rest of the associated model is read later, when it is asked for.
+     */
+    LAZY
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.core.model.query;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.ObjectsCompat;
+
+import java.util.Objects;
+
+/**
+ * Decides when a query reads the model at the other end of an association field.
+ */
+public final class QueryFetchPlan {
+    private final String field;
+    private final QueryFetchMode fetchMode;
+
+    /**
+     * Constructs a new QueryFetchPlan for an association field and a fetch mode.
+     * @param field the name of the association field, or of its foreign key
+     * @param fetchMode when the associated model is read
+     */
+    public QueryFetchPlan(@NonNull String field, @NonNull QueryFetchMode fetchMode) {
+        this.field = Objects.requireNonNull(field);
+        this.fetchMode = Objects.requireNonNull(fetchMode);
+    }
+
+    /**
+     * Returns the name of the association field, or of its foreign key.
+     * @return the name of the association field, or of its foreign key
+     */
+    @NonNull
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Returns when the associated model is read.
+     * @return when the associated model is read
+     */
+    @NonNull
+    public QueryFetchMode getFetchMode() {
+        return fetchMode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        } else {
+            QueryFetchPlan fetchPlan = (QueryFetchPlan) obj;
+            return ObjectsCompat.equals(field, fetchPlan.field) &&
+                    ObjectsCompat.equals(fetchMode, fetchPlan.fetchMode);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(field, fetchMode);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryFetchPlan { field: " + field + ", fetchMode: " + fetchMode + " }";
+    }
+}
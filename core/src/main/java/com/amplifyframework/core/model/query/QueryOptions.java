@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.core.model.query;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+import com.amplifyframework.util.Immutable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Options that shape the results of a query: the order in which results
+ * are returned, the most results to return at once, where to resume
+ * from when reading the results one page at a time, and when the models
+ * at the other end of association fields are read.
+ *
+ * Pages are read with a keyset cursor, not an offset. To read the page
+ * after a given item, pass the values of that item's sort fields, followed
+ * by its ID, to {@link Builder#startAfter(Object...)}. The ID breaks ties
+ * between items that have the same values for all of the sort fields,
+ * and may be omitted if the results are already sorted by ID.
+ *
+ * For example:
+ *<pre>
+ *     {@code
+ *     QueryOptions firstPage = QueryOptions.builder()
+ *         .sortBy(Post.CREATED_AT.descending())
+ *         .pageSize(50)
+ *         .build();
+ *     QueryOptions nextPage = QueryOptions.builder()
+ *         .sortBy(Post.CREATED_AT.descending())
+ *         .pageSize(50)
+ *         .startAfter(lastPost.getCreatedAt(), lastPost.getId())
+ *         .build();
+ *     }
+ *</pre>
+ *
+ * By default, associated models are read eagerly, along with the results. A list
+ * which does not show its associated models can read them lazily instead. Each
+ * result then only holds a reference to the associated model, which has its ID and
+ * no other values, not even required ones. Loading the associated models, for a whole
+ * page of results at a time, returns new instances of the results which hold them.
+ *<pre>
+ *     {@code
+ *     QueryOptions listPage = QueryOptions.builder()
+ *         .fetch(QueryFetchMode.LAZY)
+ *         .fetch(Post.BLOG.eager())
+ *         .build();
+ *     }
+ *</pre>
+ */
+public final class QueryOptions {
+    private final List<QuerySortBy> sortBy;
+    private final Integer pageSize;
+    private final List<Object> startAfter;
+    private final QueryFetchMode fetchMode;
+    private final List<QueryFetchPlan> fetchPlans;
+
+    private QueryOptions(Builder builder) {
+        this.sortBy = Immutable.of(builder.sortBy);
+        this.pageSize = builder.pageSize;
+        this.startAfter = builder.startAfter == null ? null : Immutable.of(builder.startAfter);
+        this.fetchMode = builder.fetchMode;
+        this.fetchPlans = Immutable.of(builder.fetchPlans);
+    }
+
+    /**
+     * Gets a builder of query options.
+     * @return A builder of query options
+     */
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the fields to sort the results by, in order of precedence.
+     * @return the fields to sort the results by, possibly empty
+     */
+    @NonNull
+    public List<QuerySortBy> getSortBy() {
+        return sortBy;
+    }
+
+    /**
+     * Returns the most results to return at once.
+     * @return the most results to return at once, or null if there is no limit
+     */
+    @Nullable
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the values of the sort fields of the item after which results begin.
+     * @return the values of the sort fields of the item after which results begin,
+     *         or null if results begin with the first item
+     */
+    @Nullable
+    public List<Object> getStartAfter() {
+        return startAfter;
+    }
+
+    /**
+     * Returns when associated models are read, unless a fetch plan says otherwise.
+     * @return when associated models are read by default
+     */
+    @NonNull
+    public QueryFetchMode getFetchMode() {
+        return fetchMode;
+    }
+
+    /**
+     * Returns the fetch plans of particular association fields, which take precedence
+     * over the default fetch mode.
+     * @return the fetch plans of particular association fields, possibly empty
+     */
+    @NonNull
+    public List<QueryFetchPlan> getFetchPlans() {
+        return fetchPlans;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        } else {
+            QueryOptions options = (QueryOptions) obj;
+            return ObjectsCompat.equals(sortBy, options.sortBy) &&
+                    ObjectsCompat.equals(pageSize, options.pageSize) &&
+                    ObjectsCompat.equals(startAfter, options.startAfter) &&
+                    ObjectsCompat.equals(fetchMode, options.fetchMode) &&
+                    ObjectsCompat.equals(fetchPlans, options.fetchPlans);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(sortBy, pageSize, startAfter, fetchMode, fetchPlans);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryOptions { sortBy: " + sortBy +
+                ", pageSize: " + pageSize +
+                ", startAfter: " + startAfter +
+                ", fetchMode: " + fetchMode +
+                ", fetchPlans: " + fetchPlans + " }";
+    }
+
+    /**
+     * A utility that can be used to configure and construct immutable
+     * instances of {@link QueryOptions}, by chaining fluent configuration
+     * method calls.
+     */
+    public static final class Builder {
+        private final List<QuerySortBy> sortBy;
+        private Integer pageSize;
+        private List<Object> startAfter;
+        private QueryFetchMode fetchMode;
+        private final List<QueryFetchPlan> fetchPlans;
+
+        Builder() {
+            this.sortBy = new ArrayList<>();
+            this.fetchMode = QueryFetchMode.EAGER;
+            this.fetchPlans = new ArrayList<>();
+        }
+
+        /**
+         * Adds fields to sort the results by. Fields that are added first take
+         * precedence over fields that are added later.
+         * @param sortBy Fields to sort the results by
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder sortBy(@NonNull QuerySortBy... sortBy) {
+            for (QuerySortBy field : Objects.requireNonNull(sortBy)) {
+                this.sortBy.add(Objects.requireNonNull(field));
+            }
+            return this;
+        }
+
+        /**
+         * Limits the number of results that are returned at once.
+         * @param pageSize The most results to return, must be positive
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder pageSize(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be positive, but was " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Begins the results after the item that has the given values for the sort fields.
+         * Values are given in the same order as the sort fields, and are followed by the
+         * ID of the item, unless the results are already sorted by ID.
+         * @param values Values of the sort fields of the last item on the previous page
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder startAfter(@NonNull Object... values) {
+            this.startAfter = new ArrayList<>(Arrays.asList(Objects.requireNonNull(values)));
+            return this;
+        }
+
+        /**
+         * Sets when associated models are read, for the association fields
+         * which have no fetch plan of their own.
+         * @param fetchMode When associated models are read by default
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder fetch(@NonNull QueryFetchMode fetchMode) {
+            this.fetchMode = Objects.requireNonNull(fetchMode);
+            return this;
+        }
+
+        /**
+         * Adds fetch plans for particular association fields. A plan that is added
+         * later overrides an earlier plan for the same field.
+         * @param fetchPlans Fetch plans of association fields
+         * @return Current Builder instance, for fluent method chaining
+         */
+        @NonNull
+        public Builder fetch(@NonNull QueryFetchPlan... fetchPlans) {
+            for (QueryFetchPlan fetchPlan : Objects.requireNonNull(fetchPlans)) {
+                this.fetchPlans.add(Objects.requireNonNull(fetchPlan));
+            }
+            return this;
+        }
+
+        /**
+         * Builds an immutable instance of query options.
+         * @return Query options
+         */
+        @NonNull
+        public QueryOptions build() {
+            return new QueryOptions(this);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.core.model.query;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.ObjectsCompat;
+
+import java.util.Objects;
+
+/**
+ * Sorts the results of a query by the value of a model field.
+ */
+public final class QuerySortBy {
+    private final String field;
+    private final QuerySortOrder sortOrder;
+
+    /**
+     * Constructs a new QuerySortBy for a model field and a sort order.
+     * @param field the name of the model field to sort by
+     * @param sortOrder the direction in which to sort by the field
+     */
+    public QuerySortBy(@NonNull String field, @NonNull QuerySortOrder sortOrder) {
+        this.field = Objects.requireNonNull(field);
+        this.sortOrder = Objects.requireNonNull(sortOrder);
+    }
+
+    /**
+     * Returns the name of the model field to sort by.
+     * @return the name of the model field to sort by
+     */
+    @NonNull
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Returns the direction in which to sort by the field.
+     * @return the direction in which to sort by the field
+     */
+    @NonNull
+    public QuerySortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        } else {
+            QuerySortBy sortBy = (QuerySortBy) obj;
+            return ObjectsCompat.equals(field, sortBy.field) &&
+                    ObjectsCompat.equals(sortOrder, sortBy.sortOrder);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(field, sortOrder);
+    }
+
+    @Override
+    public String toString() {
+        return "QuerySortBy { field: " + field + ", sortOrder: " + sortOrder + " }";
+    }
+}
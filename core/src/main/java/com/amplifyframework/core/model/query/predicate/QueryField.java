@@ -15,6 +15,11 @@
 
 package com.amplifyframework.core.model.query.predicate;
 
+import com.amplifyframework.core.model.query.QueryFetchMode;
+import com.amplifyframework.core.model.query.QueryFetchPlan;
+import com.amplifyframework.core.model.query.QuerySortBy;
+import com.amplifyframework.core.model.query.QuerySortOrder;
+
 /**
  * Represents a property in a model with methods for chaining conditions.
  */
@@ -120,4 +125,38 @@ public final class QueryField {
     public QueryPredicateOperation ne(Object value) {
         return new QueryPredicateOperation(fieldName, new NotEqualQueryOperator(value));
     }
+
+    /**
+     * Generates a new sort object to sort query results by this field, in ascending order.
+     * @return a sort object representing the ascending order of this field
+     */
+    public QuerySortBy ascending() {
+        return new QuerySortBy(fieldName, QuerySortOrder.ASCENDING);
+    }
+
+    /**
+     * Generates a new sort object to sort query results by this field, in descending order.
+     * @return a sort object representing the descending order of this field
+     */
+    public QuerySortBy descending() {
+        return new QuerySortBy(fieldName, QuerySortOrder.DESCENDING);
+    }
+
+    /**
+     * Generates a new fetch plan, which reads the model associated by this field along
+     * with the results of a query.
+     * @return a fetch plan representing the eager reading of this association
+     */
+    public QueryFetchPlan eager() {
+        return new QueryFetchPlan(fieldName, QueryFetchMode.EAGER);
+    }
+
+    /**
+     * Generates a new fetch plan, which reads only the ID of the model associated by this
+     * field along with the results of a query. The rest of the model is read later, on demand.
+     * @return a fetch plan representing the lazy reading of this association
+     */
+    public QueryFetchPlan lazy() {
+        return new QueryFetchPlan(fieldName, QueryFetchMode.LAZY);
+    }
 }
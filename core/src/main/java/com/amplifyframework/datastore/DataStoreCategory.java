@@ -22,10 +22,14 @@ import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.core.category.Category;
 import com.amplifyframework.core.category.CategoryType;
 import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 
 /**
@@ -65,6 +69,24 @@ public class DataStoreCategory
         getSelectedPlugin().delete(object, deleteItemListener);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void saveAll(@NonNull Collection<T> objects,
+                                          @NonNull ResultListener<List<DataStoreItemChange<T>>> saveItemsListener) {
+        getSelectedPlugin().saveAll(objects, saveItemsListener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void deleteAll(@NonNull Collection<T> objects,
+                                            @NonNull ResultListener<List<DataStoreItemChange<T>>> deleteItemsListener) {
+        getSelectedPlugin().deleteAll(objects, deleteItemsListener);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -84,6 +106,39 @@ public class DataStoreCategory
         getSelectedPlugin().query(itemClass, predicate, queryResultsListener);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void query(@NonNull Class<T> itemClass,
+                                        @Nullable QueryPredicate predicate,
+                                        @Nullable QueryOptions options,
+                                        @NonNull ResultListener<Iterator<T>> queryResultsListener) {
+        getSelectedPlugin().query(itemClass, predicate, options, queryResultsListener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public <T extends Model> Flowable<T> stream(@NonNull Class<T> itemClass,
+                                                @Nullable QueryPredicate predicate,
+                                                @Nullable QueryOptions options) {
+        return getSelectedPlugin().stream(itemClass, predicate, options);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends Model> void loadAssociation(@NonNull Class<T> itemClass,
+                                                  @NonNull List<T> items,
+                                                  @NonNull String associationFieldName,
+                                                  @NonNull ResultListener<List<T>> itemsListener) {
+        getSelectedPlugin().loadAssociation(itemClass, items, associationFieldName, itemsListener);
+    }
+
     /**
      * {@inheritDoc}
      */
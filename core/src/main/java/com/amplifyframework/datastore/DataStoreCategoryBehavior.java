@@ -21,10 +21,14 @@ import androidx.annotation.Nullable;
 import com.amplifyframework.core.ResultListener;
 import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.ModelField;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.query.predicate.QueryPredicate;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 
 /**
@@ -59,6 +63,32 @@ public interface DataStoreCategoryBehavior {
             @NonNull T item,
             @NonNull ResultListener<DataStoreItemChange<T>> deleteItemListener);
 
+    /**
+     * Saves a collection of items into the DataStore, all at once.
+     * Either all of the items are saved, or none of them are.
+     * @param items Items to save
+     * @param saveItemsListener
+     *        An optional listener which will be callback'd when the save succeeds or fails.
+     *        On success, it receives one change per item
+     * @param <T> The type of items being saved
+     */
+    <T extends Model> void saveAll(
+            @NonNull Collection<T> items,
+            @NonNull ResultListener<List<DataStoreItemChange<T>>> saveItemsListener);
+
+    /**
+     * Deletes a collection of items from the DataStore, all at once.
+     * Either all of the items are deleted, or none of them are.
+     * @param items Items to delete from the DataStore
+     * @param deleteItemsListener
+     *        An optional listener which will be invoked when the deletion succeeds or fails.
+     *        On success, it receives one change per item
+     * @param <T> The type of items being deleted
+     */
+    <T extends Model> void deleteAll(
+            @NonNull Collection<T> items,
+            @NonNull ResultListener<List<DataStoreItemChange<T>>> deleteItemsListener);
+
     /**
      * Query the DataStore to find all items of the requested Java class.
      * @param itemClass Items of this class will be targeted by this query
@@ -85,6 +115,60 @@ public interface DataStoreCategoryBehavior {
                                  @Nullable QueryPredicate predicate,
                                  @NonNull ResultListener<Iterator<T>> queryResultsListener);
 
+    /**
+     * Query the DataStore to find items of the requested Java class that fulfill the
+     * predicate, in the order and page that are described by the query options.
+     * @param itemClass Items of this class will be targeted by this query
+     * @param predicate Predicate condition to apply to query
+     * @param options Sort order, page size and keyset cursor to apply to the results
+     * @param queryResultsListener
+     *        An optional listener which will be invoked when the query returns
+     *        results, or if there is a failure to query
+     * @param <T> The type of items being queried
+     */
+    <T extends Model> void query(@NonNull Class<T> itemClass,
+                                 @Nullable QueryPredicate predicate,
+                                 @Nullable QueryOptions options,
+                                 @NonNull ResultListener<Iterator<T>> queryResultsListener);
+
+    /**
+     * Query the DataStore for items of the requested Java class that fulfill the
+     * predicate, in the order and page that are described by the query options, as
+     * a stream. Unlike {@link #query(Class, QueryPredicate, QueryOptions, ResultListener)},
+     * the results are not read all at once: items are read from storage only as they
+     * are requested by the subscriber. Cancel the subscription to stop reading early.
+     * @param itemClass Items of this class will be targeted by this query
+     * @param predicate Predicate condition to apply to query
+     * @param options Sort order, page size and keyset cursor to apply to the results
+     * @param <T> The type of items being queried
+     * @return A stream of the items which match the query, which reads them from
+     *         storage when it is subscribed, and completes after the last one
+     */
+    @NonNull
+    <T extends Model> Flowable<T> stream(@NonNull Class<T> itemClass,
+                                         @Nullable QueryPredicate predicate,
+                                         @Nullable QueryOptions options);
+
+    /**
+     * Load the models at the other end of an association, for items which were queried
+     * with a lazy fetch plan for that association. The associated models of all of the
+     * items are loaded together, e.g., for the page of results that is about to be shown.
+     * The items that are passed in are left unchanged; use the items that the listener
+     * is invoked with instead.
+     * @param itemClass Class of the items
+     * @param items Items whose associated models are loaded
+     * @param associationFieldName Name of the association field, or of its foreign key
+     * @param itemsListener
+     *        A listener which will be invoked with new instances of the items, in the same
+     *        order, once their associated models have been loaded, or if there is a failure
+     *        to load them
+     * @param <T> The type of the items
+     */
+    <T extends Model> void loadAssociation(@NonNull Class<T> itemClass,
+                                           @NonNull List<T> items,
+                                           @NonNull String associationFieldName,
+                                           @NonNull ResultListener<List<T>> itemsListener);
+
 
     /**
      * Observe all changes to any/all item(s) in the DataStore.
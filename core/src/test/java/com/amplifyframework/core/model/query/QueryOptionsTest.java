@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.core.model.query;
+
+import com.amplifyframework.core.model.query.predicate.QueryField;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Tests the class {@link QueryOptions}.
+ */
+public class QueryOptionsTest {
+
+    /**
+     * Test if we can create a QueryOptions object with builder,
+     * and that sort fields keep the order in which they were added.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber") // Arbitrary page size and keyset values
+    @Test
+    public void testInitialize() {
+        final QueryOptions options = QueryOptions.builder()
+                .sortBy(QueryField.field("rating").descending())
+                .sortBy(QueryField.field("title").ascending())
+                .pageSize(50)
+                .startAfter(5, "title", "id")
+                .build();
+        Assert.assertEquals(
+                Arrays.asList(
+                        new QuerySortBy("rating", QuerySortOrder.DESCENDING),
+                        new QuerySortBy("title", QuerySortOrder.ASCENDING)),
+                options.getSortBy());
+        Assert.assertEquals(Integer.valueOf(50), options.getPageSize());
+        Assert.assertEquals(Arrays.<Object>asList(5, "title", "id"), options.getStartAfter());
+    }
+
+    /**
+     * Test that options which are not set are empty, rather than defaulted.
+     */
+    @Test
+    public void testDefaults() {
+        final QueryOptions options = QueryOptions.builder().build();
+        Assert.assertTrue(options.getSortBy().isEmpty());
+        Assert.assertNull(options.getPageSize());
+        Assert.assertNull(options.getStartAfter());
+    }
+
+    /**
+     * Test that associations are read eagerly by default, and that fetch
+     * plans of particular fields are kept in the order in which they were added.
+     */
+    @Test
+    public void testFetchPlans() {
+        Assert.assertEquals(QueryFetchMode.EAGER, QueryOptions.builder().build().getFetchMode());
+        Assert.assertTrue(QueryOptions.builder().build().getFetchPlans().isEmpty());
+
+        final QueryOptions options = QueryOptions.builder()
+                .fetch(QueryFetchMode.LAZY)
+                .fetch(QueryField.field("postBlogId").eager())
+                .fetch(QueryField.field("blogOwnerId").lazy())
+                .build();
+        Assert.assertEquals(QueryFetchMode.LAZY, options.getFetchMode());
+        Assert.assertEquals(
+                Arrays.asList(
+                        new QueryFetchPlan("postBlogId", QueryFetchMode.EAGER),
+                        new QueryFetchPlan("blogOwnerId", QueryFetchMode.LAZY)),
+                options.getFetchPlans());
+    }
+
+    /**
+     * Test that a page must hold at least one item.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPageSizeMustBePositive() {
+        QueryOptions.builder().pageSize(0);
+    }
+}